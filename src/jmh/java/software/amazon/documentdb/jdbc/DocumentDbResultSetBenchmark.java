@@ -0,0 +1,250 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbBenchmarkData;
+import software.amazon.documentdb.jdbc.query.DocumentDbMqlQueryContext;
+import software.amazon.documentdb.jdbc.query.DocumentDbQueryMappingService;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading all the rows of a result set over a synthetic cursor of documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DocumentDbResultSetBenchmark {
+    private static final int ROW_COUNT = 10_000;
+
+    @Param({"getString", "getObject", "typed", "batch"})
+    private String getter;
+
+    private ImmutableList<JdbcColumnMetaData> columnMetaData;
+    private List<String> paths;
+    private List<Document> documents;
+
+    /**
+     * Translates a query of the generated orders table to get the columns and paths of the
+     * result, and generates the documents returned by the cursor.
+     *
+     * @throws SQLException if the query cannot be translated.
+     */
+    @Setup
+    public void setup() throws SQLException {
+        final DocumentDbQueryMappingService queryMappingService = new DocumentDbQueryMappingService(
+                DocumentDbBenchmarkData.getConnectionProperties(),
+                DocumentDbBenchmarkData.getDatabaseMetadata(
+                        DocumentDbBenchmarkData.generateDocuments(100, 0)));
+        final DocumentDbMqlQueryContext queryContext = queryMappingService.get(
+                "SELECT * FROM \"" + DocumentDbBenchmarkData.DATABASE_NAME + "\".\"orders\"");
+        columnMetaData = ImmutableList.copyOf(queryContext.getColumnMetaData());
+        paths = queryContext.getPaths();
+
+        final Random random = new Random(0);
+        documents = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            final Document document = new Document();
+            for (int column = 0; column < columnMetaData.size(); column++) {
+                putPath(document, paths.get(column),
+                        getValue(columnMetaData.get(column).getColumnType(), random));
+            }
+            documents.add(document);
+        }
+    }
+
+    /**
+     * Reads every column of every row with the getter of the benchmark.
+     *
+     * @param blackhole the sink for the values read.
+     * @throws SQLException if a value cannot be read.
+     */
+    @Benchmark
+    public void readAll(final Blackhole blackhole) throws SQLException {
+        try (DocumentDbResultSet resultSet = new DocumentDbResultSet(
+                null, new IteratorCursor(documents.iterator()), columnMetaData, paths)) {
+            final int columnCount = columnMetaData.size();
+            if ("batch".equals(getter)) {
+                readBatches(resultSet, columnCount, blackhole);
+                return;
+            }
+            while (resultSet.next()) {
+                for (int column = 1; column <= columnCount; column++) {
+                    switch (getter) {
+                        case "getString":
+                            blackhole.consume(resultSet.getString(column));
+                            break;
+                        case "getObject":
+                            blackhole.consume(resultSet.getObject(column));
+                            break;
+                        default:
+                            blackhole.consume(getTyped(resultSet,
+                                    columnMetaData.get(column - 1).getColumnType(), column));
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void readBatches(final DocumentDbResultSet resultSet, final int columnCount,
+            final Blackhole blackhole) throws SQLException {
+        resultSet.setFetchSize(1000);
+        DocumentDbColumnBatch batch = resultSet.nextBatch();
+        while (batch != null) {
+            for (int column = 1; column <= columnCount; column++) {
+                final DocumentDbColumnVector vector = batch.getColumn(column);
+                final int columnType = vector.getColumnMetaData().getColumnType();
+                for (int row = 0; row < batch.getRowCount(); row++) {
+                    switch (columnType) {
+                        case Types.DOUBLE:
+                            blackhole.consume(vector.getDouble(row));
+                            break;
+                        case Types.INTEGER:
+                        case Types.BIGINT:
+                        case Types.TIMESTAMP:
+                            blackhole.consume(vector.getLong(row));
+                            break;
+                        case Types.BOOLEAN:
+                            blackhole.consume(vector.getBoolean(row));
+                            break;
+                        default:
+                            blackhole.consume(vector.getObject(row));
+                            break;
+                    }
+                }
+            }
+            batch = resultSet.nextBatch();
+        }
+    }
+
+    private static Object getTyped(final DocumentDbResultSet resultSet, final int columnType,
+            final int column) throws SQLException {
+        switch (columnType) {
+            case Types.DOUBLE:
+                return resultSet.getDouble(column);
+            case Types.INTEGER:
+                return resultSet.getInt(column);
+            case Types.BIGINT:
+                return resultSet.getLong(column);
+            case Types.BOOLEAN:
+                return resultSet.getBoolean(column);
+            case Types.TIMESTAMP:
+                return resultSet.getTimestamp(column);
+            default:
+                return resultSet.getString(column);
+        }
+    }
+
+    private static Object getValue(final int columnType, final Random random) {
+        switch (columnType) {
+            case Types.DOUBLE:
+                return random.nextDouble() * 1000;
+            case Types.INTEGER:
+                return random.nextInt(1000);
+            case Types.BIGINT:
+                return random.nextLong();
+            case Types.BOOLEAN:
+                return random.nextBoolean();
+            case Types.TIMESTAMP:
+                return new Date(random.nextInt(Integer.MAX_VALUE) * 1000L);
+            default:
+                return "value" + random.nextInt(1000);
+        }
+    }
+
+    private static void putPath(final Document document, final String path, final Object value) {
+        final String[] segments = path.split("\\.");
+        Document parent = document;
+        for (int i = 0; i < segments.length - 1; i++) {
+            Document child = parent.get(segments[i], Document.class);
+            if (child == null) {
+                child = new Document();
+                parent.put(segments[i], child);
+            }
+            parent = child;
+        }
+        parent.put(segments[segments.length - 1], value);
+    }
+
+    /**
+     * A cursor over documents in memory.
+     */
+    private static final class IteratorCursor implements MongoCursor<Document> {
+        private final Iterator<Document> iterator;
+
+        IteratorCursor(final Iterator<Document> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Document next() {
+            return iterator.next();
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public Document tryNext() {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return null;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return new ServerAddress();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.metadata;
+
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.types.ObjectId;
+import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates the data for the benchmarks, so they do not need a database.
+ */
+public final class DocumentDbBenchmarkData {
+    public static final String DATABASE_NAME = "database";
+    public static final String COLLECTION_NAME = "orders";
+    private static final String[] STATUSES = {"new", "paid", "shipped", "delivered", "returned"};
+    private static final String[] CITIES = {"Seattle", "Vancouver", "Toronto", "Dublin", "Tokyo"};
+    private static final long START_DATE = 1609459200000L; // 2021-01-01
+    private static final long DATE_RANGE = 365L * 24 * 60 * 60 * 1000;
+
+    private DocumentDbBenchmarkData() {
+    }
+
+    /**
+     * Generates heterogeneous order documents. Fields are sometimes missing, null or of a
+     * different type, and each document has a sub-document and an array of sub-documents.
+     *
+     * @param count the number of documents to generate.
+     * @param seed the seed for the random values.
+     * @return a list of the generated documents.
+     */
+    public static List<BsonDocument> generateDocuments(final int count, final long seed) {
+        final Random random = new Random(seed);
+        final List<BsonDocument> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final BsonDocument document = new BsonDocument()
+                    .append("_id", new BsonObjectId(new ObjectId()))
+                    .append("customerId", new BsonString("customer" + random.nextInt(1000)))
+                    .append("amount", random.nextInt(10) == 0
+                            ? new BsonInt32(random.nextInt(1000))
+                            : new BsonDouble(random.nextDouble() * 1000))
+                    .append("quantity", random.nextInt(10) == 0
+                            ? new BsonInt64(random.nextInt(100))
+                            : new BsonInt32(random.nextInt(100)))
+                    .append("status", random.nextInt(20) == 0
+                            ? BsonNull.VALUE
+                            : new BsonString(STATUSES[random.nextInt(STATUSES.length)]))
+                    .append("created", new BsonDateTime(
+                            START_DATE + (long) (random.nextDouble() * DATE_RANGE)))
+                    .append("address", new BsonDocument()
+                            .append("city", new BsonString(CITIES[random.nextInt(CITIES.length)]))
+                            .append("zip", random.nextBoolean()
+                                    ? new BsonString(String.valueOf(10000 + random.nextInt(90000)))
+                                    : new BsonInt32(10000 + random.nextInt(90000))));
+            if (random.nextBoolean()) {
+                document.append("gift", BsonBoolean.valueOf(random.nextBoolean()));
+            }
+            final BsonArray items = new BsonArray();
+            final int itemCount = random.nextInt(5);
+            for (int j = 0; j < itemCount; j++) {
+                items.add(new BsonDocument()
+                        .append("sku", new BsonString("sku" + random.nextInt(10000)))
+                        .append("qty", new BsonInt32(1 + random.nextInt(10)))
+                        .append("price", new BsonDouble(random.nextDouble() * 100)));
+            }
+            document.append("items", items);
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * Gets the database metadata for the tables generated from the given documents.
+     *
+     * @param documents the documents of the orders collection.
+     * @return a {@link DocumentDbDatabaseSchemaMetadata} of the generated tables.
+     */
+    public static DocumentDbDatabaseSchemaMetadata getDatabaseMetadata(final List<BsonDocument> documents) {
+        final Map<String, DocumentDbSchemaTable> tables = DocumentDbTableSchemaGenerator
+                .generate(COLLECTION_NAME, documents.iterator());
+        return new DocumentDbDatabaseSchemaMetadata(new DocumentDbSchema(DATABASE_NAME, 1, tables));
+    }
+
+    /**
+     * Gets the connection properties for the benchmark database. No connection is made.
+     *
+     * @return a {@link DocumentDbConnectionProperties} for the benchmark database.
+     */
+    public static DocumentDbConnectionProperties getConnectionProperties() {
+        final DocumentDbConnectionProperties properties = new DocumentDbConnectionProperties();
+        properties.setHostname("localhost");
+        properties.setDatabase(DATABASE_NAME);
+        return properties;
+    }
+}
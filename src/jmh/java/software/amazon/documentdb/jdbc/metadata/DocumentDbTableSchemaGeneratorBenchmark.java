@@ -0,0 +1,63 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.metadata;
+
+import org.bson.BsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the inference of table schemas from heterogeneous documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DocumentDbTableSchemaGeneratorBenchmark {
+    @Param({"1000", "10000"})
+    private int documentCount;
+
+    private List<BsonDocument> documents;
+
+    /**
+     * Generates the documents to infer the table schemas from.
+     */
+    @Setup
+    public void setup() {
+        documents = DocumentDbBenchmarkData.generateDocuments(documentCount, documentCount);
+    }
+
+    /**
+     * Generates the table schemas for the documents.
+     *
+     * @return the generated table schemas.
+     */
+    @Benchmark
+    public Map<String, DocumentDbSchemaTable> generate() {
+        return DocumentDbTableSchemaGenerator.generate(
+                DocumentDbBenchmarkData.COLLECTION_NAME, documents.iterator());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.query;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbBenchmarkData;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the translation of SQL queries to aggregation pipelines for a corpus of query shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DocumentDbQueryMappingServiceBenchmark {
+    private static final String ORDERS = "\"" + DocumentDbBenchmarkData.DATABASE_NAME + "\".\"orders\"";
+    private static final String ORDERS_ITEMS = "\"" + DocumentDbBenchmarkData.DATABASE_NAME + "\".\"orders_items\"";
+    private static final String ORDERS_ADDRESS = "\"" + DocumentDbBenchmarkData.DATABASE_NAME + "\".\"orders_address\"";
+
+    @Param({"project", "filter", "aggregate", "join", "virtualTable", "dateFunctions"})
+    private String shape;
+
+    private DocumentDbQueryMappingService queryMappingService;
+    private String sql;
+
+    /**
+     * Creates the query mapping service over the generated tables and translates the query once,
+     * so that an invalid query fails before measuring.
+     *
+     * @throws SQLException if the query cannot be translated.
+     */
+    @Setup
+    public void setup() throws SQLException {
+        queryMappingService = new DocumentDbQueryMappingService(
+                DocumentDbBenchmarkData.getConnectionProperties(),
+                DocumentDbBenchmarkData.getDatabaseMetadata(
+                        DocumentDbBenchmarkData.generateDocuments(100, 0)));
+        sql = getSql(shape);
+        queryMappingService.get(sql);
+    }
+
+    /**
+     * Translates the query.
+     *
+     * @return the translated query context.
+     * @throws SQLException if the query cannot be translated.
+     */
+    @Benchmark
+    public DocumentDbMqlQueryContext translate() throws SQLException {
+        return queryMappingService.get(sql);
+    }
+
+    private static String getSql(final String shape) {
+        switch (shape) {
+            case "project":
+                return "SELECT \"customerId\", \"amount\", \"status\" FROM " + ORDERS;
+            case "filter":
+                return "SELECT \"customerId\", \"amount\" FROM " + ORDERS
+                        + " WHERE \"amount\" > 100 AND \"status\" IN ('paid', 'shipped')"
+                        + " AND \"customerId\" LIKE 'customer1%'";
+            case "aggregate":
+                return "SELECT \"status\", COUNT(*), SUM(\"amount\"), MAX(\"quantity\") FROM " + ORDERS
+                        + " GROUP BY \"status\" HAVING COUNT(*) > 1 ORDER BY \"status\"";
+            case "join":
+                return "SELECT o.\"customerId\", i.\"sku\", i.\"qty\" FROM " + ORDERS + " o"
+                        + " INNER JOIN " + ORDERS_ITEMS + " i"
+                        + " ON o.\"orders__id\" = i.\"orders__id\""
+                        + " WHERE i.\"qty\" > 1";
+            case "virtualTable":
+                return "SELECT \"orders__id\", \"city\", \"zip\" FROM " + ORDERS_ADDRESS
+                        + " WHERE \"city\" = 'Seattle'";
+            case "dateFunctions":
+                return "SELECT YEAR(\"created\"), MONTH(\"created\"),"
+                        + " TIMESTAMPADD(DAY, 7, \"created\") FROM " + ORDERS
+                        + " WHERE \"created\" < CURRENT_TIMESTAMP"
+                        + " AND EXTRACT(DAY FROM \"created\") > 10";
+            default:
+                throw new IllegalArgumentException("Unknown query shape: " + shape);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+import software.amazon.documentdb.jdbc.common.utilities.SqlError;
+import software.amazon.documentdb.jdbc.common.utilities.SqlState;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The result of a query executed by {@link DocumentDbConnection#executeQueryAsync(String)}.
+ * The rows are read in columnar batches by calling {@link #nextBatch()}. Documents are only
+ * requested from the server when a batch is requested, so a slow consumer applies backpressure
+ * to the query instead of buffering its result.
+ *
+ * <p>The stages returned by {@link #nextBatch()} are completed on the threads of the driver.
+ * Consumers that do blocking or expensive work with a batch should continue with one of the
+ * asynchronous methods of {@link CompletionStage}, and their own executor.</p>
+ */
+public final class DocumentDbAsyncResultSet implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbAsyncResultSet.class);
+
+    private final ImmutableList<JdbcColumnMetaData> columnMetaData;
+    private final String[][] segmentedPaths;
+    private final int batchSize;
+    private final DocumentDbQueryRecorder recorder;
+    private final Object lock = new Object();
+    private Subscription subscription;
+    private DocumentDbColumnBatch batch;
+    private CompletableFuture<DocumentDbColumnBatch> pendingBatch;
+    private SQLException error;
+    private boolean completed;
+    private boolean closed;
+    private boolean executed;
+
+    /**
+     * Creates a new {@link DocumentDbAsyncResultSet} and subscribes to the publisher of the
+     * documents. No documents are requested until {@link #nextBatch()} is called.
+     *
+     * @param publisher the publisher of the documents of the result.
+     * @param columnMetaData the metadata of the columns.
+     * @param paths the paths of the columns in the documents.
+     * @param batchSize the maximum number of rows in each batch.
+     * @throws SQLException if a column has no path.
+     */
+    DocumentDbAsyncResultSet(
+            final Publisher<Document> publisher,
+            final ImmutableList<JdbcColumnMetaData> columnMetaData,
+            final List<String> paths,
+            final int batchSize) throws SQLException {
+        this(publisher, columnMetaData, paths, batchSize, null);
+    }
+
+    /**
+     * Creates a new {@link DocumentDbAsyncResultSet} and subscribes to the publisher of the
+     * documents. No documents are requested until {@link #nextBatch()} is called.
+     *
+     * @param publisher the publisher of the documents of the result.
+     * @param columnMetaData the metadata of the columns.
+     * @param paths the paths of the columns in the documents.
+     * @param batchSize the maximum number of rows in each batch.
+     * @param recorder the recorder of the query metrics, completed when the results are
+     *                 exhausted, the query fails or the result set is closed. Can be
+     *                 {@code null}.
+     * @throws SQLException if a column has no path.
+     */
+    DocumentDbAsyncResultSet(
+            final Publisher<Document> publisher,
+            final ImmutableList<JdbcColumnMetaData> columnMetaData,
+            final List<String> paths,
+            final int batchSize,
+            final DocumentDbQueryRecorder recorder) throws SQLException {
+        this.columnMetaData = columnMetaData;
+        this.recorder = recorder;
+        this.segmentedPaths = DocumentDbResultSet.splitPaths(paths);
+        for (int i = 0; i < segmentedPaths.length; i++) {
+            if (segmentedPaths[i] == null) {
+                throw SqlError.createSQLException(LOGGER, SqlState.DATA_EXCEPTION,
+                        SqlError.CANNOT_RETRIEVE_COLUMN, columnMetaData.get(i).getColumnName());
+            }
+        }
+        this.batchSize = batchSize;
+        publisher.subscribe(new BatchSubscriber());
+    }
+
+    /**
+     * Gets the metadata of the columns of the result.
+     *
+     * @return the metadata of the columns.
+     */
+    public ImmutableList<JdbcColumnMetaData> getColumnMetaData() {
+        return columnMetaData;
+    }
+
+    /**
+     * Requests the next batch of rows. Only one batch can be requested at a time.
+     *
+     * @return a stage that completes with the next batch of rows, or with {@code null} if there
+     * are no more rows. The stage completes exceptionally with a {@link SQLException} if the
+     * query fails, or the result set is closed.
+     */
+    public CompletionStage<DocumentDbColumnBatch> nextBatch() {
+        final CompletableFuture<DocumentDbColumnBatch> future = new CompletableFuture<>();
+        final Subscription currentSubscription;
+        synchronized (lock) {
+            if (closed) {
+                future.completeExceptionally(SqlError.createSQLException(
+                        LOGGER, SqlState.DATA_EXCEPTION, SqlError.RESULT_SET_CLOSED));
+                return future;
+            } else if (pendingBatch != null) {
+                future.completeExceptionally(
+                        new IllegalStateException("The previous batch has not completed."));
+                return future;
+            } else if (error != null) {
+                future.completeExceptionally(error);
+                return future;
+            } else if (completed) {
+                future.complete(null);
+                return future;
+            }
+            pendingBatch = future;
+            batch = new DocumentDbColumnBatch(columnMetaData, batchSize);
+            // If not yet subscribed, the batch is requested when the subscription starts.
+            currentSubscription = subscription;
+        }
+        if (currentSubscription != null) {
+            currentSubscription.request(batchSize);
+        }
+        return future;
+    }
+
+    /**
+     * Closes the result set and cancels the query. A pending batch completes with
+     * {@code null}.
+     */
+    @Override
+    public void close() {
+        final CompletableFuture<DocumentDbColumnBatch> future;
+        final Subscription currentSubscription;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            future = pendingBatch;
+            pendingBatch = null;
+            batch = null;
+            currentSubscription = subscription;
+        }
+        if (currentSubscription != null) {
+            currentSubscription.cancel();
+        }
+        completeRecorder(Outcome.COMPLETED);
+        if (future != null) {
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Records the end of the execution phase when the server first responds. Must be called
+     * while holding the lock.
+     */
+    private void markExecuted() {
+        if (recorder != null && !executed) {
+            executed = true;
+            recorder.executed();
+        }
+    }
+
+    private void completeRecorder(final Outcome outcome) {
+        if (recorder != null) {
+            recorder.complete(outcome);
+        }
+    }
+
+    private final class BatchSubscriber implements Subscriber<Document> {
+        @Override
+        public void onSubscribe(final Subscription newSubscription) {
+            final boolean isPending;
+            final boolean isClosed;
+            synchronized (lock) {
+                subscription = newSubscription;
+                isPending = pendingBatch != null;
+                isClosed = closed;
+            }
+            if (isClosed) {
+                newSubscription.cancel();
+            } else if (isPending) {
+                newSubscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onNext(final Document document) {
+            final Object[] values = new Object[segmentedPaths.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = DocumentDbResultSet.getValue(document, segmentedPaths[i]);
+            }
+            final CompletableFuture<DocumentDbColumnBatch> future;
+            final DocumentDbColumnBatch fullBatch;
+            final Subscription currentSubscription;
+            final SQLException batchError;
+            synchronized (lock) {
+                if (batch == null) {
+                    // The result set is closed, or has failed.
+                    return;
+                }
+                markExecuted();
+                if (recorder != null) {
+                    recorder.rowRead();
+                }
+                try {
+                    batch.appendRow(values);
+                } catch (SQLException e) {
+                    error = e;
+                }
+                if (error == null && !batch.isFull()) {
+                    return;
+                }
+                fullBatch = batch;
+                batchError = error;
+                future = pendingBatch;
+                currentSubscription = subscription;
+                batch = null;
+                pendingBatch = null;
+            }
+            if (batchError != null) {
+                currentSubscription.cancel();
+                completeRecorder(Outcome.FAILED);
+                future.completeExceptionally(batchError);
+            } else {
+                future.complete(fullBatch);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            final SQLException exception = SqlError.createSQLException(
+                    LOGGER,
+                    SqlState.OPERATION_CANCELED,
+                    SqlError.QUERY_FAILED,
+                    throwable);
+            exception.initCause(throwable);
+            final CompletableFuture<DocumentDbColumnBatch> future;
+            synchronized (lock) {
+                markExecuted();
+                error = exception;
+                future = pendingBatch;
+                batch = null;
+                pendingBatch = null;
+            }
+            completeRecorder(Outcome.FAILED);
+            if (future != null) {
+                future.completeExceptionally(exception);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            final CompletableFuture<DocumentDbColumnBatch> future;
+            final DocumentDbColumnBatch lastBatch;
+            synchronized (lock) {
+                markExecuted();
+                completed = true;
+                future = pendingBatch;
+                lastBatch = batch;
+                batch = null;
+                pendingBatch = null;
+            }
+            completeRecorder(Outcome.COMPLETED);
+            if (future != null) {
+                future.complete(lastBatch != null && lastBatch.getRowCount() > 0 ? lastBatch : null);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A batch of rows of a result set, stored by column. Batches are read from a
+ * {@link DocumentDbResultSet} by calling {@link DocumentDbResultSet#nextBatch()}, so that
+ * columnar consumers can read the values of each column without the overhead of the
+ * {@link java.sql.ResultSet} getters.
+ */
+public final class DocumentDbColumnBatch {
+    private final ImmutableList<DocumentDbColumnVector> columns;
+    private final int capacity;
+    private int rowCount;
+
+    /**
+     * Creates a new empty {@link DocumentDbColumnBatch}.
+     *
+     * @param columnMetaData the metadata of the columns.
+     * @param capacity the maximum number of rows in the batch.
+     */
+    DocumentDbColumnBatch(final List<JdbcColumnMetaData> columnMetaData, final int capacity) {
+        final ImmutableList.Builder<DocumentDbColumnVector> builder = ImmutableList.builder();
+        for (JdbcColumnMetaData metaData : columnMetaData) {
+            builder.add(new DocumentDbColumnVector(metaData, capacity));
+        }
+        this.columns = builder.build();
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the number of rows in the batch.
+     *
+     * @return the number of rows in the batch.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of columns in the batch.
+     *
+     * @return the number of columns in the batch.
+     */
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * Gets the column at the given index.
+     *
+     * @param columnIndex the (one-based) column index, as in the result set.
+     * @return the column at the given index.
+     */
+    public DocumentDbColumnVector getColumn(final int columnIndex) {
+        return columns.get(columnIndex - 1);
+    }
+
+    /**
+     * Gets whether the batch has reached its maximum number of rows.
+     *
+     * @return {@code true} if the batch is full, {@code false} otherwise.
+     */
+    boolean isFull() {
+        return rowCount >= capacity;
+    }
+
+    /**
+     * Appends a row to the batch.
+     *
+     * @param values the values of the row, in column order.
+     * @throws SQLException if a value cannot be converted to the type of its column.
+     */
+    void appendRow(final Object[] values) throws SQLException {
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).append(values[i]);
+        }
+        rowCount++;
+    }
+}
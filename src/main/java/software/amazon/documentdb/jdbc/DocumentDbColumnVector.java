@@ -0,0 +1,262 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+import software.amazon.documentdb.jdbc.common.utilities.SqlError;
+import software.amazon.documentdb.jdbc.common.utilities.SqlState;
+import software.amazon.documentdb.jdbc.common.utilities.TypeConverters;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.BitSet;
+
+/**
+ * A column of values in a {@link DocumentDbColumnBatch}. The values of integer, floating point,
+ * boolean and date-time columns are stored in primitive arrays, so they can be read without
+ * boxing. Date-time values are stored as milliseconds since the epoch. The values of other
+ * columns are stored as they would be returned by {@link java.sql.ResultSet#getObject(int)}.
+ */
+public final class DocumentDbColumnVector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbColumnVector.class);
+
+    private final JdbcColumnMetaData columnMetaData;
+    private final StorageType storageType;
+    private final BitSet nulls;
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final boolean[] booleanValues;
+    private final Object[] objectValues;
+    private int valueCount;
+
+    /**
+     * Creates a new {@link DocumentDbColumnVector}.
+     *
+     * @param columnMetaData the metadata of the column.
+     * @param capacity the maximum number of values in the column.
+     */
+    DocumentDbColumnVector(final JdbcColumnMetaData columnMetaData, final int capacity) {
+        this.columnMetaData = columnMetaData;
+        this.storageType = StorageType.of(columnMetaData.getColumnType());
+        this.nulls = new BitSet(capacity);
+        this.longValues = storageType == StorageType.LONG || storageType == StorageType.TIMESTAMP
+                ? new long[capacity]
+                : null;
+        this.doubleValues = storageType == StorageType.DOUBLE ? new double[capacity] : null;
+        this.booleanValues = storageType == StorageType.BOOLEAN ? new boolean[capacity] : null;
+        this.objectValues = storageType == StorageType.OBJECT ? new Object[capacity] : null;
+    }
+
+    /**
+     * Gets the metadata of the column.
+     *
+     * @return the metadata of the column.
+     */
+    public JdbcColumnMetaData getColumnMetaData() {
+        return columnMetaData;
+    }
+
+    /**
+     * Gets the number of values in the column.
+     *
+     * @return the number of values in the column.
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Gets whether the value at the given row is null.
+     *
+     * @param rowIndex the (zero-based) row index in the batch.
+     * @return {@code true} if the value is null, {@code false} otherwise.
+     */
+    public boolean isNull(final int rowIndex) {
+        verifyRowIndex(rowIndex);
+        return nulls.get(rowIndex);
+    }
+
+    /**
+     * Gets the value at the given row of an integer or date-time column. Date-time values are
+     * returned as milliseconds since the epoch.
+     *
+     * @param rowIndex the (zero-based) row index in the batch.
+     * @return the value, or zero if the value is null.
+     * @throws SQLException if the column is not an integer or date-time column.
+     */
+    public long getLong(final int rowIndex) throws SQLException {
+        verifyStorageType(rowIndex, long.class, StorageType.LONG, StorageType.TIMESTAMP);
+        return longValues[rowIndex];
+    }
+
+    /**
+     * Gets the value at the given row of a floating point column.
+     *
+     * @param rowIndex the (zero-based) row index in the batch.
+     * @return the value, or zero if the value is null.
+     * @throws SQLException if the column is not a floating point column.
+     */
+    public double getDouble(final int rowIndex) throws SQLException {
+        verifyStorageType(rowIndex, double.class, StorageType.DOUBLE);
+        return doubleValues[rowIndex];
+    }
+
+    /**
+     * Gets the value at the given row of a boolean column.
+     *
+     * @param rowIndex the (zero-based) row index in the batch.
+     * @return the value, or {@code false} if the value is null.
+     * @throws SQLException if the column is not a boolean column.
+     */
+    public boolean getBoolean(final int rowIndex) throws SQLException {
+        verifyStorageType(rowIndex, boolean.class, StorageType.BOOLEAN);
+        return booleanValues[rowIndex];
+    }
+
+    /**
+     * Gets the value at the given row of any column. Values of primitive columns are boxed, and
+     * date-time values are returned as {@link Timestamp}.
+     *
+     * @param rowIndex the (zero-based) row index in the batch.
+     * @return the value, or {@code null} if the value is null.
+     */
+    public Object getObject(final int rowIndex) {
+        if (isNull(rowIndex)) {
+            return null;
+        }
+        switch (storageType) {
+            case LONG:
+                return longValues[rowIndex];
+            case TIMESTAMP:
+                return new Timestamp(longValues[rowIndex]);
+            case DOUBLE:
+                return doubleValues[rowIndex];
+            case BOOLEAN:
+                return booleanValues[rowIndex];
+            default:
+                return objectValues[rowIndex];
+        }
+    }
+
+    /**
+     * Appends a value to the column, converting it to the storage type of the column.
+     *
+     * @param value the value to append. Can be {@code null}.
+     * @throws SQLException if the value cannot be converted to the type of the column.
+     */
+    void append(final Object value) throws SQLException {
+        final int rowIndex = valueCount++;
+        if (value == null) {
+            nulls.set(rowIndex);
+            return;
+        }
+        switch (storageType) {
+            case LONG:
+                longValues[rowIndex] = convert(value, long.class);
+                break;
+            case TIMESTAMP:
+                final Timestamp timestamp = convert(value, Timestamp.class);
+                if (timestamp != null) {
+                    longValues[rowIndex] = timestamp.getTime();
+                } else {
+                    nulls.set(rowIndex);
+                }
+                break;
+            case DOUBLE:
+                doubleValues[rowIndex] = convert(value, double.class);
+                break;
+            case BOOLEAN:
+                booleanValues[rowIndex] = convert(value, boolean.class);
+                break;
+            default:
+                objectValues[rowIndex] = value;
+                break;
+        }
+    }
+
+    private static <T> T convert(final Object value, final Class<T> targetType) throws SQLException {
+        try {
+            return TypeConverters.get(value.getClass(), targetType).convert(targetType, value);
+        } catch (ConversionException e) {
+            throw SqlError.createSQLException(LOGGER,
+                    SqlState.DATA_EXCEPTION,
+                    e,
+                    SqlError.UNSUPPORTED_CONVERSION,
+                    value.getClass().getSimpleName(),
+                    targetType.getSimpleName());
+        }
+    }
+
+    private void verifyRowIndex(final int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= valueCount) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Row index %d is out of range [0, %d).", rowIndex, valueCount));
+        }
+    }
+
+    private void verifyStorageType(
+            final int rowIndex,
+            final Class<?> targetType,
+            final StorageType... storageTypes) throws SQLException {
+        verifyRowIndex(rowIndex);
+        for (StorageType supportedType : storageTypes) {
+            if (storageType == supportedType) {
+                return;
+            }
+        }
+        throw SqlError.createSQLException(LOGGER,
+                SqlState.DATA_EXCEPTION,
+                SqlError.UNSUPPORTED_CONVERSION,
+                columnMetaData.getColumnTypeName(),
+                targetType.getSimpleName());
+    }
+
+    private enum StorageType {
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        TIMESTAMP,
+        OBJECT;
+
+        static StorageType of(final int sqlType) {
+            switch (sqlType) {
+                case Types.BIGINT:
+                case Types.INTEGER:
+                case Types.SMALLINT:
+                case Types.TINYINT:
+                    return LONG;
+                case Types.DOUBLE:
+                case Types.FLOAT:
+                case Types.REAL:
+                    return DOUBLE;
+                case Types.BOOLEAN:
+                case Types.BIT:
+                    return BOOLEAN;
+                case Types.DATE:
+                case Types.TIME:
+                case Types.TIMESTAMP:
+                    return TIMESTAMP;
+                default:
+                    return OBJECT;
+            }
+        }
+    }
+}
@@ -21,11 +21,9 @@ import com.jcraft.jsch.HostKeyRepository;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
-import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCommandException;
 import com.mongodb.MongoSecurityException;
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -39,6 +37,7 @@ import software.amazon.documentdb.jdbc.common.Connection;
 import software.amazon.documentdb.jdbc.common.utilities.SqlError;
 import software.amazon.documentdb.jdbc.common.utilities.SqlState;
 import software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata;
+import software.amazon.documentdb.jdbc.query.DocumentDbQueryMappingService;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -47,15 +46,27 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.FETCH_SIZE_DEFAULT;
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.getPath;
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.getSshPrivateKeyFileSearchPaths;
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.isNullOrWhitespace;
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperty.REFRESH_SCHEMA;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NEW;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NONE;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_NEW;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_REFRESH;
 
 /**
  * DocumentDb implementation of Connection.
@@ -74,12 +85,18 @@ public class DocumentDbConnection extends Connection
     public static final String LOCALHOST = "localhost";
     public static final int DEFAULT_DOCUMENTDB_PORT = 27017;
     public static final int DEFAULT_SSH_PORT = 22;
+    public static final int SSH_KEEP_ALIVE_INTERVAL_MS = 30000;
+    public static final int SSH_KEEP_ALIVE_COUNT_MAX = 3;
+    public static final int WARM_UP_TABLE_LIMIT = 20;
+    private static final Set<String> WARMED_UP_SCHEMAS = ConcurrentHashMap.newKeySet();
 
     private final DocumentDbConnectionProperties connectionProperties;
     private DocumentDbDatabaseMetaData metadata;
     private DocumentDbDatabaseSchemaMetadata databaseMetadata;
     private MongoClient mongoClient = null;
     private MongoDatabase mongoDatabase = null;
+    private com.mongodb.reactivestreams.client.MongoClient reactiveMongoClient = null;
+    private DocumentDbStatement asyncStatement = null;
     private SshPortForwardingSession session;
 
     /**
@@ -100,8 +117,144 @@ public class DocumentDbConnection extends Connection
             }
             LOGGER.debug(sb.toString());
         }
-        this.session = createSshTunnel(connectionProperties);
-        initializeClients(connectionProperties);
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.CONNECT_SPAN)) {
+            span.setAttribute(DocumentDbTracing.DATABASE_ATTRIBUTE, connectionProperties.getDatabase());
+            try {
+                try (DocumentDbSpan tunnelSpan = DocumentDbTracing.startSpan(DocumentDbTracing.CONNECT_TUNNEL_SPAN)) {
+                    this.session = DocumentDbSshTunnelManager.acquire(connectionProperties);
+                }
+                try (DocumentDbSpan clientSpan = DocumentDbTracing.startSpan(DocumentDbTracing.CONNECT_CLIENT_SPAN)) {
+                    initializeClients(connectionProperties);
+                }
+            } catch (SQLException e) {
+                span.recordException(e);
+                throw e;
+            }
+            if (connectionProperties.getWarmUp()) {
+                warmUpOnOpen();
+            }
+        }
+    }
+
+    /**
+     * Warms up the connection when it is opened. The queries are only translated for the first
+     * connection that opens a given version of a schema, as later connections share the
+     * initialization it pays for.
+     */
+    private void warmUpOnOpen() {
+        String warmUpKey = null;
+        try {
+            ensureDatabaseMetadata();
+            warmUpKey = String.join("\n",
+                    connectionProperties.getHostname(),
+                    connectionProperties.getDatabase(),
+                    databaseMetadata.getSchemaName(),
+                    String.valueOf(databaseMetadata.getSchemaVersion()));
+            if (WARMED_UP_SCHEMAS.add(warmUpKey)) {
+                warmUp(Collections.emptyList());
+            }
+        } catch (SQLException e) {
+            if (warmUpKey != null) {
+                WARMED_UP_SCHEMAS.remove(warmUpKey);
+            }
+            LOGGER.warn("Unable to warm up connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Warms up the connection by loading the SQL schema and translating the given queries, so the
+     * first queries on the connection do not pay for first-time initialization. The queries are
+     * not executed. If no queries are given, a query for each of the first
+     * {@link #WARM_UP_TABLE_LIMIT} tables in the schema is translated.
+     *
+     * @param queries the representative queries to translate.
+     * @throws SQLException if unable to load the SQL schema.
+     */
+    public void warmUp(final Collection<String> queries) throws SQLException {
+        verifyOpen();
+        final Instant beginWarmUp = Instant.now();
+        ensureDatabaseMetadata();
+        final DocumentDbQueryMappingService mappingService = new DocumentDbQueryMappingService(
+                connectionProperties,
+                databaseMetadata,
+                connectionProperties.getLazySchemaGeneration()
+                        ? this::getDatabaseMetadataForQuery
+                        : null);
+        final Collection<String> warmUpQueries = !queries.isEmpty()
+                ? queries
+                : databaseMetadata.getTableSchemaMap().keySet().stream()
+                        .limit(WARM_UP_TABLE_LIMIT)
+                        .map(tableName -> String.format("SELECT * FROM \"%s\".\"%s\"",
+                                connectionProperties.getDatabase(), tableName))
+                        .collect(Collectors.toList());
+        for (String sql : warmUpQueries) {
+            try {
+                mappingService.get(sql);
+            } catch (SQLException e) {
+                LOGGER.warn("Unable to translate warm-up query '{}': {}", sql, e.getMessage());
+            }
+        }
+        LOGGER.debug("Connection warmed up with {} queries in {} ms.", warmUpQueries.size(),
+                Instant.now().toEpochMilli() - beginWarmUp.toEpochMilli());
+    }
+
+    /**
+     * Executes a query asynchronously, reading the result in batches of the default fetch size.
+     *
+     * @param sql the SQL query.
+     * @return a stage that completes with the result of the query.
+     * @see #executeQueryAsync(String, int)
+     */
+    public CompletionStage<DocumentDbAsyncResultSet> executeQueryAsync(final String sql) {
+        final Integer defaultFetchSize = connectionProperties.getDefaultFetchSize();
+        return executeQueryAsync(sql, defaultFetchSize != null ? defaultFetchSize : FETCH_SIZE_DEFAULT);
+    }
+
+    /**
+     * Executes a query asynchronously, without a query timeout.
+     *
+     * @param sql the SQL query.
+     * @param batchSize the maximum number of rows in each batch.
+     * @return a stage that completes with the result of the query.
+     * @see #executeQueryAsync(String, int, int)
+     */
+    public CompletionStage<DocumentDbAsyncResultSet> executeQueryAsync(
+            final String sql,
+            final int batchSize) {
+        return executeQueryAsync(sql, batchSize, 0);
+    }
+
+    /**
+     * Executes a query asynchronously. The query is translated in the same way as by
+     * {@link DocumentDbStatement}, by a mapping service that this connection reuses for all its
+     * asynchronous queries, and on a shared translation thread rather than the calling thread.
+     * The aggregation is run on the shared reactive streams client, so no thread waits on the
+     * server while the query runs. Each batch of documents is only requested when the consumer
+     * asks for the next batch of rows.
+     *
+     * @param sql the SQL query.
+     * @param batchSize the maximum number of rows in each batch.
+     * @param queryTimeoutSecs the maximum execution time of the query in seconds, or zero for
+     *                         no limit.
+     * @return a stage that completes with the result of the query, or completes exceptionally
+     * with a {@link SQLException} if the query cannot be translated or started.
+     */
+    public CompletionStage<DocumentDbAsyncResultSet> executeQueryAsync(
+            final String sql,
+            final int batchSize,
+            final int queryTimeoutSecs) {
+        try {
+            verifyOpen();
+            if (batchSize <= 0) {
+                throw SqlError.createSQLException(LOGGER, SqlState.DATA_EXCEPTION,
+                        SqlError.INVALID_FETCH_SIZE, batchSize);
+            }
+            return getAsyncStatement().executeQueryAsync(sql, batchSize, queryTimeoutSecs);
+        } catch (SQLException e) {
+            final CompletableFuture<DocumentDbAsyncResultSet> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
     }
 
     /**
@@ -114,6 +267,21 @@ public class DocumentDbConnection extends Connection
      */
     public static SshPortForwardingSession createSshTunnel(
             final DocumentDbConnectionProperties connectionProperties) throws SQLException {
+        return createSshTunnel(connectionProperties, 0);
+    }
+
+    /**
+     * Initializes the SSH session and creates a port forwarding tunnel on the given local port.
+     *
+     * @param connectionProperties the {@link DocumentDbConnectionProperties} connection properties.
+     * @param localPort the local port to forward. A port number of zero indicates any free port.
+     * @return a {@link Session} session. This session must be closed by calling the
+     *          {@link Session#disconnect()} method.
+     * @throws SQLException if unable to create SSH session or create the port forwarding tunnel.
+     */
+    static SshPortForwardingSession createSshTunnel(
+            final DocumentDbConnectionProperties connectionProperties,
+            final int localPort) throws SQLException {
         if (!connectionProperties.enableSshTunnel()) {
             LOGGER.info("Internal SSH tunnel not started.");
             return null;
@@ -130,9 +298,11 @@ public class DocumentDbConnection extends Connection
             final JSch jSch = new JSch();
             addIdentity(connectionProperties, jSch);
             final Session session = createSession(connectionProperties, jSch);
+            session.setServerAliveInterval(SSH_KEEP_ALIVE_INTERVAL_MS);
+            session.setServerAliveCountMax(SSH_KEEP_ALIVE_COUNT_MAX);
             connectSession(connectionProperties, jSch, session);
             final SshPortForwardingSession portForwardingSession = getPortForwardingSession(
-                    connectionProperties, session);
+                    connectionProperties, session, localPort);
             LOGGER.info("Internal SSH tunnel started on local port '{}'.",
                     portForwardingSession.localPort);
             return portForwardingSession;
@@ -192,12 +362,27 @@ public class DocumentDbConnection extends Connection
         if (mongoDatabase != null) {
             mongoDatabase = null;
         }
+        synchronized (this) {
+            if (asyncStatement != null) {
+                try {
+                    asyncStatement.close();
+                } catch (SQLException e) {
+                    LOGGER.warn("Unable to close the statement of asynchronous queries: {}", e.getMessage());
+                }
+                asyncStatement = null;
+            }
+            if (reactiveMongoClient != null) {
+                DocumentDbMongoClientRegistry.releaseReactive(reactiveMongoClient);
+                reactiveMongoClient = null;
+            }
+        }
         if (mongoClient != null) {
-            mongoClient.close();
+            DocumentDbMongoClientRegistry.release(mongoClient);
+            DocumentDbMetrics.connectionClosed();
             mongoClient = null;
         }
         if (session != null) {
-            session.session.disconnect();
+            DocumentDbSshTunnelManager.release(session);
             session = null;
         }
     }
@@ -213,13 +398,40 @@ public class DocumentDbConnection extends Connection
         return mongoClient;
     }
 
+    /**
+     * Gets the shared reactive streams client of this connection, acquiring it from the
+     * {@link DocumentDbMongoClientRegistry} on first use. It is released when the connection
+     * is closed.
+     *
+     * @return the shared reactive streams client.
+     */
+    synchronized com.mongodb.reactivestreams.client.MongoClient getReactiveMongoClient() {
+        if (reactiveMongoClient == null) {
+            reactiveMongoClient = DocumentDbMongoClientRegistry.acquireReactive(
+                    connectionProperties, getSshLocalPort());
+        }
+        return reactiveMongoClient;
+    }
+
+    private synchronized DocumentDbStatement getAsyncStatement() throws SQLException {
+        if (asyncStatement == null) {
+            asyncStatement = new DocumentDbStatement(this);
+        }
+        return asyncStatement;
+    }
+
     private void ensureDatabaseMetadata() throws SQLException {
         if (metadata == null) {
             final int version;
+            if (connectionProperties.getRefreshSchema()
+                    && connectionProperties.getBackgroundSchemaGeneration()
+                    && setMetadataAndRefreshInBackground()) {
+                return;
+            }
             if (connectionProperties.getRefreshSchema())  {
-                version = VERSION_NEW;
+                version = VERSION_REFRESH;
                 LOGGER.warn("The '{}' option is enabled and will cause a new"
-                        + " version of the SQL schema to be generated."
+                        + " version of the SQL schema to be generated, once for each version."
                         + " This can lead to poor performance."
                         + " Please disable this option when it is no longer needed.",
                         REFRESH_SCHEMA.getName());
@@ -231,12 +443,43 @@ public class DocumentDbConnection extends Connection
     }
 
     private void setMetadata(final int version) throws SQLException {
-        databaseMetadata = DocumentDbDatabaseSchemaMetadata.get(
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_LOAD_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, connectionProperties.getSchemaName());
+            databaseMetadata = DocumentDbDatabaseSchemaMetadata.get(
+                    connectionProperties,
+                    connectionProperties.getSchemaName(),
+                    version,
+                    getMongoClient());
+        }
+        metadata = new DocumentDbDatabaseMetaData(this, databaseMetadata, connectionProperties);
+    }
+
+    /**
+     * Sets the metadata to the latest existing version of the schema and starts generating a new
+     * version in the background, unless the latest version was itself generated by a refresh.
+     * Connections opened after the generation completes will use the new version.
+     *
+     * @return {@code true} if an existing version of the schema was found, {@code false}
+     * otherwise.
+     */
+    private boolean setMetadataAndRefreshInBackground() throws SQLException {
+        final DocumentDbDatabaseSchemaMetadata latestMetadata = DocumentDbDatabaseSchemaMetadata.get(
                 connectionProperties,
                 connectionProperties.getSchemaName(),
-                version,
+                VERSION_LATEST_OR_NONE,
                 getMongoClient());
+        // A partial version is only used by lazy connections, which generate the missing tables.
+        if (latestMetadata == null
+                || (latestMetadata.isPartial() && !connectionProperties.getLazySchemaGeneration())) {
+            return false;
+        }
+        DocumentDbDatabaseSchemaMetadata.refreshInBackground(
+                connectionProperties,
+                latestMetadata,
+                DocumentDbMongoClientRegistry::acquireLease);
+        databaseMetadata = latestMetadata;
         metadata = new DocumentDbDatabaseMetaData(this, databaseMetadata, connectionProperties);
+        return true;
     }
 
     void refreshDatabaseMetadata() throws SQLException {
@@ -249,6 +492,47 @@ public class DocumentDbConnection extends Connection
         return databaseMetadata;
     }
 
+    /**
+     * Gets the database metadata, first generating the table schema for any collections
+     * referenced by the given query, when the lazy schema generation option is enabled. This is
+     * only called when the query references a table that is not in the database metadata, so
+     * the collections are listed again if none of the cached collections are referenced.
+     *
+     * @param sql the query.
+     * @return the database metadata.
+     */
+    @SneakyThrows
+    DocumentDbDatabaseSchemaMetadata getDatabaseMetadataForQuery(final String sql) {
+        // Over-matching is harmless, as it only generates extra collections.
+        return getDatabaseMetadataForTables(sql::contains, true);
+    }
+
+    /**
+     * Gets the database metadata, first generating the table schema for any collections whose
+     * base table name is accepted by the filter, when the lazy schema generation option is
+     * enabled.
+     *
+     * @param baseTableNameFilter the filter on the base table name of each collection.
+     * @return the database metadata.
+     * @throws SQLException if unable to generate the table schema.
+     */
+    DocumentDbDatabaseSchemaMetadata getDatabaseMetadataForTables(
+            final Predicate<String> baseTableNameFilter) throws SQLException {
+        return getDatabaseMetadataForTables(baseTableNameFilter, false);
+    }
+
+    private DocumentDbDatabaseSchemaMetadata getDatabaseMetadataForTables(
+            final Predicate<String> baseTableNameFilter,
+            final boolean refreshCollectionNames) throws SQLException {
+        ensureDatabaseMetadata();
+        if (connectionProperties.getLazySchemaGeneration()) {
+            databaseMetadata = DocumentDbDatabaseSchemaMetadata.generateMissingTables(
+                    connectionProperties, databaseMetadata, baseTableNameFilter,
+                    refreshCollectionNames, getMongoClient());
+        }
+        return databaseMetadata;
+    }
+
     @Override
     public String getSchema() {
         return connectionProperties.getDatabase();
@@ -301,12 +585,22 @@ public class DocumentDbConnection extends Connection
 
     private void initializeClients(final DocumentDbConnectionProperties connectionProperties)
             throws SQLException {
-        // Create the mongo client.
-        final MongoClientSettings settings = connectionProperties
-                .buildMongoClientSettings(getSshLocalPort());
-        mongoClient = MongoClients.create(settings);
+        // Acquire the shared mongo client. Release the SSH tunnel session if the client cannot be
+        // created, as the connection is not returned to be closed.
+        try {
+            mongoClient = DocumentDbMongoClientRegistry.acquire(connectionProperties, getSshLocalPort());
+        } catch (RuntimeException e) {
+            doClose();
+            throw e;
+        }
+        DocumentDbMetrics.connectionOpened();
         mongoDatabase = mongoClient.getDatabase(connectionProperties.getDatabase());
-        pingDatabase();
+        try {
+            pingDatabase();
+        } catch (SQLException e) {
+            doClose();
+            throw e;
+        }
     }
 
     private void pingDatabase() throws SQLException {
@@ -348,12 +642,13 @@ public class DocumentDbConnection extends Connection
 
     private static SshPortForwardingSession getPortForwardingSession(
             final DocumentDbConnectionProperties connectionProperties,
-            final Session session) throws JSchException {
+            final Session session,
+            final int localPort) throws JSchException {
         final Pair<String, Integer> clusterHostAndPort = getHostAndPort(
                 connectionProperties.getHostname(), DEFAULT_DOCUMENTDB_PORT);
-        final int localPort = session.setPortForwardingL(
-                LOCALHOST, 0, clusterHostAndPort.getLeft(), clusterHostAndPort.getRight());
-        return new SshPortForwardingSession(session, localPort);
+        final int forwardedPort = session.setPortForwardingL(
+                LOCALHOST, localPort, clusterHostAndPort.getLeft(), clusterHostAndPort.getRight());
+        return new SshPortForwardingSession(session, forwardedPort);
     }
 
     private static Pair<String, Integer> getHostAndPort(
@@ -658,6 +658,197 @@ public class DocumentDbConnectionProperties extends Properties {
             DocumentDbConnectionProperty.DEFAULT_AUTH_DB.getDefaultValue());
     }
 
+    /**
+     * Sets the path to the local folder used to cache snapshots of the SQL schema.
+     *
+     * @param schemaCacheDir the path to the local schema cache folder.
+     */
+    public void setSchemaCacheDir(final String schemaCacheDir) {
+        setProperty(DocumentDbConnectionProperty.SCHEMA_CACHE_DIR.getName(), schemaCacheDir);
+    }
+
+    /**
+     * Gets the path to the local folder used to cache snapshots of the SQL schema.
+     *
+     * @return the path to the local schema cache folder, if set, null otherwise.
+     */
+    public String getSchemaCacheDir() {
+        return getProperty(DocumentDbConnectionProperty.SCHEMA_CACHE_DIR.getName());
+    }
+
+    /**
+     * Sets indicator of whether to generate a refreshed schema in the background.
+     *
+     * @param backgroundSchemaGeneration indicator of whether to generate a refreshed schema in
+     *                                   the background while the latest existing version of the
+     *                                   schema is used.
+     */
+    public void setBackgroundSchemaGeneration(final String backgroundSchemaGeneration) {
+        setProperty(DocumentDbConnectionProperty.BACKGROUND_SCHEMA_GENERATION.getName(),
+                backgroundSchemaGeneration);
+    }
+
+    /**
+     * Gets indicator of whether to generate a refreshed schema in the background.
+     *
+     * @return indicator of whether to generate a refreshed schema in the background while the
+     *         latest existing version of the schema is used.
+     */
+    public Boolean getBackgroundSchemaGeneration() {
+        return Boolean.parseBoolean(getProperty(
+                DocumentDbConnectionProperty.BACKGROUND_SCHEMA_GENERATION.getName(),
+                DocumentDbConnectionProperty.BACKGROUND_SCHEMA_GENERATION.getDefaultValue()));
+    }
+
+    /**
+     * Sets indicator of whether to generate the table schema for a collection when it is first
+     * referenced.
+     *
+     * @param lazySchemaGeneration indicator of whether to generate the table schema for a
+     *                             collection the first time a query or metadata inquiry
+     *                             references it.
+     */
+    public void setLazySchemaGeneration(final String lazySchemaGeneration) {
+        setProperty(DocumentDbConnectionProperty.LAZY_SCHEMA_GENERATION.getName(),
+                lazySchemaGeneration);
+    }
+
+    /**
+     * Gets indicator of whether to generate the table schema for a collection when it is first
+     * referenced.
+     *
+     * @return indicator of whether to generate the table schema for a collection the first time a
+     *         query or metadata inquiry references it.
+     */
+    public Boolean getLazySchemaGeneration() {
+        return Boolean.parseBoolean(getProperty(
+                DocumentDbConnectionProperty.LAZY_SCHEMA_GENERATION.getName(),
+                DocumentDbConnectionProperty.LAZY_SCHEMA_GENERATION.getDefaultValue()));
+    }
+
+    /**
+     * Sets the maximum number of connections in the connection pool of the client.
+     *
+     * @param maxPoolSize the maximum number of connections in the connection pool.
+     */
+    public void setMaxPoolSize(final String maxPoolSize) {
+        setProperty(DocumentDbConnectionProperty.MAX_POOL_SIZE.getName(), maxPoolSize);
+    }
+
+    /**
+     * Gets the maximum number of connections in the connection pool of the client.
+     *
+     * @return the maximum number of connections in the connection pool.
+     */
+    public Integer getMaxPoolSize() {
+        return getPropertyAsInteger(DocumentDbConnectionProperty.MAX_POOL_SIZE.getName());
+    }
+
+    /**
+     * Sets the number of SSH sessions shared by connections using the same SSH tunnel.
+     *
+     * @param sshTunnelPoolSize the number of SSH sessions.
+     */
+    public void setSshTunnelPoolSize(final String sshTunnelPoolSize) {
+        setProperty(DocumentDbConnectionProperty.SSH_TUNNEL_POOL_SIZE.getName(), sshTunnelPoolSize);
+    }
+
+    /**
+     * Gets the number of SSH sessions shared by connections using the same SSH tunnel.
+     *
+     * @return the number of SSH sessions.
+     */
+    public Integer getSshTunnelPoolSize() {
+        return getPropertyAsInteger(DocumentDbConnectionProperty.SSH_TUNNEL_POOL_SIZE.getName());
+    }
+
+    /**
+     * Sets whether the connection is warmed up when opened.
+     *
+     * @param warmUp {@code true} to warm up the connection when opened.
+     */
+    public void setWarmUp(final String warmUp) {
+        setProperty(DocumentDbConnectionProperty.WARM_UP.getName(), warmUp);
+    }
+
+    /**
+     * Gets whether the connection is warmed up when opened.
+     *
+     * @return {@code true} if the connection is warmed up when opened; {@code false} otherwise.
+     */
+    public boolean getWarmUp() {
+        return Boolean.parseBoolean(getProperty(
+                DocumentDbConnectionProperty.WARM_UP.getName(),
+                DocumentDbConnectionProperty.WARM_UP.getDefaultValue()));
+    }
+
+    /**
+     * Sets the encoding for the columns of persisted table schemas.
+     *
+     * @param schemaEncoding the name of the schema encoding.
+     */
+    public void setSchemaEncoding(final String schemaEncoding) {
+        setProperty(DocumentDbConnectionProperty.SCHEMA_ENCODING.getName(), schemaEncoding);
+    }
+
+    /**
+     * Gets the encoding for the columns of persisted table schemas.
+     *
+     * @return the {@link DocumentDbSchemaEncoding} of persisted table schemas.
+     */
+    public DocumentDbSchemaEncoding getSchemaEncoding() {
+        final String key = DocumentDbConnectionProperty.SCHEMA_ENCODING.getName();
+        try {
+            return DocumentDbSchemaEncoding.fromString(getProperty(
+                    key, DocumentDbConnectionProperty.SCHEMA_ENCODING.getDefaultValue()));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Property {{}} was ignored as it was not a valid schema encoding.", key, e);
+            return DocumentDbSchemaEncoding.fromString(
+                    DocumentDbConnectionProperty.SCHEMA_ENCODING.getDefaultValue());
+        }
+    }
+
+    /**
+     * Sets the latency threshold of the slow query log.
+     *
+     * @param slowQueryThreshold the latency in milliseconds at or above which a query is written
+     *                           to the slow query log, or zero to disable the slow query log.
+     */
+    public void setSlowQueryThreshold(final String slowQueryThreshold) {
+        setProperty(DocumentDbConnectionProperty.SLOW_QUERY_THRESHOLD.getName(), slowQueryThreshold);
+    }
+
+    /**
+     * Gets the latency threshold of the slow query log.
+     *
+     * @return the latency in milliseconds at or above which a query is written to the slow query
+     * log, or zero if the slow query log is disabled.
+     */
+    public Integer getSlowQueryThreshold() {
+        return getPropertyAsInteger(DocumentDbConnectionProperty.SLOW_QUERY_THRESHOLD.getName());
+    }
+
+    /**
+     * Sets whether the slow query log includes the server's explain output.
+     *
+     * @param slowQueryExplain {@code true} to include the explain output in the slow query log.
+     */
+    public void setSlowQueryExplain(final String slowQueryExplain) {
+        setProperty(DocumentDbConnectionProperty.SLOW_QUERY_EXPLAIN.getName(), slowQueryExplain);
+    }
+
+    /**
+     * Gets whether the slow query log includes the server's explain output.
+     *
+     * @return {@code true} if the explain output is included in the slow query log;
+     * {@code false} otherwise.
+     */
+    public boolean getSlowQueryExplain() {
+        return Boolean.parseBoolean(getProperty(
+                DocumentDbConnectionProperty.SLOW_QUERY_EXPLAIN.getName(),
+                DocumentDbConnectionProperty.SLOW_QUERY_EXPLAIN.getDefaultValue()));
+    }
+
     /**
      * Builds the MongoClientSettings from properties.
      *
@@ -721,6 +912,9 @@ public class DocumentDbConnectionProperties extends Properties {
         // Set the socket configuration.
         applySocketSettings(clientSettingsBuilder);
 
+        // Set the connection pool configuration.
+        applyConnectionPoolSettings(clientSettingsBuilder);
+
         // Set the SSL/TLS configuration.
         applyTlsSettings(clientSettingsBuilder);
 
@@ -739,6 +933,7 @@ public class DocumentDbConnectionProperties extends Properties {
                 // NOTE: DocumentDB does not support retryWrites option. (2020-05-13)
                 // https://docs.aws.amazon.com/documentdb/latest/developerguide/functional-differences.html#functional-differences.retryable-writes
                 .retryWrites(false)
+                .addCommandListener(DocumentDbMetrics.getCommandListener())
                 .build();
 
         return clientSettingsBuilder.build();
@@ -813,6 +1008,33 @@ public class DocumentDbConnectionProperties extends Properties {
         if (getDefaultAuthenticationDatabase() != null && !DocumentDbConnectionProperty.DEFAULT_AUTH_DB.getDefaultValue().equals(getDefaultAuthenticationDatabase())) {
             appendOption(optionalInfo, DocumentDbConnectionProperty.DEFAULT_AUTH_DB, getDefaultAuthenticationDatabase());
         }
+        if (getSchemaCacheDir() != null) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.SCHEMA_CACHE_DIR, getSchemaCacheDir());
+        }
+        if (getBackgroundSchemaGeneration() != Boolean.parseBoolean(DocumentDbConnectionProperty.BACKGROUND_SCHEMA_GENERATION.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.BACKGROUND_SCHEMA_GENERATION, getBackgroundSchemaGeneration());
+        }
+        if (getLazySchemaGeneration() != Boolean.parseBoolean(DocumentDbConnectionProperty.LAZY_SCHEMA_GENERATION.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.LAZY_SCHEMA_GENERATION, getLazySchemaGeneration());
+        }
+        if (getMaxPoolSize() != null && getMaxPoolSize() != Integer.parseInt(DocumentDbConnectionProperty.MAX_POOL_SIZE.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.MAX_POOL_SIZE, getMaxPoolSize());
+        }
+        if (getSshTunnelPoolSize() != null && getSshTunnelPoolSize() != Integer.parseInt(DocumentDbConnectionProperty.SSH_TUNNEL_POOL_SIZE.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.SSH_TUNNEL_POOL_SIZE, getSshTunnelPoolSize());
+        }
+        if (getWarmUp() != Boolean.parseBoolean(DocumentDbConnectionProperty.WARM_UP.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.WARM_UP, getWarmUp());
+        }
+        if (getSchemaEncoding() != DocumentDbSchemaEncoding.fromString(DocumentDbConnectionProperty.SCHEMA_ENCODING.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.SCHEMA_ENCODING, getSchemaEncoding().getName());
+        }
+        if (getSlowQueryThreshold() != null && getSlowQueryThreshold() != Integer.parseInt(DocumentDbConnectionProperty.SLOW_QUERY_THRESHOLD.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.SLOW_QUERY_THRESHOLD, getSlowQueryThreshold());
+        }
+        if (getSlowQueryExplain() != Boolean.parseBoolean(DocumentDbConnectionProperty.SLOW_QUERY_EXPLAIN.getDefaultValue())) {
+            appendOption(optionalInfo, DocumentDbConnectionProperty.SLOW_QUERY_EXPLAIN, getSlowQueryExplain());
+        }
         return String.format(connectionStringTemplate,
                 loginInfo,
                 hostInfo,
@@ -1100,6 +1322,23 @@ public class DocumentDbConnectionProperties extends Properties {
                 });
     }
 
+    /**
+     * Applies the connection pool-related connection properties to the given client settings builder.
+     * @param clientSettingsBuilder The client settings builder to apply the properties to.
+     */
+    private void applyConnectionPoolSettings(
+            final MongoClientSettings.Builder clientSettingsBuilder) {
+        final Integer maxPoolSize = getMaxPoolSize();
+
+        clientSettingsBuilder.applyToConnectionPoolSettings(
+                b -> {
+                    if (maxPoolSize != null && maxPoolSize > 0) {
+                        b.maxSize(maxPoolSize);
+                    }
+                    b.addConnectionPoolListener(DocumentDbMetrics.getConnectionPoolListener());
+                });
+    }
+
     /**
      * Applies the TLS/SSL-related connection properties to the given client settings builder.
      * @param clientSettingsBuilder The client settings builder to apply the properties to.
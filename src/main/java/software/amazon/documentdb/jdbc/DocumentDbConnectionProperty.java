@@ -73,6 +73,24 @@ public enum DocumentDbConnectionProperty implements ConnectionProperty {
     REFRESH_SCHEMA("refreshSchema", "false",
             "Refreshes any existing schema with a newly generated schema when the connection first requires the schema. Note that this will remove any existing schema customizations and will reduce performance for the first query or metadata inquiry."),
     DEFAULT_AUTH_DB("defaultAuthDb", "admin", "The default authentication database to use."),
+    SCHEMA_CACHE_DIR("schemaCacheDir", "",
+            "The path to a local folder used to cache snapshots of the SQL schema. If set, the schema is read from the local snapshot when it matches the latest version on the server."),
+    BACKGROUND_SCHEMA_GENERATION("backgroundSchemaGeneration", "false",
+            "If true, a refreshed schema is generated in the background while the connection uses the latest existing version of the schema."),
+    LAZY_SCHEMA_GENERATION("lazySchemaGeneration", "false",
+            "If true, the table schema for a collection is generated the first time a query or metadata inquiry references it, instead of for all collections at once."),
+    MAX_POOL_SIZE("maxPoolSize", "100",
+            "The maximum number of connections in the connection pool of the client. Connections with the same client settings share a single client and its connection pool."),
+    SSH_TUNNEL_POOL_SIZE("sshTunnelPoolSize", "1",
+            "The number of SSH sessions shared by connections using the same SSH tunnel. Connections are spread across the sessions."),
+    WARM_UP("warmUp", "false",
+            "If true, the connection loads the SQL schema and translates a query for each of the first 20 tables when opened, so the first query does not pay for first-time initialization. The queries are translated once for each schema version and are not executed."),
+    SCHEMA_ENCODING("schemaEncoding", "document",
+            "The encoding of the columns of persisted table schemas. Possible values: 'document', 'compact' and 'compressed'. The compact encodings read and write faster for large schemas."),
+    SLOW_QUERY_THRESHOLD("slowQueryThreshold", "0",
+            "The latency in milliseconds at or above which a query is written to the slow query log. Zero disables the slow query log."),
+    SLOW_QUERY_EXPLAIN("slowQueryExplain", "false",
+            "If true, the slow query log includes the server's query plan for the aggregation pipeline. The query is not run again."),
     ;
 
     // Unsupported MongoDB connection properties that will be ignored but should have warnings.
@@ -99,7 +117,6 @@ public enum DocumentDbConnectionProperty implements ConnectionProperty {
             "socketTimeoutMS",
             "maxIdleTimeMS",
             "maxLifeTimeMS",
-            "maxPoolSize",
             "minPoolSize",
             "waitQueueMultiple",
             "waitQueueTimeoutMS",
@@ -50,6 +50,36 @@ public class DocumentDbDataSource extends DataSource {
         return DriverManager.getConnection(DocumentDbConnectionProperties.DOCUMENT_DB_SCHEME, properties);
     }
 
+    /**
+     * Opens a physical connection with the given credentials, without changing the credentials
+     * of this data source.
+     *
+     * @param username the username to authenticate with.
+     * @param password the password to authenticate with.
+     * @return a new {@link Connection}.
+     * @throws SQLException if unable to open a connection.
+     */
+    Connection getConnectionWithCredentials(final String username, final String password)
+            throws SQLException {
+        final DocumentDbConnectionProperties connectionProperties =
+                new DocumentDbConnectionProperties(properties);
+        setCredential(connectionProperties, DocumentDbConnectionProperty.USER, username);
+        setCredential(connectionProperties, DocumentDbConnectionProperty.PASSWORD, password);
+        connectionProperties.validateRequiredProperties();
+        return DriverManager.getConnection(DocumentDbConnectionProperties.DOCUMENT_DB_SCHEME, connectionProperties);
+    }
+
+    private static void setCredential(
+            final DocumentDbConnectionProperties connectionProperties,
+            final DocumentDbConnectionProperty property,
+            final String value) {
+        if (value != null) {
+            connectionProperties.setProperty(property.getName(), value);
+        } else {
+            connectionProperties.remove(property.getName());
+        }
+    }
+
     /**
      * Sets the timeout for opening a connection.
      *
@@ -17,6 +17,8 @@
 package software.amazon.documentdb.jdbc;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterators;
+import lombok.SneakyThrows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.common.DatabaseMetaData;
@@ -35,8 +37,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.isNullOrWhitespace;
@@ -58,8 +63,9 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
     private static final Map<JdbcType, Integer> TYPE_COLUMN_SIZE_MAP;
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbDatabaseMetaData.class);
     private static final char ESCAPE_CHAR = '\\';
-    private final DocumentDbDatabaseSchemaMetadata databaseMetadata;
+    private final DocumentDbConnection connection;
     private final DocumentDbConnectionProperties properties;
+    private DocumentDbDatabaseSchemaMetadata databaseMetadata;
 
     static {
         TYPE_COLUMN_SIZE_MAP = new HashMap<>();
@@ -109,6 +115,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
             final DocumentDbDatabaseSchemaMetadata databaseMetadata,
             final DocumentDbConnectionProperties properties) {
         super(connection);
+        this.connection = connection;
         this.databaseMetadata = databaseMetadata;
         this.properties = properties;
     }
@@ -217,37 +224,36 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
 
     @Override
     public ResultSet getTables(final String catalog, final String schemaPattern,
-            final String tableNamePattern, final String[] types) {
-        final List<List<Object>> metaData = new ArrayList<>();
+            final String tableNamePattern, final String[] types) throws SQLException {
+        Iterator<List<Object>> metaData = Collections.emptyIterator();
 
         // ASSUMPTION: We're only supporting tables.
         if (isNullOrWhitespace(catalog)
                 && (types == null || types.length == 0 || Arrays.stream(types)
                         .anyMatch(s -> isNullOrWhitespace(s) || s.equals("TABLE")))) {
             if (schemaPattern == null
-                    || properties.getDatabase().matches(convertPatternToRegex(schemaPattern))) {
-                addTablesForSchema(tableNamePattern, metaData);
+                    || DocumentDbNamePattern.compile(schemaPattern).matches(properties.getDatabase())) {
+                metaData = getTablesForSchema(tableNamePattern);
             }
         }
 
-        return new DocumentDbListResultSet(
+        // Rows are produced as the result set is read.
+        return new DocumentDbIteratorResultSet(
                 null,
                 buildTablesColumnMetaData(properties.getDatabase()),
                 metaData);
     }
 
-    private void addTablesForSchema(final String tableNamePattern,
-            final List<List<Object>> metaData) {
-        final String regexTableNamePattern = convertPatternToRegex(tableNamePattern);
-        for (String tableName : databaseMetadata.getTableSchemaMap().keySet()) {
-            if (tableName.matches(regexTableNamePattern)) {
-                addTableEntry(metaData, tableName);
-            }
-        }
+    private Iterator<List<Object>> getTablesForSchema(final String tableNamePattern)
+            throws SQLException {
+        final DocumentDbNameIndex tableIndex = DocumentDbNameIndex.get(
+                getDatabaseMetadata(tableNamePattern).getTableSchemaMap());
+        return tableIndex.find(DocumentDbNamePattern.compile(tableNamePattern))
+                .mapToObj(position -> getTableEntry(tableIndex.getName(position)))
+                .iterator();
     }
 
-    private void addTableEntry(final List<List<Object>> metaData,
-            final String tableName) {
+    private List<Object> getTableEntry(final String tableName) {
         // 1. TABLE_CAT String => table catalog (may be null)
         // 2. TABLE_SCHEM String => table schema (may be null)
         // 3. TABLE_NAME String => table name
@@ -258,7 +264,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
         // 8. TYPE_NAME String => type name (may be null)
         // 9. SELF_REFERENCING_COL_NAME String => name of the designated "identifier" column of a typed table (may be null)
         // 10. REF_GENERATION String => specifies how values in SELF_REFERENCING_COL_NAME are created. Values are "SYSTEM", "USER", "DERIVED". (may be null)
-        final List<Object> row = new ArrayList<>(Arrays.asList(
+        return Arrays.asList(
                 null,
                 properties.getDatabase(),
                 tableName,
@@ -268,8 +274,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
                 null,
                 null,
                 null,
-                null));
-        metaData.add(row);
+                null);
     }
 
     @Override
@@ -305,68 +310,79 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
     @Override
     public ResultSet getColumns(final String catalog, final String schemaPattern,
             final String tableNamePattern, final String columnNamePattern) throws SQLException {
-        final List<List<Object>> metaData = new ArrayList<>();
+        Iterator<List<Object>> metaData = Collections.emptyIterator();
         if (isNullOrWhitespace(catalog)) {
             if (schemaPattern == null
-                    || properties.getDatabase().matches(convertPatternToRegex(schemaPattern))) {
-                addColumnsForSchema(tableNamePattern, columnNamePattern, metaData);
+                    || DocumentDbNamePattern.compile(schemaPattern).matches(properties.getDatabase())) {
+                metaData = getColumnsForSchema(tableNamePattern, columnNamePattern);
             }
         }
 
-        return new DocumentDbListResultSet(
+        // Rows are produced as the result set is read, one table at a time.
+        return new DocumentDbIteratorResultSet(
                 null,
                 buildColumnsColumnMetaData(properties.getDatabase()),
                 metaData);
     }
 
-    private void addColumnsForSchema(final String tableNamePattern, final String columnNamePattern,
-            final List<List<Object>> metaData) throws SQLException {
-        if ("%".equals(tableNamePattern)) {
-            // Optimized to get the whole map at once.
-            for (DocumentDbSchemaTable table : databaseMetadata.getTableSchemaMap().values()) {
-                addColumnsForTable(columnNamePattern, metaData, table);
-            }
-        } else {
-            final String regexTableNamePattern = convertPatternToRegex(tableNamePattern);
-            for (String tableName : databaseMetadata.getTableSchemaMap().keySet()) {
-                if (tableName.matches(regexTableNamePattern)) {
-                    final DocumentDbSchemaTable table = databaseMetadata
-                            .getTableSchemaMap().get(tableName);
-                    if (table == null) {
-                        // This will occur if the table schema is deleted after retrieving the
-                        // database schema.
-                        throw SqlError.createSQLException(
-                                LOGGER,
-                                SqlState.DATA_EXCEPTION,
-                                SqlError.INCONSISTENT_SCHEMA,
-                                tableName);
-                    }
-                    addColumnsForTable(columnNamePattern, metaData, table);
-                }
-            }
+    private Iterator<List<Object>> getColumnsForSchema(final String tableNamePattern,
+            final String columnNamePattern) throws SQLException {
+        final Map<String, DocumentDbSchemaTable> tableSchemaMap = getDatabaseMetadata(tableNamePattern)
+                .getTableSchemaMap();
+        final DocumentDbNamePattern tablePattern = DocumentDbNamePattern.compile(tableNamePattern);
+        final DocumentDbNamePattern columnPattern = DocumentDbNamePattern.compile(columnNamePattern);
+        final DocumentDbNameIndex tableIndex = DocumentDbNameIndex.get(tableSchemaMap);
+        final Iterator<DocumentDbSchemaTable> tables = tablePattern.isMatchAll()
+                // Optimized to get the whole map at once.
+                ? tableSchemaMap.values().iterator()
+                : tableIndex.find(tablePattern)
+                        .mapToObj(position -> getTableSchema(tableSchemaMap, tableIndex.getName(position)))
+                        .iterator();
+        return Iterators.concat(Iterators.transform(
+                tables, table -> getColumnsForTable(columnPattern, table)));
+    }
+
+    @SneakyThrows
+    private static DocumentDbSchemaTable getTableSchema(
+            final Map<String, DocumentDbSchemaTable> tableSchemaMap,
+            final String tableName) {
+        final DocumentDbSchemaTable table = tableSchemaMap.get(tableName);
+        if (table == null) {
+            // This will occur if the table schema is deleted after retrieving the
+            // database schema.
+            throw SqlError.createSQLException(
+                    LOGGER,
+                    SqlState.DATA_EXCEPTION,
+                    SqlError.INCONSISTENT_SCHEMA,
+                    tableName);
         }
+        return table;
     }
 
-    private void addColumnsForTable(final String columnNamePattern,
-            final List<List<Object>> metaData,
+    private Iterator<List<Object>> getColumnsForTable(final DocumentDbNamePattern columnPattern,
             final DocumentDbSchemaTable table) {
-        final String regexColumnPattern = convertPatternToRegex(columnNamePattern);
-        for (DocumentDbSchemaColumn column : table.getColumnMap().values()) {
-            if (column.getSqlName().matches(regexColumnPattern)) {
-                addColumnEntry(metaData, table, column);
-            }
-        }
+        // The ordinal position is the (one-based) position in the table's columns.
+        final List<DocumentDbSchemaColumn> columns = table.getColumnMap().values().asList();
+        return DocumentDbNameIndex.get(table.getColumnMap()).find(columnPattern)
+                .filter(position -> isColumnEntry(columns.get(position)))
+                .mapToObj(position -> getColumnEntry(table, columns.get(position), position + 1))
+                .iterator();
     }
 
+    private static boolean isColumnEntry(final DocumentDbSchemaColumn column) {
+        return column.getSqlType() != JdbcType.JAVA_OBJECT && column.getSqlType() != JdbcType.ARRAY;
+    }
+
+
     /**
      * Warning: if any entry becomes used/unused, reflection of that change in the
      *  ODBC driver is required as well. Files to be changed in the ODBC driver:
      *  function ColumnMetadataQuery::GetColumn in namespace query
      *  in column_metadata_query.cpp
      */
-    private void addColumnEntry(final List<List<Object>> metaData,
-            final DocumentDbSchemaTable table,
-            final DocumentDbSchemaColumn column) {
+    private List<Object> getColumnEntry(final DocumentDbSchemaTable table,
+            final DocumentDbSchemaColumn column,
+            final Integer ordinalPosition) {
         //  1. TABLE_CAT String => table catalog (may be null)
         //  2. TABLE_SCHEM String => table schema (may be null)
         //  3. TABLE_NAME String => table name
@@ -403,10 +419,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
         //        YES --- if this a generated column
         //        NO --- if this not a generated column
         //        empty string --- if it cannot be determined whether this is a generated column
-        if (column.getSqlType() == JdbcType.JAVA_OBJECT || column.getSqlType() == JdbcType.ARRAY) {
-            return;
-        }
-        final List<Object> row = new ArrayList<>(Arrays.asList(
+        return Arrays.asList(
                 null, // TABLE_CAT
                 properties.getDatabase(), // TABLE_SCHEM
                 table.getSqlName(), // TABLE_NAME
@@ -426,7 +439,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
                 null, // SQL_DATA_TYPE
                 null, // SQL_DATETIME_SUB
                 getCharOctetLength(column), // CHAR_OCTET_LENGTH
-                column.getIndex(table).orElse(null), // ORDINAL_POSITION (one-based)
+                ordinalPosition, // ORDINAL_POSITION (one-based)
                 column.isPrimaryKey() ? "NO" : "YES",
                 // IS_NULLABLE
                 null, // SCOPE_CATALOG
@@ -435,8 +448,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
                 null, // SOURCE_DATA_TYPE
                 "NO", // IS_AUTOINCREMENT
                 column.isIndex() ? "YES" : "NO" // IS_GENERATEDCOLUMN
-        ));
-        metaData.add(row);
+        );
     }
 
     private static Integer getCharOctetLength(final DocumentDbSchemaColumn column) {
@@ -494,39 +506,43 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
         // 6. PK_NAME String => primary key name (may be null)
         final List<List<Object>> metaData = new ArrayList<>();
         if (schema == null || properties.getDatabase().equals(schema)) {
-            for (String tableName : databaseMetadata.getTableSchemaMap().keySet()) {
-                if (tableName.equals(table)) {
-                    final DocumentDbSchemaTable metadataTable = databaseMetadata
-                            .getTableSchemaMap().get(tableName);
-                    if (metadataTable == null) {
-                        // This will occur if the table schema is deleted after retrieving the
-                        // database schema.
-                        throw SqlError.createSQLException(
-                                LOGGER,
-                                SqlState.DATA_EXCEPTION,
-                                SqlError.INCONSISTENT_SCHEMA,
-                                tableName);
-                    }
-                    for (DocumentDbSchemaColumn column : metadataTable.getColumnMap().values()) {
-                        // 1. TABLE_CAT String => table catalog (may be null)
-                        // 2. TABLE_SCHEM String => table schema (may be null)
-                        // 3. TABLE_NAME String => table name
-                        // 4. COLUMN_NAME String => column name
-                        // 5. KEY_SEQ short => sequence number within primary key
-                        //    (a value of 1 represents the first column of the primary key, a
-                        //    value of 2 would represent the second column within the primary key).
-                        // 6. PK_NAME String => primary key name (may be null)
-                        if (column.isPrimaryKey()) {
-                            final List<Object> row = new ArrayList<>(Arrays.asList(
-                                    null, // TABLE_CAT
-                                    properties.getDatabase(), // TABLE_SCHEM
-                                    metadataTable.getSqlName(), // TABLE_NAME
-                                    column.getSqlName(), // COLUMN_NAME
-                                    column.getPrimaryKeyIndex(metadataTable).orElse(0), // KEY_SEQ
-                                    null // PK_NAME
-                            ));
-                            metaData.add(row);
-                        }
+            final DocumentDbDatabaseSchemaMetadata databaseMetadata = getDatabaseMetadata(
+                    escapePattern(table));
+            final Map<String, DocumentDbSchemaTable> tableSchemaMap = databaseMetadata
+                    .getTableSchemaMap();
+            // Look up the table by name, rather than scanning every table.
+            if (table != null && tableSchemaMap.containsKey(table)) {
+                final DocumentDbSchemaTable metadataTable = tableSchemaMap.get(table);
+                if (metadataTable == null) {
+                    // This will occur if the table schema is deleted after retrieving the
+                    // database schema.
+                    throw SqlError.createSQLException(
+                            LOGGER,
+                            SqlState.DATA_EXCEPTION,
+                            SqlError.INCONSISTENT_SCHEMA,
+                            table);
+                }
+                int keySequence = 0;
+                for (DocumentDbSchemaColumn column : metadataTable.getColumnMap().values()) {
+                    // 1. TABLE_CAT String => table catalog (may be null)
+                    // 2. TABLE_SCHEM String => table schema (may be null)
+                    // 3. TABLE_NAME String => table name
+                    // 4. COLUMN_NAME String => column name
+                    // 5. KEY_SEQ short => sequence number within primary key
+                    //    (a value of 1 represents the first column of the primary key, a
+                    //    value of 2 would represent the second column within the primary key).
+                    // 6. PK_NAME String => primary key name (may be null)
+                    if (column.isPrimaryKey()) {
+                        keySequence++;
+                        final List<Object> row = new ArrayList<>(Arrays.asList(
+                                null, // TABLE_CAT
+                                properties.getDatabase(), // TABLE_SCHEM
+                                metadataTable.getSqlName(), // TABLE_NAME
+                                column.getSqlName(), // COLUMN_NAME
+                                keySequence, // KEY_SEQ
+                                null // PK_NAME
+                        ));
+                        metaData.add(row);
                     }
                 }
             }
@@ -556,22 +572,14 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
 
     private void addImportedKeysForSchema(final String table,
             final List<List<Object>> metaData) throws SQLException {
-        final String regexTablePattern = convertPatternToRegex(table);
-        for (String tableName : databaseMetadata.getTableSchemaMap().keySet()) {
-            if (tableName.matches(regexTablePattern)) {
-                final DocumentDbSchemaTable schemaTable = databaseMetadata
-                        .getTableSchemaMap().get(tableName);
-                if (schemaTable == null) {
-                    // This will occur if the table schema is deleted after retrieving the
-                    // database schema.
-                    throw SqlError.createSQLException(
-                            LOGGER,
-                            SqlState.DATA_EXCEPTION,
-                            SqlError.INCONSISTENT_SCHEMA,
-                            tableName);
-                }
-                addImportedKeysForTable(metaData, schemaTable, schemaTable);
-            }
+        final DocumentDbNamePattern tablePattern = DocumentDbNamePattern.compile(table);
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata = getDatabaseMetadata(table);
+        final DocumentDbNameIndex tableIndex = DocumentDbNameIndex.get(
+                databaseMetadata.getTableSchemaMap());
+        for (int position : tableIndex.find(tablePattern).toArray()) {
+            final DocumentDbSchemaTable schemaTable = getTableSchema(
+                    databaseMetadata.getTableSchemaMap(), tableIndex.getName(position));
+            addImportedKeysForTable(metaData, schemaTable, schemaTable);
         }
     }
 
@@ -716,7 +724,7 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
         // 2. TABLE_CATALOG String => catalog name (may be null)
         if (isNullOrWhitespace(catalog)) {
             if (isNullOrWhitespace(schemaPattern)
-                    || properties.getDatabase().matches(convertPatternToRegex(schemaPattern))) {
+                    || DocumentDbNamePattern.compile(schemaPattern).matches(properties.getDatabase())) {
                 final List<Object> row = new ArrayList<>(
                         Arrays.asList(properties.getDatabase(), null));
                 metaData.add(row);
@@ -789,6 +797,41 @@ public class DocumentDbDatabaseMetaData extends DatabaseMetaData implements java
         return converted.toString();
     }
 
+    /**
+     * Gets the database metadata, first generating the table schema for any collections that may
+     * have tables matching the given pattern, when the lazy schema generation option is enabled.
+     */
+    private DocumentDbDatabaseSchemaMetadata getDatabaseMetadata(final String tableNamePattern)
+            throws SQLException {
+        if (properties.getLazySchemaGeneration()) {
+            databaseMetadata = connection.getDatabaseMetadataForTables(
+                    getBaseTableNameFilter(tableNamePattern));
+        }
+        return databaseMetadata;
+    }
+
+    /**
+     * Gets a filter that accepts a base table name if the pattern could match the base table or
+     * one of its virtual tables, which are named with the base table name and a '_' separator.
+     */
+    private static Predicate<String> getBaseTableNameFilter(final String tableNamePattern) {
+        final Pattern pattern = Pattern.compile(convertPatternToRegex(tableNamePattern));
+        return baseTableName -> {
+            if (pattern.matcher(baseTableName).matches()) {
+                return true;
+            }
+            // Hitting the end of the input means a longer table name could still match.
+            final Matcher matcher = pattern.matcher(baseTableName + "_");
+            return matcher.matches() || matcher.hitEnd();
+        };
+    }
+
+    private static String escapePattern(final String tableName) {
+        return tableName == null
+                ? null
+                : tableName.replaceAll("([\\\\_%])", "\\\\$1");
+    }
+
     private static int updateRegexExpression(final int index, final int start, final String pattern, final String str, final StringBuilder converted) {
         if (index - start > 0) {
             converted.append(Pattern.quote(pattern.substring(start, index)));
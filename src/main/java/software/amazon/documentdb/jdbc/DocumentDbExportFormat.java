@@ -0,0 +1,49 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+/**
+ * The enumeration of output formats of a query export.
+ */
+public enum DocumentDbExportFormat {
+    CSV("csv"),
+    JSON_LINES("jsonl");
+
+    private final String name;
+
+    DocumentDbExportFormat(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns DocumentDbExportFormat with a name that matches input string.
+     * @param formatString name of the export format.
+     * @return DocumentDbExportFormat of string.
+     */
+    public static DocumentDbExportFormat fromString(final String formatString) {
+        for (DocumentDbExportFormat format: DocumentDbExportFormat.values()) {
+            if (format.name.equals(formatString)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Invalid export format.");
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+import software.amazon.documentdb.jdbc.common.utilities.SqlError;
+import software.amazon.documentdb.jdbc.common.utilities.SqlState;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A forward-only result set over rows that are produced on demand, so that large metadata
+ * results are not held in memory at once.
+ */
+class DocumentDbIteratorResultSet extends DocumentDbAbstractResultSet {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbIteratorResultSet.class);
+    private final Iterator<List<Object>> iterator;
+    private List<Object> current;
+    private int rowIndex = -1;
+
+    DocumentDbIteratorResultSet(
+            final Statement statement,
+            final ImmutableList<JdbcColumnMetaData> columnMetaData,
+            final Iterator<List<Object>> iterator) {
+        super(statement, columnMetaData);
+        this.iterator = iterator;
+    }
+
+    @Override
+    protected Object getValue(final int columnIndex) {
+        return current.get(columnIndex - 1);
+    }
+
+    @Override
+    protected void doClose() {
+        current = null;
+    }
+
+    @Override
+    protected int getDriverFetchSize() {
+        return 0;
+    }
+
+    @Override
+    protected void setDriverFetchSize(final int rows) {
+
+    }
+
+    @Override
+    protected int getRowIndex() {
+        // zero-indexed
+        return rowIndex;
+    }
+
+    @Override
+    protected int getRowCount() throws SQLFeatureNotSupportedException {
+        throw SqlError.createSQLFeatureNotSupportedException(LOGGER, SqlError.RESULT_FORWARD_ONLY);
+    }
+
+    @Override
+    protected void verifyRow() throws SQLException {
+        // A result without rows is neither before the first row nor after the last row, but
+        // has no current row.
+        if (current == null) {
+            throw SqlError.createSQLException(LOGGER,
+                    SqlState.DATA_EXCEPTION,
+                    rowIndex == -1 ? SqlError.BEFORE_FIRST : SqlError.AFTER_LAST);
+        }
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        verifyOpen();
+        // A result without rows is never before the first row.
+        return (rowIndex == -1 && iterator.hasNext());
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        verifyOpen();
+        return (current != null && !iterator.hasNext());
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        verifyOpen();
+        // A result without rows is never after the last row.
+        return (rowIndex >= 0 && current == null && !iterator.hasNext());
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        verifyOpen();
+        if (iterator.hasNext()) {
+            current = iterator.next();
+            rowIndex++;
+            return true;
+        } else {
+            current = null;
+            return false;
+        }
+    }
+}
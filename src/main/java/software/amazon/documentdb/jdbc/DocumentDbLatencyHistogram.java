@@ -0,0 +1,83 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies. Bucket {@code i} counts the latencies of less than
+ * 2<sup>i</sup> microseconds, so recording a latency is a few atomic increments.
+ */
+final class DocumentDbLatencyHistogram {
+    private static final int BUCKET_COUNT = 40;
+    private static final long NANOS_PER_MICRO = 1_000;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    void record(final long nanos) {
+        final long micros = Math.max(0, nanos) / NANOS_PER_MICRO;
+        final int bucket = Math.min(BUCKET_COUNT - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Gets a snapshot of the statistics of the histogram.
+     *
+     * @return a {@link DocumentDbLatencyStatistics} snapshot.
+     */
+    DocumentDbLatencyStatistics getStatistics() {
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        final double maxMillis = maxNanos.get() / NANOS_PER_MILLI;
+        return new DocumentDbLatencyStatistics(
+                total,
+                total > 0 ? sumNanos.sum() / NANOS_PER_MILLI / total : 0,
+                maxMillis,
+                Math.min(maxMillis, getPercentile(counts, total, 0.50)),
+                Math.min(maxMillis, getPercentile(counts, total, 0.95)),
+                Math.min(maxMillis, getPercentile(counts, total, 0.99)));
+    }
+
+    private static double getPercentile(final long[] counts, final long total, final double percentile) {
+        final long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return (1L << i) / MICROS_PER_MILLI;
+            }
+        }
+        return 0;
+    }
+}
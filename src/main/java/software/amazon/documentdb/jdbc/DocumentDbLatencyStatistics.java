@@ -0,0 +1,49 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import lombok.Getter;
+
+/**
+ * A snapshot of the statistics of a latency histogram, in milliseconds. The percentiles are
+ * estimated from the histogram buckets, so they are the upper bound of the bucket the percentile
+ * falls in.
+ */
+@Getter
+public final class DocumentDbLatencyStatistics {
+    private final long count;
+    private final double meanMillis;
+    private final double maxMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+
+    DocumentDbLatencyStatistics(
+            final long count,
+            final double meanMillis,
+            final double maxMillis,
+            final double p50Millis,
+            final double p95Millis,
+            final double p99Millis) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+    }
+}
@@ -20,13 +20,16 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
@@ -34,6 +37,8 @@ import com.fasterxml.jackson.databind.util.StdDateFormat;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.DuplicateKeyException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -59,9 +64,11 @@ import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaColumn;
 import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable;
 import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaSecurityException;
 
+import java.io.BufferedWriter;
 import java.io.Console;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -73,13 +80,22 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -123,12 +139,18 @@ public class DocumentDbMain {
     private static final List<Option> OPTIONAL_OPTIONS;
     // String constants
     private static final String LIBRARY_NAME_DEFAULT = "documentdb-jdbc";
+    private static final int SCHEMA_BATCH_SIZE = 500;
+    private static final int SCHEMA_EXPORT_THREAD_COUNT = 4;
 
     // Option string constants
     private static final String DATABASE_OPTION_FLAG = "d";
     private static final String DATABASE_OPTION_NAME = "database";
     private static final String EXPORT_OPTION_FLAG = "e";
     private static final String EXPORT_OPTION_NAME = "export";
+    private static final String EXPORT_QUERY_OPTION_FLAG = "q";
+    private static final String EXPORT_QUERY_OPTION_NAME = "export-query";
+    private static final String FORMAT_OPTION_FLAG = "f";
+    private static final String FORMAT_OPTION_NAME = "format";
     private static final String GENERATE_NAME_OPTION_FLAG = "g";
     private static final String GENERATE_NEW_OPTION_NAME = "generate-new";
     private static final String HELP_OPTION_FLAG = "h";
@@ -141,6 +163,8 @@ public class DocumentDbMain {
     private static final String LIST_TABLES_OPTION_NAME = "list-tables";
     private static final String OUTPUT_OPTION_FLAG = "o";
     private static final String OUTPUT_OPTION_NAME = "output";
+    private static final String PARTITIONS_OPTION_FLAG = "c";
+    private static final String PARTITIONS_OPTION_NAME = "partitions";
     private static final String PASSWORD_OPTION_FLAG = "p";
     private static final String PASSWORD_OPTION_NAME = "password";
     private static final String REMOVE_OPTION_FLAG = "r";
@@ -163,9 +187,12 @@ public class DocumentDbMain {
     // Option argument string constants
     private static final String DATABASE_NAME_ARG_NAME = "database-name";
     private static final String FILE_NAME_ARG_NAME = "file-name";
+    private static final String FORMAT_ARG_NAME = "format";
     private static final String HOST_NAME_ARG_NAME = "host-name";
     private static final String MAX_DOCUMENTS_ARG_NAME = "max-documents";
     private static final String METHOD_ARG_NAME = "method";
+    private static final String PARTITION_COUNT_ARG_NAME = "count";
+    private static final String SQL_QUERY_ARG_NAME = "sql-query";
     private static final String USER_NAME_ARG_NAME = "user-name";
     private static final String TABLE_NAMES_ARG_NAME = "[table-name[,...]]";
     // Option description string constants
@@ -224,9 +251,21 @@ public class DocumentDbMain {
             "Imports the schema from <file-name> in your home directory. The schema will be imported using the"
                     + " <schema-name> and a new version will be added - replacing the existing"
                     + " schema. The expected input format is JSON.";
+    private static final String EXPORT_QUERY_OPTION_DESCRIPTION =
+            "Exports the result of the SQL query <sql-query>. The rows are streamed from the"
+                    + " database directly to the output, in the format given by the --format"
+                    + " option. Use the --output option to write to a file.";
+    private static final String FORMAT_OPTION_DESCRIPTION =
+            "The format of the exported query result. One of: csv or jsonl. "
+                    + "Used in conjunction with the --export-query command. "
+                    + "Default: csv.";
+    private static final String PARTITIONS_OPTION_DESCRIPTION =
+            "The number of partitions of the collection to read in parallel. Only applies to"
+                    + " queries that filter or project a single collection. Used in conjunction"
+                    + " with the --export-query command. Default: 1.";
     private static final String OUTPUT_OPTION_DESCRIPTION =
-            "Write the exported schema to <file-name> in your home directory (instead of stdout)."
-                    + " This will overwrite any existing file with the same name";
+            "Write the exported schema or query result to <file-name> in your home directory"
+                    + " (instead of stdout). This will overwrite any existing file with the same name";
     // Messages string constants
     public static final String DUPLICATE_COLUMN_KEY_DETECTED_FOR_TABLE_SCHEMA =
             "Duplicate column key '%s' detected for table schema '%s'. Original column '%s'."
@@ -234,6 +273,7 @@ public class DocumentDbMain {
     private static final String NEW_SCHEMA_VERSION_GENERATED_MESSAGE =
             "New schema '%s', version '%s' generated.";
     private static final String REMOVED_SCHEMA_MESSAGE = "Removed schema '%s'.";
+    private static final String EXPORTED_QUERY_MESSAGE = "Exported %d row(s) to '%s'.";
 
     private static MongoClient client;
 
@@ -265,6 +305,11 @@ public class DocumentDbMain {
      *                                   hostnames when connecting to DocumentDB.
      *                                   Default: false.
      * -b,--list-tables                  Lists the SQL table names in a schema.
+     * -c,--partitions &#60;count&#62;           The number of partitions of the collection to
+     *                                   read in parallel. Only applies to queries
+     *                                   that filter or project a single collection.
+     *                                   Used in conjunction with the --export-query
+     *                                   command. Default: 1.
      * -d,--database &#60;database-name&#62;     The name of the database for the schema
      *                                   operations. Required.
      * -e,--export &#60;[table-name[,...]]&#62;  Exports the schema to for SQL tables named
@@ -273,6 +318,9 @@ public class DocumentDbMain {
      *                                   be exported. By default, the schema is
      *                                   written to stdout. Use the --output option to
      *                                   write to a file. The output format is JSON.
+     * -f,--format &#60;format&#62;              The format of the exported query result. One
+     *                                   of: csv or jsonl. Used in conjunction with
+     *                                   the --export-query command. Default: csv.
      * -g,--generate-new                 Generates a new schema for the database. This
      *                                   will have the effect of replacing an existing
      *                                   schema of the same name, if it exists.
@@ -289,14 +337,19 @@ public class DocumentDbMain {
      *                                   idReverse, or all. Used in conjunction with
      *                                   the --generate-new command. Default: random.
      * -n,--schema-name &#60;schema-name&#62;    The name of the schema. Default: _default.
-     * -o,--output &#60;file-name&#62;           Write the exported schema to &#60;file-name&#62; in
-     *                                   your home directory (instead of stdout). This
-     *                                   will overwrite any existing file with the
-     *                                   same name
+     * -o,--output &#60;file-name&#62;           Write the exported schema or query result to
+     *                                   &#60;file-name&#62; in your home directory (instead
+     *                                   of stdout). This will overwrite any existing
+     *                                   file with the same name
      * -p,--password &#60;password&#62;          The password for the user performing the
      *                                   schema operations. Optional. If this option
      *                                   is not provided, the end-user will be
      *                                   prompted to enter the password directly.
+     * -q,--export-query &#60;sql-query&#62;     Exports the result of the SQL query
+     *                                   &#60;sql-query&#62;. The rows are streamed from the
+     *                                   database directly to the output, in the
+     *                                   format given by the --format option. Use the
+     *                                   --output option to write to a file.
      * -r,--remove                       Removes the schema from storage for schema
      *                                   given by -m &#60;schema-name&#62;, or for schema
      *                                   '_default', if not provided.
@@ -384,6 +437,9 @@ public class DocumentDbMain {
             case IMPORT_OPTION_FLAG: // --import
                 performImport(commandLine, properties, output);
                 break;
+            case EXPORT_QUERY_OPTION_FLAG: // --export-query
+                performExportQuery(commandLine, properties, output);
+                break;
             default:
                 output.append(SqlError.lookup(SqlError.UNSUPPORTED_PROPERTY,
                         COMMAND_OPTIONS.getSelected()));
@@ -414,51 +470,119 @@ public class DocumentDbMain {
             return;
         }
 
-        final List<TableSchema> tableSchemaList = tryReadTableSchemaList(importFile, output);
-        if (tableSchemaList == null) {
-            return;
+        // Read and write the table schema in batches, so the file is never held in memory. The
+        // new version of the schema is written last and only references the tables once they are
+        // all written. On failure, the tables written so far are removed again.
+        final Set<String> tableIds = new LinkedHashSet<>();
+        boolean isImported = false;
+        try {
+            isImported = tryWriteImportFile(importFile, properties, tableIds, output)
+                    && tryUpdateTableReferences(properties, tableIds, output);
+        } finally {
+            if (!isImported) {
+                removeUnreferencedTables(properties, tableIds, output);
+            }
+        }
+    }
+
+    private static boolean tryWriteImportFile(
+            final File importFile,
+            final DocumentDbConnectionProperties properties,
+            final Set<String> tableIds,
+            final StringBuilder output) {
+        try (JsonParser parser = JSON_OBJECT_MAPPER.createParser(importFile)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, List.class,
+                        "Expected an array of table schema.");
+            }
+            final List<TableSchema> tableSchemaList = new ArrayList<>(SCHEMA_BATCH_SIZE);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                tableSchemaList.add(JSON_OBJECT_MAPPER.readValue(parser, TableSchema.class));
+                if (tableSchemaList.size() == SCHEMA_BATCH_SIZE) {
+                    if (!tryWriteTableSchemas(properties, tableSchemaList, tableIds, output)) {
+                        return false;
+                    }
+                    tableSchemaList.clear();
+                }
+            }
+            return tryWriteTableSchemas(properties, tableSchemaList, tableIds, output);
+        } catch (IOException e) {
+            output.append(e.getClass().getSimpleName())
+                    .append(" ")
+                    .append(e.getMessage());
+            return false;
         }
+    }
 
+    private static boolean tryWriteTableSchemas(
+            final DocumentDbConnectionProperties properties,
+            final List<TableSchema> tableSchemaList,
+            final Set<String> tableIds,
+            final StringBuilder output) {
+        if (tableSchemaList.isEmpty()) {
+            return true;
+        }
         final List<DocumentDbSchemaTable> schemaTableList = tryGetSchemaTableList(
                 tableSchemaList, output);
         if (schemaTableList == null) {
-            return;
+            return false;
         }
-
-        updateTableSchema(properties, schemaTableList, output);
+        // Track the IDs before the write, as a failed batch may still be partially written.
+        schemaTableList.forEach(schemaTable -> tableIds.add(schemaTable.getId()));
+        try {
+            DocumentDbDatabaseSchemaMetadata.writeTables(
+                    properties,
+                    properties.getSchemaName(),
+                    schemaTableList,
+                    getMongoClient(properties));
+        } catch (SQLException | DocumentDbSchemaSecurityException e) {
+            output.append(e.getClass().getSimpleName())
+                    .append(" ")
+                    .append(e.getMessage());
+            return false;
+        }
+        return true;
     }
 
-    private static void updateTableSchema(
+    private static boolean tryUpdateTableReferences(
             final DocumentDbConnectionProperties properties,
-            final List<DocumentDbSchemaTable> schemaTableList,
+            final Set<String> tableIds,
             final StringBuilder output) {
         try {
-            DocumentDbDatabaseSchemaMetadata.update(
+            DocumentDbDatabaseSchemaMetadata.updateTableReferences(
                     properties,
                     properties.getSchemaName(),
-                    schemaTableList,
+                    tableIds,
                     getMongoClient(properties));
         } catch (SQLException | DocumentDbSchemaSecurityException e) {
             output.append(e.getClass().getSimpleName())
                     .append(" ")
                     .append(e.getMessage());
+            return false;
         }
+        return true;
     }
 
-    private static List<TableSchema> tryReadTableSchemaList(
-            final File importFile,
+    private static void removeUnreferencedTables(
+            final DocumentDbConnectionProperties properties,
+            final Set<String> tableIds,
             final StringBuilder output) {
-        final List<TableSchema> tableSchemaList;
+        if (tableIds.isEmpty()) {
+            return;
+        }
         try {
-            tableSchemaList = JSON_OBJECT_MAPPER.readValue(importFile,
-                    new TypeReference<List<TableSchema>>() { });
-        } catch (IOException e) {
-            output.append(e.getClass().getSimpleName())
+            DocumentDbDatabaseSchemaMetadata.removeUnreferencedTables(
+                    properties,
+                    properties.getSchemaName(),
+                    tableIds,
+                    getMongoClient(properties));
+        } catch (SQLException | DocumentDbSchemaSecurityException | RuntimeException e) {
+            // Keep the original failure in the output and report the clean-up failure after it.
+            output.append(System.lineSeparator())
+                    .append(e.getClass().getSimpleName())
                     .append(" ")
                     .append(e.getMessage());
-            return null;
         }
-        return tableSchemaList;
     }
 
     private static List<DocumentDbSchemaTable> tryGetSchemaTableList(
@@ -546,12 +670,60 @@ public class DocumentDbMain {
         } else if (verifyRequestedTablesExist(requestedTableList, availTableSet, output)) {
             return;
         }
-        final List<TableSchema> tableSchemaList = requestedTableList.stream()
-                .map(tableName -> new TableSchema(schema.getTableSchemaMap().get(tableName)))
-                .sorted(Comparator.comparing(TableSchema::getSqlName))
+        final List<String> sortedTableNames = requestedTableList.stream()
+                .sorted()
                 .collect(Collectors.toList());
         try {
-            writeTableSchemas(tableSchemaList, outputFile, output);
+            writeTableSchemas(properties, schema, sortedTableNames, outputFile, output);
+        } catch (IOException e) {
+            output.append(e.getClass().getSimpleName())
+                    .append(" ")
+                    .append(e.getMessage());
+        }
+    }
+
+    private static void performExportQuery(
+            final CommandLine commandLine,
+            final DocumentDbConnectionProperties properties,
+            final StringBuilder output) throws SQLException {
+        final DocumentDbExportFormat format;
+        try {
+            format = DocumentDbExportFormat.fromString(commandLine.getOptionValue(
+                    FORMAT_OPTION_FLAG, DocumentDbExportFormat.CSV.getName()));
+        } catch (IllegalArgumentException e) {
+            output.append(e.getMessage());
+            return;
+        }
+        final int partitionCount = getPartitionCount(commandLine);
+        if (partitionCount < 1) {
+            output.append(String.format("Option '-%s' requires a positive integer argument.",
+                    PARTITIONS_OPTION_FLAG));
+            return;
+        }
+
+        // Determine if output file is required.
+        final File outputFile;
+        if (commandLine.hasOption(OUTPUT_OPTION_FLAG)) {
+            outputFile = tryGetOutputFile(commandLine, output);
+            if (outputFile == null) {
+                return;
+            }
+        } else {
+            outputFile = null;
+        }
+
+        final DocumentDbQueryExporter exporter = new DocumentDbQueryExporter(
+                properties, getMongoClient(properties), format, partitionCount);
+        // Without an output file, the rows are streamed to standard output as they are read,
+        // rather than collected in the output.
+        try (Writer writer = outputFile != null
+                ? new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))
+                : new StandardOutputWriter()) {
+            final long rowCount = exporter.export(
+                    commandLine.getOptionValue(EXPORT_QUERY_OPTION_FLAG), writer);
+            if (outputFile != null) {
+                output.append(String.format(EXPORTED_QUERY_MESSAGE, rowCount, outputFile.getName()));
+            }
         } catch (IOException e) {
             output.append(e.getClass().getSimpleName())
                     .append(" ")
@@ -559,6 +731,14 @@ public class DocumentDbMain {
         }
     }
 
+    private static int getPartitionCount(final CommandLine commandLine) {
+        try {
+            return Integer.parseInt(commandLine.getOptionValue(PARTITIONS_OPTION_FLAG, "1"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private static boolean verifyRequestedTablesExist(
             final List<String> requestedTableList,
             final Set<String> availTableNames,
@@ -578,11 +758,74 @@ public class DocumentDbMain {
     }
 
     private static void writeTableSchemas(
-            final List<TableSchema> tables, final File outputFile, final StringBuilder output) throws IOException {
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbDatabaseSchemaMetadata schema,
+            final List<String> tableNames,
+            final File outputFile,
+            final StringBuilder output) throws IOException, SQLException {
+        final MongoClient mongoClient = getMongoClient(properties);
+        final ObjectWriter objectWriter = JSON_OBJECT_MAPPER.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                SCHEMA_EXPORT_THREAD_COUNT,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("documentdb-schema-export-%d")
+                        .setDaemon(true)
+                        .build());
         try (Writer writer = outputFile != null
-                ? new OutputStreamWriter(new FileOutputStream((outputFile)), StandardCharsets.UTF_8)
-                : new StringBuilderWriter(output)) {
-            JSON_OBJECT_MAPPER.writeValue(writer, tables);
+                ? new BufferedWriter(new OutputStreamWriter(new FileOutputStream((outputFile)), StandardCharsets.UTF_8))
+                : new StringBuilderWriter(output);
+                JsonGenerator generator = objectWriter.createGenerator(writer)) {
+            // Read the next batches of tables in parallel while writing the current batch, so
+            // only a bounded number of tables are held in memory.
+            final Iterator<List<String>> batches = Lists
+                    .partition(tableNames, SCHEMA_BATCH_SIZE).iterator();
+            final Deque<Future<List<DocumentDbSchemaTable>>> pendingBatches = new ArrayDeque<>();
+            generator.writeStartArray();
+            while (batches.hasNext() || !pendingBatches.isEmpty()) {
+                while (batches.hasNext() && pendingBatches.size() < SCHEMA_EXPORT_THREAD_COUNT * 2) {
+                    final List<String> batch = batches.next();
+                    pendingBatches.add(executor.submit(
+                            () -> readTableSchemas(properties, schema, batch, mongoClient)));
+                }
+                for (DocumentDbSchemaTable table : getTableSchemas(pendingBatches.remove())) {
+                    objectWriter.writeValue(generator, new TableSchema(table));
+                }
+            }
+            generator.writeEndArray();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<DocumentDbSchemaTable> readTableSchemas(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbDatabaseSchemaMetadata schema,
+            final List<String> tableNames,
+            final MongoClient mongoClient) throws SQLException {
+        final Map<String, DocumentDbSchemaTable> tables = schema.readTableSchemas(
+                properties, tableNames, mongoClient);
+        return tableNames.stream()
+                .map(tables::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static List<DocumentDbSchemaTable> getTableSchemas(
+            final Future<List<DocumentDbSchemaTable>> batch) throws SQLException {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause.getMessage(), cause);
         }
     }
 
@@ -879,6 +1122,24 @@ public class DocumentDbMain {
                 .required(false)
                 .build();
         optionalOptions.add(currOption);
+        currOption = Option.builder(FORMAT_OPTION_FLAG)
+                .longOpt(FORMAT_OPTION_NAME)
+                .desc(FORMAT_OPTION_DESCRIPTION)
+                .numberOfArgs(1)
+                .argName(FORMAT_ARG_NAME)
+                .required(false)
+                .type(DocumentDbExportFormat.class)
+                .build();
+        optionalOptions.add(currOption);
+        currOption = Option.builder(PARTITIONS_OPTION_FLAG)
+                .longOpt(PARTITIONS_OPTION_NAME)
+                .desc(PARTITIONS_OPTION_DESCRIPTION)
+                .numberOfArgs(1)
+                .argName(PARTITION_COUNT_ARG_NAME)
+                .required(false)
+                .type(Integer.class)
+                .build();
+        optionalOptions.add(currOption);
         optionalOptions.add(HELP_OPTION);
         optionalOptions.add(VERSION_OPTION);
 
@@ -955,6 +1216,13 @@ public class DocumentDbMain {
                 .argName(FILE_NAME_ARG_NAME)
                 .build();
         commandOptions.addOption(currOption);
+        currOption = Option.builder(EXPORT_QUERY_OPTION_FLAG)
+                .longOpt(EXPORT_QUERY_OPTION_NAME)
+                .desc(EXPORT_QUERY_OPTION_DESCRIPTION)
+                .numberOfArgs(1)
+                .argName(SQL_QUERY_ARG_NAME)
+                .build();
+        commandOptions.addOption(currOption);
         commandOptions.setRequired(true);
 
         return commandOptions;
@@ -1044,6 +1312,21 @@ public class DocumentDbMain {
         }
     }
 
+    /**
+     * Writes to standard output in UTF-8. Closing the writer only flushes it, so standard output
+     * stays open.
+     */
+    private static class StandardOutputWriter extends FilterWriter {
+        StandardOutputWriter() {
+            super(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
     private static class StringBuilderWriter extends Writer {
         private final StringBuilder stringBuilder;
 
@@ -0,0 +1,371 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import lombok.NonNull;
+import org.bson.RawBsonDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * The process-wide metrics of the driver. It records the phase timings, rows, bytes and batches
+ * of each query, keeps latency histograms per query phase and per query fingerprint, and exposes
+ * gauges of connections, connection pools, schema caches and SSH tunnels. The metrics are
+ * published as the {@value #OBJECT_NAME} MBean and to the registered
+ * {@link DocumentDbMetricsListener} listeners.
+ */
+public final class DocumentDbMetrics {
+    /** The JMX object name of the metrics MBean. */
+    public static final String OBJECT_NAME = "software.amazon.documentdb.jdbc:type=Metrics";
+    static final long MAXIMUM_FINGERPRINTS = 1_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbMetrics.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile(
+            "(?<![\\w\"])[-+]?\\d+(?:\\.\\d*)?(?:[eE][-+]?\\d+)?(?![\\w\"])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String[] PHASES = {"translate", "execute", "firstRow", "fetch", "total"};
+
+    private static final List<DocumentDbMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, DocumentDbLatencyHistogram> PHASE_HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Cache<String, DocumentDbLatencyHistogram> QUERY_HISTOGRAMS = CacheBuilder
+            .newBuilder()
+            .maximumSize(MAXIMUM_FINGERPRINTS)
+            .build();
+    private static final ThreadLocal<DocumentDbQueryRecorder> CURRENT_QUERY = new ThreadLocal<>();
+
+    private static final LongAdder QUERY_COUNT = new LongAdder();
+    private static final LongAdder FAILED_QUERY_COUNT = new LongAdder();
+    private static final LongAdder CANCELED_QUERY_COUNT = new LongAdder();
+    private static final LongAdder ROW_COUNT = new LongAdder();
+    private static final LongAdder BYTE_COUNT = new LongAdder();
+    private static final LongAdder BATCH_COUNT = new LongAdder();
+    private static final AtomicLong OPEN_CONNECTIONS = new AtomicLong();
+    private static final AtomicLong POOL_CONNECTIONS = new AtomicLong();
+    private static final AtomicLong POOL_CONNECTIONS_IN_USE = new AtomicLong();
+
+    private static final CommandListener COMMAND_LISTENER = new BatchListener();
+    private static final ConnectionPoolListener CONNECTION_POOL_LISTENER = new PoolListener();
+
+    static {
+        for (String phase : PHASES) {
+            PHASE_HISTOGRAMS.put(phase, new DocumentDbLatencyHistogram());
+        }
+        registerGauge("openConnections", OPEN_CONNECTIONS::get);
+        registerGauge("poolConnections", POOL_CONNECTIONS::get);
+        registerGauge("poolConnectionsInUse", POOL_CONNECTIONS_IN_USE::get);
+        try {
+            for (DocumentDbMetricsListener listener : ServiceLoader.load(DocumentDbMetricsListener.class)) {
+                LISTENERS.add(listener);
+            }
+        } catch (ServiceConfigurationError e) {
+            LOGGER.warn("Unable to load metrics listeners: {}", e.getMessage());
+        }
+        registerMBean();
+    }
+
+    private DocumentDbMetrics() {
+    }
+
+    /**
+     * Adds a metrics listener.
+     *
+     * @param listener the listener to add.
+     */
+    public static void addListener(final @NonNull DocumentDbMetricsListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a metrics listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public static void removeListener(final @NonNull DocumentDbMetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Registers a gauge. A gauge registered with an existing name replaces the existing gauge.
+     *
+     * @param name the name of the gauge.
+     * @param gauge the supplier of the current value of the gauge.
+     */
+    public static void registerGauge(final @NonNull String name, final @NonNull LongSupplier gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Gets the MBean of the metrics.
+     *
+     * @return the {@link DocumentDbMetricsMXBean} of the metrics.
+     */
+    public static DocumentDbMetricsMXBean getMXBean() {
+        return MXBean.INSTANCE;
+    }
+
+    /**
+     * Gets the fingerprint of a query. The fingerprint normalizes the whitespace of the query
+     * and replaces its string and numeric literals by {@code ?}, so that queries that only differ
+     * by their literals share the same fingerprint.
+     *
+     * @param sql the SQL query.
+     * @return the fingerprint of the query.
+     */
+    static String getFingerprint(final String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMERIC_LITERAL.matcher(fingerprint).replaceAll("?");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+
+    static CommandListener getCommandListener() {
+        return COMMAND_LISTENER;
+    }
+
+    static ConnectionPoolListener getConnectionPoolListener() {
+        return CONNECTION_POOL_LISTENER;
+    }
+
+    /**
+     * Sets the query whose batches are recorded for commands run on the current thread.
+     *
+     * @param recorder the recorder of the query, or {@code null} to clear the current query.
+     * @return the previous recorder of the current thread.
+     */
+    static DocumentDbQueryRecorder setCurrentQuery(final DocumentDbQueryRecorder recorder) {
+        final DocumentDbQueryRecorder previous = CURRENT_QUERY.get();
+        if (recorder != null) {
+            CURRENT_QUERY.set(recorder);
+        } else {
+            CURRENT_QUERY.remove();
+        }
+        return previous;
+    }
+
+    static void connectionOpened() {
+        OPEN_CONNECTIONS.incrementAndGet();
+    }
+
+    static void connectionClosed() {
+        OPEN_CONNECTIONS.decrementAndGet();
+    }
+
+    /**
+     * Records the metrics of a completed query and notifies the listeners.
+     *
+     * @param metrics the metrics of the query.
+     */
+    static void record(final DocumentDbQueryMetrics metrics) {
+        QUERY_COUNT.increment();
+        if (metrics.getOutcome() == Outcome.FAILED) {
+            FAILED_QUERY_COUNT.increment();
+        } else if (metrics.getOutcome() == Outcome.CANCELED) {
+            CANCELED_QUERY_COUNT.increment();
+        }
+        ROW_COUNT.add(metrics.getRowCount());
+        BYTE_COUNT.add(metrics.getByteCount());
+        BATCH_COUNT.add(metrics.getBatchCount());
+
+        PHASE_HISTOGRAMS.get("translate").record(metrics.getTranslateNanos());
+        PHASE_HISTOGRAMS.get("execute").record(metrics.getExecuteNanos());
+        if (metrics.getFirstRowNanos() >= 0) {
+            PHASE_HISTOGRAMS.get("firstRow").record(metrics.getFirstRowNanos());
+        }
+        PHASE_HISTOGRAMS.get("fetch").record(metrics.getFetchNanos());
+        PHASE_HISTOGRAMS.get("total").record(metrics.getTotalNanos());
+        QUERY_HISTOGRAMS.asMap()
+                .computeIfAbsent(metrics.getFingerprint(), key -> new DocumentDbLatencyHistogram())
+                .record(metrics.getTotalNanos());
+
+        for (DocumentDbMetricsListener listener : LISTENERS) {
+            try {
+                listener.onQueryCompleted(metrics);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Metrics listener '{}' failed: {}",
+                        listener.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(MXBean.INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Another copy of the driver, in a different class loader, has registered the MBean.
+            LOGGER.debug("Metrics MBean '{}' is already registered.", OBJECT_NAME);
+        } catch (JMException | SecurityException e) {
+            LOGGER.warn("Unable to register metrics MBean '{}': {}", OBJECT_NAME, e.getMessage());
+        }
+    }
+
+    private static SortedMap<String, DocumentDbLatencyStatistics> getStatistics(
+            final Map<String, DocumentDbLatencyHistogram> histograms) {
+        final SortedMap<String, DocumentDbLatencyStatistics> statistics = new TreeMap<>();
+        histograms.forEach((name, histogram) -> statistics.put(name, histogram.getStatistics()));
+        return statistics;
+    }
+
+    private static final class MXBean implements DocumentDbMetricsMXBean {
+        private static final MXBean INSTANCE = new MXBean();
+
+        @Override
+        public long getQueryCount() {
+            return QUERY_COUNT.sum();
+        }
+
+        @Override
+        public long getFailedQueryCount() {
+            return FAILED_QUERY_COUNT.sum();
+        }
+
+        @Override
+        public long getCanceledQueryCount() {
+            return CANCELED_QUERY_COUNT.sum();
+        }
+
+        @Override
+        public long getRowCount() {
+            return ROW_COUNT.sum();
+        }
+
+        @Override
+        public long getByteCount() {
+            return BYTE_COUNT.sum();
+        }
+
+        @Override
+        public long getBatchCount() {
+            return BATCH_COUNT.sum();
+        }
+
+        @Override
+        public Map<String, DocumentDbLatencyStatistics> getPhaseStatistics() {
+            return getStatistics(PHASE_HISTOGRAMS);
+        }
+
+        @Override
+        public Map<String, DocumentDbLatencyStatistics> getQueryStatistics() {
+            return getStatistics(QUERY_HISTOGRAMS.asMap());
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            final SortedMap<String, Long> gauges = new TreeMap<>();
+            GAUGES.forEach((name, gauge) -> gauges.put(name, gauge.getAsLong()));
+            return gauges;
+        }
+
+        @Override
+        public void reset() {
+            QUERY_COUNT.reset();
+            FAILED_QUERY_COUNT.reset();
+            CANCELED_QUERY_COUNT.reset();
+            ROW_COUNT.reset();
+            BYTE_COUNT.reset();
+            BATCH_COUNT.reset();
+            for (String phase : PHASES) {
+                PHASE_HISTOGRAMS.put(phase, new DocumentDbLatencyHistogram());
+            }
+            QUERY_HISTOGRAMS.invalidateAll();
+        }
+    }
+
+    /**
+     * Records the batches returned by the server for the query running on the current thread.
+     * Command events are raised on the thread that runs the command, so the batches of a query
+     * are recorded while its thread has the query set as current.
+     */
+    private static final class BatchListener implements CommandListener {
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+            final DocumentDbQueryRecorder recorder = CURRENT_QUERY.get();
+            if (recorder == null) {
+                return;
+            }
+            final String commandName = event.getCommandName();
+            if ("aggregate".equals(commandName) || "getMore".equals(commandName)) {
+                recorder.batchReceived(event.getResponse() instanceof RawBsonDocument
+                        ? ((RawBsonDocument) event.getResponse()).getByteBuffer().remaining()
+                        : 0);
+            }
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+
+    private static final class PoolListener implements ConnectionPoolListener {
+        @Override
+        public void connectionCreated(final ConnectionCreatedEvent event) {
+            POOL_CONNECTIONS.incrementAndGet();
+        }
+
+        @Override
+        public void connectionClosed(final ConnectionClosedEvent event) {
+            POOL_CONNECTIONS.decrementAndGet();
+        }
+
+        @Override
+        public void connectionCheckedOut(final ConnectionCheckedOutEvent event) {
+            POOL_CONNECTIONS_IN_USE.incrementAndGet();
+        }
+
+        @Override
+        public void connectionCheckedIn(final ConnectionCheckedInEvent event) {
+            POOL_CONNECTIONS_IN_USE.decrementAndGet();
+        }
+    }
+}
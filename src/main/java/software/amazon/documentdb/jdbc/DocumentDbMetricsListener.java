@@ -0,0 +1,35 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+/**
+ * A listener for the metrics of the driver. Listeners are discovered with
+ * {@link java.util.ServiceLoader}, from {@code META-INF/services} entries of this interface, or
+ * added by calling {@link DocumentDbMetrics#addListener(DocumentDbMetricsListener)}.
+ *
+ * <p>Listeners are called on the thread that ran or closed the query, so they must be thread-safe
+ * and return quickly.
+ */
+public interface DocumentDbMetricsListener {
+    /**
+     * Called when a query completes, fails or is canceled. A query completes when its result set
+     * is exhausted or closed.
+     *
+     * @param metrics the metrics of the query.
+     */
+    void onQueryCompleted(DocumentDbQueryMetrics metrics);
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import java.util.Map;
+
+/**
+ * The JMX interface of the driver metrics, registered as
+ * {@value DocumentDbMetrics#OBJECT_NAME}.
+ */
+public interface DocumentDbMetricsMXBean {
+    /**
+     * Gets the number of queries.
+     *
+     * @return the number of queries, including failed and canceled queries.
+     */
+    long getQueryCount();
+
+    /**
+     * Gets the number of failed queries.
+     *
+     * @return the number of failed queries.
+     */
+    long getFailedQueryCount();
+
+    /**
+     * Gets the number of canceled queries.
+     *
+     * @return the number of canceled queries.
+     */
+    long getCanceledQueryCount();
+
+    /**
+     * Gets the number of rows read.
+     *
+     * @return the number of rows read.
+     */
+    long getRowCount();
+
+    /**
+     * Gets the number of bytes of the batches returned by the server.
+     *
+     * @return the number of bytes returned by the server.
+     */
+    long getByteCount();
+
+    /**
+     * Gets the number of batches returned by the server.
+     *
+     * @return the number of batches returned by the server.
+     */
+    long getBatchCount();
+
+    /**
+     * Gets the latency statistics of each query phase: {@code translate}, {@code execute},
+     * {@code firstRow}, {@code fetch} and {@code total}.
+     *
+     * @return a map of phase to its latency statistics.
+     */
+    Map<String, DocumentDbLatencyStatistics> getPhaseStatistics();
+
+    /**
+     * Gets the total latency statistics of the most recent query fingerprints.
+     *
+     * @return a map of query fingerprint to its latency statistics.
+     */
+    Map<String, DocumentDbLatencyStatistics> getQueryStatistics();
+
+    /**
+     * Gets the current value of the connection, pool, schema cache and SSH tunnel gauges.
+     *
+     * @return a map of gauge name to its value.
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * Resets the counters and histograms. The gauges are not reset.
+     */
+    void reset();
+}
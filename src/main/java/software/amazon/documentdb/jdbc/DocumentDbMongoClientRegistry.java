@@ -0,0 +1,246 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbConnection.SshPortForwardingSession;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbClientLease;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A process-wide registry of {@link MongoClient} clients. Connections with the same effective
+ * client settings share a single client, and its connection pool, monitor threads and
+ * authenticated connections. Each connection acquires a reference to the client and must
+ * release it when closed. The client is closed when the last reference is released.
+ *
+ * <p>The reactive streams clients used by asynchronous queries are shared in the same way, and
+ * with the same key, as the synchronous clients.</p>
+ */
+public final class DocumentDbMongoClientRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbMongoClientRegistry.class);
+    private static final Map<String, SharedClient<MongoClient>> CLIENTS = new HashMap<>();
+    private static final Map<String, SharedClient<com.mongodb.reactivestreams.client.MongoClient>>
+            REACTIVE_CLIENTS = new HashMap<>();
+
+    static {
+        DocumentDbMetrics.registerGauge("sharedClients", DocumentDbMongoClientRegistry::getClientCount);
+        DocumentDbMetrics.registerGauge("sharedReactiveClients",
+                DocumentDbMongoClientRegistry::getReactiveClientCount);
+    }
+
+    private DocumentDbMongoClientRegistry() {
+    }
+
+    /**
+     * Acquires a reference to the shared client for the given connection properties, creating
+     * the client if it does not exist.
+     *
+     * @param properties the connection properties.
+     * @param sshLocalPort the local port number for an internal SSH tunnel. A port number of zero
+     *                     indicates there is no valid internal SSH tunnel started.
+     * @return a shared {@link MongoClient}. This client must not be closed directly, but released
+     * by calling {@link #release(MongoClient)}.
+     */
+    public static synchronized MongoClient acquire(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final int sshLocalPort) {
+        return acquire(CLIENTS, properties, sshLocalPort,
+                () -> MongoClients.create(properties.buildMongoClientSettings(sshLocalPort)));
+    }
+
+    /**
+     * Acquires a reference to the shared reactive streams client for the given connection
+     * properties, creating the client if it does not exist.
+     *
+     * @param properties the connection properties.
+     * @param sshLocalPort the local port number for an internal SSH tunnel. A port number of zero
+     *                     indicates there is no valid internal SSH tunnel started.
+     * @return a shared reactive streams client. This client must not be closed directly, but
+     * released by calling {@link #releaseReactive(com.mongodb.reactivestreams.client.MongoClient)}.
+     */
+    public static synchronized com.mongodb.reactivestreams.client.MongoClient acquireReactive(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final int sshLocalPort) {
+        return acquire(REACTIVE_CLIENTS, properties, sshLocalPort,
+                () -> com.mongodb.reactivestreams.client.MongoClients.create(
+                        properties.buildMongoClientSettings(sshLocalPort)));
+    }
+
+    /**
+     * Acquires a lease on the shared client for the given connection properties, together with
+     * the SSH tunnel it requires. Closing the lease releases both.
+     *
+     * @param properties the connection properties.
+     * @return a {@link DocumentDbClientLease} on the shared client.
+     * @throws SQLException if unable to create the SSH tunnel.
+     */
+    public static DocumentDbClientLease acquireLease(
+            final @NonNull DocumentDbConnectionProperties properties) throws SQLException {
+        final SshPortForwardingSession session = DocumentDbSshTunnelManager.acquire(properties);
+        final MongoClient client;
+        try {
+            client = acquire(properties, session != null ? session.getLocalPort() : 0);
+        } catch (RuntimeException e) {
+            if (session != null) {
+                DocumentDbSshTunnelManager.release(session);
+            }
+            throw e;
+        }
+        return new DocumentDbClientLease() {
+            @Override
+            public MongoClient getClient() {
+                return client;
+            }
+
+            @Override
+            public void close() {
+                release(client);
+                if (session != null) {
+                    DocumentDbSshTunnelManager.release(session);
+                }
+            }
+        };
+    }
+
+    /**
+     * Releases a reference to the given shared client. The client is closed when its last
+     * reference is released.
+     *
+     * @param client the client acquired by calling
+     *               {@link #acquire(DocumentDbConnectionProperties, int)}.
+     */
+    public static synchronized void release(final @NonNull MongoClient client) {
+        release(CLIENTS, client, MongoClient::close);
+    }
+
+    /**
+     * Releases a reference to the given shared reactive streams client. The client is closed
+     * when its last reference is released.
+     *
+     * @param client the client acquired by calling
+     *               {@link #acquireReactive(DocumentDbConnectionProperties, int)}.
+     */
+    public static synchronized void releaseReactive(
+            final com.mongodb.reactivestreams.client.MongoClient client) {
+        release(REACTIVE_CLIENTS, client, com.mongodb.reactivestreams.client.MongoClient::close);
+    }
+
+    private static <T> T acquire(
+            final Map<String, SharedClient<T>> clients,
+            final DocumentDbConnectionProperties properties,
+            final int sshLocalPort,
+            final Supplier<T> clientFactory) {
+        final String clientKey = getClientKey(properties, sshLocalPort);
+        SharedClient<T> sharedClient = clients.get(clientKey);
+        if (sharedClient == null) {
+            sharedClient = new SharedClient<>(clientFactory.get());
+            clients.put(clientKey, sharedClient);
+            LOGGER.debug("Created shared client for '{}'.", properties.buildSanitizedConnectionString());
+        }
+        sharedClient.referenceCount++;
+        return sharedClient.client;
+    }
+
+    private static <T> void release(
+            final Map<String, SharedClient<T>> clients,
+            final T client,
+            final Consumer<T> clientCloser) {
+        final Iterator<SharedClient<T>> iterator = clients.values().iterator();
+        while (iterator.hasNext()) {
+            final SharedClient<T> sharedClient = iterator.next();
+            if (sharedClient.client == client) {
+                sharedClient.referenceCount--;
+                if (sharedClient.referenceCount <= 0) {
+                    iterator.remove();
+                    clientCloser.accept(sharedClient.client);
+                    LOGGER.debug("Closed shared client.");
+                }
+                return;
+            }
+        }
+        LOGGER.warn("Attempted to release a client that is not shared.");
+    }
+
+    /**
+     * Gets the number of shared clients.
+     *
+     * @return the number of shared clients.
+     */
+    @VisibleForTesting
+    static synchronized int getClientCount() {
+        return CLIENTS.size();
+    }
+
+    /**
+     * Gets the number of shared reactive streams clients.
+     *
+     * @return the number of shared reactive streams clients.
+     */
+    @VisibleForTesting
+    static synchronized int getReactiveClientCount() {
+        return REACTIVE_CLIENTS.size();
+    }
+
+    /**
+     * Gets the key for the shared client from the properties that are used to build the client
+     * settings. The password is hashed, so that it is not kept in the key.
+     */
+    private static String getClientKey(
+            final DocumentDbConnectionProperties properties,
+            final int sshLocalPort) {
+        final String password = properties.getPassword();
+        return String.join("\n",
+                String.valueOf(properties.getUser()),
+                password != null
+                        ? Hashing.sha256().hashString(password, StandardCharsets.UTF_8).toString()
+                        : "",
+                String.valueOf(properties.getDefaultAuthenticationDatabase()),
+                String.valueOf(properties.getHostname()),
+                String.valueOf(sshLocalPort),
+                String.valueOf(properties.getReplicaSet()),
+                String.valueOf(properties.getLoginTimeout()),
+                String.valueOf(properties.getTlsEnabled()),
+                String.valueOf(properties.getTlsAllowInvalidHostnames()),
+                String.valueOf(properties.getTlsCAFilePath()),
+                String.valueOf(properties.getReadPreference()),
+                String.valueOf(properties.getRetryReadsEnabled()),
+                String.valueOf(properties.getApplicationName()),
+                String.valueOf(properties.getMaxPoolSize()));
+    }
+
+    private static final class SharedClient<T> {
+        private final T client;
+        private int referenceCount;
+
+        SharedClient(final T client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.IntStream;
+
+/**
+ * An index of the names of tables or columns, case-sensitive as the names are. Names without
+ * wildcards are found by hash, pattern prefixes by a range scan of the sorted names and other
+ * patterns by matching each name. Matches are returned in the original order of the names.
+ *
+ * <p>Indexes are kept for as long as the map they index is reachable.</p>
+ */
+final class DocumentDbNameIndex {
+    private static final Cache<Map<String, ?>, DocumentDbNameIndex> INDEXES = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final ImmutableList<String> names;
+    private final ImmutableMap<String, Integer> positions;
+    private final ImmutableSortedMap<String, Integer> sortedPositions;
+
+    private DocumentDbNameIndex(final Iterable<String> names) {
+        this.names = ImmutableList.copyOf(names);
+        final ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        for (int position = 0; position < this.names.size(); position++) {
+            builder.put(this.names.get(position), position);
+        }
+        this.positions = builder.build();
+        this.sortedPositions = ImmutableSortedMap.copyOf(positions);
+    }
+
+    /**
+     * Gets the index of the keys of the given map, e.g., the table schema map of a database
+     * or the column map of a table. The index is built on first use.
+     *
+     * @param map the map whose keys are indexed.
+     * @return a {@link DocumentDbNameIndex} of the keys of the map.
+     */
+    static DocumentDbNameIndex get(final Map<String, ?> map) {
+        DocumentDbNameIndex index = INDEXES.getIfPresent(map);
+        if (index == null || index.names.size() != map.size()) {
+            index = new DocumentDbNameIndex(map.keySet());
+            INDEXES.put(map, index);
+        }
+        return index;
+    }
+
+    /**
+     * Finds the names that match the given pattern.
+     *
+     * @param pattern the pattern to match.
+     * @return the (zero-based) positions of the matching names, in ascending order.
+     */
+    IntStream find(final DocumentDbNamePattern pattern) {
+        final String exactName = pattern.getExactName();
+        if (exactName != null) {
+            final Integer position = positions.get(exactName);
+            return position != null ? IntStream.of(position) : IntStream.empty();
+        }
+        if (pattern.isMatchAll()) {
+            return IntStream.range(0, names.size());
+        }
+        final String prefix = pattern.getPrefix();
+        if (!prefix.isEmpty()) {
+            final IntStream.Builder matches = IntStream.builder();
+            for (Entry<String, Integer> entry : sortedPositions.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                if (pattern.matches(entry.getKey())) {
+                    matches.add(entry.getValue());
+                }
+            }
+            return matches.build().sorted();
+        }
+        return IntStream.range(0, names.size())
+                .filter(position -> pattern.matches(names.get(position)));
+    }
+
+    /**
+     * Gets the name at the given position.
+     *
+     * @param position the (zero-based) position of the name.
+     * @return the name at the position.
+     */
+    String getName(final int position) {
+        return names.get(position);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import java.util.regex.Pattern;
+
+import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.isNullOrWhitespace;
+
+/**
+ * A precompiled SQL LIKE pattern as used by the {@link java.sql.DatabaseMetaData} methods.
+ * Patterns without wildcards are matched by name, patterns of only '%' match any name and other
+ * patterns are compiled to a regular expression once. The literal prefix of a pattern is kept, so
+ * that names can be range-scanned in a sorted index.
+ */
+final class DocumentDbNamePattern {
+    private static final char ESCAPE_CHAR = '\\';
+
+    private final String exactName;
+    private final boolean matchAll;
+    private final Pattern pattern;
+    private final String prefix;
+    private final boolean prefixOnly;
+
+    private DocumentDbNamePattern(final String exactName, final boolean matchAll, final Pattern pattern) {
+        this(exactName, matchAll, pattern, "", false);
+    }
+
+    private DocumentDbNamePattern(
+            final String exactName,
+            final boolean matchAll,
+            final Pattern pattern,
+            final String prefix,
+            final boolean prefixOnly) {
+        this.exactName = exactName;
+        this.matchAll = matchAll;
+        this.pattern = pattern;
+        this.prefix = prefix;
+        this.prefixOnly = prefixOnly;
+    }
+
+    /**
+     * Compiles the given SQL LIKE pattern.
+     *
+     * @param likePattern the pattern with zero or more occurrences of '%' and '_', which can be
+     *                    escaped with '\'.
+     * @return a {@link DocumentDbNamePattern} for the pattern.
+     */
+    static DocumentDbNamePattern compile(final String likePattern) {
+        if (isNullOrWhitespace(likePattern)) {
+            // Consistent with the converted regular expression, which only matches an empty name.
+            return new DocumentDbNamePattern("", false, null);
+        }
+        final StringBuilder name = new StringBuilder();
+        boolean escapeFound = false;
+        boolean wildcardFound = false;
+        boolean onlyAnyWildcards = true;
+        boolean literalAfterWildcard = false;
+        boolean singleWildcardFound = false;
+        String prefix = null;
+        for (int index = 0; index < likePattern.length(); index++) {
+            final char currChar = likePattern.charAt(index);
+            if (escapeFound) {
+                name.append(currChar);
+                escapeFound = false;
+                onlyAnyWildcards = false;
+                literalAfterWildcard |= wildcardFound;
+            } else if (currChar == ESCAPE_CHAR) {
+                escapeFound = true;
+            } else if (currChar == '%' || currChar == '_') {
+                if (!wildcardFound) {
+                    prefix = name.toString();
+                }
+                wildcardFound = true;
+                onlyAnyWildcards &= currChar == '%';
+                singleWildcardFound |= currChar == '_';
+            } else {
+                name.append(currChar);
+                onlyAnyWildcards = false;
+                literalAfterWildcard |= wildcardFound;
+            }
+        }
+        if (escapeFound) {
+            // A trailing escape character matches itself.
+            name.append(ESCAPE_CHAR);
+            onlyAnyWildcards = false;
+            literalAfterWildcard |= wildcardFound;
+        }
+        if (!wildcardFound) {
+            return new DocumentDbNamePattern(name.toString(), false, null);
+        }
+        if (onlyAnyWildcards) {
+            return new DocumentDbNamePattern(null, true, null);
+        }
+        // E.g., 'abc%' only needs the prefix to match.
+        final boolean prefixOnly = !literalAfterWildcard && !singleWildcardFound;
+        return new DocumentDbNamePattern(null, false,
+                prefixOnly
+                        ? null
+                        : Pattern.compile(DocumentDbDatabaseMetaData.convertPatternToRegex(likePattern)),
+                prefix,
+                prefixOnly);
+    }
+
+    /**
+     * Gets the name matched by this pattern, if the pattern has no wildcards.
+     *
+     * @return the only name matched by this pattern, or {@code null}, if the pattern has wildcards.
+     */
+    String getExactName() {
+        return exactName;
+    }
+
+    /**
+     * Gets whether this pattern matches any name.
+     *
+     * @return {@code true} if this pattern matches any name; {@code false} otherwise.
+     */
+    boolean isMatchAll() {
+        return matchAll;
+    }
+
+    /**
+     * Gets the literal prefix of this pattern, before its first wildcard.
+     *
+     * @return the literal prefix, which is empty if the pattern starts with a wildcard, has no
+     * wildcards or is empty.
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Gets whether any name with the literal prefix matches this pattern.
+     *
+     * @return {@code true} if the pattern is the literal prefix followed by only '%' wildcards;
+     * {@code false} otherwise.
+     */
+    boolean isPrefixOnly() {
+        return prefixOnly;
+    }
+
+    /**
+     * Tests whether the given name matches this pattern.
+     *
+     * @param name the name to test.
+     * @return {@code true} if the name matches; {@code false} otherwise.
+     */
+    boolean matches(final String name) {
+        if (matchAll) {
+            return true;
+        }
+        if (exactName != null) {
+            return exactName.equals(name);
+        }
+        if (prefixOnly) {
+            return name.startsWith(prefix);
+        }
+        return pattern.matcher(name).matches();
+    }
+}
@@ -16,12 +16,67 @@
 
 package software.amazon.documentdb.jdbc;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.common.PooledConnection;
+import software.amazon.documentdb.jdbc.common.utilities.SqlError;
+import software.amazon.documentdb.jdbc.common.utilities.SqlState;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 
 /**
  * DocumentDb implementation of PooledConnection.
+ *
+ * <p>The connection returned by {@link #getConnection()} is a logical handle to the physical
+ * connection. Closing the handle notifies the connection listeners, but keeps the physical
+ * connection, its schema, client and SSH tunnel open until this PooledConnection is closed.
+ * Prepared statements created through the handle are cached by SQL and reused when the same SQL
+ * is prepared again. Closing a cached statement notifies the statement listeners.</p>
+ *
+ * <p>The statements, result sets and database metadata returned through the handle return the
+ * handle, not the physical connection, from {@code getConnection()}. When the handle is closed,
+ * the client info and type map of the physical connection are reset to the values they had
+ * when the first handle was given out, and its warnings are cleared. The other connection
+ * settings cannot be changed on a DocumentDB connection, so nothing else is carried over to the
+ * next handle.</p>
  */
 public class DocumentDbPooledConnection extends PooledConnection implements javax.sql.PooledConnection {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbPooledConnection.class);
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+    static final int MAX_CACHED_STATEMENTS = 100;
+
+    private final java.sql.Connection physicalConnection;
+    private final Map<String, java.sql.PreparedStatement> statementCache =
+            new LinkedHashMap<String, java.sql.PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, java.sql.PreparedStatement> eldest) {
+                    if (size() > MAX_CACHED_STATEMENTS) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+    private ConnectionHandler connectionHandler = null;
+    private boolean closed = false;
+    private Properties initialClientInfo = null;
+    private Map<String, Class<?>> initialTypeMap = null;
 
     /**
      * DocumentDbPooledConnection constructor, initializes super class.
@@ -29,5 +84,431 @@ public class DocumentDbPooledConnection extends PooledConnection implements java
      */
     public DocumentDbPooledConnection(final java.sql.Connection connection) {
         super(connection);
+        this.physicalConnection = connection;
+    }
+
+    /**
+     * Gets a logical handle to the physical connection. Any previously returned handle is closed.
+     *
+     * @return a {@link java.sql.Connection} handle.
+     * @throws SQLException if this PooledConnection is closed.
+     */
+    @Override
+    public synchronized java.sql.Connection getConnection() throws SQLException {
+        if (closed) {
+            throw SqlError.createSQLException(
+                    LOGGER,
+                    SqlState.CONNECTION_EXCEPTION,
+                    SqlError.CONN_CLOSED);
+        }
+        if (connectionHandler != null) {
+            connectionHandler.closeHandle(false);
+        }
+        if (initialClientInfo == null) {
+            initialClientInfo = copyOf(physicalConnection.getClientInfo());
+            initialTypeMap = copyOf(physicalConnection.getTypeMap());
+        }
+        connectionHandler = new ConnectionHandler();
+        return connectionHandler.handle;
+    }
+
+    /**
+     * Closes the cached statements and the physical connection.
+     */
+    @Override
+    public void close() {
+        final List<java.sql.PreparedStatement> statements;
+        final ConnectionHandler handler;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            handler = connectionHandler;
+            connectionHandler = null;
+            statements = new ArrayList<>(statementCache.values());
+            statementCache.clear();
+        }
+        if (handler != null) {
+            handler.closeHandle(false);
+        }
+        statements.forEach(DocumentDbPooledConnection::closeQuietly);
+        try {
+            physicalConnection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to close pooled connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets whether the physical connection of this PooledConnection is closed.
+     *
+     * @return {@code true} if the physical connection is closed; {@code false} otherwise.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets whether the physical connection of this PooledConnection is valid.
+     *
+     * @param timeout the time in seconds to wait for the validation to complete.
+     * @return {@code true} if the physical connection is valid; {@code false} otherwise.
+     */
+    public boolean isValid(final int timeout) {
+        try {
+            return !isClosed() && physicalConnection.isValid(timeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private synchronized java.sql.PreparedStatement takeStatement(final String sql) {
+        return statementCache.remove(sql);
+    }
+
+    private synchronized boolean returnStatement(
+            final String sql,
+            final java.sql.PreparedStatement statement) {
+        if (closed || statementCache.containsKey(sql)) {
+            return false;
+        }
+        statementCache.put(sql, statement);
+        return true;
+    }
+
+    /**
+     * Resets the client info and type map of the physical connection to their initial values,
+     * and clears its warnings.
+     */
+    private void resetState() throws SQLException {
+        final Properties clientInfo;
+        final Map<String, Class<?>> typeMap;
+        synchronized (this) {
+            clientInfo = initialClientInfo;
+            typeMap = initialTypeMap;
+        }
+        if (clientInfo != null) {
+            final Properties currentClientInfo = copyOf(physicalConnection.getClientInfo());
+            for (String name : currentClientInfo.stringPropertyNames()) {
+                if (clientInfo.getProperty(name) == null) {
+                    physicalConnection.setClientInfo(name, null);
+                }
+            }
+            for (String name : clientInfo.stringPropertyNames()) {
+                final String value = clientInfo.getProperty(name);
+                if (!Objects.equals(value, currentClientInfo.getProperty(name))) {
+                    physicalConnection.setClientInfo(name, value);
+                }
+            }
+        }
+        if (typeMap != null && !typeMap.equals(physicalConnection.getTypeMap())) {
+            physicalConnection.setTypeMap(copyOf(typeMap));
+        }
+        physicalConnection.clearWarnings();
+    }
+
+    private static Properties copyOf(final Properties properties) {
+        final Properties copy = new Properties();
+        if (properties != null) {
+            copy.putAll(properties);
+        }
+        return copy;
+    }
+
+    private static Map<String, Class<?>> copyOf(final Map<String, Class<?>> typeMap) {
+        return typeMap != null ? new HashMap<>(typeMap) : new HashMap<>();
+    }
+
+    private boolean isFatal(final SQLException e) {
+        try {
+            return (e.getSQLState() != null && e.getSQLState().startsWith(CONNECTION_EXCEPTION_CLASS))
+                    || physicalConnection.isClosed();
+        } catch (SQLException ex) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(final AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOGGER.debug("Unable to close pooled resource: {}", e.getMessage());
+        }
+    }
+
+    private static Object invokeTarget(
+            final Object target,
+            final Method method,
+            final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Handles the calls to a logical connection handle.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final java.sql.Connection handle;
+        private final List<AutoCloseable> openStatements = new ArrayList<>();
+        private boolean handleClosed = false;
+
+        ConnectionHandler() {
+            this.handle = (java.sql.Connection) Proxy.newProxyInstance(
+                    DocumentDbPooledConnection.class.getClassLoader(),
+                    new Class<?>[] {java.sql.Connection.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args)
+                throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closeHandle(true);
+                    return null;
+                case "isClosed":
+                    return isHandleClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + physicalConnection;
+                default:
+                    break;
+            }
+            if (isHandleClosed()) {
+                throw SqlError.createSQLException(
+                        LOGGER,
+                        SqlState.CONNECTION_EXCEPTION,
+                        SqlError.CONN_CLOSED);
+            }
+            try {
+                if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                    return prepareStatement((String) args[0]);
+                }
+                final Object result = invokeTarget(physicalConnection, method, args);
+                if (result instanceof Statement) {
+                    return wrapStatement(null, (Statement) result);
+                } else if (result instanceof DatabaseMetaData) {
+                    return wrap(DatabaseMetaData.class, result, handle, null);
+                }
+                return result;
+            } catch (SQLException e) {
+                if (isFatal(e)) {
+                    fireConnectionErrorOccurred(e);
+                }
+                throw e;
+            }
+        }
+
+        private java.sql.PreparedStatement prepareStatement(final String sql) throws SQLException {
+            java.sql.PreparedStatement statement = takeStatement(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = physicalConnection.prepareStatement(sql);
+            }
+            return (java.sql.PreparedStatement) wrapStatement(sql, statement);
+        }
+
+        private Statement wrapStatement(final String sql, final Statement statement) throws SQLException {
+            final StatementHandler statementHandler = new StatementHandler(sql, statement, this);
+            addOpenStatement(statementHandler);
+            return statementHandler.handle;
+        }
+
+        private synchronized void addOpenStatement(final AutoCloseable statement) {
+            openStatements.add(statement);
+        }
+
+        private synchronized void removeOpenStatement(final AutoCloseable statement) {
+            openStatements.remove(statement);
+        }
+
+        private synchronized boolean isHandleClosed() {
+            return handleClosed;
+        }
+
+        void closeHandle(final boolean notify) {
+            final List<AutoCloseable> statements;
+            synchronized (this) {
+                if (handleClosed) {
+                    return;
+                }
+                handleClosed = true;
+                statements = new ArrayList<>(openStatements);
+                openStatements.clear();
+            }
+            statements.forEach(DocumentDbPooledConnection::closeQuietly);
+            if (notify) {
+                try {
+                    resetState();
+                } catch (SQLException e) {
+                    LOGGER.debug("Unable to reset pooled connection: {}", e.getMessage());
+                    fireConnectionErrorOccurred(e);
+                    return;
+                }
+                fireConnectionClosed();
+            }
+        }
+    }
+
+    /**
+     * Handles the calls to a statement created through a logical connection handle. Closing a
+     * statement that was prepared with only its SQL returns it to the statement cache. Other
+     * statements are closed.
+     */
+    private final class StatementHandler implements InvocationHandler, AutoCloseable {
+        private final String sql;
+        private final Statement statement;
+        private final Statement handle;
+        private final ConnectionHandler connectionHandler;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private ResultSet resultSet = null;
+        private boolean statementClosed = false;
+
+        StatementHandler(
+                final String sql,
+                final Statement statement,
+                final ConnectionHandler connectionHandler) throws SQLException {
+            this.sql = sql;
+            this.statement = statement;
+            this.connectionHandler = connectionHandler;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.handle = (Statement) Proxy.newProxyInstance(
+                    DocumentDbPooledConnection.class.getClassLoader(),
+                    new Class<?>[] {getStatementInterface(statement)},
+                    this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args)
+                throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return isStatementClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + statement;
+                default:
+                    break;
+            }
+            if (isStatementClosed()) {
+                throw SqlError.createSQLException(
+                        LOGGER,
+                        SqlState.DATA_EXCEPTION,
+                        SqlError.STMT_CLOSED);
+            }
+            if ("getConnection".equals(method.getName())) {
+                return connectionHandler.handle;
+            }
+            try {
+                final Object result = invokeTarget(statement, method, args);
+                if (result instanceof ResultSet) {
+                    setResultSet((ResultSet) result);
+                    return wrap(ResultSet.class, result, connectionHandler.handle, handle);
+                }
+                return result;
+            } catch (SQLException e) {
+                if (handle instanceof java.sql.PreparedStatement) {
+                    fireStatementErrorOccurred((java.sql.PreparedStatement) handle, e);
+                }
+                throw e;
+            }
+        }
+
+        private synchronized void setResultSet(final ResultSet newResultSet) {
+            if (resultSet != null && resultSet != newResultSet) {
+                closeQuietly(resultSet);
+            }
+            resultSet = newResultSet;
+        }
+
+        private synchronized boolean isStatementClosed() {
+            return statementClosed;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (statementClosed) {
+                    return;
+                }
+                statementClosed = true;
+            }
+            connectionHandler.removeOpenStatement(this);
+            boolean reusable = sql != null;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                    resultSet = null;
+                }
+                if (reusable) {
+                    statement.setFetchSize(fetchSize);
+                    statement.setMaxRows(maxRows);
+                    statement.setQueryTimeout(queryTimeout);
+                }
+            } catch (SQLException e) {
+                reusable = false;
+            }
+            if (!reusable || !returnStatement(sql, (java.sql.PreparedStatement) statement)) {
+                closeQuietly(statement);
+            }
+            if (handle instanceof java.sql.PreparedStatement) {
+                fireStatementClosed((java.sql.PreparedStatement) handle);
+            }
+        }
+    }
+
+    private static Class<?> getStatementInterface(final Statement statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        } else if (statement instanceof java.sql.PreparedStatement) {
+            return java.sql.PreparedStatement.class;
+        }
+        return Statement.class;
+    }
+
+    /**
+     * Wraps a result set or database metadata, so that it returns the logical handles instead of
+     * the physical connection and statement.
+     */
+    private static Object wrap(
+            final Class<?> type,
+            final Object target,
+            final java.sql.Connection connectionHandle,
+            final Statement statementHandle) {
+        return Proxy.newProxyInstance(
+                DocumentDbPooledConnection.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getConnection":
+                            return connectionHandle;
+                        case "getStatement":
+                            return statementHandle;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Pooled " + target;
+                        default:
+                            return invokeTarget(target, method, args);
+                    }
+                });
     }
 }
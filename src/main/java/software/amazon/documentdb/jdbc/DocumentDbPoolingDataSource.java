@@ -0,0 +1,452 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.common.utilities.SqlError;
+import software.amazon.documentdb.jdbc.common.utilities.SqlState;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DocumentDb implementation of a pooling DataSource.
+ *
+ * <p>Connections returned by {@link #getConnection()} are handles to pooled physical connections.
+ * Closing a handle returns its physical connection, with its schema, client and SSH tunnel, to
+ * the pool of idle connections. Idle connections are validated with
+ * {@link java.sql.Connection#isValid(int)} before reuse, and are evicted after the idle timeout
+ * while keeping at least the minimum number of idle connections.</p>
+ *
+ * <p>Connections requested with {@link #getConnection(String, String)} are pooled with the
+ * credentials they were opened with, and are only reused for the same credentials. Requesting
+ * a connection with other credentials does not change the credentials of the data source.</p>
+ */
+public class DocumentDbPoolingDataSource extends DocumentDbDataSource implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbPoolingDataSource.class);
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final long EVICTION_INTERVAL_MS = 30000;
+    private static final ScheduledExecutorService EVICTION_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("documentdb-pool-eviction-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private int minIdle = 0;
+    private int maxIdle = 8;
+    private int idleTimeout = 600;
+    private int validationTimeout = 5;
+    private Collection<String> warmUpQueries = null;
+    private ScheduledFuture<?> eviction = null;
+    private boolean closed = false;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final Credentials credentials;
+        synchronized (this) {
+            credentials = new Credentials(getUser(), getPassword());
+        }
+        return getConnection(credentials);
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return getConnection(new Credentials(username, password));
+    }
+
+    private Connection getConnection(final Credentials credentials) throws SQLException {
+        synchronized (this) {
+            if (closed) {
+                throw SqlError.createSQLException(
+                        LOGGER,
+                        SqlState.CONNECTION_EXCEPTION,
+                        SqlError.CONN_CLOSED);
+            }
+            scheduleEviction();
+        }
+        DocumentDbPooledConnection pooledConnection = borrowConnection(credentials);
+        if (pooledConnection == null) {
+            pooledConnection = createPooledConnection(credentials);
+        }
+        return pooledConnection.getConnection();
+    }
+
+    /**
+     * Gets a new physical connection that is not part of this pool.
+     *
+     * @return a {@link PooledConnection} for the physical connection.
+     * @throws SQLException if unable to open a connection.
+     */
+    @Override
+    public PooledConnection getPooledConnection() throws SQLException {
+        return new DocumentDbPooledConnection(super.getConnection());
+    }
+
+    /**
+     * Gets a new physical connection that is not part of this pool.
+     *
+     * @param username the username to authenticate with.
+     * @param password the password to authenticate with.
+     * @return a {@link PooledConnection} for the physical connection.
+     * @throws SQLException if unable to open a connection.
+     */
+    @Override
+    public PooledConnection getPooledConnection(final String username, final String password) throws SQLException {
+        return new DocumentDbPooledConnection(getConnectionWithCredentials(username, password));
+    }
+
+    /**
+     * Warms up the pool. If warm-up queries are set, a connection loads the SQL schema and
+     * translates the queries, without executing them. Then connections are opened until the pool
+     * has the minimum number of idle connections.
+     *
+     * @throws SQLException if unable to open a connection.
+     */
+    public void warmUp() throws SQLException {
+        final Collection<String> queries;
+        synchronized (this) {
+            queries = warmUpQueries;
+        }
+        if (queries != null) {
+            try (Connection connection = getConnection()) {
+                connection.unwrap(DocumentDbConnection.class).warmUp(queries);
+            }
+        }
+        fillIdleConnections();
+    }
+
+    private void fillIdleConnections() throws SQLException {
+        while (true) {
+            final Credentials credentials;
+            synchronized (this) {
+                if (closed || idleConnections.size() >= Math.min(minIdle, maxIdle)) {
+                    return;
+                }
+                scheduleEviction();
+                credentials = new Credentials(getUser(), getPassword());
+            }
+            createPooledConnection(credentials).getConnection().close();
+        }
+    }
+
+    /**
+     * Closes the idle connections and stops pooling. Connections that are in use are closed when
+     * they are returned.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (eviction != null) {
+                eviction.cancel(false);
+                eviction = null;
+            }
+        }
+        clearIdleConnections();
+    }
+
+    /**
+     * Sets the minimum number of idle connections kept in the pool.
+     *
+     * @param minIdle the minimum number of idle connections.
+     */
+    public synchronized void setMinIdle(final int minIdle) {
+        this.minIdle = Math.max(minIdle, 0);
+    }
+
+    /**
+     * Gets the minimum number of idle connections kept in the pool.
+     *
+     * @return the minimum number of idle connections.
+     */
+    public synchronized int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * Sets the maximum number of idle connections kept in the pool. Connections that are returned
+     * to a full pool are closed.
+     *
+     * @param maxIdle the maximum number of idle connections.
+     */
+    public synchronized void setMaxIdle(final int maxIdle) {
+        this.maxIdle = Math.max(maxIdle, 0);
+    }
+
+    /**
+     * Gets the maximum number of idle connections kept in the pool.
+     *
+     * @return the maximum number of idle connections.
+     */
+    public synchronized int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Sets the time, in seconds, after which an idle connection is evicted. A timeout of zero
+     * disables eviction.
+     *
+     * @param seconds the idle timeout in seconds.
+     */
+    public synchronized void setIdleTimeout(final int seconds) {
+        this.idleTimeout = Math.max(seconds, 0);
+    }
+
+    /**
+     * Gets the time, in seconds, after which an idle connection is evicted.
+     *
+     * @return the idle timeout in seconds.
+     */
+    public synchronized int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the timeout, in seconds, for validating an idle connection before it is reused.
+     *
+     * @param seconds the validation timeout in seconds.
+     */
+    public synchronized void setValidationTimeout(final int seconds) {
+        this.validationTimeout = Math.max(seconds, 0);
+    }
+
+    /**
+     * Gets the timeout, in seconds, for validating an idle connection before it is reused.
+     *
+     * @return the validation timeout in seconds.
+     */
+    public synchronized int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    /**
+     * Sets the representative queries translated by {@link #warmUp()}. An empty collection
+     * translates a query for each of the first tables in the SQL schema. A {@code null} value
+     * disables warming up the SQL schema and queries.
+     *
+     * @param queries the representative queries.
+     */
+    public synchronized void setWarmUpQueries(final Collection<String> queries) {
+        this.warmUpQueries = queries != null ? new ArrayList<>(queries) : null;
+    }
+
+    /**
+     * Gets the representative queries translated by {@link #warmUp()}.
+     *
+     * @return the representative queries, or {@code null} if warming up queries is disabled.
+     */
+    public synchronized Collection<String> getWarmUpQueries() {
+        return warmUpQueries;
+    }
+
+    @VisibleForTesting
+    synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    private DocumentDbPooledConnection createPooledConnection(final Credentials credentials)
+            throws SQLException {
+        final DocumentDbPooledConnection pooledConnection = new DocumentDbPooledConnection(
+                getConnectionWithCredentials(credentials.user, credentials.password));
+        pooledConnection.addConnectionEventListener(new PoolListener(credentials));
+        return pooledConnection;
+    }
+
+    private DocumentDbPooledConnection borrowConnection(final Credentials credentials) {
+        while (true) {
+            final IdleConnection idleConnection;
+            final int timeout;
+            synchronized (this) {
+                idleConnection = pollIdleConnection(credentials);
+                timeout = validationTimeout;
+            }
+            if (idleConnection == null) {
+                return null;
+            }
+            if (isValid(idleConnection, timeout)) {
+                return idleConnection.pooledConnection;
+            }
+            LOGGER.debug("Removing pooled connection that failed validation.");
+            idleConnection.pooledConnection.close();
+        }
+    }
+
+    private static boolean isValid(final IdleConnection idleConnection, final int timeout) {
+        if (idleConnection.pooledConnection.isClosed()) {
+            return false;
+        }
+        if (System.currentTimeMillis() - idleConnection.idleSince < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        return idleConnection.pooledConnection.isValid(timeout);
+    }
+
+    private synchronized IdleConnection pollIdleConnection(final Credentials credentials) {
+        // The most recently returned idle connections are at the start of the deque.
+        final Iterator<IdleConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            final IdleConnection idleConnection = iterator.next();
+            if (idleConnection.credentials.equals(credentials)) {
+                iterator.remove();
+                return idleConnection;
+            }
+        }
+        return null;
+    }
+
+    private void returnConnection(
+            final DocumentDbPooledConnection pooledConnection,
+            final Credentials credentials) {
+        synchronized (this) {
+            if (!closed && !pooledConnection.isClosed() && idleConnections.size() < maxIdle) {
+                idleConnections.addFirst(new IdleConnection(pooledConnection, credentials));
+                return;
+            }
+        }
+        pooledConnection.close();
+    }
+
+    private void clearIdleConnections() {
+        final List<IdleConnection> removed;
+        synchronized (this) {
+            removed = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+        }
+        removed.forEach(c -> c.pooledConnection.close());
+    }
+
+    private synchronized void scheduleEviction() {
+        if (eviction == null) {
+            eviction = EVICTION_EXECUTOR.scheduleWithFixedDelay(
+                    this::evictIdleConnections,
+                    EVICTION_INTERVAL_MS,
+                    EVICTION_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evictIdleConnections() {
+        final List<IdleConnection> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (idleTimeout > 0) {
+                final long evictBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleTimeout);
+                // The oldest idle connections are at the end of the deque.
+                final Iterator<IdleConnection> iterator = idleConnections.descendingIterator();
+                while (iterator.hasNext() && idleConnections.size() > minIdle) {
+                    final IdleConnection idleConnection = iterator.next();
+                    if (idleConnection.idleSince >= evictBefore) {
+                        break;
+                    }
+                    iterator.remove();
+                    evicted.add(idleConnection);
+                }
+            }
+        }
+        evicted.forEach(c -> c.pooledConnection.close());
+        try {
+            fillIdleConnections();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to open minimum idle connections: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a physical connection to the pool, with the credentials it was opened with, when
+     * its handle is closed.
+     */
+    private final class PoolListener implements ConnectionEventListener {
+        private final Credentials credentials;
+
+        PoolListener(final Credentials credentials) {
+            this.credentials = credentials;
+        }
+
+        @Override
+        public void connectionClosed(final ConnectionEvent event) {
+            returnConnection((DocumentDbPooledConnection) event.getSource(), credentials);
+        }
+
+        @Override
+        public void connectionErrorOccurred(final ConnectionEvent event) {
+            LOGGER.debug("Removing pooled connection after error: {}",
+                    event.getSQLException() != null ? event.getSQLException().getMessage() : null);
+            ((DocumentDbPooledConnection) event.getSource()).close();
+        }
+    }
+
+    /**
+     * The credentials a physical connection was opened with.
+     */
+    private static final class Credentials {
+        private final String user;
+        private final String password;
+
+        Credentials(final String user, final String password) {
+            this.user = user;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Credentials)) {
+                return false;
+            }
+            final Credentials other = (Credentials) o;
+            return Objects.equals(user, other.user) && Objects.equals(password, other.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user, password);
+        }
+    }
+
+    /**
+     * A physical connection waiting in the pool.
+     */
+    private static final class IdleConnection {
+        private final DocumentDbPooledConnection pooledConnection;
+        private final Credentials credentials;
+        private final long idleSince = System.currentTimeMillis();
+
+        IdleConnection(final DocumentDbPooledConnection pooledConnection, final Credentials credentials) {
+            this.pooledConnection = pooledConnection;
+            this.credentials = credentials;
+        }
+    }
+}
@@ -49,7 +49,10 @@ public class DocumentDbPreparedStatement extends PreparedStatement
                 .getConnectionProperties();
         final DocumentDbQueryMappingService mappingService = new DocumentDbQueryMappingService(
                 connectionProperties,
-                documentDbConnection.getDatabaseMetadata());
+                documentDbConnection.getDatabaseMetadata(),
+                connectionProperties.getLazySchemaGeneration()
+                        ? documentDbConnection::getDatabaseMetadataForQuery
+                        : null);
         queryExecutor = new DocumentDbQueryExecutor(
                 this,
                 connectionProperties,
@@ -75,10 +78,16 @@ public class DocumentDbPreparedStatement extends PreparedStatement
     public ResultSetMetaData getMetaData() throws SQLException {
         verifyOpen();
         if (getResultSet() == null) {
+            if (DocumentDbQueryMappingService.isExplain(getSql())) {
+                return new DocumentDbResultSetMetaData(DocumentDbQueryExecutor.EXPLAIN_COLUMN_META_DATA);
+            }
             final DocumentDbConnection connection = (DocumentDbConnection)getConnection();
             final DocumentDbQueryMappingService mappingService = new DocumentDbQueryMappingService(
                     connection.getConnectionProperties(),
-                    connection.getDatabaseMetadata());
+                    connection.getDatabaseMetadata(),
+                    connection.getConnectionProperties().getLazySchemaGeneration()
+                            ? connection::getDatabaseMetadataForQuery
+                            : null);
             return new DocumentDbResultSetMetaData(ImmutableList.copyOf(mappingService.get(getSql()).getColumnMetaData()));
         }
         return getResultSet().getMetaData();
@@ -18,29 +18,49 @@ package software.amazon.documentdb.jdbc;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.reactivestreams.client.AggregatePublisher;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
 import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcType;
 import software.amazon.documentdb.jdbc.common.utilities.SqlError;
 import software.amazon.documentdb.jdbc.common.utilities.SqlState;
 import software.amazon.documentdb.jdbc.query.DocumentDbMqlQueryContext;
+import software.amazon.documentdb.jdbc.query.DocumentDbMqlQueryExplanation;
 import software.amazon.documentdb.jdbc.query.DocumentDbQueryMappingService;
 
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.time.Instant;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * DocumentDb implementation of QueryExecution.
@@ -48,13 +68,39 @@ import java.util.concurrent.TimeUnit;
 public class DocumentDbQueryExecutor {
     private static final int OPERATION_CANCELLED_CODE = 11601;
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbQueryExecutor.class);
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .indent(true)
+            .build();
+    private static final JsonWriterSettings PIPELINE_WRITER_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .build();
+    /** The column metadata of the result of an {@code EXPLAIN PLAN FOR} statement. */
+    static final ImmutableList<JdbcColumnMetaData> EXPLAIN_COLUMN_META_DATA = ImmutableList.of(
+            buildExplainColumnMetaData(0, "PLAN", ResultSetMetaData.columnNoNulls),
+            buildExplainColumnMetaData(1, "COLLECTION", ResultSetMetaData.columnNoNulls),
+            buildExplainColumnMetaData(2, "PIPELINE", ResultSetMetaData.columnNoNulls),
+            buildExplainColumnMetaData(3, "SERVER_EXPLAIN", ResultSetMetaData.columnNullable));
+    /** Translates asynchronous queries, so that they do not run on the caller's thread. */
+    private static final ExecutorService TRANSLATION_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                    .setNameFormat("documentdb-query-translation-%d")
+                    .setDaemon(true)
+                    .build());
     private final Object queryStateLock = new Object();
+    /**
+     * Serializes the use of the mapping service, which is not thread-safe, by synchronous,
+     * asynchronous and explain queries.
+     */
+    private final Object translationLock = new Object();
     private final java.sql.Statement statement;
     private final DocumentDbConnectionProperties connectionProperties;
     private final DocumentDbQueryMappingService queryMapper;
     private int fetchSize;
     private int queryTimeout;
     private String queryId = null;
+    private DocumentDbQueryRecorder queryRecorder = null;
     private QueryState queryState = QueryState.NOT_STARTED;
 
     private enum QueryState {
@@ -99,6 +145,9 @@ public class DocumentDbQueryExecutor {
             }
             performCancel();
             queryState = QueryState.CANCELED;
+            if (queryRecorder != null) {
+                queryRecorder.complete(Outcome.CANCELED);
+            }
         }
     }
 
@@ -125,6 +174,7 @@ public class DocumentDbQueryExecutor {
             final java.sql.ResultSet resultSet = runQuery(query);
             synchronized (queryStateLock) {
                 if (queryState.equals(QueryState.CANCELED)) {
+                    resultSet.close();
                     resetQueryState();
                     throw SqlError.createSQLException(
                             LOGGER,
@@ -134,28 +184,46 @@ public class DocumentDbQueryExecutor {
             }
             return resultSet;
         } catch (final SQLException e) {
+            completeQueryRecorder(Outcome.FAILED);
             throw e;
         } catch (final Exception e) {
             synchronized (queryStateLock) {
-                if (e instanceof MongoException
+                completeQueryRecorder(queryState.equals(QueryState.CANCELED)
+                        ? Outcome.CANCELED
+                        : Outcome.FAILED);
+                throw getQueryFailedException(e, e instanceof MongoException
                         && ((MongoException) e).getCode() == OPERATION_CANCELLED_CODE
-                        && queryState.equals(QueryState.CANCELED)) {
-                    throw SqlError.createSQLException(
-                            LOGGER,
-                            SqlState.OPERATION_CANCELED,
-                            SqlError.QUERY_CANCELED);
-                } else {
-                    throw SqlError.createSQLException(
-                            LOGGER,
-                            SqlState.OPERATION_CANCELED,
-                            SqlError.QUERY_FAILED, e);
-                }
+                        && queryState.equals(QueryState.CANCELED));
             }
         } finally {
             resetQueryState();
         }
     }
 
+    /**
+     * Gets the exception to report for a query that failed, for both synchronous and asynchronous
+     * queries. Only a query that was cancelled is reported as cancelled.
+     *
+     * @param e the exception that the query failed with.
+     * @param canceled indicates whether the query failed because it was cancelled.
+     * @return a {@link SQLException} with the state of the failure.
+     */
+    private static SQLException getQueryFailedException(final Exception e, final boolean canceled) {
+        if (canceled) {
+            return SqlError.createSQLException(
+                    LOGGER,
+                    SqlState.OPERATION_CANCELED,
+                    SqlError.QUERY_CANCELED);
+        }
+        final SqlState sqlState = e instanceof MongoSocketException || e instanceof MongoTimeoutException
+                ? SqlState.CONNECTION_FAILURE
+                : SqlState.DATA_EXCEPTION;
+        return SqlError.createSQLException(
+                LOGGER,
+                sqlState,
+                SqlError.QUERY_FAILED, e);
+    }
+
     /**
      * Function to execute query.
      * @param sql Query to execute.
@@ -164,18 +232,31 @@ public class DocumentDbQueryExecutor {
      */
     @VisibleForTesting
     protected java.sql.ResultSet runQuery(final String sql) throws SQLException {
-        final Instant beginTranslation = Instant.now();
+        if (DocumentDbQueryMappingService.isExplain(sql)) {
+            return runExplain(sql);
+        }
+        final Integer slowQueryThreshold = connectionProperties.getSlowQueryThreshold();
+        final DocumentDbQueryRecorder recorder = new DocumentDbQueryRecorder(
+                queryId,
+                sql,
+                slowQueryThreshold != null ? slowQueryThreshold : 0,
+                connectionProperties.getSlowQueryExplain());
+        synchronized (queryStateLock) {
+            queryRecorder = recorder;
+        }
 
         LOGGER.info("Query {}: Beginning translation of query.", queryId);
         LOGGER.debug("Query {}: {}", queryId, sql);
         final long maxRows = statement.getLargeMaxRows();
-        final DocumentDbMqlQueryContext queryContext = queryMapper.get(sql, maxRows);
+        final DocumentDbMqlQueryContext queryContext;
+        synchronized (translationLock) {
+            queryContext = queryMapper.get(sql, maxRows);
+        }
         LOGGER.info("Query {}: Took {} ms to translate query.", queryId,
-                Instant.now().toEpochMilli() - beginTranslation.toEpochMilli());
+                TimeUnit.NANOSECONDS.toMillis(recorder.translated()));
         if (!(statement.getConnection() instanceof DocumentDbConnection)) {
             throw new SQLException("Unexpected operation state.");
         }
-        final Instant beginExecution = Instant.now();
         final DocumentDbConnection connection = (DocumentDbConnection) statement.getConnection();
         final DocumentDbConnectionProperties properties = connection.getConnectionProperties();
         final MongoClient client = connection.getMongoClient();
@@ -185,6 +266,7 @@ public class DocumentDbQueryExecutor {
                 .getCollection(queryContext.getCollectionName());
 
         final List<Bson> aggregateOperations = queryContext.getAggregateOperations();
+        recorder.executing(database, queryContext.getCollectionName(), aggregateOperations);
 
         AggregateIterable<Document> iterable = collection.aggregate(aggregateOperations);
         if (getQueryTimeout() > 0) {
@@ -196,21 +278,197 @@ public class DocumentDbQueryExecutor {
 
         final ImmutableList<JdbcColumnMetaData> columnMetaData = ImmutableList
                 .copyOf(queryContext.getColumnMetaData());
-        final MongoCursor<Document> iterator = iterable.iterator();
+        final DocumentDbQueryRecorder previousRecorder = DocumentDbMetrics.setCurrentQuery(recorder);
+        final MongoCursor<Document> iterator;
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.QUERY_EXECUTE_SPAN)) {
+            span.setAttribute(DocumentDbTracing.QUERY_ID_ATTRIBUTE, queryId);
+            span.setAttribute(DocumentDbTracing.COLLECTION_ATTRIBUTE, queryContext.getCollectionName());
+            try {
+                iterator = iterable.iterator();
+            } catch (RuntimeException e) {
+                span.recordException(e);
+                throw e;
+            }
+        } finally {
+            DocumentDbMetrics.setCurrentQuery(previousRecorder);
+        }
         LOGGER.info("Query {}: Took {} ms to execute query and retrieve first batch of results.", queryId,
-                Instant.now().toEpochMilli() - beginExecution.toEpochMilli());
+                TimeUnit.NANOSECONDS.toMillis(recorder.executed()));
         LOGGER.debug("Query {}: Executed on collection {} with following pipeline operations: {}",
                 queryId, queryContext.getCollectionName(), queryContext.getAggregateOperations().toString());
         return new DocumentDbResultSet(
                 this.statement,
                 iterator,
                 columnMetaData,
-                queryContext.getPaths());
+                queryContext.getPaths(),
+                recorder);
+    }
+
+    /**
+     * Executes a query asynchronously. The query is translated on a shared translation thread by
+     * the mapping service of this executor, and the aggregation is run on the shared reactive
+     * streams client of the connection, with the same timeout, metrics, tracing and slow query
+     * log as {@link #executeQuery(String)}. Unlike {@link #executeQuery(String)}, any number of
+     * asynchronous queries can run at the same time, but they cannot be cancelled by
+     * {@link #cancelQuery(boolean)}; closing the result set cancels the query instead.
+     *
+     * @param sql the SQL query.
+     * @param batchSize the maximum number of rows in each batch.
+     * @param queryTimeoutSecs the maximum execution time of the query in seconds, or zero for
+     *                         no limit.
+     * @return a stage that completes with the result of the query, or completes exceptionally
+     * with a {@link SQLException} if the query cannot be translated or started.
+     */
+    CompletionStage<DocumentDbAsyncResultSet> executeQueryAsync(
+            final String sql,
+            final int batchSize,
+            final int queryTimeoutSecs) {
+        final CompletableFuture<DocumentDbAsyncResultSet> future = new CompletableFuture<>();
+        TRANSLATION_EXECUTOR.execute(() -> {
+            try {
+                future.complete(runQueryAsync(sql, batchSize, queryTimeoutSecs));
+            } catch (SQLException e) {
+                future.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(getQueryFailedException(e, false));
+            }
+        });
+        return future;
+    }
+
+    private DocumentDbAsyncResultSet runQueryAsync(
+            final String sql,
+            final int batchSize,
+            final int queryTimeoutSecs) throws SQLException {
+        final String asyncQueryId = UUID.randomUUID().toString();
+        final Integer slowQueryThreshold = connectionProperties.getSlowQueryThreshold();
+        final DocumentDbQueryRecorder recorder = new DocumentDbQueryRecorder(
+                asyncQueryId,
+                sql,
+                slowQueryThreshold != null ? slowQueryThreshold : 0,
+                connectionProperties.getSlowQueryExplain());
+        try {
+            LOGGER.info("Query {}: Beginning translation of query.", asyncQueryId);
+            LOGGER.debug("Query {}: {}", asyncQueryId, sql);
+            final DocumentDbMqlQueryContext queryContext;
+            synchronized (translationLock) {
+                queryContext = queryMapper.get(sql, statement.getLargeMaxRows());
+            }
+            LOGGER.info("Query {}: Took {} ms to translate query.", asyncQueryId,
+                    TimeUnit.NANOSECONDS.toMillis(recorder.translated()));
+            if (!(statement.getConnection() instanceof DocumentDbConnection)) {
+                throw new SQLException("Unexpected operation state.");
+            }
+            final DocumentDbConnection connection = (DocumentDbConnection) statement.getConnection();
+            final DocumentDbConnectionProperties properties = connection.getConnectionProperties();
+            final List<Bson> aggregateOperations = queryContext.getAggregateOperations();
+            recorder.executing(
+                    connection.getMongoClient().getDatabase(properties.getDatabase()),
+                    queryContext.getCollectionName(),
+                    aggregateOperations);
+
+            AggregatePublisher<Document> publisher = connection.getReactiveMongoClient()
+                    .getDatabase(properties.getDatabase())
+                    .getCollection(queryContext.getCollectionName())
+                    .aggregate(aggregateOperations)
+                    .batchSize(batchSize);
+            if (queryTimeoutSecs > 0) {
+                publisher = publisher.maxTime(queryTimeoutSecs, TimeUnit.SECONDS);
+            }
+            try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.QUERY_EXECUTE_SPAN)) {
+                span.setAttribute(DocumentDbTracing.QUERY_ID_ATTRIBUTE, asyncQueryId);
+                span.setAttribute(DocumentDbTracing.COLLECTION_ATTRIBUTE, queryContext.getCollectionName());
+                LOGGER.debug("Query {}: Executing on collection {} with following pipeline operations: {}",
+                        asyncQueryId, queryContext.getCollectionName(), aggregateOperations.toString());
+                return new DocumentDbAsyncResultSet(
+                        publisher,
+                        ImmutableList.copyOf(queryContext.getColumnMetaData()),
+                        queryContext.getPaths(),
+                        batchSize,
+                        recorder);
+            }
+        } catch (SQLException | RuntimeException e) {
+            recorder.complete(Outcome.FAILED);
+            throw e;
+        }
+    }
+
+    /**
+     * Explains the query of an {@code EXPLAIN PLAN FOR} statement without executing it. The
+     * result has a single row with the Calcite physical plan and its cost estimates, the target
+     * collection, the aggregation pipeline and, if requested, the server's explain of the pipeline
+     * with {@code queryPlanner} verbosity.
+     */
+    private java.sql.ResultSet runExplain(final String sql) throws SQLException {
+        LOGGER.info("Query {}: Explaining query.", queryId);
+        LOGGER.debug("Query {}: {}", queryId, sql);
+        final DocumentDbMqlQueryExplanation explanation;
+        synchronized (translationLock) {
+            explanation = queryMapper.explain(sql, statement.getLargeMaxRows());
+        }
+        final DocumentDbMqlQueryContext queryContext = explanation.getQueryContext();
+        final BsonArray pipeline = new BsonArray();
+        for (Bson stage : queryContext.getAggregateOperations()) {
+            pipeline.add(stage.toBsonDocument());
+        }
+        String serverExplain = null;
+        if (explanation.isServerExplain()) {
+            if (!(statement.getConnection() instanceof DocumentDbConnection)) {
+                throw new SQLException("Unexpected operation state.");
+            }
+            final DocumentDbConnection connection = (DocumentDbConnection) statement.getConnection();
+            final MongoDatabase database = connection.getMongoClient()
+                    .getDatabase(connection.getConnectionProperties().getDatabase());
+            final BsonDocument command = new BsonDocument()
+                    .append("explain", new BsonDocument()
+                            .append("aggregate", new BsonString(queryContext.getCollectionName()))
+                            .append("pipeline", pipeline)
+                            .append("cursor", new BsonDocument()))
+                    .append("verbosity", new BsonString("queryPlanner"));
+            serverExplain = database.runCommand(command, BsonDocument.class).toJson(JSON_WRITER_SETTINGS);
+        }
+        final List<Object> row = Arrays.asList(
+                explanation.getPlan(),
+                queryContext.getCollectionName(),
+                pipeline.getValues().stream()
+                        .map(stage -> stage.asDocument().toJson(PIPELINE_WRITER_SETTINGS))
+                        .collect(Collectors.joining(",\n  ", "[\n  ", "\n]")),
+                serverExplain);
+        return new DocumentDbListResultSet(statement, EXPLAIN_COLUMN_META_DATA, Collections.singletonList(row));
+    }
+
+    private static JdbcColumnMetaData buildExplainColumnMetaData(
+            final int ordinal,
+            final String columnName,
+            final int nullable) {
+        return new JdbcColumnMetaData(
+                ordinal,
+                true, //caseSensitive,
+                nullable, //nullable,
+                false, //signed,
+                0, //displaySize,
+                columnName, //label,
+                columnName, //columnName,
+                null, //schemaName,
+                0, //precision,
+                0, //scale,
+                Types.VARCHAR, //type.id,
+                JdbcType.VARCHAR.name(), //type.name,
+                String.class.getName()); //columnClassName
     }
 
     private void resetQueryState() {
         queryState = QueryState.NOT_STARTED;
         queryId = null;
+        queryRecorder = null;
+    }
+
+    private void completeQueryRecorder(final Outcome outcome) {
+        synchronized (queryStateLock) {
+            if (queryRecorder != null) {
+                queryRecorder.complete(outcome);
+            }
+        }
     }
 
     private void performCancel() throws SQLException {
@@ -0,0 +1,443 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import lombok.NonNull;
+import org.apache.commons.text.StringEscapeUtils;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+import software.amazon.documentdb.jdbc.common.utilities.SqlError;
+import software.amazon.documentdb.jdbc.common.utilities.SqlState;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata;
+import software.amazon.documentdb.jdbc.query.DocumentDbMqlQueryContext;
+import software.amazon.documentdb.jdbc.query.DocumentDbQueryMappingService;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NEW;
+
+/**
+ * Exports the result of a SQL query to CSV or JSON Lines. The query is translated to an
+ * aggregation pipeline by the same path as {@link DocumentDbStatement}, and the rows are read
+ * through a {@link DocumentDbResultSet}, so the values are converted by the same JDBC type
+ * mapping. Rows are buffered in small chunks that are written and flushed as they fill, so
+ * memory use does not grow with the size of the result.
+ *
+ * <p>If the pipeline only filters, projects and unwinds documents, the collection can be split
+ * into {@code _id} ranges that are read in parallel. The order of the rows is not preserved
+ * when the query is partitioned.</p>
+ */
+final class DocumentDbQueryExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbQueryExporter.class);
+    private static final String ID_FIELD = "_id";
+    private static final int FETCH_SIZE = 2000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long MIN_PARTITION_SIZE = 10_000;
+    private static final Set<String> PARTITIONABLE_STAGES = ImmutableSet.of(
+            "$match", "$project", "$unwind", "$addFields");
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .build();
+
+    private final DocumentDbConnectionProperties properties;
+    private final MongoClient client;
+    private final DocumentDbExportFormat format;
+    private final int partitionCount;
+
+    /**
+     * Creates a new {@link DocumentDbQueryExporter}.
+     *
+     * @param properties the connection properties.
+     * @param client the client to read the collection with.
+     * @param format the format of the exported rows.
+     * @param partitionCount the maximum number of partitions to read in parallel.
+     */
+    DocumentDbQueryExporter(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull MongoClient client,
+            final @NonNull DocumentDbExportFormat format,
+            final int partitionCount) {
+        this.properties = properties;
+        this.client = client;
+        this.format = format;
+        this.partitionCount = Math.max(1, partitionCount);
+    }
+
+    /**
+     * Exports the result of the given query to the writer.
+     *
+     * @param sql the SQL query to export.
+     * @param writer the writer to write the rows to.
+     * @return the number of rows exported.
+     * @throws SQLException if the query cannot be translated or executed.
+     * @throws IOException if the rows cannot be written.
+     */
+    long export(final String sql, final Writer writer) throws SQLException, IOException {
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata = DocumentDbDatabaseSchemaMetadata
+                .get(properties, properties.getSchemaName(), VERSION_LATEST_OR_NEW, client);
+        final DocumentDbMqlQueryContext queryContext =
+                new DocumentDbQueryMappingService(properties, databaseMetadata).get(sql);
+        final ImmutableList<JdbcColumnMetaData> columnMetaData =
+                ImmutableList.copyOf(queryContext.getColumnMetaData());
+        final List<String> labels = getUniqueLabels(columnMetaData.stream()
+                .map(JdbcColumnMetaData::getColumnLabel)
+                .collect(Collectors.toList()));
+        final List<String> paths = queryContext.getPaths();
+        for (int i = 0; i < paths.size(); i++) {
+            final String path = paths.get(i);
+            if (path == null || path.isEmpty()) {
+                throw SqlError.createSQLException(LOGGER, SqlState.DATA_EXCEPTION,
+                        SqlError.CANNOT_RETRIEVE_COLUMN, labels.get(i));
+            }
+        }
+
+        final MongoCollection<Document> collection = client
+                .getDatabase(properties.getDatabase())
+                .getCollection(queryContext.getCollectionName());
+        final List<Bson> pipeline = queryContext.getAggregateOperations();
+        final List<Bson> partitionFilters = getPartitionFilters(collection, pipeline);
+
+        if (format == DocumentDbExportFormat.CSV) {
+            final StringBuilder header = new StringBuilder();
+            appendCsvLine(header, labels);
+            write(writer, header);
+        }
+        if (partitionFilters.isEmpty()) {
+            return exportPartition(collection, pipeline, null, columnMetaData, labels, paths, writer);
+        }
+
+        LOGGER.info("Exporting collection '{}' in {} partitions.",
+                queryContext.getCollectionName(), partitionFilters.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(partitionCount, partitionFilters.size()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("documentdb-query-export-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            final List<Future<Long>> futures = new ArrayList<>();
+            for (Bson partitionFilter : partitionFilters) {
+                futures.add(executor.submit(() -> exportPartition(
+                        collection, pipeline, partitionFilter, columnMetaData, labels, paths, writer)));
+            }
+            long rowCount = 0;
+            for (Future<Long> future : futures) {
+                rowCount += getRowCount(future);
+            }
+            return rowCount;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long exportPartition(
+            final MongoCollection<Document> collection,
+            final List<Bson> pipeline,
+            final Bson partitionFilter,
+            final ImmutableList<JdbcColumnMetaData> columnMetaData,
+            final List<String> labels,
+            final List<String> paths,
+            final Writer writer) throws SQLException, IOException {
+        final List<Bson> partitionPipeline = new ArrayList<>();
+        if (partitionFilter != null) {
+            partitionPipeline.add(Aggregates.match(partitionFilter));
+        }
+        partitionPipeline.addAll(pipeline);
+
+        final StringBuilder buffer = new StringBuilder();
+        long rowCount = 0;
+        try (ResultSet resultSet = new DocumentDbResultSet(
+                null,
+                collection.aggregate(partitionPipeline).batchSize(FETCH_SIZE).iterator(),
+                columnMetaData,
+                paths)) {
+            while (resultSet.next()) {
+                appendRow(buffer, resultSet, columnMetaData, labels);
+                rowCount++;
+                if (buffer.length() >= WRITE_BUFFER_SIZE) {
+                    write(writer, buffer);
+                }
+            }
+        }
+        write(writer, buffer);
+        return rowCount;
+    }
+
+    private void appendRow(
+            final StringBuilder buffer,
+            final ResultSet resultSet,
+            final List<JdbcColumnMetaData> columnMetaData,
+            final List<String> labels) throws SQLException {
+        if (format == DocumentDbExportFormat.JSON_LINES) {
+            final Document row = new Document();
+            for (int i = 0; i < columnMetaData.size(); i++) {
+                row.append(labels.get(i),
+                        getJsonValue(resultSet, i + 1, columnMetaData.get(i).getColumnType()));
+            }
+            buffer.append(row.toJson(JSON_WRITER_SETTINGS)).append('\n');
+        } else {
+            final List<String> values = new ArrayList<>();
+            for (int i = 0; i < columnMetaData.size(); i++) {
+                values.add(getCsvValue(resultSet, i + 1, columnMetaData.get(i).getColumnType()));
+            }
+            appendCsvLine(buffer, values);
+        }
+    }
+
+    /**
+     * Gets the value of the column as a type that is written as the matching JSON type.
+     */
+    private static Object getJsonValue(
+            final ResultSet resultSet,
+            final int columnIndex,
+            final int columnType) throws SQLException {
+        final Object value;
+        switch (columnType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                value = resultSet.getBoolean(columnIndex);
+                break;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                value = resultSet.getInt(columnIndex);
+                break;
+            case Types.BIGINT:
+                value = resultSet.getLong(columnIndex);
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                value = resultSet.getDouble(columnIndex);
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                final BigDecimal decimal = resultSet.getBigDecimal(columnIndex);
+                value = decimal != null ? new Decimal128(decimal) : null;
+                break;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                final byte[] bytes = resultSet.getBytes(columnIndex);
+                value = bytes != null ? new Binary(bytes) : null;
+                break;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                final Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+                value = timestamp != null ? new Date(timestamp.getTime()) : null;
+                break;
+            default:
+                value = resultSet.getString(columnIndex);
+                break;
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Gets the value of the column as text. Binary values are encoded as Base64.
+     */
+    private static String getCsvValue(
+            final ResultSet resultSet,
+            final int columnIndex,
+            final int columnType) throws SQLException {
+        final String value;
+        switch (columnType) {
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                final byte[] bytes = resultSet.getBytes(columnIndex);
+                value = bytes != null ? Base64.getEncoder().encodeToString(bytes) : null;
+                break;
+            default:
+                value = resultSet.getString(columnIndex);
+                break;
+        }
+        return resultSet.wasNull() || value == null ? "" : value;
+    }
+
+    /**
+     * Gets the column labels, with a numeric suffix added to repeated labels, so that no column
+     * is dropped from a JSON Lines row.
+     */
+    static List<String> getUniqueLabels(final List<String> labels) {
+        final Set<String> uniqueLabels = new LinkedHashSet<>();
+        for (String label : labels) {
+            String uniqueLabel = label;
+            for (int suffix = 2; !uniqueLabels.add(uniqueLabel); suffix++) {
+                uniqueLabel = label + "_" + suffix;
+            }
+        }
+        return new ArrayList<>(uniqueLabels);
+    }
+
+    private static void appendCsvLine(final StringBuilder buffer, final List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            buffer.append(StringEscapeUtils.escapeCsv(values.get(i)));
+        }
+        buffer.append('\n');
+    }
+
+    /**
+     * Writes, flushes and clears the buffer. Partitions share the writer, so each chunk is
+     * written while holding its lock, and lines from different partitions are never interleaved.
+     */
+    private static void write(final Writer writer, final StringBuilder buffer) throws IOException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        synchronized (writer) {
+            writer.append(buffer);
+            writer.flush();
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Gets the {@code _id} range filters to partition the collection by. Returns an empty list
+     * if the query should be read in a single partition.
+     */
+    private List<Bson> getPartitionFilters(
+            final MongoCollection<Document> collection,
+            final List<Bson> pipeline) {
+        final List<Bson> filters = new ArrayList<>();
+        if (partitionCount <= 1 || !isPartitionable(pipeline)) {
+            return filters;
+        }
+        final long documentCount = collection.estimatedDocumentCount();
+        if (documentCount < partitionCount * MIN_PARTITION_SIZE) {
+            return filters;
+        }
+        final MongoCollection<BsonDocument> idCollection =
+                collection.withDocumentClass(BsonDocument.class);
+        final BsonValue min = getId(idCollection, Sorts.ascending(ID_FIELD), 0);
+        final BsonValue max = getId(idCollection, Sorts.descending(ID_FIELD), 0);
+        // Range filters only match values of the same type, so mixed key types are not split.
+        if (min == null || max == null || !isSameType(min, max)) {
+            LOGGER.info("Collection '{}' is not partitioned, as its keys are of different types.",
+                    collection.getNamespace().getCollectionName());
+            return filters;
+        }
+
+        final List<BsonValue> boundaries = new ArrayList<>();
+        for (int i = 1; i < partitionCount; i++) {
+            final long skip = documentCount * i / partitionCount;
+            final BsonValue boundary = getId(idCollection, Sorts.ascending(ID_FIELD),
+                    (int) Math.min(skip, Integer.MAX_VALUE));
+            if (boundary != null
+                    && (boundaries.isEmpty() || !boundary.equals(boundaries.get(boundaries.size() - 1)))) {
+                boundaries.add(boundary);
+            }
+        }
+
+        BsonValue lower = null;
+        for (BsonValue upper : boundaries) {
+            filters.add(lower == null
+                    ? Filters.lt(ID_FIELD, upper)
+                    : Filters.and(Filters.gte(ID_FIELD, lower), Filters.lt(ID_FIELD, upper)));
+            lower = upper;
+        }
+        if (lower != null) {
+            filters.add(Filters.gte(ID_FIELD, lower));
+        }
+        return filters;
+    }
+
+    private static boolean isPartitionable(final List<Bson> pipeline) {
+        for (Bson stage : pipeline) {
+            final BsonDocument document = stage.toBsonDocument();
+            if (document.size() != 1 || !PARTITIONABLE_STAGES.contains(document.getFirstKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameType(final BsonValue first, final BsonValue second) {
+        return first.getBsonType() == second.getBsonType()
+                || (first.isNumber() || first.isDecimal128())
+                && (second.isNumber() || second.isDecimal128());
+    }
+
+    private static BsonValue getId(
+            final MongoCollection<BsonDocument> collection,
+            final Bson sort,
+            final int skip) {
+        final BsonDocument document = collection.find()
+                .projection(Projections.include(ID_FIELD))
+                .sort(sort)
+                .skip(skip)
+                .limit(1)
+                .first();
+        return document != null ? document.get(ID_FIELD) : null;
+    }
+
+    private static long getRowCount(final Future<Long> future) throws SQLException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause.getMessage(), cause);
+        }
+    }
+}
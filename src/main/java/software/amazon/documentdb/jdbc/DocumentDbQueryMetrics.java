@@ -0,0 +1,88 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import lombok.Getter;
+
+/**
+ * The metrics of a single query. The phase timings are in nanoseconds and consecutive, so their
+ * sum is the total time of the query.
+ */
+@Getter
+public final class DocumentDbQueryMetrics {
+    /**
+     * The outcome of a query.
+     */
+    public enum Outcome {
+        COMPLETED,
+        FAILED,
+        CANCELED
+    }
+
+    /** The ID of the query. */
+    private final String queryId;
+    /** The fingerprint of the query, its SQL with literals and whitespace normalized. */
+    private final String fingerprint;
+    /** The outcome of the query. */
+    private final Outcome outcome;
+    /** The time to translate the SQL query to an aggregation pipeline. */
+    private final long translateNanos;
+    /** The time for the server to execute the aggregation and return the first batch. */
+    private final long executeNanos;
+    /** The time from the start of the query to reading the first row, or -1 if no rows were read. */
+    private final long firstRowNanos;
+    /** The time from the first batch to the end of fetching the results. */
+    private final long fetchNanos;
+    /** The number of rows read. */
+    private final long rowCount;
+    /** The number of bytes of the batches returned by the server. */
+    private final long byteCount;
+    /** The number of batches returned by the server. */
+    private final long batchCount;
+
+    DocumentDbQueryMetrics(
+            final String queryId,
+            final String fingerprint,
+            final Outcome outcome,
+            final long translateNanos,
+            final long executeNanos,
+            final long firstRowNanos,
+            final long fetchNanos,
+            final long rowCount,
+            final long byteCount,
+            final long batchCount) {
+        this.queryId = queryId;
+        this.fingerprint = fingerprint;
+        this.outcome = outcome;
+        this.translateNanos = translateNanos;
+        this.executeNanos = executeNanos;
+        this.firstRowNanos = firstRowNanos;
+        this.fetchNanos = fetchNanos;
+        this.rowCount = rowCount;
+        this.byteCount = byteCount;
+        this.batchCount = batchCount;
+    }
+
+    /**
+     * Gets the total time of the query.
+     *
+     * @return the total time of the query in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return translateNanos + executeNanos + fetchNanos;
+    }
+}
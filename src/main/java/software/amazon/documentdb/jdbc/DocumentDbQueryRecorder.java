@@ -0,0 +1,166 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.mongodb.client.MongoDatabase;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the phases of a single query. The recorder is created when the query starts and is
+ * handed from the query executor to the result set, which completes it when the results are
+ * exhausted or closed. The metrics are published once, when the recorder is first completed,
+ * and the query is written to the slow query log if it reached the threshold.
+ */
+final class DocumentDbQueryRecorder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbQueryRecorder.class);
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final String queryId;
+    private final String sql;
+    private final long slowQueryThresholdNanos;
+    private final boolean slowQueryExplain;
+    private final long startNanos = System.nanoTime();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private MongoDatabase database;
+    private String collectionName;
+    private List<Bson> pipeline;
+    private long translateNanos;
+    private long executeNanos;
+    private long firstRowNanos = -1;
+    private long rowCount;
+    private long byteCount;
+    private long batchCount;
+
+    DocumentDbQueryRecorder(final String queryId, final String sql) {
+        this(queryId, sql, 0, false);
+    }
+
+    /**
+     * Creates a recorder that writes the query to the slow query log if it reaches the threshold.
+     *
+     * @param queryId the ID of the query.
+     * @param sql the SQL query.
+     * @param slowQueryThresholdMillis the latency threshold of the slow query log in
+     *                                 milliseconds, or zero to not log the query.
+     * @param slowQueryExplain indicator of whether to include the explain output in the log.
+     */
+    DocumentDbQueryRecorder(
+            final String queryId,
+            final String sql,
+            final long slowQueryThresholdMillis,
+            final boolean slowQueryExplain) {
+        this.queryId = queryId;
+        this.sql = sql;
+        this.slowQueryThresholdNanos = slowQueryThresholdMillis * NANOS_PER_MILLI;
+        this.slowQueryExplain = slowQueryExplain;
+    }
+
+    /**
+     * Records the aggregation run for the query, for the slow query log.
+     *
+     * @param database the database.
+     * @param collectionName the collection of the aggregation.
+     * @param pipeline the aggregation pipeline.
+     */
+    void executing(
+            final MongoDatabase database,
+            final String collectionName,
+            final List<Bson> pipeline) {
+        this.database = database;
+        this.collectionName = collectionName;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Records the end of the translation phase.
+     *
+     * @return the time to translate the query in nanoseconds.
+     */
+    long translated() {
+        translateNanos = System.nanoTime() - startNanos;
+        return translateNanos;
+    }
+
+    /**
+     * Records the end of the execution phase, when the first batch is returned.
+     *
+     * @return the time to execute the query in nanoseconds.
+     */
+    long executed() {
+        executeNanos = System.nanoTime() - startNanos - translateNanos;
+        return executeNanos;
+    }
+
+    /**
+     * Records a row read.
+     */
+    void rowRead() {
+        if (rowCount == 0) {
+            firstRowNanos = System.nanoTime() - startNanos;
+        }
+        rowCount++;
+    }
+
+    /**
+     * Records a batch returned by the server.
+     *
+     * @param bytes the size of the batch in bytes.
+     */
+    void batchReceived(final long bytes) {
+        batchCount++;
+        byteCount += bytes;
+    }
+
+    /**
+     * Completes the query and publishes its metrics, if not already completed.
+     *
+     * @param outcome the outcome of the query.
+     */
+    void complete(final Outcome outcome) {
+        if (!completed.compareAndSet(false, true)) {
+            return;
+        }
+        final long fetchNanos = Math.max(0,
+                System.nanoTime() - startNanos - translateNanos - executeNanos);
+        final DocumentDbQueryMetrics metrics = new DocumentDbQueryMetrics(
+                queryId,
+                DocumentDbMetrics.getFingerprint(sql),
+                outcome,
+                translateNanos,
+                executeNanos,
+                firstRowNanos,
+                fetchNanos,
+                rowCount,
+                byteCount,
+                batchCount);
+        DocumentDbMetrics.record(metrics);
+        if (slowQueryThresholdNanos > 0 && metrics.getTotalNanos() >= slowQueryThresholdNanos) {
+            try {
+                DocumentDbSlowQueryLog.write(metrics, sql, database, collectionName, pipeline,
+                        slowQueryExplain && outcome == Outcome.COMPLETED);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Query {}: Unable to write slow query log: {}", queryId, e.getMessage());
+            }
+        }
+    }
+}
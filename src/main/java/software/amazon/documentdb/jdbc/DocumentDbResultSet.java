@@ -22,6 +22,7 @@ import org.bson.Document;
 import org.bson.types.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
 import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
 import software.amazon.documentdb.jdbc.common.utilities.SqlError;
 import software.amazon.documentdb.jdbc.common.utilities.SqlState;
@@ -34,7 +35,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * DocumentDb implementation of ResultSet.
+ * DocumentDb implementation of ResultSet. Columnar consumers can unwrap the result set to this
+ * class and read the rows in batches by calling {@link #nextBatch()}.
  */
 public class DocumentDbResultSet extends DocumentDbAbstractResultSet implements java.sql.ResultSet {
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbResultSet.class);
@@ -43,7 +45,9 @@ public class DocumentDbResultSet extends DocumentDbAbstractResultSet implements
     private int rowIndex = -1;
     private final MongoCursor<Document> iterator;
     private Document current;
-    private final List<String> paths;
+    private final String[][] segmentedPaths;
+    private final ImmutableList<JdbcColumnMetaData> columnMetaData;
+    private final DocumentDbQueryRecorder recorder;
 
     /**
      * DocumentDbResultSet constructor, initializes super class.
@@ -53,17 +57,37 @@ public class DocumentDbResultSet extends DocumentDbAbstractResultSet implements
             final MongoCursor<Document> iterator,
             final ImmutableList<JdbcColumnMetaData> columnMetaData,
             final List<String> paths) throws SQLException {
+        this(statement, iterator, columnMetaData, paths, null);
+    }
+
+    /**
+     * DocumentDbResultSet constructor, initializes super class.
+     *
+     * @param recorder the recorder of the query metrics, completed when the results are
+     *                 exhausted or closed. Can be {@code null}.
+     */
+    DocumentDbResultSet(
+            final Statement statement,
+            final MongoCursor<Document> iterator,
+            final ImmutableList<JdbcColumnMetaData> columnMetaData,
+            final List<String> paths,
+            final DocumentDbQueryRecorder recorder) throws SQLException {
         super(statement, columnMetaData, true);
         this.iterator = iterator;
 
         // Set fetch size to be fetch size of statement if it exists. Otherwise, use default.
         this.fetchSize = statement != null ? statement.getFetchSize() : DEFAULT_FETCH_SIZE;
-        this.paths = paths;
+        this.segmentedPaths = splitPaths(paths);
+        this.columnMetaData = columnMetaData;
+        this.recorder = recorder;
     }
 
     @Override
     protected void doClose() {
         iterator.close();
+        if (recorder != null) {
+            recorder.complete(Outcome.COMPLETED);
+        }
     }
 
     /**
@@ -111,6 +135,60 @@ public class DocumentDbResultSet extends DocumentDbAbstractResultSet implements
     @Override
     public boolean next() throws SQLException {
         verifyOpen();
+        if (recorder == null) {
+            return nextDocument();
+        }
+        // Record the batches fetched by the cursor for this query.
+        final DocumentDbQueryRecorder previous = DocumentDbMetrics.setCurrentQuery(recorder);
+        try {
+            if (nextDocument()) {
+                recorder.rowRead();
+                return true;
+            }
+            recorder.complete(Outcome.COMPLETED);
+            return false;
+        } finally {
+            DocumentDbMetrics.setCurrentQuery(previous);
+        }
+    }
+
+    /**
+     * Reads the next rows of the result set into a columnar batch, and moves the cursor to the
+     * last row read. A batch holds at most fetch size rows. The values are converted from the
+     * documents directly to the types of the column metadata.
+     *
+     * @return the next batch of rows, or {@code null} if there are no more rows.
+     * @throws SQLException if the result set is closed, or a value cannot be converted to the
+     * type of its column.
+     */
+    public DocumentDbColumnBatch nextBatch() throws SQLException {
+        verifyOpen();
+        final int batchSize = fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
+        final DocumentDbColumnBatch batch = new DocumentDbColumnBatch(columnMetaData, batchSize);
+        final Object[] values = new Object[segmentedPaths.length];
+        while (!batch.isFull() && next()) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getValue(i + 1);
+            }
+            batch.appendRow(values);
+        }
+        return batch.getRowCount() > 0 ? batch : null;
+    }
+
+    private boolean nextDocument() {
+        if (DocumentDbTracing.isEnabled()
+                && iterator.available() == 0
+                && iterator.getServerCursor() != null) {
+            // The current batch is consumed, so the cursor fetches the next batch.
+            try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.QUERY_GET_MORE_SPAN)) {
+                try {
+                    iterator.hasNext();
+                } catch (RuntimeException e) {
+                    span.recordException(e);
+                    throw e;
+                }
+            }
+        }
         if (iterator.hasNext()) {
             current = iterator.next();
             rowIndex++;
@@ -123,16 +201,37 @@ public class DocumentDbResultSet extends DocumentDbAbstractResultSet implements
 
     @Override
     protected Object getValue(final int columnIndex) throws SQLException {
-        final ResultSetMetaData metadata = getMetaData();
-        final String path = paths.get(columnIndex - 1);
-
-        if (path == null || path.isEmpty()) {
+        final String[] segmentedPath = segmentedPaths[columnIndex - 1];
+        if (segmentedPath == null) {
+            final ResultSetMetaData metadata = getMetaData();
             throw SqlError.createSQLException(LOGGER, SqlState.DATA_EXCEPTION,
                     SqlError.CANNOT_RETRIEVE_COLUMN, metadata.getColumnName(columnIndex));
         }
+        return getValue(current, segmentedPath);
+    }
 
-        final String[] segmentedPath = path.split("\\.");
-        Object segmentValue = current.get(segmentedPath[0]);
+    /**
+     * Splits the paths of the columns into their segments.
+     *
+     * @param paths the paths of the columns.
+     * @return the segments of each path, or {@code null} for a missing path.
+     */
+    static String[][] splitPaths(final List<String> paths) {
+        return paths.stream()
+                .map(path -> path == null || path.isEmpty() ? null : path.split("\\."))
+                .toArray(String[][]::new);
+    }
+
+    /**
+     * Gets the value at the given path of the document, as it is returned by
+     * {@link #getObject(int)}.
+     *
+     * @param document the document.
+     * @param segmentedPath the segments of the path.
+     * @return the value, or {@code null} if the path is not in the document.
+     */
+    static Object getValue(final Document document, final String[] segmentedPath) {
+        Object segmentValue = document.get(segmentedPath[0]);
         for (int j = 1; j < segmentedPath.length && segmentValue instanceof Document; j++) {
             segmentValue = ((Document) segmentValue).get(segmentedPath[j]);
         }
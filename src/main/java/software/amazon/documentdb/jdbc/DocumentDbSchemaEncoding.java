@@ -0,0 +1,53 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+/**
+ * The enumeration of encodings for the columns of persisted table schemas.
+ */
+public enum DocumentDbSchemaEncoding {
+    /** Each column is stored as a sub-document. */
+    DOCUMENT("document"),
+    /** The columns are stored as a dictionary-encoded binary value. */
+    COMPACT("compact"),
+    /** The columns are stored as a dictionary-encoded and compressed binary value. */
+    COMPRESSED("compressed");
+
+    private final String name;
+
+    DocumentDbSchemaEncoding(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns DocumentDbSchemaEncoding with a name that matches input string.
+     * @param schemaEncodingString name of the schema encoding.
+     * @return DocumentDbSchemaEncoding of string.
+     */
+    public static DocumentDbSchemaEncoding fromString(final String schemaEncodingString) {
+        for (DocumentDbSchemaEncoding schemaEncoding: DocumentDbSchemaEncoding.values()) {
+            if (schemaEncoding.name.equals(schemaEncodingString)) {
+                return schemaEncoding;
+            }
+        }
+        throw new IllegalArgumentException("Invalid schema encoding.");
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.mongodb.client.MongoDatabase;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.RollingFileAppender;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes queries that reach the latency threshold of the
+ * {@link DocumentDbConnectionProperty#SLOW_QUERY_THRESHOLD} property to the slow query log. Each
+ * query is written as a single line of JSON, with its SQL, generated aggregation pipeline, phase
+ * timings and, optionally, the server's query plan. The log is written by the
+ * {@code slowQuery} logger. Unless the application configures an appender for that logger, its
+ * rolling file is added when the first slow query is written, so the file is only created when
+ * the slow query log is used.
+ */
+final class DocumentDbSlowQueryLog {
+    /** The name of the logger of the slow query log. */
+    static final String LOGGER_NAME = "slowQuery";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbSlowQueryLog.class);
+    private static final Logger SLOW_QUERY_LOGGER = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .build();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final int EXPLAIN_MAX_TIME_MS = 5000;
+    private static final String FILE_PATH_PROPERTY = "documentdb.jdbc.log.slowquery.file.path";
+    private static final String FILE_NAME = "documentdb-jdbc-slow-queries.jsonl";
+    private static final String MAX_FILE_SIZE = "10MB";
+    private static final int MAX_BACKUP_INDEX = 5;
+    private static boolean appenderInitialized = false;
+
+    private DocumentDbSlowQueryLog() {
+    }
+
+    /**
+     * Writes a slow query to the log.
+     *
+     * @param metrics the metrics of the query.
+     * @param sql the SQL query.
+     * @param database the database of the query, or {@code null} if the query was not executed.
+     * @param collectionName the collection of the aggregation.
+     * @param pipeline the aggregation pipeline.
+     * @param explain indicator of whether to include the query plan of the pipeline.
+     */
+    static void write(
+            final DocumentDbQueryMetrics metrics,
+            final String sql,
+            final MongoDatabase database,
+            final String collectionName,
+            final List<Bson> pipeline,
+            final boolean explain) {
+        initializeAppender();
+        if (!SLOW_QUERY_LOGGER.isInfoEnabled()) {
+            return;
+        }
+        final BsonDocument entry = toEntry(metrics, sql, database != null ? database.getName() : null,
+                collectionName, pipeline);
+        if (explain && database != null && collectionName != null && pipeline != null) {
+            try {
+                entry.append("explain", explain(database, collectionName, entry.getArray("pipeline")));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Query {}: Unable to explain slow query: {}", metrics.getQueryId(), e.getMessage());
+                entry.append("explainError", new BsonString(String.valueOf(e.getMessage())));
+            }
+        }
+        SLOW_QUERY_LOGGER.info(entry.toJson(JSON_WRITER_SETTINGS));
+    }
+
+    /**
+     * Creates the log entry of a slow query.
+     *
+     * @param metrics the metrics of the query.
+     * @param sql the SQL query.
+     * @param databaseName the name of the database.
+     * @param collectionName the collection of the aggregation.
+     * @param pipeline the aggregation pipeline.
+     * @return a {@link BsonDocument} of the log entry.
+     */
+    @VisibleForTesting
+    static BsonDocument toEntry(
+            final DocumentDbQueryMetrics metrics,
+            final String sql,
+            final String databaseName,
+            final String collectionName,
+            final List<Bson> pipeline) {
+        final BsonDocument entry = new BsonDocument()
+                .append("timestamp", new BsonString(Instant.now().toString()))
+                .append("queryId", toBsonString(metrics.getQueryId()))
+                .append("outcome", new BsonString(metrics.getOutcome().name()))
+                .append("database", toBsonString(databaseName))
+                .append("collection", toBsonString(collectionName))
+                .append("sql", toBsonString(sql))
+                .append("fingerprint", toBsonString(metrics.getFingerprint()));
+        final BsonArray stages = new BsonArray();
+        if (pipeline != null) {
+            for (Bson stage : pipeline) {
+                stages.add(stage.toBsonDocument());
+            }
+        }
+        entry.append("pipeline", stages);
+        entry.append("timings", new BsonDocument()
+                .append("translateMs", toMillis(metrics.getTranslateNanos()))
+                .append("executeMs", toMillis(metrics.getExecuteNanos()))
+                .append("firstRowMs", toMillis(metrics.getFirstRowNanos()))
+                .append("fetchMs", toMillis(metrics.getFetchNanos()))
+                .append("totalMs", toMillis(metrics.getTotalNanos())));
+        entry.append("rows", new BsonInt64(metrics.getRowCount()));
+        entry.append("batches", new BsonInt64(metrics.getBatchCount()));
+        entry.append("bytes", new BsonInt64(metrics.getByteCount()));
+        return entry;
+    }
+
+    private static BsonDocument explain(
+            final MongoDatabase database,
+            final String collectionName,
+            final BsonArray pipeline) {
+        return database.runCommand(getExplainCommand(collectionName, pipeline), BsonDocument.class);
+    }
+
+    /**
+     * Gets the explain command for the pipeline of a slow query. Only the query plan is requested,
+     * so the query is not run again on the thread that reads or closes its result.
+     *
+     * @param collectionName the collection of the aggregation.
+     * @param pipeline the aggregation pipeline.
+     * @return a {@link BsonDocument} of the explain command.
+     */
+    @VisibleForTesting
+    static BsonDocument getExplainCommand(
+            final String collectionName,
+            final BsonArray pipeline) {
+        return new BsonDocument()
+                .append("explain", new BsonDocument()
+                        .append("aggregate", new BsonString(collectionName))
+                        .append("pipeline", pipeline)
+                        .append("cursor", new BsonDocument())
+                        .append("maxTimeMS", new BsonInt32(EXPLAIN_MAX_TIME_MS)))
+                .append("verbosity", new BsonString("queryPlanner"));
+    }
+
+    /**
+     * Adds the rolling file of the slow query log to the {@code slowQuery} logger, unless the
+     * application configured an appender for it.
+     */
+    private static synchronized void initializeAppender() {
+        if (appenderInitialized) {
+            return;
+        }
+        appenderInitialized = true;
+        try {
+            final org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(LOGGER_NAME);
+            if (logger.getAllAppenders().hasMoreElements()) {
+                return;
+            }
+            final RollingFileAppender appender = new RollingFileAppender();
+            appender.setName("slowQueryFile");
+            appender.setFile(getFilePath());
+            appender.setLayout(new PatternLayout("%m%n"));
+            appender.setMaxFileSize(MAX_FILE_SIZE);
+            appender.setMaxBackupIndex(MAX_BACKUP_INDEX);
+            appender.setAppend(true);
+            appender.setEncoding(StandardCharsets.UTF_8.name());
+            appender.activateOptions();
+            logger.addAppender(appender);
+        } catch (LinkageError e) {
+            // Another logging framework is bound, which configures the slow query logger itself.
+            LOGGER.debug("Unable to add the slow query log file: {}", e.getMessage());
+        }
+    }
+
+    private static String getFilePath() {
+        final String filePath = System.getProperty(FILE_PATH_PROPERTY);
+        return filePath != null
+                ? filePath
+                : Paths.get(System.getProperty("user.home"), ".documentdb", "logs", FILE_NAME).toString();
+    }
+
+    private static BsonDouble toMillis(final long nanos) {
+        return new BsonDouble(nanos < 0 ? -1 : nanos / NANOS_PER_MILLI);
+    }
+
+    private static BsonValue toBsonString(final String value) {
+        return value != null ? new BsonString(value) : BsonNull.VALUE;
+    }
+}
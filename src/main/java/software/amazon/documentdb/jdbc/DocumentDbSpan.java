@@ -0,0 +1,52 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+/**
+ * A span of work traced by a {@link DocumentDbTracer}. A span ends when it is closed. Spans are
+ * always closed on the thread that started them, in the reverse order they were started.
+ */
+public interface DocumentDbSpan extends AutoCloseable {
+    /**
+     * Sets a string attribute of the span.
+     *
+     * @param key the attribute key.
+     * @param value the attribute value.
+     */
+    void setAttribute(String key, String value);
+
+    /**
+     * Sets a numeric attribute of the span.
+     *
+     * @param key the attribute key.
+     * @param value the attribute value.
+     */
+    void setAttribute(String key, long value);
+
+    /**
+     * Records that the work of the span failed with the given exception.
+     *
+     * @param exception the exception.
+     */
+    void recordException(Throwable exception);
+
+    /**
+     * Ends the span.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbConnection.SshPortForwardingSession;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static software.amazon.documentdb.jdbc.DocumentDbConnection.SSH_KEEP_ALIVE_INTERVAL_MS;
+
+/**
+ * A process-wide manager of internal SSH tunnels. Connections with the same SSH and cluster
+ * endpoint share the SSH sessions and port forwarding of a single tunnel, instead of each creating
+ * their own session. A tunnel can have a small pool of sessions, set by the
+ * {@link DocumentDbConnectionProperty#SSH_TUNNEL_POOL_SIZE} property, to spread its channels.
+ * Each connection acquires a reference to a session and must release it when closed. The sessions
+ * are disconnected when the last reference to the tunnel is released. Sessions that are dropped
+ * are reconnected on the same local port, so clients using the tunnel are not affected.
+ */
+public final class DocumentDbSshTunnelManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbSshTunnelManager.class);
+    private static final Map<String, List<TunnelSession>> TUNNELS = new HashMap<>();
+    private static final ScheduledExecutorService HEALTH_CHECK_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("documentdb-ssh-tunnel-health-check-%d")
+                    .setDaemon(true)
+                    .build());
+    private static ScheduledFuture<?> healthCheck = null;
+
+    static {
+        DocumentDbMetrics.registerGauge("sshTunnels", DocumentDbSshTunnelManager::getTunnelCount);
+    }
+
+    private DocumentDbSshTunnelManager() {
+    }
+
+    /**
+     * Acquires a reference to a shared SSH tunnel session for the given connection properties,
+     * creating the session if the tunnel does not exist or its pool of sessions is not full.
+     *
+     * @param properties the connection properties.
+     * @return a {@link SshPortForwardingSession} session, or {@code null} if the internal SSH
+     * tunnel is not enabled. This session must not be disconnected directly, but released by
+     * calling {@link #release(SshPortForwardingSession)}.
+     * @throws SQLException if unable to create SSH session or create the port forwarding tunnel.
+     */
+    public static SshPortForwardingSession acquire(
+            final @NonNull DocumentDbConnectionProperties properties) throws SQLException {
+        if (!properties.enableSshTunnel()) {
+            return DocumentDbConnection.createSshTunnel(properties);
+        }
+
+        final TunnelSession tunnelSession = acquireTunnelSession(properties);
+        try {
+            return tunnelSession.ensureConnected();
+        } catch (SQLException e) {
+            release(tunnelSession.getLocalPort());
+            throw e;
+        }
+    }
+
+    /**
+     * Releases a reference to the given shared SSH tunnel session. The sessions of the tunnel are
+     * disconnected when its last reference is released.
+     *
+     * @param session the session acquired by calling
+     *                {@link #acquire(DocumentDbConnectionProperties)}.
+     */
+    public static void release(final @NonNull SshPortForwardingSession session) {
+        release(session.getLocalPort());
+    }
+
+    /**
+     * Gets the number of shared SSH tunnels.
+     *
+     * @return the number of shared SSH tunnels.
+     */
+    @VisibleForTesting
+    static synchronized int getTunnelCount() {
+        return TUNNELS.size();
+    }
+
+    private static synchronized TunnelSession acquireTunnelSession(
+            final DocumentDbConnectionProperties properties) throws SQLException {
+        final String tunnelKey = getTunnelKey(properties);
+        final List<TunnelSession> tunnelSessions = TUNNELS.computeIfAbsent(
+                tunnelKey, key -> new ArrayList<>());
+        final Integer poolSize = properties.getSshTunnelPoolSize();
+        final TunnelSession leastUsed = tunnelSessions.stream()
+                .min(Comparator.comparingInt(s -> s.referenceCount))
+                .orElse(null);
+
+        final TunnelSession tunnelSession;
+        if (leastUsed == null
+                || (leastUsed.referenceCount > 0
+                        && tunnelSessions.size() < (poolSize != null ? poolSize : 1))) {
+            try {
+                tunnelSession = new TunnelSession(
+                        properties, DocumentDbConnection.createSshTunnel(properties));
+            } catch (SQLException e) {
+                if (tunnelSessions.isEmpty()) {
+                    TUNNELS.remove(tunnelKey);
+                }
+                throw e;
+            }
+            tunnelSessions.add(tunnelSession);
+            scheduleHealthCheck();
+        } else {
+            tunnelSession = leastUsed;
+        }
+        tunnelSession.referenceCount++;
+        return tunnelSession;
+    }
+
+    private static synchronized void release(final int localPort) {
+        final Iterator<List<TunnelSession>> iterator = TUNNELS.values().iterator();
+        while (iterator.hasNext()) {
+            final List<TunnelSession> tunnelSessions = iterator.next();
+            for (TunnelSession tunnelSession : tunnelSessions) {
+                if (tunnelSession.getLocalPort() == localPort) {
+                    tunnelSession.referenceCount--;
+                    if (tunnelSessions.stream().allMatch(s -> s.referenceCount <= 0)) {
+                        iterator.remove();
+                        tunnelSessions.forEach(TunnelSession::close);
+                        LOGGER.info("Internal SSH tunnel stopped.");
+                        if (TUNNELS.isEmpty()) {
+                            cancelHealthCheck();
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+        LOGGER.warn("Attempted to release an SSH tunnel session that is not shared.");
+    }
+
+    private static synchronized void scheduleHealthCheck() {
+        if (healthCheck == null) {
+            healthCheck = HEALTH_CHECK_EXECUTOR.scheduleWithFixedDelay(
+                    DocumentDbSshTunnelManager::checkTunnels,
+                    SSH_KEEP_ALIVE_INTERVAL_MS,
+                    SSH_KEEP_ALIVE_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static synchronized void cancelHealthCheck() {
+        if (healthCheck != null) {
+            healthCheck.cancel(false);
+            healthCheck = null;
+        }
+    }
+
+    private static void checkTunnels() {
+        final List<TunnelSession> tunnelSessions = new ArrayList<>();
+        synchronized (DocumentDbSshTunnelManager.class) {
+            TUNNELS.values().forEach(tunnelSessions::addAll);
+        }
+        for (TunnelSession tunnelSession : tunnelSessions) {
+            try {
+                tunnelSession.ensureConnected();
+            } catch (Exception e) {
+                LOGGER.warn("Unable to reconnect internal SSH tunnel on local port '{}': {}",
+                        tunnelSession.getLocalPort(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the key for the shared tunnel from the properties that are used to create the SSH
+     * session and its port forwarding.
+     */
+    private static String getTunnelKey(final DocumentDbConnectionProperties properties) {
+        return String.join("\n",
+                String.valueOf(properties.getSshUser()),
+                String.valueOf(properties.getSshHostname()),
+                String.valueOf(properties.getSshPrivateKeyFile()),
+                String.valueOf(properties.getSshStrictHostKeyChecking()),
+                String.valueOf(properties.getSshKnownHostsFile()),
+                String.valueOf(properties.getHostname()),
+                String.valueOf(properties.getSshTunnelPoolSize()));
+    }
+
+    /**
+     * A pooled SSH session of a shared tunnel. The local port of the session does not change when
+     * the session is reconnected.
+     */
+    private static final class TunnelSession {
+        private final DocumentDbConnectionProperties properties;
+        private final int localPort;
+        private SshPortForwardingSession session;
+        private int referenceCount;
+        private boolean closed;
+
+        TunnelSession(
+                final DocumentDbConnectionProperties properties,
+                final SshPortForwardingSession session) {
+            this.properties = new DocumentDbConnectionProperties(properties);
+            this.localPort = session.getLocalPort();
+            this.session = session;
+        }
+
+        int getLocalPort() {
+            return localPort;
+        }
+
+        synchronized SshPortForwardingSession ensureConnected() throws SQLException {
+            if (!closed && !session.getSession().isConnected()) {
+                LOGGER.info("Internal SSH tunnel on local port '{}' disconnected. Reconnecting.",
+                        localPort);
+                session = DocumentDbConnection.createSshTunnel(properties, localPort);
+            }
+            return session;
+        }
+
+        synchronized void close() {
+            closed = true;
+            session.getSession().disconnect();
+        }
+    }
+}
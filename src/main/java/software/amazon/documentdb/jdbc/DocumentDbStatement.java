@@ -22,6 +22,7 @@ import software.amazon.documentdb.jdbc.common.Statement;
 import software.amazon.documentdb.jdbc.query.DocumentDbQueryMappingService;
 
 import java.sql.SQLException;
+import java.util.concurrent.CompletionStage;
 
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.FETCH_SIZE_DEFAULT;
 
@@ -46,7 +47,10 @@ class DocumentDbStatement extends Statement implements java.sql.Statement {
         setDefaultFetchSize(this, connection.getConnectionProperties());
         final DocumentDbQueryMappingService mappingService = new DocumentDbQueryMappingService(
                 connection.getConnectionProperties(),
-                connection.getDatabaseMetadata());
+                connection.getDatabaseMetadata(),
+                connection.getConnectionProperties().getLazySchemaGeneration()
+                        ? connection::getDatabaseMetadataForQuery
+                        : null);
         queryExecutor = new DocumentDbQueryExecutor(
                 this,
                 connection.getConnectionProperties(),
@@ -98,6 +102,24 @@ class DocumentDbStatement extends Statement implements java.sql.Statement {
         return queryExecutor.executeQuery(sql);
     }
 
+    /**
+     * Executes a query asynchronously, with the mapping service of this statement.
+     *
+     * @param sql the SQL query.
+     * @param batchSize the maximum number of rows in each batch.
+     * @param queryTimeoutSecs the maximum execution time of the query in seconds, or zero for
+     *                         no limit.
+     * @return a stage that completes with the result of the query.
+     * @throws SQLException if the statement is closed.
+     */
+    CompletionStage<DocumentDbAsyncResultSet> executeQueryAsync(
+            final String sql,
+            final int batchSize,
+            final int queryTimeoutSecs) throws SQLException {
+        verifyOpen();
+        return queryExecutor.executeQueryAsync(sql, batchSize, queryTimeoutSecs);
+    }
+
     @Override
     public int getQueryTimeout() throws SQLException {
         verifyOpen();
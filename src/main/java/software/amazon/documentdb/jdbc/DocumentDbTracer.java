@@ -0,0 +1,36 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+/**
+ * A tracer of the driver phases. Implementations can bridge to a tracing library, such as
+ * OpenTelemetry, by starting a span and making it current in {@link #startSpan(String)}, and
+ * ending it and restoring the previous span when the returned span is closed. A span started
+ * while another span is current on the same thread is its child.
+ *
+ * <p>Tracers are discovered with {@link java.util.ServiceLoader}, from {@code META-INF/services}
+ * entries of this interface, or set by calling {@link DocumentDbTracing#setTracer(DocumentDbTracer)}.
+ */
+public interface DocumentDbTracer {
+    /**
+     * Starts a span and makes it the current span of the thread.
+     *
+     * @param name the name of the span, one of the {@code DocumentDbTracing} span names.
+     * @return the started span.
+     */
+    DocumentDbSpan startSpan(String name);
+}
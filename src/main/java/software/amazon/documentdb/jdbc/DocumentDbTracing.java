@@ -0,0 +1,132 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * The instrumentation points of the driver. Without a {@link DocumentDbTracer}, starting a span
+ * returns a shared span that does nothing, so instrumentation has no cost when tracing is disabled.
+ */
+public final class DocumentDbTracing {
+    /** The span of opening a connection. */
+    public static final String CONNECT_SPAN = "documentdb.connect";
+    /** The span of acquiring the SSH tunnel of a connection. */
+    public static final String CONNECT_TUNNEL_SPAN = "documentdb.connect.tunnel";
+    /** The span of acquiring the client of a connection and checking the database is reachable. */
+    public static final String CONNECT_CLIENT_SPAN = "documentdb.connect.client";
+    /** The span of loading the SQL schema of a connection. */
+    public static final String SCHEMA_LOAD_SPAN = "documentdb.schema.load";
+    /** The span of generating table schemas by sampling collections. */
+    public static final String SCHEMA_GENERATE_SPAN = "documentdb.schema.generate";
+    /** The span of persisting generated schemas. */
+    public static final String SCHEMA_PERSIST_SPAN = "documentdb.schema.persist";
+    /** The span of translating a SQL query to an aggregation pipeline. */
+    public static final String QUERY_TRANSLATE_SPAN = "documentdb.query.translate";
+    /** The span of running the aggregation and receiving its first batch. */
+    public static final String QUERY_EXECUTE_SPAN = "documentdb.query.execute";
+    /** The span of fetching a subsequent batch of the results. */
+    public static final String QUERY_GET_MORE_SPAN = "documentdb.query.getMore";
+
+    /** The attribute of the database name. */
+    public static final String DATABASE_ATTRIBUTE = "db.name";
+    /** The attribute of the collection name. */
+    public static final String COLLECTION_ATTRIBUTE = "db.mongodb.collection";
+    /** The attribute of the query ID. */
+    public static final String QUERY_ID_ATTRIBUTE = "documentdb.query.id";
+    /** The attribute of the schema name. */
+    public static final String SCHEMA_NAME_ATTRIBUTE = "documentdb.schema.name";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbTracing.class);
+    private static final DocumentDbSpan NOOP_SPAN = new NoopSpan();
+    private static volatile DocumentDbTracer tracer = loadTracer();
+
+    private DocumentDbTracing() {
+    }
+
+    /**
+     * Sets the tracer, replacing any tracer discovered by the service loader.
+     *
+     * @param newTracer the tracer, or {@code null} to disable tracing.
+     */
+    public static void setTracer(final DocumentDbTracer newTracer) {
+        tracer = newTracer;
+    }
+
+    /**
+     * Gets whether tracing is enabled.
+     *
+     * @return {@code true} if a tracer is set, {@code false} otherwise.
+     */
+    public static boolean isEnabled() {
+        return tracer != null;
+    }
+
+    /**
+     * Starts a span with the current tracer.
+     *
+     * @param name the name of the span.
+     * @return the started span, or a span that does nothing if tracing is disabled.
+     */
+    public static DocumentDbSpan startSpan(final String name) {
+        final DocumentDbTracer currentTracer = tracer;
+        if (currentTracer == null) {
+            return NOOP_SPAN;
+        }
+        try {
+            final DocumentDbSpan span = currentTracer.startSpan(name);
+            return span != null ? span : NOOP_SPAN;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Tracer '{}' failed to start span '{}': {}",
+                    currentTracer.getClass().getName(), name, e.getMessage());
+            return NOOP_SPAN;
+        }
+    }
+
+    private static DocumentDbTracer loadTracer() {
+        try {
+            final Iterator<DocumentDbTracer> tracers = ServiceLoader.load(DocumentDbTracer.class).iterator();
+            return tracers.hasNext() ? tracers.next() : null;
+        } catch (ServiceConfigurationError e) {
+            LOGGER.warn("Unable to load tracer: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class NoopSpan implements DocumentDbSpan {
+        @Override
+        public void setAttribute(final String key, final String value) {
+        }
+
+        @Override
+        public void setAttribute(final String key, final long value) {
+        }
+
+        @Override
+        public void recordException(final Throwable exception) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
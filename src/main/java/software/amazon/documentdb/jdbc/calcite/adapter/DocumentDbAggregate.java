@@ -122,7 +122,7 @@ public class DocumentDbAggregate
         implementor.visitChild(0, getInput());
         final List<String> list = new ArrayList<>();
         final Implementor mongoImplementor =
-                new Implementor(implementor.getRexBuilder());
+                new Implementor(implementor);
         mongoImplementor.visitChild(0, getInput());
         // DocumentDB: modified - start
         final List<String> mongoFieldNames =
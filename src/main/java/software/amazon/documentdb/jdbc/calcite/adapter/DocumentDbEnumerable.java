@@ -36,6 +36,7 @@ public class DocumentDbEnumerable extends AbstractEnumerable<Object> {
     private final String collectionName;
     private final List<Bson> list;
     private final List<String> paths;
+    private final boolean currentTimeUsed;
 
     @Override
     public Enumerator<Object> enumerator() {
@@ -89,7 +89,7 @@ public class DocumentDbFilter extends Filter implements DocumentDbRel {
         implementor.visitChild(0, getInput());
         // DocumentDB: modified - start
         final Implementor mongoImplementor =
-                new Implementor(implementor.getRexBuilder());
+                new Implementor(implementor);
         mongoImplementor.visitChild(0, getInput());
         final DocumentDbRules.RexToMongoTranslator rexToMongoTranslator =
                 new DocumentDbRules.RexToMongoTranslator(
@@ -99,7 +99,7 @@ public class DocumentDbFilter extends Filter implements DocumentDbRel {
                                 mongoImplementor.getMetadataTable()),
                         getInput().getRowType().getFieldNames(),
                         mongoImplementor.getMetadataTable(),
-                        implementor.getCurrentTime());
+                        implementor::getCurrentTime);
         final RexNode expandedCondition = RexUtil.expandSearch(implementor.getRexBuilder(), null, condition);
         final Operand match = expandedCondition.accept(rexToMongoTranslator);
 
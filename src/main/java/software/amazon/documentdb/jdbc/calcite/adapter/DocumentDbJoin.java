@@ -132,7 +132,7 @@ public class DocumentDbJoin extends Join implements DocumentDbRel {
         // Create a new implementor and visit all nodes to the right of the join.
         // This implementor can contain operations specific to the right.
         final Implementor rightImplementor =
-                new Implementor(implementor.getRexBuilder());
+                new Implementor(implementor);
         rightImplementor.setJoin(true);
         rightImplementor.visitChild(0, getRight());
         final DocumentDbTable rightTable = rightImplementor.getDocumentDbTable();
@@ -30,7 +30,7 @@ public enum DocumentDbMethod {
     // TODO: Investigate using find() here for simpler queries.
     //  See: https://github.com/aws/amazon-documentdb-jdbc-driver/issues/240
     MONGO_QUERYABLE_AGGREGATE(DocumentDbTable.DocumentDbQueryable.class, "aggregate",
-            List.class, List.class, List.class);
+            List.class, List.class, List.class, boolean.class);
 
     @SuppressWarnings("ImmutableEnumChecker")
     private final Method method;
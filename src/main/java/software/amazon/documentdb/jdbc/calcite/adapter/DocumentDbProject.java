@@ -105,7 +105,7 @@ public class DocumentDbProject extends Project implements DocumentDbRel {
 
         // DocumentDB: modified - start
         final Implementor mongoImplementor =
-                new Implementor(implementor.getRexBuilder());
+                new Implementor(implementor);
         mongoImplementor.visitChild(0, getInput());
         final List<String> inNames = getInput().getRowType().getFieldNames();
         final DocumentDbRules.RexToMongoTranslator translator =
@@ -115,7 +115,7 @@ public class DocumentDbProject extends Project implements DocumentDbRel {
                                 getInput().getRowType(),
                                 mongoImplementor.getMetadataTable()),
                         inNames, mongoImplementor.getMetadataTable(),
-                        implementor.getCurrentTime());
+                        implementor::getCurrentTime);
         final List<String> items = new ArrayList<>();
         final LinkedHashMap<String, DocumentDbSchemaColumn> columnMap = new LinkedHashMap<>(implementor.getMetadataTable().getColumnMap());
         for (Pair<RexNode, String> pair : getNamedProjects()) {
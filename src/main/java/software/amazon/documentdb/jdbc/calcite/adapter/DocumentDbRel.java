@@ -27,6 +27,7 @@ import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Relational expression that uses Mongo calling convention.
@@ -58,7 +59,8 @@ public interface DocumentDbRel extends RelNode {
         private boolean nullFiltered = false;
         private boolean join = false;
         private boolean resolutionNeedsUnwind = false;
-        private final Instant currentTime = Instant.now();
+        private final Instant currentTime;
+        private final AtomicBoolean currentTimeUsed;
 
         // DocumentDB: modified - end
 
@@ -101,6 +103,20 @@ public interface DocumentDbRel extends RelNode {
 
         public Implementor(final RexBuilder rexBuilder) {
             this.rexBuilder = rexBuilder;
+            this.currentTime = Instant.now();
+            this.currentTimeUsed = new AtomicBoolean(false);
+        }
+
+        /**
+         * Creates an implementor for a nested part of the tree. It shares the parent's
+         * translation time and records its use of the current time on the parent.
+         *
+         * @param parent the implementor of the enclosing tree.
+         */
+        public Implementor(final Implementor parent) {
+            this.rexBuilder = parent.rexBuilder;
+            this.currentTime = parent.currentTime;
+            this.currentTimeUsed = parent.currentTimeUsed;
         }
 
         public void add(final String findOp, final String aggOp) {
@@ -168,8 +184,23 @@ public interface DocumentDbRel extends RelNode {
             setJoin(isJoin);
         }
 
+        /**
+         * Gets the time of translation and marks the translated query as depending on it.
+         *
+         * @return the time of translation.
+         */
         public Instant getCurrentTime() {
+            currentTimeUsed.set(true);
             return currentTime;
         }
+
+        /**
+         * Gets whether the translated query embeds the time of translation as a literal.
+         *
+         * @return {@code true} if the current time was used, {@code false} otherwise.
+         */
+        public boolean isCurrentTimeUsed() {
+            return currentTimeUsed.get();
+        }
     }
 }
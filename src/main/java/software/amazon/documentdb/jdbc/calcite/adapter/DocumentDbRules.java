@@ -77,6 +77,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -246,7 +247,7 @@ public final class DocumentDbRules {
 
         }
 
-        private void initializeRexCallToMongoMap(final Instant currentTime) {
+        private void initializeRexCallToMongoMap(final Supplier<Instant> currentTime) {
             // Arithmetic
             rexCallToMongoMap.put(SqlStdOperatorTable.DIVIDE,
                     (call, strings) -> getMongoAggregateForOperator(
@@ -305,11 +306,11 @@ public final class DocumentDbRules {
 
             // Date operations
             rexCallToMongoMap.put(SqlStdOperatorTable.CURRENT_DATE,
-                    (call, operands) -> DateFunctionTranslator.translateCurrentTimestamp(currentTime));
+                    (call, operands) -> DateFunctionTranslator.translateCurrentTimestamp(currentTime.get()));
             rexCallToMongoMap.put(SqlStdOperatorTable.CURRENT_TIME,
-                    (call, operands) -> DateFunctionTranslator.translateCurrentTimestamp(currentTime));
+                    (call, operands) -> DateFunctionTranslator.translateCurrentTimestamp(currentTime.get()));
             rexCallToMongoMap.put(SqlStdOperatorTable.CURRENT_TIMESTAMP,
-                    (call, operands) -> DateFunctionTranslator.translateCurrentTimestamp(currentTime));
+                    (call, operands) -> DateFunctionTranslator.translateCurrentTimestamp(currentTime.get()));
             rexCallToMongoMap.put(SqlStdOperatorTable.DATETIME_PLUS, DateFunctionTranslator::translateDateAdd);
             rexCallToMongoMap.put(SqlStdOperatorTable.EXTRACT, DateFunctionTranslator::translateExtract);
             rexCallToMongoMap.put(SqlLibraryOperators.DAYNAME, DateFunctionTranslator::translateDayName);
@@ -377,7 +378,7 @@ public final class DocumentDbRules {
         protected RexToMongoTranslator(final JavaTypeFactory typeFactory,
                 final List<String> inFields,
                 final List<String> keys, final DocumentDbSchemaTable schemaTable,
-                final Instant currentTime) {
+                final Supplier<Instant> currentTime) {
             super(true);
             initializeRexCallToMongoMap(currentTime);
             this.typeFactory = typeFactory;
@@ -151,13 +151,15 @@ public class DocumentDbTable extends AbstractQueryableTable
      * @param fields List of fields to project; or null to return map
      * @param paths List of paths
      * @param operations One or more JSON strings
+     * @param currentTimeUsed Whether the operations embed the time of translation
      * @return Enumerator of results
      */
     Enumerable<Object> aggregate(
             final String databaseName,
             final List<Entry<String, Class<?>>> fields,
             final List<String> paths,
-            final List<String> operations) {
+            final List<String> operations,
+            final boolean currentTimeUsed) {
         final List<Bson> list = new ArrayList<>();
 
         for (String operation : operations) {
@@ -169,7 +171,8 @@ public class DocumentDbTable extends AbstractQueryableTable
                 databaseName,
                 collectionName,
                 list,
-                paths);
+                paths,
+                currentTimeUsed);
     }
 
     /** Implementation of {@link org.apache.calcite.linq4j.Queryable} based on
@@ -213,9 +216,10 @@ public class DocumentDbTable extends AbstractQueryableTable
         @SuppressWarnings("UnusedDeclaration")
         public Enumerable<Object> aggregate(final List<Entry<String, Class<?>>> fields,
                 final List<String> paths,
-                final List<String> operations) {
+                final List<String> operations,
+                final boolean currentTimeUsed) {
             return getTable()
-                    .aggregate(getDatabaseName(), fields, paths, operations);
+                    .aggregate(getDatabaseName(), fields, paths, operations, currentTimeUsed);
         }
 
         // TODO: Investigate using find() here for simpler queries.
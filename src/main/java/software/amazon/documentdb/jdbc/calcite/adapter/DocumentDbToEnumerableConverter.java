@@ -132,7 +132,8 @@ public class DocumentDbToEnumerableConverter
         final Expression enumerable =
                 list.append("enumerable",
                         Expressions.call(table,
-                                DocumentDbMethod.MONGO_QUERYABLE_AGGREGATE.getMethod(), fields, paths, ops));
+                                DocumentDbMethod.MONGO_QUERYABLE_AGGREGATE.getMethod(), fields, paths, ops,
+                                Expressions.constant(mongoImplementor.isCurrentTimeUsed())));
         if (CalciteSystemProperty.DEBUG.value()) {
             LOGGER.info("opList: {}", opList);
         }
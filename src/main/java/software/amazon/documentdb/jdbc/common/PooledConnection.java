@@ -21,17 +21,20 @@ import org.slf4j.LoggerFactory;
 
 import javax.sql.ConnectionEvent;
 import javax.sql.ConnectionEventListener;
+import javax.sql.StatementEvent;
 import javax.sql.StatementEventListener;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Abstract implementation of PooledConnection for JDBC Driver.
  */
 public abstract class PooledConnection implements javax.sql.PooledConnection {
     private static final Logger LOGGER = LoggerFactory.getLogger(PooledConnection.class);
-    private final List<ConnectionEventListener> connectionEventListeners = new LinkedList<>();
+    private final List<ConnectionEventListener> connectionEventListeners = new CopyOnWriteArrayList<>();
+    private final List<StatementEventListener> statementEventListeners = new CopyOnWriteArrayList<>();
     private final java.sql.Connection connection;
 
     /**
@@ -52,11 +55,47 @@ public abstract class PooledConnection implements javax.sql.PooledConnection {
 
     @Override
     public void close() {
+        fireConnectionClosed();
+    }
+
+    /**
+     * Notifies all connection listeners that the connection handle of this PooledConnection is closed.
+     */
+    protected void fireConnectionClosed() {
         LOGGER.debug("Notify all connection listeners this PooledConnection object is closed.");
         final ConnectionEvent event = new ConnectionEvent(this, null);
         connectionEventListeners.forEach(l -> l.connectionClosed(event));
     }
 
+    /**
+     * Notifies all connection listeners that a fatal error occurred on this PooledConnection.
+     * @param exception the fatal error.
+     */
+    protected void fireConnectionErrorOccurred(final SQLException exception) {
+        LOGGER.debug("Notify all connection listeners a fatal error occurred on this PooledConnection object.");
+        final ConnectionEvent event = new ConnectionEvent(this, exception);
+        connectionEventListeners.forEach(l -> l.connectionErrorOccurred(event));
+    }
+
+    /**
+     * Notifies all statement listeners that a pooled statement is closed.
+     * @param statement the closed statement.
+     */
+    protected void fireStatementClosed(final PreparedStatement statement) {
+        final StatementEvent event = new StatementEvent(this, statement);
+        statementEventListeners.forEach(l -> l.statementClosed(event));
+    }
+
+    /**
+     * Notifies all statement listeners that an error occurred on a pooled statement.
+     * @param statement the statement.
+     * @param exception the error.
+     */
+    protected void fireStatementErrorOccurred(final PreparedStatement statement, final SQLException exception) {
+        final StatementEvent event = new StatementEvent(this, statement, exception);
+        statementEventListeners.forEach(l -> l.statementErrorOccurred(event));
+    }
+
     @Override
     public void addConnectionEventListener(final ConnectionEventListener listener) {
         LOGGER.debug("Add a ConnectionEventListener to this PooledConnection.");
@@ -71,13 +110,15 @@ public abstract class PooledConnection implements javax.sql.PooledConnection {
 
     @Override
     public void addStatementEventListener(final StatementEventListener listener) {
-        // Do nothing, statement pooling is not supported.
-        LOGGER.debug("addStatementEventListener is called on the current PooledConnection object.");
+        LOGGER.debug("Add a StatementEventListener to this PooledConnection.");
+        if (listener != null) {
+            statementEventListeners.add(listener);
+        }
     }
 
     @Override
     public void removeStatementEventListener(final StatementEventListener listener) {
-        // Do nothing, statement pooling is not supported.
-        LOGGER.debug("removeStatementEventListener is called on the current PooledConnection object.");
+        LOGGER.debug("Remove the StatementEventListener attached to this PooledConnection.");
+        statementEventListeners.remove(listener);
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package software.amazon.documentdb.jdbc.metadata;
+
+import com.mongodb.client.MongoClient;
+
+/**
+ * A client acquired for work that outlives the connection that started it, such as generating
+ * a schema in the background. Closing the lease releases the client, and any resources it
+ * depends on, such as an SSH tunnel.
+ */
+public interface DocumentDbClientLease extends AutoCloseable {
+
+    /**
+     * Gets the leased client.
+     *
+     * @return the {@link MongoClient} client. The client must not be closed directly.
+     */
+    MongoClient getClient();
+
+    /**
+     * Releases the leased client.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package software.amazon.documentdb.jdbc.metadata;
+
+import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+
+import java.sql.SQLException;
+
+/**
+ * Acquires clients for the metadata service, without the service depending on how connections
+ * create and share their clients.
+ */
+@FunctionalInterface
+public interface DocumentDbClientSource {
+
+    /**
+     * Acquires a client for the given connection properties.
+     *
+     * @param properties the connection properties.
+     * @return a {@link DocumentDbClientLease} that must be closed when the client is no longer
+     * needed.
+     * @throws SQLException if unable to connect.
+     */
+    DocumentDbClientLease acquire(DocumentDbConnectionProperties properties) throws SQLException;
+}
@@ -17,26 +17,51 @@
 package software.amazon.documentdb.jdbc.metadata;
 
 import com.mongodb.client.MongoClient;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaReader;
 import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaSecurityException;
+import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaSnapshot;
 
+import javax.annotation.Nullable;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.MODIFY_DATE_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_VERSION_PROPERTY;
 
 /**
  * Contains the metadata for a DocumentDB database including all of the collection and any
  * virtual tables.
  */
 public final class DocumentDbDatabaseSchemaMetadata {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbDatabaseSchemaMetadata.class);
 
     public static final int VERSION_LATEST_OR_NEW = 0;
     public static final int VERSION_NEW = -1;
     public static final int VERSION_LATEST_OR_NONE = -2;
+    /**
+     * Indicates to generate a new version, unless the latest version was itself generated by a
+     * refresh in this process.
+     */
+    public static final int VERSION_REFRESH = -3;
 
     private final DocumentDbSchema schema;
+    private Map<String, String> tableIdsByName;
 
     /**
      * Gets the schema name for this database metadata.
@@ -56,10 +81,78 @@ public final class DocumentDbDatabaseSchemaMetadata {
         return schema.getSchemaVersion();
     }
 
+    /**
+     * Gets whether this version of the database metadata only has the tables of the collections
+     * that were referenced, as it was generated with the lazy schema generation option.
+     *
+     * @return {@code true} if the database metadata is partial, {@code false} otherwise.
+     */
+    public boolean isPartial() {
+        return schema.isPartial();
+    }
+
+    /**
+     * Gets the last modified date of the schema of this database metadata.
+     *
+     * @return the last modified date of the schema.
+     */
+    public Date getSchemaModifyDate() {
+        return schema.getModifyDate();
+    }
+
     public Map<String, DocumentDbSchemaTable> getTableSchemaMap() {
         return schema.getTableMap();
     }
 
+    /**
+     * Reads the table schema of the given tables directly from storage, without loading them into
+     * this database metadata or the schema cache. This allows the tables of a large schema to be
+     * read in batches, in constant memory.
+     *
+     * @param properties the connection properties.
+     * @param tableNames the names of the tables to read.
+     * @param client the {@link MongoClient} client.
+     * @return a map of the table schema by table name, in the order of the given table names.
+     * @throws SQLException if unable to read the table schema.
+     */
+    public Map<String, DocumentDbSchemaTable> readTableSchemas(
+            final DocumentDbConnectionProperties properties,
+            final Collection<String> tableNames,
+            final MongoClient client) throws SQLException {
+        final Map<String, String> tableIds = getTableIdsByName();
+        final Set<String> requestedTableIds = tableNames.stream()
+                .map(tableIds::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        final Map<String, DocumentDbSchemaTable> tablesByName = new HashMap<>();
+        for (DocumentDbSchemaTable table : DocumentDbMetadataService.readTables(
+                properties, getSchemaName(), getSchemaVersion(), requestedTableIds, client)) {
+            tablesByName.put(table.getSqlName(), table);
+        }
+        final Map<String, DocumentDbSchemaTable> result = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            // Tables that are not in storage yet are only available from the table map.
+            final DocumentDbSchemaTable table = tablesByName.containsKey(tableName)
+                    ? tablesByName.get(tableName)
+                    : getTableSchemaMap().get(tableName);
+            if (table != null) {
+                result.put(tableName, table);
+            }
+        }
+        return result;
+    }
+
+    private synchronized Map<String, String> getTableIdsByName() {
+        if (tableIdsByName == null) {
+            tableIdsByName = schema.getTableReferences().stream()
+                    .collect(Collectors.toMap(
+                            DocumentDbSchema::parseSqlTableName,
+                            tableId -> tableId,
+                            (a, b) -> b));
+        }
+        return tableIdsByName;
+    }
+
     /**
      * Constructs a {@link DocumentDbDatabaseSchemaMetadata} instance from properties.
      *
@@ -108,13 +201,31 @@ public final class DocumentDbDatabaseSchemaMetadata {
             final int schemaVersion,
             final MongoClient client) throws SQLException {
 
+        // Try to get it from the local schema cache.
+        final boolean useSnapshot = schemaVersion != VERSION_NEW
+                && schemaVersion != VERSION_REFRESH
+                && DocumentDbSchemaSnapshot.isEnabled(properties);
+        if (useSnapshot) {
+            final DocumentDbSchema snapshotSchema = getFromSnapshot(
+                    properties, schemaName, schemaVersion, client);
+            if (snapshotSchema != null) {
+                return new DocumentDbDatabaseSchemaMetadata(snapshotSchema);
+            }
+        }
+
         // Try to get it from the service.
         final DocumentDbDatabaseSchemaMetadata databaseMetadata;
         final DocumentDbSchema schema = DocumentDbMetadataService
                 .get(properties, schemaName, schemaVersion, client);
         if (schema != null) {
             // Setup lazy load based on table ID.
-            setSchemaGetTableFunction(properties, schemaName, schemaVersion, schema, client);
+            if (DocumentDbSchemaSnapshot.isEnabled(properties)) {
+                // Write the schema now, and its table schema as they are loaded.
+                DocumentDbSchemaSnapshot.write(properties, schema, Collections.emptyList());
+                setSnapshotGetTableFunction(properties, schema, new LinkedHashMap<>(), client);
+            } else {
+                setSchemaGetTableFunction(properties, schemaName, schemaVersion, schema, client);
+            }
             databaseMetadata = new DocumentDbDatabaseSchemaMetadata(schema);
         } else {
             databaseMetadata = null;
@@ -122,6 +233,136 @@ public final class DocumentDbDatabaseSchemaMetadata {
         return databaseMetadata;
     }
 
+    /**
+     * Gets the schema from the local schema cache, if the snapshot matches the version and
+     * modification date of the schema on the server.
+     *
+     * @return a {@link DocumentDbSchema} that loads its table schema from the snapshot, or from
+     * the server for the tables not yet in the snapshot, or {@code null} if there is no matching
+     * snapshot.
+     */
+    @Nullable
+    private static DocumentDbSchema getFromSnapshot(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final int schemaVersion,
+            final MongoClient client) {
+        final Document serverVersion;
+        try (DocumentDbSchemaReader schemaReader = new DocumentDbSchemaReader(properties, client)) {
+            serverVersion = schemaReader.readVersion(
+                    schemaName, Math.max(schemaVersion, VERSION_LATEST_OR_NEW));
+        }
+        if (serverVersion == null) {
+            return null;
+        }
+        final DocumentDbSchemaSnapshot snapshot = DocumentDbSchemaSnapshot.read(
+                properties, schemaName, serverVersion.getInteger(SCHEMA_VERSION_PROPERTY));
+        if (snapshot == null || !snapshot.getSchema().getModifyDate()
+                .equals(serverVersion.getDate(MODIFY_DATE_PROPERTY))
+                || !DocumentDbMetadataService.isUsable(properties, snapshot.getSchema())) {
+            return null;
+        }
+        final LinkedHashMap<String, DocumentDbSchemaTable> tablesById = snapshot.getTables().stream()
+                .collect(Collectors.toMap(
+                        DocumentDbSchemaTable::getId,
+                        table -> table,
+                        (o, d) -> d,
+                        LinkedHashMap::new));
+        final DocumentDbSchema schema = snapshot.getSchema();
+        setSnapshotGetTableFunction(properties, schema, tablesById, client);
+        LOGGER.info("Retrieved schema {} version {} from local schema cache.",
+                schemaName, schema.getSchemaVersion());
+        return schema;
+    }
+
+    /**
+     * Generates the table schema for the collections that are not yet in the given database
+     * metadata and whose base table name is accepted by the filter.
+     *
+     * @param properties the connection properties.
+     * @param databaseMetadata the current database metadata.
+     * @param baseTableNameFilter the filter on the base table name of each collection.
+     * @param client the {@link MongoClient} client.
+     * @return the database metadata for the new version of the schema, or the given database
+     * metadata if there were no collections to generate.
+     * @throws SQLException if unable to connect or other exception.
+     */
+    public static DocumentDbDatabaseSchemaMetadata generateMissingTables(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbDatabaseSchemaMetadata databaseMetadata,
+            final Predicate<String> baseTableNameFilter,
+            final MongoClient client) throws SQLException {
+        return generateMissingTables(properties, databaseMetadata, baseTableNameFilter, false, client);
+    }
+
+    /**
+     * Generates the table schema for the collections that are not yet in the given database
+     * metadata and whose base table name is accepted by the filter. The collection names are
+     * cached for a short period.
+     *
+     * @param properties the connection properties.
+     * @param databaseMetadata the current database metadata.
+     * @param baseTableNameFilter the filter on the base table name of each collection.
+     * @param refreshCollectionNames indicates whether to list the collections again if none of
+     *                               the cached collections are accepted by the filter.
+     * @param client the {@link MongoClient} client.
+     * @return the database metadata for the new version of the schema, or the given database
+     * metadata if there were no collections to generate.
+     * @throws SQLException if unable to connect or other exception.
+     */
+    public static DocumentDbDatabaseSchemaMetadata generateMissingTables(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbDatabaseSchemaMetadata databaseMetadata,
+            final Predicate<String> baseTableNameFilter,
+            final boolean refreshCollectionNames,
+            final MongoClient client) throws SQLException {
+        final DocumentDbSchema schema = DocumentDbMetadataService.generateMissingTables(
+                properties, databaseMetadata.schema, baseTableNameFilter, refreshCollectionNames,
+                client);
+        if (schema == null) {
+            return databaseMetadata;
+        }
+        setSchemaGetTableFunction(
+                properties, schema.getSchemaName(), schema.getSchemaVersion(), schema, client);
+        return new DocumentDbDatabaseSchemaMetadata(schema);
+    }
+
+    /**
+     * Generates a new version of the schema in the background, while callers continue to use the
+     * existing versions.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaVersion the version of the schema to generate.
+     * @param clientSource the source of the client used for the generation.
+     * @return a {@link CompletableFuture} that completes when the generation is finished.
+     */
+    public static CompletableFuture<Void> generateInBackground(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final int schemaVersion,
+            final DocumentDbClientSource clientSource) {
+        return DocumentDbMetadataService.generateInBackground(
+                properties, schemaName, schemaVersion, clientSource);
+    }
+
+    /**
+     * Generates the next version of the schema in the background, unless the given version was
+     * itself generated by a refresh in this process.
+     *
+     * @param properties the connection properties.
+     * @param latestMetadata the latest version of the database metadata.
+     * @param clientSource the source of the client used for the generation.
+     * @return a {@link CompletableFuture} that completes when the generation is finished.
+     */
+    public static CompletableFuture<Void> refreshInBackground(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbDatabaseSchemaMetadata latestMetadata,
+            final DocumentDbClientSource clientSource) {
+        return DocumentDbMetadataService.refreshInBackground(
+                properties, latestMetadata.schema, clientSource);
+    }
+
     /**
      * Removes all versions of the schema for the given schema name.
      *
@@ -195,6 +436,74 @@ public final class DocumentDbDatabaseSchemaMetadata {
         DocumentDbMetadataService.update(properties, schemaName, schemaTables, client);
     }
 
+    /**
+     * Writes a batch of table schema, without referencing them from a version of the schema. Use
+     * {@link #updateTableReferences(DocumentDbConnectionProperties, String, Set, MongoClient)} to
+     * create the version of the schema that references them.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaTables the table schema to write.
+     * @param client the {@link MongoClient} client.
+     *
+     * @throws SQLException if unable to connect or other exception.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public static void writeTables(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final Collection<DocumentDbSchemaTable> schemaTables,
+            final MongoClient client)
+            throws SQLException, DocumentDbSchemaSecurityException {
+        DocumentDbMetadataService.writeTables(properties, schemaName, schemaTables, client);
+    }
+
+    /**
+     * Writes a new version of the schema that only references the given table schema.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param tableIds the IDs of the table schema written by
+     * {@link #writeTables(DocumentDbConnectionProperties, String, Collection, MongoClient)}.
+     * @param client the {@link MongoClient} client.
+     *
+     * @throws SQLException if unable to connect or other exception.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public static void updateTableReferences(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final Set<String> tableIds,
+            final MongoClient client)
+            throws SQLException, DocumentDbSchemaSecurityException {
+        DocumentDbMetadataService.updateTableReferences(properties, schemaName, tableIds, client);
+    }
+
+    /**
+     * Removes the table schema written by
+     * {@link #writeTables(DocumentDbConnectionProperties, String, Collection, MongoClient)},
+     * except those referenced by a version of any schema.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param tableIds the IDs of the table schema to remove.
+     * @param client the {@link MongoClient} client.
+     *
+     * @throws SQLException if unable to connect or other exception.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public static void removeUnreferencedTables(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final Set<String> tableIds,
+            final MongoClient client)
+            throws SQLException, DocumentDbSchemaSecurityException {
+        DocumentDbMetadataService.removeUnreferencedTables(properties, schemaName, tableIds, client);
+    }
+
     private static void setSchemaGetTableFunction(
             final DocumentDbConnectionProperties properties,
             final String schemaName,
@@ -208,6 +517,61 @@ public final class DocumentDbDatabaseSchemaMetadata {
                         .getTables(properties, schemaName, schemaVersion, remainingTableIds, client));
     }
 
+    /**
+     * Sets the lazy load of table schema from the given snapshot tables. Tables not in the
+     * snapshot are read from the server and added to the snapshot, so that only the tables that
+     * are used are ever loaded and written. Each added table is written on its own, outside the
+     * lock, so loading a table never rewrites the tables loaded before it.
+     */
+    private static void setSnapshotGetTableFunction(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbSchema schema,
+            final LinkedHashMap<String, DocumentDbSchemaTable> snapshotTables,
+            final MongoClient client) {
+        final String schemaName = schema.getSchemaName();
+        final int schemaVersion = schema.getSchemaVersion();
+        schema.setGetTableFunction(
+                tableId -> {
+                    final DocumentDbSchemaTable table;
+                    synchronized (snapshotTables) {
+                        if (snapshotTables.containsKey(tableId)) {
+                            return snapshotTables.get(tableId);
+                        }
+                        table = DocumentDbMetadataService
+                                .getTable(properties, schemaName, schemaVersion, tableId, client);
+                        snapshotTables.put(tableId, table);
+                    }
+                    if (table != null) {
+                        DocumentDbSchemaSnapshot.writeTables(properties, schema, Collections.singletonList(table));
+                    }
+                    return table;
+                },
+                remainingTableIds -> {
+                    final Map<String, DocumentDbSchemaTable> loadedTables;
+                    final Map<String, DocumentDbSchemaTable> result;
+                    synchronized (snapshotTables) {
+                        final Set<String> missingTableIds = remainingTableIds.stream()
+                                .filter(tableId -> !snapshotTables.containsKey(tableId))
+                                .collect(Collectors.toCollection(LinkedHashSet::new));
+                        loadedTables = missingTableIds.isEmpty()
+                                ? Collections.emptyMap()
+                                : DocumentDbMetadataService.getTables(
+                                        properties, schemaName, schemaVersion, missingTableIds, client);
+                        snapshotTables.putAll(loadedTables);
+                        result = remainingTableIds.stream()
+                                .filter(tableId -> snapshotTables.get(tableId) != null)
+                                .collect(Collectors.toMap(
+                                        tableId -> tableId,
+                                        snapshotTables::get,
+                                        (o, d) -> d,
+                                        LinkedHashMap::new));
+                    }
+                    DocumentDbSchemaSnapshot.writeTables(properties, schema, loadedTables.values()
+                            .stream().filter(Objects::nonNull).collect(Collectors.toList()));
+                    return result;
+                });
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -16,6 +16,10 @@
 
 package software.amazon.documentdb.jdbc.metadata;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -29,6 +33,8 @@ import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.DocumentDbSpan;
+import software.amazon.documentdb.jdbc.DocumentDbTracing;
 import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaReader;
 import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaSecurityException;
 import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaWriter;
@@ -38,19 +44,31 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NEW;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NONE;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_NEW;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_REFRESH;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.MODIFY_DATE_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_VERSION_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbTableSchemaGeneratorHelper.toName;
 
 /**
  * A service for retrieving DocumentDB database metadata.
@@ -58,6 +76,32 @@ import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaM
 public class DocumentDbMetadataService {
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbMetadataService.class);
     private static final Map<String, DocumentDbSchemaTable> TABLE_MAP = new ConcurrentHashMap<>();
+    private static final int ESTIMATE_THREAD_COUNT = 8;
+    private static final ExecutorService ESTIMATE_EXECUTOR = Executors.newFixedThreadPool(
+            ESTIMATE_THREAD_COUNT,
+            new ThreadFactoryBuilder()
+                    .setNameFormat("documentdb-estimate-%d")
+                    .setDaemon(true)
+                    .build());
+    private static final ExecutorService GENERATION_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("documentdb-schema-generation-%d")
+                    .setDaemon(true)
+                    .build());
+    private static final Map<String, CompletableFuture<Void>> PENDING_GENERATIONS =
+            new ConcurrentHashMap<>();
+    private static final Map<String, String> REFRESHED_VERSIONS = new ConcurrentHashMap<>();
+    private static final long COLLECTION_CACHE_EXPIRE_SECONDS = 60;
+    private static final Cache<String, List<String>> COLLECTION_NAMES = CacheBuilder
+            .newBuilder()
+            .maximumSize(100)
+            .expireAfterWrite(COLLECTION_CACHE_EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build();
+    private static final Cache<String, Boolean> COLLECTIONS_WITHOUT_TABLES = CacheBuilder
+            .newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(COLLECTION_CACHE_EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build();
 
     /**
      * Gets the latest or a new {@link DocumentDbDatabaseSchemaMetadata} instance based on the
@@ -107,18 +151,25 @@ public class DocumentDbMetadataService {
         final DocumentDbSchemaReader schemaReader = new DocumentDbSchemaReader(properties, client);
         try {
             // Get the latest or specific version, might not exist
-            schema = schemaReader.read(schemaName, lookupVersion);
+            schema = readSchema(properties, schemaName, lookupVersion, schemaReader);
 
             switch (schemaVersion) {
                 case VERSION_LATEST_OR_NEW:
-                    // If latest exist, return it.
-                    if (schema != null) {
+                    // If latest exist, return it. A partial version only has the tables referenced
+                    // by lazy connections, so it is generated again without lazy generation.
+                    if (schema != null && isUsable(properties, schema)) {
                         LOGGER.info(
                                 String.format("Successfully retrieved metadata schema %s in %d ms.",
                                         schemaName, Instant.now().toEpochMilli()
                                                 - beginRetrieval.toEpochMilli()));
                         return schema;
                     }
+                    if (schema != null) {
+                        LOGGER.info("Schema {} version {} was generated lazily, will generate all of its tables.",
+                                schemaName, schema.getSchemaVersion());
+                        return getNewDatabaseMetadata(properties, schemaName, schema.getSchemaVersion() + 1,
+                                tableMap, client);
+                    }
                     LOGGER.info(String.format(
                             "Existing metadata not found for schema %s, will generate new metadata instead for database %s.",
                             schemaName, properties.getDatabase()));
@@ -127,6 +178,19 @@ public class DocumentDbMetadataService {
                     final int newVersionNumber = schema != null ? schema.getSchemaVersion() + 1 : 1;
                     return getNewDatabaseMetadata(properties, schemaName, newVersionNumber,
                             tableMap, client);
+                case VERSION_REFRESH:
+                    // Only refresh each version of the schema once in this process.
+                    if (schema != null && isRefreshed(properties, schema) && isUsable(properties, schema)) {
+                        LOGGER.info("Schema {} version {} was already refreshed.",
+                                schemaName, schema.getSchemaVersion());
+                        return schema;
+                    }
+                    final DocumentDbSchema refreshedSchema = getNewDatabaseMetadata(
+                            properties, schemaName,
+                            schema != null ? schema.getSchemaVersion() + 1 : 1,
+                            tableMap, client);
+                    setRefreshed(properties, refreshedSchema);
+                    return refreshedSchema;
                 case VERSION_LATEST_OR_NONE:
                 default:
                     // Return specific version or null.
@@ -145,6 +209,61 @@ public class DocumentDbMetadataService {
         }
     }
 
+    /**
+     * Gets whether the schema can be used with the given connection properties. A partial version
+     * can only be used with the lazy schema generation option, which generates the missing tables
+     * when they are referenced.
+     *
+     * @param properties the connection properties.
+     * @param schema the schema.
+     * @return {@code true} if the schema can be used, {@code false} if it must be generated again.
+     */
+    public static boolean isUsable(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull DocumentDbSchema schema) {
+        return !schema.isPartial() || properties.getLazySchemaGeneration();
+    }
+
+    /**
+     * Reads the schema, using the shared schema cache where possible. When the latest version is
+     * requested, only the version and modification date are read from the server to check
+     * whether the cached copy is still current.
+     */
+    @Nullable
+    private static DocumentDbSchema readSchema(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final int lookupVersion,
+            final DocumentDbSchemaReader schemaReader) {
+        final int schemaVersion;
+        final Date modifyDate;
+        if (lookupVersion > 0) {
+            schemaVersion = lookupVersion;
+            modifyDate = null;
+        } else {
+            final Document latestVersion = schemaReader.readLatestVersion(schemaName);
+            if (latestVersion == null) {
+                return null;
+            }
+            schemaVersion = latestVersion.getInteger(SCHEMA_VERSION_PROPERTY);
+            modifyDate = latestVersion.getDate(MODIFY_DATE_PROPERTY);
+        }
+
+        // A specific version is not modified once written, but the latest version may have been
+        // removed and re-created with the same version number.
+        final DocumentDbSchema cachedSchema = DocumentDbSchemaCache
+                .getSchema(properties, schemaName, schemaVersion);
+        if (cachedSchema != null
+                && (modifyDate == null || modifyDate.equals(cachedSchema.getModifyDate()))) {
+            return cachedSchema;
+        }
+        final DocumentDbSchema schema = schemaReader.read(schemaName, schemaVersion);
+        if (schema != null) {
+            DocumentDbSchemaCache.putSchema(properties, schema);
+        }
+        return schema;
+    }
+
     private static LinkedHashMap<String, DocumentDbSchemaTable> buildTableMapById(
             final Map<String, DocumentDbSchemaTable> tableMap) {
         return tableMap.values().stream()
@@ -179,12 +298,21 @@ public class DocumentDbMetadataService {
         if (TABLE_MAP.containsKey(tableId)) {
             return TABLE_MAP.get(tableId);
         }
+        // Check if another connection has already read it.
+        final DocumentDbSchemaTable cachedTable = DocumentDbSchemaCache
+                .getTable(properties, schemaName, schemaVersion, tableId);
+        if (cachedTable != null) {
+            return cachedTable;
+        }
         // Otherwise, assume it's in the stored location.
-        final DocumentDbSchemaReader schemaReader = new DocumentDbSchemaReader(properties, client);;
+        final DocumentDbSchemaReader schemaReader = new DocumentDbSchemaReader(properties, client);
         try {
             final DocumentDbSchemaTable schemaTable = schemaReader.readTable(schemaName, schemaVersion, tableId);
-            if (client != null) {
-                setEstimatedRecordCount(properties, client, schemaTable);
+            if (schemaTable != null) {
+                if (client != null) {
+                    setEstimatedRecordCount(properties, client, schemaTable);
+                }
+                DocumentDbSchemaCache.putTable(properties, schemaName, schemaVersion, schemaTable);
             }
             return schemaTable;
         } finally {
@@ -211,35 +339,44 @@ public class DocumentDbMetadataService {
             final @NonNull Set<String> remainingTableIds,
             final MongoClient client) {
 
-        // Should only be in this map if we failed to write it.
-        final LinkedHashMap<String, DocumentDbSchemaTable> map = remainingTableIds.stream()
-                .filter(TABLE_MAP::containsKey)
-                .collect(Collectors.toMap(
-                        tableId -> tableId,
-                        TABLE_MAP::get,
-                        (o, d) -> d,
-                        LinkedHashMap::new));
-        if (map.size() == remainingTableIds.size()) {
-            return map;
+        // Should only be in this map if we failed to write it, or cached if another connection
+        // has already read it.
+        final Map<String, DocumentDbSchemaTable> foundTables = new LinkedHashMap<>();
+        final Set<String> missingTableIds = new LinkedHashSet<>();
+        for (String tableId : remainingTableIds) {
+            final DocumentDbSchemaTable table = TABLE_MAP.containsKey(tableId)
+                    ? TABLE_MAP.get(tableId)
+                    : DocumentDbSchemaCache.getTable(properties, schemaName, schemaVersion, tableId);
+            if (table != null) {
+                foundTables.put(tableId, table);
+            } else {
+                missingTableIds.add(tableId);
+            }
+        }
+        if (missingTableIds.isEmpty()) {
+            return foundTables;
         }
 
         // Otherwise, assume it's in the stored location.
         final DocumentDbSchemaReader schemaReader = new DocumentDbSchemaReader(properties, client);
         try {
-            final Map<String, DocumentDbSchemaTable> schemaTables = schemaReader
-                    .readTables(schemaName, schemaVersion, remainingTableIds)
-                    .stream()
+            final Collection<DocumentDbSchemaTable> schemaTables = schemaReader
+                    .readTables(schemaName, schemaVersion, missingTableIds);
+            if (client != null) {
+                setEstimatedRecordCounts(properties, client, schemaTables);
+            }
+            for (DocumentDbSchemaTable schemaTable : schemaTables) {
+                DocumentDbSchemaCache.putTable(properties, schemaName, schemaVersion, schemaTable);
+                foundTables.put(schemaTable.getId(), schemaTable);
+            }
+            // Maintain the requested order.
+            return remainingTableIds.stream()
+                    .filter(foundTables::containsKey)
                     .collect(Collectors.toMap(
-                            DocumentDbSchemaTable::getId,
-                            table -> table,
+                            tableId -> tableId,
+                            foundTables::get,
                             (o, d) -> d,
                             LinkedHashMap::new));
-            if (client != null) {
-                for (DocumentDbSchemaTable schemaTable : schemaTables.values()) {
-                    setEstimatedRecordCount(properties, client, schemaTable);
-                }
-            }
-            return schemaTables;
         } finally {
             closeSchemaReader(schemaReader);
         }
@@ -262,6 +399,7 @@ public class DocumentDbMetadataService {
         try {
             schemaWriter.remove(schemaName);
         } finally {
+            DocumentDbSchemaCache.invalidate(properties, schemaName);
             closeSchemaWriter(schemaWriter);
         }
     }
@@ -285,6 +423,7 @@ public class DocumentDbMetadataService {
         try  {
             schemaWriter.remove(schemaName, schemaVersion);
         } finally {
+            DocumentDbSchemaCache.invalidate(properties, schemaName);
             closeSchemaWriter(schemaWriter);
         }
     }
@@ -336,13 +475,313 @@ public class DocumentDbMetadataService {
             LOGGER.info("A new schema {} will be created.", schemaName);
         }
         final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client);
-        try {
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_PERSIST_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, schemaName);
             schemaWriter.update(schema, schemaTables);
         } finally {
+            DocumentDbSchemaCache.invalidate(properties, schemaName);
             closeSchemaWriter(schemaWriter);
         }
     }
 
+    /**
+     * Reads the table schema of the given table IDs directly from storage. Unlike
+     * {@link #getTables(DocumentDbConnectionProperties, String, int, Set, MongoClient)}, the
+     * table schema are not cached and their estimated record counts are not retrieved.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the database schema.
+     * @param schemaVersion the version of the database schema.
+     * @param tableIds the set of tables IDs.
+     * @param client the {@link MongoClient} client.
+     * @return a collection of the table schema that exist in storage, in no particular order.
+     * @throws SQLException if unable to close the schema reader.
+     */
+    public static Collection<DocumentDbSchemaTable> readTables(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName,
+            final int schemaVersion,
+            final @NonNull Set<String> tableIds,
+            final MongoClient client) throws SQLException {
+        final DocumentDbSchemaReader schemaReader = new DocumentDbSchemaReader(properties, client);
+        try {
+            return schemaReader.readTables(schemaName, schemaVersion, tableIds);
+        } finally {
+            closeSchemaReader(schemaReader);
+        }
+    }
+
+    /**
+     * Writes a batch of table schema, without referencing them from a version of the schema.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaTables the table schema to write.
+     * @param client the {@link MongoClient} client.
+     *
+     * @throws SQLException if unable to connect or other exception.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public static void writeTables(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final Collection<DocumentDbSchemaTable> schemaTables,
+            final MongoClient client) throws SQLException, DocumentDbSchemaSecurityException {
+        final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client);
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_PERSIST_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, schemaName);
+            schemaWriter.writeTables(schemaName, schemaTables);
+        } finally {
+            closeSchemaWriter(schemaWriter);
+        }
+    }
+
+    /**
+     * Writes a new version of the schema that only references the given table schema, which
+     * must already be written by
+     * {@link #writeTables(DocumentDbConnectionProperties, String, Collection, MongoClient)}.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param tableIds the IDs of the table schema of the new version.
+     * @param client the {@link MongoClient} client.
+     *
+     * @throws SQLException if unable to connect or other exception.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public static void updateTableReferences(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final Set<String> tableIds,
+            final MongoClient client) throws SQLException, DocumentDbSchemaSecurityException {
+        DocumentDbSchema schema = get(properties, schemaName, VERSION_LATEST_OR_NONE, client);
+        if (schema == null) {
+            // This is intentional because the update will increment the version.
+            final int schemaVersion = 0;
+            schema = new DocumentDbSchema(
+                    schemaName,
+                    properties.getDatabase(),
+                    schemaVersion,
+                    new LinkedHashMap<>());
+            LOGGER.info("A new schema {} will be created.", schemaName);
+        }
+        final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client);
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_PERSIST_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, schemaName);
+            schemaWriter.updateTableReferences(schema, tableIds);
+        } finally {
+            DocumentDbSchemaCache.invalidate(properties, schemaName);
+            closeSchemaWriter(schemaWriter);
+        }
+    }
+
+    /**
+     * Removes the table schema written by
+     * {@link #writeTables(DocumentDbConnectionProperties, String, Collection, MongoClient)},
+     * except those referenced by a version of any schema.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param tableIds the IDs of the table schema to remove.
+     * @param client the {@link MongoClient} client.
+     *
+     * @throws SQLException if unable to connect or other exception.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public static void removeUnreferencedTables(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final Set<String> tableIds,
+            final MongoClient client) throws SQLException, DocumentDbSchemaSecurityException {
+        final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client);
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_PERSIST_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, schemaName);
+            schemaWriter.removeUnreferencedTables(tableIds);
+        } finally {
+            closeSchemaWriter(schemaWriter);
+        }
+    }
+
+    /**
+     * Generates the table schema for the collections that are not yet in the given schema and
+     * whose base table name is accepted by the filter. The new table schema are added to the
+     * latest version of the schema, which is written as a new version.
+     *
+     * <p>The collection names are cached for a short period, as are the collections that have
+     * no tables, so that repeated calls do not list or sample the collections again.</p>
+     *
+     * @param properties the connection properties.
+     * @param schema the current schema.
+     * @param baseTableNameFilter the filter on the base table name of each collection.
+     * @param refreshCollectionNames indicates whether to list the collections again if none of
+     *                               the cached collections are accepted by the filter.
+     * @param client the {@link MongoClient} client.
+     * @return the new version of the schema, or {@code null} if there were no collections to
+     * generate.
+     * @throws SQLException if unable to connect or other exception.
+     */
+    @Nullable
+    public static DocumentDbSchema generateMissingTables(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull DocumentDbSchema schema,
+            final @NonNull Predicate<String> baseTableNameFilter,
+            final boolean refreshCollectionNames,
+            final @NonNull MongoClient client) throws SQLException {
+        final MongoDatabase database = client.getDatabase(properties.getDatabase());
+        List<String> collectionNames = getMissingCollectionNames(
+                properties, schema, baseTableNameFilter, database, false);
+        if (collectionNames.isEmpty() && refreshCollectionNames) {
+            collectionNames = getMissingCollectionNames(
+                    properties, schema, baseTableNameFilter, database, true);
+        }
+        if (collectionNames.isEmpty()) {
+            return null;
+        }
+
+        final Instant beginGeneration = Instant.now();
+        final Map<String, DocumentDbSchemaTable> tableMap = new LinkedHashMap<>();
+        for (String collectionName : collectionNames) {
+            final Map<String, DocumentDbSchemaTable> collectionTables =
+                    generateTableSchema(properties, database, collectionName);
+            if (collectionTables.isEmpty()) {
+                // Don't sample the collection again until the entry expires.
+                COLLECTIONS_WITHOUT_TABLES.put(getCollectionKey(properties, collectionName), true);
+            }
+            tableMap.putAll(collectionTables);
+        }
+        if (tableMap.isEmpty()) {
+            return null;
+        }
+        final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client);
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_PERSIST_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, schema.getSchemaName());
+            schemaWriter.update(schema, tableMap.values(), true);
+        } catch (DocumentDbSchemaSecurityException e) {
+            LOGGER.warn(e.getMessage(), e);
+            // Keep the new tables in memory for this process.
+            TABLE_MAP.putAll(buildTableMapById(tableMap));
+            final Set<String> tableReferences = new LinkedHashSet<>(schema.getTableReferences());
+            tableMap.values().forEach(table -> tableReferences.add(table.getId()));
+            final DocumentDbSchema newSchema = new DocumentDbSchema(schema.getSchemaName(),
+                    schema.getSchemaVersion(), schema.getSqlName(), new Date(Instant.now().toEpochMilli()),
+                    tableReferences);
+            newSchema.setPartial(schema.isPartial());
+            return newSchema;
+        } finally {
+            DocumentDbSchemaCache.invalidate(properties, schema.getSchemaName());
+            closeSchemaWriter(schemaWriter);
+        }
+        LOGGER.info(String.format("Successfully generated metadata for collections %s in %d ms.",
+                collectionNames, Instant.now().toEpochMilli() - beginGeneration.toEpochMilli()));
+        return get(properties, schema.getSchemaName(), VERSION_LATEST_OR_NONE, client);
+    }
+
+    /**
+     * Generates a new version of the schema in the background, if the given latest version was
+     * not itself generated by a refresh in this process. This ensures each version of the schema
+     * is refreshed once, rather than once for each connection.
+     *
+     * @param properties the connection properties.
+     * @param latestSchema the latest version of the schema.
+     * @param clientSource the source of the client used for the generation.
+     * @return a {@link CompletableFuture} that completes when the generation is finished.
+     */
+    public static CompletableFuture<Void> refreshInBackground(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull DocumentDbSchema latestSchema,
+            final @NonNull DocumentDbClientSource clientSource) {
+        if (isRefreshed(properties, latestSchema)) {
+            LOGGER.debug("Schema {} version {} was already refreshed.",
+                    latestSchema.getSchemaName(), latestSchema.getSchemaVersion());
+            return CompletableFuture.completedFuture(null);
+        }
+        return generateInBackground(properties, latestSchema.getSchemaName(),
+                latestSchema.getSchemaVersion() + 1, clientSource);
+    }
+
+    /**
+     * Generates a new version of the schema in the background. The generation acquires its own
+     * client from the given source, so it is not affected by the calling connection being
+     * closed. The new version is visible to readers once its schema document is written, after
+     * all of its table schema. Only one generation runs at a time for each schema.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaVersion the version of the schema to generate.
+     * @param clientSource the source of the client used for the generation.
+     * @return a {@link CompletableFuture} that completes when the generation is finished.
+     */
+    public static CompletableFuture<Void> generateInBackground(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName,
+            final int schemaVersion,
+            final @NonNull DocumentDbClientSource clientSource) {
+        final String generationKey = getGenerationKey(properties, schemaName);
+        final CompletableFuture<Void> generation = new CompletableFuture<>();
+        final CompletableFuture<Void> pendingGeneration = PENDING_GENERATIONS
+                .putIfAbsent(generationKey, generation);
+        if (pendingGeneration != null) {
+            LOGGER.info("Generation of schema {} is already in progress.", schemaName);
+            return pendingGeneration;
+        }
+
+        // Copy the properties as the connection may change them.
+        final DocumentDbConnectionProperties generationProperties =
+                new DocumentDbConnectionProperties(properties);
+        LOGGER.info("Starting background generation of schema {} version {}.",
+                schemaName, schemaVersion);
+        GENERATION_EXECUTOR.execute(() -> {
+            try (DocumentDbClientLease lease = clientSource.acquire(generationProperties)) {
+                setRefreshed(generationProperties, getNewDatabaseMetadata(
+                        generationProperties, schemaName, schemaVersion, new LinkedHashMap<>(),
+                        lease.getClient()));
+                generation.complete(null);
+            } catch (Exception e) {
+                LOGGER.warn(String.format("Background generation of schema %s failed.",
+                        schemaName), e);
+                generation.completeExceptionally(e);
+            } finally {
+                PENDING_GENERATIONS.remove(generationKey, generation);
+            }
+        });
+        return generation;
+    }
+
+    private static String getGenerationKey(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName) {
+        return String.join("\n",
+                String.valueOf(properties.getHostname()),
+                properties.getDatabase(),
+                schemaName);
+    }
+
+    /**
+     * Gets whether the given version of the schema was generated by a refresh in this process.
+     * The modification date is compared too, as a removed schema may be generated again with the
+     * same version number.
+     */
+    private static boolean isRefreshed(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbSchema schema) {
+        return getRefreshedVersion(schema).equals(
+                REFRESHED_VERSIONS.get(getGenerationKey(properties, schema.getSchemaName())));
+    }
+
+    private static void setRefreshed(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbSchema schema) {
+        REFRESHED_VERSIONS.put(
+                getGenerationKey(properties, schema.getSchemaName()), getRefreshedVersion(schema));
+    }
+
+    private static String getRefreshedVersion(final DocumentDbSchema schema) {
+        return schema.getSchemaVersion() + "\n" + schema.getModifyDate().getTime();
+    }
+
     private static DocumentDbSchema getNewDatabaseMetadata(
             final DocumentDbConnectionProperties properties,
             final String schemaName,
@@ -359,8 +798,10 @@ public class DocumentDbMetadataService {
                 tableMap,
                 client);
         final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client);
-        try {
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_PERSIST_SPAN)) {
+            span.setAttribute(DocumentDbTracing.SCHEMA_NAME_ATTRIBUTE, schemaName);
             schemaWriter.write(schema, tableMap.values());
+            DocumentDbSchemaCache.putSchema(properties, schema);
         } catch (DocumentDbSchemaSecurityException e) {
             TABLE_MAP.putAll(buildTableMapById(tableMap));
             LOGGER.warn(e.getMessage(), e);
@@ -393,24 +834,20 @@ public class DocumentDbMetadataService {
                 : MongoClients.create(settings);
         try {
             final MongoDatabase database = mongoClient.getDatabase(databaseName);
-            for (String collectionName : getFilteredCollectionNames(database)) {
-                final MongoCollection<BsonDocument> collection = database
-                        .getCollection(collectionName, BsonDocument.class);
-                final Iterator<BsonDocument> cursor = DocumentDbMetadataScanner
-                        .getIterator(properties, collection);
-
-                // Create the schema metadata.
-                final Map<String, DocumentDbSchemaTable> tableSchemaMap =
-                        DocumentDbTableSchemaGenerator.generate(
-                                collectionName, cursor);
-                tableMap.putAll(tableSchemaMap);
+            // With lazy generation, the table schema are generated when first referenced.
+            if (!properties.getLazySchemaGeneration()) {
+                for (String collectionName : getFilteredCollectionNames(database)) {
+                    tableMap.putAll(generateTableSchema(properties, database, collectionName));
+                }
             }
 
             final Set<String> tableReferences = tableMap.values().stream()
                     .map(DocumentDbSchemaTable::getId)
                     .collect(Collectors.toSet());
-            return new DocumentDbSchema(schemaName, schemaVersion, databaseName,
+            final DocumentDbSchema schema = new DocumentDbSchema(schemaName, schemaVersion, databaseName,
                     new Date(Instant.now().toEpochMilli()), tableReferences);
+            schema.setPartial(properties.getLazySchemaGeneration());
+            return schema;
         } finally {
             if (client == null) {
                 mongoClient.close();
@@ -418,6 +855,71 @@ public class DocumentDbMetadataService {
         }
     }
 
+    private static Map<String, DocumentDbSchemaTable> generateTableSchema(
+            final DocumentDbConnectionProperties properties,
+            final MongoDatabase database,
+            final String collectionName) {
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.SCHEMA_GENERATE_SPAN)) {
+            span.setAttribute(DocumentDbTracing.COLLECTION_ATTRIBUTE, collectionName);
+            final MongoCollection<BsonDocument> collection = database
+                    .getCollection(collectionName, BsonDocument.class);
+            final Iterator<BsonDocument> cursor = DocumentDbMetadataScanner
+                    .getIterator(properties, collection);
+
+            // Create the schema metadata.
+            return DocumentDbTableSchemaGenerator.generate(collectionName, cursor);
+        }
+    }
+
+    private static List<String> getMissingCollectionNames(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbSchema schema,
+            final Predicate<String> baseTableNameFilter,
+            final MongoDatabase database,
+            final boolean refreshCollectionNames) {
+        // Only the table names are needed, so the table schema are not loaded.
+        final Set<String> tableNames = schema.getTableMap().keySet();
+        return getCachedCollectionNames(properties, database, refreshCollectionNames).stream()
+                .filter(collectionName -> {
+                    final String baseTableName = toName(collectionName, new HashMap<>());
+                    return !tableNames.contains(baseTableName)
+                            && baseTableNameFilter.test(baseTableName)
+                            && COLLECTIONS_WITHOUT_TABLES.getIfPresent(
+                                    getCollectionKey(properties, collectionName)) == null;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the collection names of the database, listing them at most once in each expiry
+     * period for each cluster, user and database, unless a refresh is requested.
+     */
+    @SneakyThrows
+    private static List<String> getCachedCollectionNames(
+            final DocumentDbConnectionProperties properties,
+            final MongoDatabase database,
+            final boolean refresh) {
+        if (refresh) {
+            COLLECTION_NAMES.invalidate(getCollectionKey(properties, null));
+        }
+        try {
+            return COLLECTION_NAMES.get(
+                    getCollectionKey(properties, null), () -> getFilteredCollectionNames(database));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private static String getCollectionKey(
+            final DocumentDbConnectionProperties properties,
+            @Nullable final String collectionName) {
+        return String.join("\n",
+                String.valueOf(properties.getHostname()),
+                String.valueOf(properties.getUser()),
+                properties.getDatabase(),
+                String.valueOf(collectionName));
+    }
+
     private static List<String> getFilteredCollectionNames(final MongoDatabase database) {
         final Iterable<String> collectionNames = database.listCollectionNames();
         return StreamSupport
@@ -448,12 +950,48 @@ public class DocumentDbMetadataService {
             final DocumentDbConnectionProperties properties,
             final MongoClient client,
             final DocumentDbSchemaTable schemaTable) {
+        schemaTable.setEstimatedRecordCount(getEstimatedRecordCount(
+                properties, client, schemaTable.getCollectionName()));
+    }
+
+    /**
+     * Sets the estimated record count for each of the given tables. The estimate is retrieved
+     * once per collection, and the collections are queried concurrently.
+     */
+    @SneakyThrows
+    private static void setEstimatedRecordCounts(
+            final DocumentDbConnectionProperties properties,
+            final MongoClient client,
+            final Collection<DocumentDbSchemaTable> schemaTables) {
+        final Map<String, List<DocumentDbSchemaTable>> tablesByCollection = schemaTables.stream()
+                .collect(Collectors.groupingBy(
+                        DocumentDbSchemaTable::getCollectionName,
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+        final CompletableFuture<?>[] futures = tablesByCollection.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> {
+                    final long estimatedRecordCount = getEstimatedRecordCount(
+                            properties, client, entry.getKey());
+                    entry.getValue().forEach(
+                            table -> table.setEstimatedRecordCount(estimatedRecordCount));
+                }, ESTIMATE_EXECUTOR))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private static long getEstimatedRecordCount(
+            final DocumentDbConnectionProperties properties,
+            final MongoClient client,
+            final String collectionName) {
         final EstimatedDocumentCountOptions options = new EstimatedDocumentCountOptions()
                 .maxTime(1, TimeUnit.SECONDS);
         final MongoCollection<Document> collection = client
                 .getDatabase(properties.getDatabase())
-                .getCollection(schemaTable.getCollectionName());
-        final long estimatedRecordCount = collection.estimatedDocumentCount(options);
-        schemaTable.setEstimatedRecordCount(estimatedRecordCount);
+                .getCollection(collectionName);
+        return collection.estimatedDocumentCount(options);
     }
 }
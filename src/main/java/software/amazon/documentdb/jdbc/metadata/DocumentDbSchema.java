@@ -18,6 +18,7 @@ package software.amazon.documentdb.jdbc.metadata;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -58,6 +59,7 @@ public class DocumentDbSchema {
     public static final String ID_PROPERTY = "_id";
     public static final String MODIFY_DATE_PROPERTY = "modifyDate";
     public static final String TABLES_PROPERTY = "tables";
+    public static final String PARTIAL_PROPERTY = "partial";
     public static final String SCHEMA_TABLE_ID_SEPARATOR = "::";
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbSchema.class);
     private static final ObjectMapper JSON_OBJECT_MAPPER = JsonMapper.builder()
@@ -119,6 +121,16 @@ public class DocumentDbSchema {
     @JsonProperty(TABLES_PROPERTY)
     private final Set<String> tableReferences;
 
+    /**
+     * Indicates whether this version only has the table schema of the collections that were
+     * referenced, as it was generated with the lazy schema generation option.
+     */
+    @Setter
+    @BsonProperty(PARTIAL_PROPERTY)
+    @JsonProperty(PARTIAL_PROPERTY)
+    @JsonInclude(Include.NON_DEFAULT)
+    private boolean partial;
+
     /**
      * Sets the lazy load function for table schema retrieval.
      *
@@ -151,7 +163,15 @@ public class DocumentDbSchema {
                         .apply(tableIdByTableName.keySet().stream()
                                 .filter(remainingTableNames::contains)
                                 .map(tableIdByTableName::get)
-                                .collect(Collectors.toCollection(LinkedHashSet::new))));
+                                .collect(Collectors.toCollection(LinkedHashSet::new)))
+                        .values().stream()
+                        .filter(Objects::nonNull)
+                        // The lazy map is keyed by table name, not table ID.
+                        .collect(Collectors.toMap(
+                                DocumentDbSchemaTable::getSqlName,
+                                table -> table,
+                                (a, b) -> b,
+                                LinkedHashMap::new)));
     }
 
     /**
@@ -0,0 +1,259 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.metadata;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.NonNull;
+import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.DocumentDbMetrics;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A process-wide cache of persisted database and table schema. Entries are keyed by the
+ * cluster, user, database, schema name and schema version, so that connections of the same user
+ * to the same schema can share the result of reading the schema collections. Entries are never
+ * shared between users, as a cache hit skips the access check of reading the schema collections.
+ * Each caller is given its own copy of a cached entry.
+ */
+final class DocumentDbSchemaCache {
+    static final long MAXIMUM_SCHEMA_ENTRIES = 100;
+    static final long MAXIMUM_TABLE_ENTRIES = 10_000;
+    static final long EXPIRE_AFTER_WRITE_SECONDS = 300;
+
+    private static final Cache<SchemaKey, DocumentDbSchema> SCHEMA_CACHE = CacheBuilder
+            .newBuilder()
+            .maximumSize(MAXIMUM_SCHEMA_ENTRIES)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+            .build();
+    private static final Cache<TableKey, DocumentDbSchemaTable> TABLE_CACHE = CacheBuilder
+            .newBuilder()
+            .maximumSize(MAXIMUM_TABLE_ENTRIES)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    static {
+        DocumentDbMetrics.registerGauge("schemaCacheEntries", SCHEMA_CACHE::size);
+        DocumentDbMetrics.registerGauge("tableCacheEntries", TABLE_CACHE::size);
+    }
+
+    private DocumentDbSchemaCache() {
+    }
+
+    /**
+     * Gets a copy of the cached schema for the given schema name and version. A copy is returned
+     * because each caller sets up its own lazy loading of the table map.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaVersion the version of the schema.
+     * @return a copy of the cached {@link DocumentDbSchema}, or {@code null}, if not cached.
+     */
+    @Nullable
+    static DocumentDbSchema getSchema(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName,
+            final int schemaVersion) {
+        final DocumentDbSchema schema = SCHEMA_CACHE.getIfPresent(
+                new SchemaKey(properties, schemaName, schemaVersion));
+        return schema != null ? copyOf(schema) : null;
+    }
+
+    /**
+     * Adds the given schema to the cache.
+     *
+     * @param properties the connection properties.
+     * @param schema the schema to cache.
+     */
+    static void putSchema(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull DocumentDbSchema schema) {
+        SCHEMA_CACHE.put(
+                new SchemaKey(properties, schema.getSchemaName(), schema.getSchemaVersion()),
+                copyOf(schema));
+    }
+
+    /**
+     * Gets a copy of the cached table schema for the given table ID.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaVersion the version of the schema.
+     * @param tableId the table ID.
+     * @return a copy of the cached {@link DocumentDbSchemaTable}, or {@code null}, if not cached.
+     */
+    @Nullable
+    static DocumentDbSchemaTable getTable(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName,
+            final int schemaVersion,
+            final @NonNull String tableId) {
+        final DocumentDbSchemaTable table = TABLE_CACHE.getIfPresent(
+                new TableKey(new SchemaKey(properties, schemaName, schemaVersion), tableId));
+        return table != null ? copyOf(table) : null;
+    }
+
+    /**
+     * Adds the given table schema to the cache.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaVersion the version of the schema.
+     * @param table the table schema to cache.
+     */
+    static void putTable(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName,
+            final int schemaVersion,
+            final @NonNull DocumentDbSchemaTable table) {
+        TABLE_CACHE.put(
+                new TableKey(new SchemaKey(properties, schemaName, schemaVersion), table.getId()),
+                copyOf(table));
+    }
+
+    /**
+     * Removes all versions of the given schema, and their table schema, from the cache.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     */
+    static void invalidate(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName) {
+        final SchemaKey anyVersion = new SchemaKey(properties, schemaName, 0);
+        SCHEMA_CACHE.asMap().keySet().removeIf(anyVersion::isSameSchema);
+        TABLE_CACHE.asMap().keySet().removeIf(key -> anyVersion.isSameSchema(key.schemaKey));
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    @VisibleForTesting
+    static void invalidateAll() {
+        SCHEMA_CACHE.invalidateAll();
+        TABLE_CACHE.invalidateAll();
+    }
+
+    private static DocumentDbSchema copyOf(final DocumentDbSchema schema) {
+        final DocumentDbSchema copy = new DocumentDbSchema(
+                schema.getSchemaName(),
+                schema.getSchemaVersion(),
+                schema.getSqlName(),
+                schema.getModifyDate(),
+                new LinkedHashSet<>(schema.getTableReferences()));
+        copy.setPartial(schema.isPartial());
+        return copy;
+    }
+
+    private static DocumentDbSchemaTable copyOf(final DocumentDbSchemaTable table) {
+        final DocumentDbSchemaTable copy = new DocumentDbSchemaTable(
+                table.getId(),
+                table.getUuid(),
+                table.getModifyDate(),
+                table.getSqlName(),
+                table.getCollectionName(),
+                table.getColumns().stream()
+                        .map(column -> new DocumentDbSchemaColumn(
+                                column.getFieldPath(),
+                                column.getSqlName(),
+                                column.getSqlType(),
+                                column.getDbType(),
+                                column.isIndex(),
+                                column.isPrimaryKey(),
+                                column.getForeignKeyTableName(),
+                                column.getForeignKeyColumnName()))
+                        .collect(Collectors.toList()));
+        copy.setEstimatedRecordCount(table.getEstimatedRecordCount());
+        return copy;
+    }
+
+    private static final class SchemaKey {
+        private final String hostname;
+        private final String user;
+        private final String database;
+        private final String schemaName;
+        private final int schemaVersion;
+
+        SchemaKey(
+                final DocumentDbConnectionProperties properties,
+                final String schemaName,
+                final int schemaVersion) {
+            this.hostname = properties.getHostname();
+            this.user = properties.getUser();
+            this.database = properties.getDatabase();
+            this.schemaName = schemaName;
+            this.schemaVersion = schemaVersion;
+        }
+
+        boolean isSameSchema(final SchemaKey that) {
+            return Objects.equals(hostname, that.hostname)
+                    && Objects.equals(user, that.user)
+                    && Objects.equals(database, that.database)
+                    && Objects.equals(schemaName, that.schemaName);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SchemaKey)) {
+                return false;
+            }
+            final SchemaKey that = (SchemaKey) o;
+            return schemaVersion == that.schemaVersion && isSameSchema(that);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hostname, user, database, schemaName, schemaVersion);
+        }
+    }
+
+    private static final class TableKey {
+        private final SchemaKey schemaKey;
+        private final String tableId;
+
+        TableKey(final SchemaKey schemaKey, final String tableId) {
+            this.schemaKey = schemaKey;
+            this.tableId = tableId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TableKey)) {
+                return false;
+            }
+            final TableKey that = (TableKey) o;
+            return schemaKey.equals(that.schemaKey) && tableId.equals(that.tableId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemaKey, tableId);
+        }
+    }
+}
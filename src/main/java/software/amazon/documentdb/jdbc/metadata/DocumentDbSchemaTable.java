@@ -21,6 +21,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -29,6 +31,7 @@ import org.bson.codecs.pojo.annotations.BsonId;
 import org.bson.codecs.pojo.annotations.BsonIgnore;
 import org.bson.codecs.pojo.annotations.BsonProperty;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
@@ -52,6 +55,8 @@ public class DocumentDbSchemaTable {
     public static final String COLLECTION_NAME_PROPERTY = "collectionName";
     public static final String COLUMNS_PROPERTY = "columns";
     public static final int UNKNOWN_RECORD_COUNT = -1;
+    private static final char CONTENT_HASH_SEPARATOR = '\u0000';
+    private static final int CONTENT_HASH_LENGTH = 32;
 
     /**
      * The unique ID for the table schema.
@@ -70,7 +75,8 @@ public class DocumentDbSchemaTable {
     }
 
     /**
-     * The schema's unique ID.
+     * The schema's unique ID. Generated table schemas use a hash of their definition, so an
+     * unchanged table has the same ID in each version of the database schema.
      */
     @Setter
     private String uuid;
@@ -171,6 +177,37 @@ public class DocumentDbSchemaTable {
         return new Date(modifyDate.getTime());
     }
 
+    /**
+     * Computes a stable hash of the definition of the given table. Tables with the same SQL
+     * name, collection and column definitions have the same hash.
+     *
+     * @param table the table schema.
+     * @return a hexadecimal {@link String} of the hash.
+     */
+    public static String computeContentHash(final DocumentDbSchemaTable table) {
+        final Hasher hasher = Hashing.sha256().newHasher()
+                .putString(table.getSqlName(), StandardCharsets.UTF_8)
+                .putChar(CONTENT_HASH_SEPARATOR)
+                .putString(table.getCollectionName(), StandardCharsets.UTF_8);
+        for (DocumentDbSchemaColumn column : table.getColumnMap().values()) {
+            hasher.putChar(CONTENT_HASH_SEPARATOR)
+                    .putString(column.getFieldPath(), StandardCharsets.UTF_8)
+                    .putChar(CONTENT_HASH_SEPARATOR)
+                    .putString(column.getSqlName(), StandardCharsets.UTF_8)
+                    .putChar(CONTENT_HASH_SEPARATOR)
+                    .putString(String.valueOf(column.getSqlType()), StandardCharsets.UTF_8)
+                    .putChar(CONTENT_HASH_SEPARATOR)
+                    .putString(String.valueOf(column.getDbType()), StandardCharsets.UTF_8)
+                    .putBoolean(column.isIndex())
+                    .putBoolean(column.isPrimaryKey())
+                    .putString(String.valueOf(column.getForeignKeyTableName()), StandardCharsets.UTF_8)
+                    .putChar(CONTENT_HASH_SEPARATOR)
+                    .putString(String.valueOf(column.getForeignKeyColumnName()), StandardCharsets.UTF_8);
+        }
+        // 128 bits are enough to identify a table definition.
+        return hasher.hash().toString().substring(0, CONTENT_HASH_LENGTH);
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -84,6 +84,10 @@ public class DocumentDbTableSchemaGenerator {
         // Remove array and document columns that are used for interim processing.
         filterArrayAndDocumentColumns(tableMap);
 
+        // Identify each table by its definition, so unchanged tables are shared between versions.
+        tableMap.values().forEach(table -> table.setUuid(
+                DocumentDbSchemaTable.computeContentHash(table)));
+
         return tableMap;
     }
 
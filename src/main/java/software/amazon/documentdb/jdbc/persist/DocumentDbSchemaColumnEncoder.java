@@ -0,0 +1,209 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.persist;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.bson.BsonType;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcType;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaColumn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes the columns of a table schema into a compact binary representation.
+ *
+ * <p>The encoding starts with a format version byte and a flags byte. The rest of the encoding is
+ * optionally deflate-compressed and contains a dictionary of the distinct strings (paths, names
+ * and type names) followed by the columns. Each column is a flags byte followed by
+ * variable-length dictionary indexes. Nullable values are stored as index plus one, with zero
+ * indicating {@code null}.</p>
+ */
+final class DocumentDbSchemaColumnEncoder {
+    static final String COLUMNS_ENCODED_PROPERTY = "columnsEncoded";
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_COMPRESSED = 0x01;
+    private static final int FLAG_INDEX = 0x01;
+    private static final int FLAG_PRIMARY_KEY = 0x02;
+
+    private DocumentDbSchemaColumnEncoder() {
+    }
+
+    /**
+     * Encodes the given columns.
+     *
+     * @param columns the columns to encode.
+     * @param compress indicator of whether to compress the encoding.
+     * @return the encoded columns.
+     */
+    @SneakyThrows
+    static byte[] encode(final @NonNull Collection<? extends DocumentDbSchemaColumn> columns,
+            final boolean compress) {
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final ByteArrayOutputStream columnBytes = new ByteArrayOutputStream();
+        final DataOutputStream columnOutput = new DataOutputStream(columnBytes);
+        writeVarInt(columnOutput, columns.size());
+        for (DocumentDbSchemaColumn column : columns) {
+            int flags = 0;
+            if (column.isIndex()) {
+                flags |= FLAG_INDEX;
+            }
+            if (column.isPrimaryKey()) {
+                flags |= FLAG_PRIMARY_KEY;
+            }
+            columnOutput.writeByte(flags);
+            writeVarInt(columnOutput, getStringIndex(dictionary, strings, column.getFieldPath()));
+            writeVarInt(columnOutput, getStringIndex(dictionary, strings, column.getSqlName()));
+            writeVarInt(columnOutput, getNullableStringIndex(dictionary, strings,
+                    column.getSqlType() != null ? column.getSqlType().name() : null));
+            writeVarInt(columnOutput, getNullableStringIndex(dictionary, strings,
+                    column.getDbType() != null ? column.getDbType().name() : null));
+            writeVarInt(columnOutput, getNullableStringIndex(dictionary, strings,
+                    column.getForeignKeyTableName()));
+            writeVarInt(columnOutput, getNullableStringIndex(dictionary, strings,
+                    column.getForeignKeyColumnName()));
+        }
+        columnOutput.flush();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(FORMAT_VERSION);
+        bytes.write(compress ? FLAG_COMPRESSED : 0);
+        final OutputStream payload = compress ? new DeflaterOutputStream(bytes) : bytes;
+        final DataOutputStream output = new DataOutputStream(payload);
+        writeVarInt(output, strings.size());
+        for (String value : strings) {
+            final byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(output, valueBytes.length);
+            output.write(valueBytes);
+        }
+        columnBytes.writeTo(output);
+        output.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Indicates whether the given encoded columns are compressed.
+     *
+     * @param encoded the columns encoded by {@link #encode(Collection, boolean)}.
+     * @return {@code true} if the encoding is compressed, {@code false} otherwise.
+     */
+    static boolean isCompressed(final @NonNull byte[] encoded) {
+        return encoded.length >= 2 && (encoded[1] & FLAG_COMPRESSED) != 0;
+    }
+
+    /**
+     * Decodes the given encoded columns.
+     *
+     * @param encoded the columns encoded by {@link #encode(Collection, boolean)}.
+     * @return a list of the decoded columns in their original order.
+     */
+    @SneakyThrows
+    static List<DocumentDbSchemaColumn> decode(final @NonNull byte[] encoded) {
+        if (encoded.length < 2 || encoded[0] != FORMAT_VERSION) {
+            throw new IOException("Unsupported table schema column encoding.");
+        }
+        final InputStream bytes = new ByteArrayInputStream(encoded, 2, encoded.length - 2);
+        final DataInputStream input = new DataInputStream((encoded[1] & FLAG_COMPRESSED) != 0
+                ? new InflaterInputStream(bytes)
+                : bytes);
+        final String[] strings = new String[readVarInt(input)];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] valueBytes = new byte[readVarInt(input)];
+            input.readFully(valueBytes);
+            strings[i] = new String(valueBytes, StandardCharsets.UTF_8);
+        }
+        final int columnCount = readVarInt(input);
+        final List<DocumentDbSchemaColumn> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            final int flags = input.readUnsignedByte();
+            final String fieldPath = strings[readVarInt(input)];
+            final String sqlName = strings[readVarInt(input)];
+            final String sqlType = getNullableString(strings, readVarInt(input));
+            final String dbType = getNullableString(strings, readVarInt(input));
+            final String foreignKeyTableName = getNullableString(strings, readVarInt(input));
+            final String foreignKeyColumnName = getNullableString(strings, readVarInt(input));
+            columns.add(new DocumentDbSchemaColumn(
+                    fieldPath,
+                    sqlName,
+                    sqlType != null ? JdbcType.valueOf(sqlType) : null,
+                    dbType != null ? BsonType.valueOf(dbType) : null,
+                    (flags & FLAG_INDEX) != 0,
+                    (flags & FLAG_PRIMARY_KEY) != 0,
+                    foreignKeyTableName,
+                    foreignKeyColumnName));
+        }
+        return columns;
+    }
+
+    private static int getStringIndex(
+            final Map<String, Integer> dictionary,
+            final List<String> strings,
+            final String value) {
+        return dictionary.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    private static int getNullableStringIndex(
+            final Map<String, Integer> dictionary,
+            final List<String> strings,
+            final String value) {
+        return value != null ? getStringIndex(dictionary, strings, value) + 1 : 0;
+    }
+
+    private static String getNullableString(final String[] strings, final int index) {
+        return index > 0 ? strings[index - 1] : null;
+    }
+
+    private static void writeVarInt(final DataOutputStream output, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    private static int readVarInt(final DataInputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+}
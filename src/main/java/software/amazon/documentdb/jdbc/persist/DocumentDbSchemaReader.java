@@ -22,9 +22,14 @@ import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import lombok.NonNull;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
-import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
@@ -37,20 +42,30 @@ import javax.annotation.Nullable;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static com.mongodb.MongoClientSettings.getDefaultCodecRegistry;
-import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Sorts.ascending;
 import static com.mongodb.client.model.Sorts.descending;
 import static com.mongodb.client.model.Sorts.orderBy;
 import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
 import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.ID_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.MODIFY_DATE_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_NAME_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_VERSION_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SQL_NAME_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable.COLLECTION_NAME_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable.UUID_PROPERTY;
+import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaColumnEncoder.COLUMNS_ENCODED_PROPERTY;
 import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaWriter.getDatabase;
 import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaWriter.getSchemaFilter;
 import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaWriter.getTableSchemaFilter;
@@ -74,6 +89,8 @@ public class DocumentDbSchemaReader implements AutoCloseable {
                             DocumentDbSchemaColumn.class,
                             DocumentDbMetadataColumn.class)
                     .build()));
+    private static final Codec<DocumentDbSchemaTable> TABLE_SCHEMA_CODEC = POJO_CODEC_REGISTRY
+            .get(DocumentDbSchemaTable.class);
 
     /**
      * Constructs a new {@link DocumentDbSchemaReader} with given connection properties.
@@ -134,6 +151,51 @@ public class DocumentDbSchemaReader implements AutoCloseable {
         return getSchema(schemaName, schemaVersion, database);
     }
 
+    /**
+     * Reads only the version number and modification date of the latest version of the specified
+     * schema. The table references are not retrieved, so this is a cheap way to determine whether
+     * a previously read copy of the schema is still current.
+     *
+     * @param schemaName the name of the schema to probe.
+     * @return a {@link Document} containing the {@code schemaVersion} and {@code modifyDate}
+     * fields of the latest version, or {@code null}, if not found.
+     */
+    @Nullable
+    public Document readLatestVersion(final @NonNull String schemaName) {
+        return readVersion(schemaName, 0);
+    }
+
+    /**
+     * Reads only the version number and modification date of the given version of the specified
+     * schema.
+     *
+     * @param schemaName the name of the schema to probe.
+     * @param schemaVersion the specific version of the schema, or zero for the latest version.
+     * @return a {@link Document} containing the {@code schemaVersion} and {@code modifyDate}
+     * fields, or {@code null}, if not found.
+     */
+    @Nullable
+    public Document readVersion(final @NonNull String schemaName, final int schemaVersion) {
+        final MongoCollection<Document> schemasCollection = client
+                .getDatabase(properties.getDatabase())
+                .getCollection(SCHEMA_COLLECTION);
+        try {
+            return schemasCollection
+                    .find(getSchemaFilter(schemaName, schemaVersion))
+                    .projection(fields(
+                            include(SCHEMA_VERSION_PROPERTY, MODIFY_DATE_PROPERTY),
+                            excludeId()))
+                    .sort(descending(SCHEMA_VERSION_PROPERTY))
+                    .first();
+        } catch (MongoException e) {
+            if (isAuthorizationFailure(e)) {
+                LOGGER.warn(e.getMessage(), e);
+                return null;
+            }
+            throw e;
+        }
+    }
+
     static DocumentDbSchema getSchema(
             final String schemaName,
             final int schemaVersion,
@@ -168,11 +230,12 @@ public class DocumentDbSchemaReader implements AutoCloseable {
             final @NonNull String tableId) {
         final MongoDatabase database = getDatabase(client, properties.getDatabase());
         // Attempt to retrieve the table associated with the table ID.
-        final MongoCollection<DocumentDbSchemaTable> tableSchemasCollection = database
-                .getCollection(TABLE_SCHEMA_COLLECTION, DocumentDbSchemaTable.class);
-        return tableSchemasCollection
+        final MongoCollection<BsonDocument> tableSchemasCollection = database
+                .getCollection(TABLE_SCHEMA_COLLECTION, BsonDocument.class);
+        final BsonDocument tableSchema = tableSchemasCollection
                 .find(getTableSchemaFilter(tableId))
                 .first();
+        return tableSchema != null ? decodeTableSchema(tableSchema) : null;
     }
 
     /**
@@ -191,17 +254,41 @@ public class DocumentDbSchemaReader implements AutoCloseable {
         final MongoDatabase database = getDatabase(client, properties.getDatabase());
 
         // Attempt to retrieve the tables associated with the table ID.
-        final MongoCollection<DocumentDbSchemaTable> tableSchemasCollection = database
-                .getCollection(TABLE_SCHEMA_COLLECTION, DocumentDbSchemaTable.class)
-                .withCodecRegistry(POJO_CODEC_REGISTRY);
-        final List<Bson> tableFilters = tableIds.stream()
-                .map(DocumentDbSchemaWriter::getTableSchemaFilter)
-                .collect(Collectors.toList());
+        final MongoCollection<BsonDocument> tableSchemasCollection = database
+                .getCollection(TABLE_SCHEMA_COLLECTION, BsonDocument.class);
+        if (tableIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Retrieve all the tables in a single round trip.
         return StreamSupport.stream(
-                        tableSchemasCollection.find(or(tableFilters)).spliterator(), false)
+                        tableSchemasCollection.find(in(ID_PROPERTY, tableIds)).spliterator(), false)
+                .map(DocumentDbSchemaReader::decodeTableSchema)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Decodes a table schema document, with its columns stored either as sub-documents or in
+     * the compact encoding.
+     *
+     * @param document the table schema document.
+     * @return a {@link DocumentDbSchemaTable} table schema.
+     */
+    static DocumentDbSchemaTable decodeTableSchema(final BsonDocument document) {
+        if (!document.containsKey(COLUMNS_ENCODED_PROPERTY)) {
+            return TABLE_SCHEMA_CODEC.decode(
+                    new BsonDocumentReader(document), DecoderContext.builder().build());
+        }
+        final BsonValue uuid = document.get(UUID_PROPERTY);
+        return new DocumentDbSchemaTable(
+                document.getString(ID_PROPERTY).getValue(),
+                uuid != null && uuid.isString() ? uuid.asString().getValue() : null,
+                new Date(document.getDateTime(MODIFY_DATE_PROPERTY).getValue()),
+                document.getString(SQL_NAME_PROPERTY).getValue(),
+                document.getString(COLLECTION_NAME_PROPERTY).getValue(),
+                DocumentDbSchemaColumnEncoder.decode(
+                        document.getBinary(COLUMNS_ENCODED_PROPERTY).getData()));
+    }
+
     static List<DocumentDbSchema> getAllSchema(final MongoDatabase database) {
         final MongoCollection<DocumentDbSchema> schemasCollection = database
                 .getCollection(SCHEMA_COLLECTION, DocumentDbSchema.class)
@@ -0,0 +1,339 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.persist;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchema;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.getPath;
+import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.isNullOrWhitespace;
+
+/**
+ * A local snapshot of a persisted schema and the table schema that have been loaded so far. A
+ * snapshot file is kept for each cluster, database, schema name and schema version in the folder
+ * given by the {@code schemaCacheDir} connection property. Table schema are added to the snapshot
+ * as they are loaded, so that writing a snapshot never loads the whole schema. Each added table
+ * schema is kept in its own file, in a folder next to the snapshot file, so that adding a table
+ * schema only writes that table schema.
+ */
+@Getter
+public class DocumentDbSchemaSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbSchemaSnapshot.class);
+    private static final String HOSTNAME_PROPERTY = "hostname";
+    private static final String DATABASE_PROPERTY = "database";
+    private static final String SCHEMA_PROPERTY = "schema";
+    private static final String TABLES_PROPERTY = "tables";
+    private static final String FILE_NAME_PREFIX = "schema-";
+    private static final String FILE_NAME_SUFFIX = ".json";
+    private static final String TABLES_FOLDER_SUFFIX = "-tables";
+    private static final String TABLE_FILE_NAME_PREFIX = "table-";
+    private static final String TEMP_FILE_NAME_SUFFIX = ".tmp";
+    private static final ObjectMapper JSON_OBJECT_MAPPER = JsonMapper.builder()
+            .serializationInclusion(Include.NON_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .addModule(new GuavaModule())
+            .build();
+
+    /**
+     * The host name of the cluster the schema was read from.
+     */
+    @JsonProperty(HOSTNAME_PROPERTY)
+    private final String hostname;
+
+    /**
+     * The name of the database the schema was read from.
+     */
+    @JsonProperty(DATABASE_PROPERTY)
+    private final String database;
+
+    /**
+     * The database schema.
+     */
+    @JsonProperty(SCHEMA_PROPERTY)
+    private final DocumentDbSchema schema;
+
+    /**
+     * The table schema of the database schema that have been loaded.
+     */
+    @JsonProperty(TABLES_PROPERTY)
+    private final List<DocumentDbSchemaTable> tables;
+
+    /**
+     * Creates a new instance of {@link DocumentDbSchemaSnapshot}.
+     *
+     * @param hostname the host name of the cluster.
+     * @param database the name of the database.
+     * @param schema the database schema.
+     * @param tables the table schema of the database schema that have been loaded.
+     */
+    @JsonCreator
+    public DocumentDbSchemaSnapshot(
+            @JsonProperty(HOSTNAME_PROPERTY) final String hostname,
+            @JsonProperty(DATABASE_PROPERTY) final String database,
+            @JsonProperty(SCHEMA_PROPERTY) final DocumentDbSchema schema,
+            @JsonProperty(TABLES_PROPERTY) final List<DocumentDbSchemaTable> tables) {
+        this.hostname = hostname;
+        this.database = database;
+        this.schema = schema;
+        this.tables = tables != null ? tables : new ArrayList<>();
+    }
+
+    /**
+     * Gets whether the local schema cache is enabled for the given connection properties.
+     *
+     * @param properties the connection properties.
+     * @return {@code true} if the {@code schemaCacheDir} option is set, {@code false} otherwise.
+     */
+    public static boolean isEnabled(final @NonNull DocumentDbConnectionProperties properties) {
+        return !isNullOrWhitespace(properties.getSchemaCacheDir());
+    }
+
+    /**
+     * Reads the snapshot for the given schema name and version from the local schema cache.
+     *
+     * @param properties the connection properties.
+     * @param schemaName the name of the schema.
+     * @param schemaVersion the version of the schema.
+     * @return a {@link DocumentDbSchemaSnapshot} if a valid snapshot exists, {@code null} otherwise.
+     */
+    @Nullable
+    public static DocumentDbSchemaSnapshot read(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull String schemaName,
+            final int schemaVersion) {
+        final Path snapshotPath = getSnapshotPath(properties, schemaName, schemaVersion);
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        try (InputStream inputStream = Files.newInputStream(snapshotPath)) {
+            final DocumentDbSchemaSnapshot snapshot = JSON_OBJECT_MAPPER
+                    .readValue(inputStream, DocumentDbSchemaSnapshot.class);
+            if (snapshot.getSchema() == null
+                    || !Objects.equals(snapshot.getHostname(), properties.getHostname())
+                    || !Objects.equals(snapshot.getDatabase(), properties.getDatabase())
+                    || !schemaName.equals(snapshot.getSchema().getSchemaName())
+                    || schemaVersion != snapshot.getSchema().getSchemaVersion()) {
+                LOGGER.warn("Ignoring schema snapshot '{}' as it does not match the schema.",
+                        snapshotPath);
+                return null;
+            }
+            final List<DocumentDbSchemaTable> tables = new ArrayList<>(snapshot.getTables());
+            tables.addAll(readTables(properties, snapshot.getSchema(), tables));
+            return new DocumentDbSchemaSnapshot(
+                    snapshot.getHostname(), snapshot.getDatabase(), snapshot.getSchema(), tables);
+        } catch (IOException e) {
+            LOGGER.warn(String.format("Unable to read schema snapshot '%s'.", snapshotPath), e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the table schema added to the snapshot of the given schema, skipping those already in
+     * the snapshot file.
+     */
+    private static List<DocumentDbSchemaTable> readTables(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbSchema schema,
+            final List<DocumentDbSchemaTable> snapshotTables) {
+        final List<DocumentDbSchemaTable> tables = new ArrayList<>();
+        final Path tablesPath = getTablesPath(properties, schema.getSchemaName(), schema.getSchemaVersion());
+        if (!Files.isDirectory(tablesPath)) {
+            return tables;
+        }
+        final Set<String> tableIds = new LinkedHashSet<>();
+        snapshotTables.forEach(table -> tableIds.add(table.getId()));
+        try (DirectoryStream<Path> tablePaths = Files.newDirectoryStream(
+                tablesPath, getTableFileNamePrefix(schema) + "*" + FILE_NAME_SUFFIX)) {
+            for (Path tablePath : tablePaths) {
+                try (InputStream inputStream = Files.newInputStream(tablePath)) {
+                    final DocumentDbSchemaTable table = JSON_OBJECT_MAPPER
+                            .readValue(inputStream, DocumentDbSchemaTable.class);
+                    if (table != null && tableIds.add(table.getId())) {
+                        tables.add(table);
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn(String.format("Unable to read table schema snapshot '%s'.", tablePath), e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn(String.format("Unable to read table schema snapshots '%s'.", tablesPath), e);
+        }
+        return tables;
+    }
+
+    /**
+     * Writes a snapshot of the given schema and table schema to the local schema cache. The file
+     * is written to a temporary file first so that readers never see a partial snapshot. Table
+     * schema added to an earlier snapshot of a different modification of the schema are removed.
+     *
+     * @param properties the connection properties.
+     * @param schema the database schema.
+     * @param tables the table schema of the database schema that have been loaded.
+     */
+    public static void write(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull DocumentDbSchema schema,
+            final @NonNull Collection<DocumentDbSchemaTable> tables) {
+        final Path snapshotPath = getSnapshotPath(
+                properties, schema.getSchemaName(), schema.getSchemaVersion());
+        final DocumentDbSchemaSnapshot snapshot = new DocumentDbSchemaSnapshot(
+                properties.getHostname(),
+                properties.getDatabase(),
+                schema,
+                new ArrayList<>(tables));
+        try {
+            writeFile(snapshotPath, FILE_NAME_PREFIX, snapshot);
+            removeStaleTables(properties, schema);
+            LOGGER.debug("Wrote schema snapshot '{}'.", snapshotPath);
+        } catch (IOException e) {
+            LOGGER.warn(String.format("Unable to write schema snapshot '%s'.", snapshotPath), e);
+        }
+    }
+
+    /**
+     * Adds the given table schema to the snapshot of the given schema in the local schema cache.
+     * Each table schema is written to its own file, so the snapshot file is not rewritten.
+     *
+     * @param properties the connection properties.
+     * @param schema the database schema.
+     * @param tables the table schema of the database schema that have been loaded.
+     */
+    public static void writeTables(
+            final @NonNull DocumentDbConnectionProperties properties,
+            final @NonNull DocumentDbSchema schema,
+            final @NonNull Collection<DocumentDbSchemaTable> tables) {
+        final Path tablesPath = getTablesPath(
+                properties, schema.getSchemaName(), schema.getSchemaVersion());
+        for (DocumentDbSchemaTable table : tables) {
+            final Path tablePath = tablesPath.resolve(getTableFileNamePrefix(schema)
+                    + Hashing.sha256().hashString(table.getId(), StandardCharsets.UTF_8)
+                    + FILE_NAME_SUFFIX);
+            try {
+                writeFile(tablePath, TABLE_FILE_NAME_PREFIX, table);
+                LOGGER.debug("Wrote table schema snapshot '{}'.", tablePath);
+            } catch (IOException e) {
+                LOGGER.warn(String.format("Unable to write table schema snapshot '%s'.", tablePath), e);
+            }
+        }
+    }
+
+    /**
+     * Writes the value to a temporary file in the same folder, and then moves it to the given path.
+     */
+    private static void writeFile(final Path path, final String tempPrefix, final Object value)
+            throws IOException {
+        Files.createDirectories(path.getParent());
+        final Path tempPath = Files.createTempFile(path.getParent(), tempPrefix, TEMP_FILE_NAME_SUFFIX);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                JSON_OBJECT_MAPPER.writeValue(outputStream, value);
+            }
+            Files.move(tempPath, path,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Removes the table schema added to snapshots of other modifications of the schema.
+     */
+    private static void removeStaleTables(
+            final DocumentDbConnectionProperties properties,
+            final DocumentDbSchema schema) throws IOException {
+        final Path tablesPath = getTablesPath(
+                properties, schema.getSchemaName(), schema.getSchemaVersion());
+        if (!Files.isDirectory(tablesPath)) {
+            return;
+        }
+        final String tableFileNamePrefix = getTableFileNamePrefix(schema);
+        try (DirectoryStream<Path> tablePaths = Files.newDirectoryStream(
+                tablesPath, TABLE_FILE_NAME_PREFIX + "*" + FILE_NAME_SUFFIX)) {
+            for (Path tablePath : tablePaths) {
+                if (!String.valueOf(tablePath.getFileName()).startsWith(tableFileNamePrefix)) {
+                    Files.deleteIfExists(tablePath);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the prefix of the table schema file names for the given schema. It includes the
+     * modification date, as the version of a schema that is removed and generated again is reused.
+     */
+    private static String getTableFileNamePrefix(final DocumentDbSchema schema) {
+        final long modifyDate = schema.getModifyDate() != null ? schema.getModifyDate().getTime() : 0L;
+        return TABLE_FILE_NAME_PREFIX + modifyDate + "-";
+    }
+
+    static Path getTablesPath(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final int schemaVersion) {
+        return getPath(properties.getSchemaCacheDir())
+                .resolve(getFileNameBase(properties, schemaName, schemaVersion) + TABLES_FOLDER_SUFFIX);
+    }
+
+    static Path getSnapshotPath(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final int schemaVersion) {
+        return getPath(properties.getSchemaCacheDir())
+                .resolve(getFileNameBase(properties, schemaName, schemaVersion) + FILE_NAME_SUFFIX);
+    }
+
+    private static String getFileNameBase(
+            final DocumentDbConnectionProperties properties,
+            final String schemaName,
+            final int schemaVersion) {
+        final String key = String.join("\n",
+                String.valueOf(properties.getHostname()),
+                properties.getDatabase(),
+                schemaName,
+                String.valueOf(schemaVersion));
+        return FILE_NAME_PREFIX + Hashing.sha256().hashString(key, StandardCharsets.UTF_8);
+    }
+}
@@ -16,25 +16,37 @@
 
 package software.amazon.documentdb.jdbc.persist;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Streams;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.ClientSession;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.mongodb.connection.ClusterSettings;
 import lombok.NonNull;
 import lombok.SneakyThrows;
+import org.bson.BsonBinary;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.bson.types.Binary;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.DocumentDbSchemaEncoding;
 import software.amazon.documentdb.jdbc.common.utilities.SqlError;
 import software.amazon.documentdb.jdbc.common.utilities.SqlState;
 import software.amazon.documentdb.jdbc.metadata.DocumentDbSchema;
@@ -43,8 +55,11 @@ import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -52,16 +67,25 @@ import java.util.stream.Collectors;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.ne;
 import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.set;
 import static com.mongodb.client.model.Updates.setOnInsert;
+import static com.mongodb.client.model.Updates.unset;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NONE;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.ID_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.MODIFY_DATE_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.PARTIAL_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_NAME_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_VERSION_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SQL_NAME_PROPERTY;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.TABLES_PROPERTY;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable.COLUMNS_PROPERTY;
+import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaColumnEncoder.COLUMNS_ENCODED_PROPERTY;
 import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaReader.POJO_CODEC_REGISTRY;
 import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaReader.SCHEMA_COLLECTION;
 import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaReader.TABLE_SCHEMA_COLLECTION;
@@ -71,6 +95,10 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbSchemaWriter.class);
     static final int MONGO_AUTHORIZATION_FAILURE = 13;
     private static final int MONGO_ALREADY_EXISTS = 48;
+    static final int MAX_BULK_WRITE_OPERATIONS = 100_000;
+    private static final Cache<MongoClient, Boolean> TRANSACTION_SUPPORT = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
 
     private final DocumentDbConnectionProperties properties;
     private final MongoClient client;
@@ -126,9 +154,29 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
      *  @param schema the database schema.
      * @param tableSchemas the table schema to update.
      */
+    @SneakyThrows
     public void update(
             final @NonNull DocumentDbSchema schema,
             final @NonNull Collection<DocumentDbSchemaTable> tableSchemas) {
+        update(schema, tableSchemas, false);
+    }
+
+    /**
+     * Writes only the specific table schema as a new version of the schema.
+     *
+     * @param schema the database schema.
+     * @param tableSchemas the table schema to update.
+     * @param addToExistingTables indicator of whether to add the table schema to the tables of
+     *                            the latest version of the schema, replacing any table with the
+     *                            same SQL name. Otherwise, the new version only references the
+     *                            given table schema.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public void update(
+            final @NonNull DocumentDbSchema schema,
+            final @NonNull Collection<DocumentDbSchemaTable> tableSchemas,
+            final boolean addToExistingTables) throws DocumentDbSchemaSecurityException {
 
         final String schemaName = schema.getSchemaName();
 
@@ -138,9 +186,22 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
         final DocumentDbSchema latestSchema = getSchema(
                 schemaName, VERSION_LATEST_OR_NONE, database);
         final int schemaVersion = getSchemaVersion(schema, latestSchema) + 1;
-        final Set<String> tableReferences = tableSchemas.stream()
+        // Adding to the tables of a partial version gives a partial version.
+        final boolean partial = addToExistingTables
+                && (latestSchema != null ? latestSchema : schema).isPartial();
+        final Set<String> tableReferences = new LinkedHashSet<>();
+        if (addToExistingTables) {
+            final Set<String> updatedTableNames = tableSchemas.stream()
+                    .map(DocumentDbSchemaTable::getSqlName)
+                    .collect(Collectors.toSet());
+            (latestSchema != null ? latestSchema : schema).getTableReferences().stream()
+                    .filter(tableId -> !updatedTableNames.contains(
+                            DocumentDbSchema.parseSqlTableName(tableId)))
+                    .forEach(tableReferences::add);
+        }
+        tableSchemas.stream()
                 .map(DocumentDbSchemaTable::getId)
-                .collect(Collectors.toSet());
+                .forEach(tableReferences::add);
 
         // Determine which table references to update/delete.
         final MongoCollection<Document> tableSchemasCollection = database
@@ -159,7 +220,108 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
                         schemaVersion,
                         schema,
                         tableSchemas,
-                        tableReferences));
+                        tableReferences,
+                        partial));
+    }
+
+    /**
+     * Writes the table schema without referencing them from a version of the schema. Together
+     * with {@link #updateTableReferences(DocumentDbSchema, Set)}, this allows a large number of
+     * table schema to be written in batches.
+     *
+     * @param schemaName the name of the database schema.
+     * @param tableSchemas the table schema to write.
+     * @throws SQLException if the write is not acknowledged.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public void writeTables(
+            final @NonNull String schemaName,
+            final @NonNull Collection<DocumentDbSchemaTable> tableSchemas)
+            throws SQLException, DocumentDbSchemaSecurityException {
+        final MongoDatabase database = getDatabase(client, properties.getDatabase());
+        final MongoCollection<Document> tableSchemasCollection = database
+                .getCollection(TABLE_SCHEMA_COLLECTION);
+        try {
+            upsertTableSchemas(null, tableSchemasCollection, tableSchemas, schemaName,
+                    properties.getSchemaEncoding());
+        } catch (MongoException e) {
+            if (isAuthorizationFailure(e)) {
+                throw new DocumentDbSchemaSecurityException(e.getMessage(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a new version of the schema that only references the given table schema. The table
+     * schema must already be written by {@link #writeTables(String, Collection)}.
+     *
+     * @param schema the database schema.
+     * @param tableReferences the IDs of the table schema of the new version.
+     * @throws SQLException if the write is not acknowledged.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public void updateTableReferences(
+            final @NonNull DocumentDbSchema schema,
+            final @NonNull Set<String> tableReferences)
+            throws SQLException, DocumentDbSchemaSecurityException {
+        final MongoDatabase database = getDatabase(client, properties.getDatabase());
+        final DocumentDbSchema latestSchema = getSchema(
+                schema.getSchemaName(), VERSION_LATEST_OR_NONE, database);
+        final MongoCollection<DocumentDbSchema> schemaCollection = database
+                .getCollection(SCHEMA_COLLECTION, DocumentDbSchema.class);
+        final DocumentDbSchema newSchema = new DocumentDbSchema(
+                schema.getSchemaName(),
+                getSchemaVersion(schema, latestSchema) + 1,
+                schema.getSqlName(),
+                new Date(Instant.now().toEpochMilli()),
+                tableReferences);
+        try {
+            upsertDatabaseSchema(null, schemaCollection, newSchema);
+        } catch (MongoException e) {
+            if (isAuthorizationFailure(e)) {
+                throw new DocumentDbSchemaSecurityException(e.getMessage(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the table schema written by {@link #writeTables(String, Collection)}, except those
+     * referenced by a version of any schema. This allows a batched write to be rolled back when
+     * the version of the schema that references its table schema cannot be written.
+     *
+     * @param tableIds the IDs of the table schema to remove.
+     * @throws SQLException if the delete is not acknowledged.
+     * @throws DocumentDbSchemaSecurityException if unable to write to the database due to
+     * unauthorized user.
+     */
+    public void removeUnreferencedTables(final @NonNull Set<String> tableIds)
+            throws SQLException, DocumentDbSchemaSecurityException {
+        final MongoDatabase database = getDatabase(client, properties.getDatabase());
+        final MongoCollection<DocumentDbSchema> schemasCollection = database
+                .getCollection(SCHEMA_COLLECTION, DocumentDbSchema.class);
+        final MongoCollection<Document> tableSchemasCollection = database
+                .getCollection(TABLE_SCHEMA_COLLECTION);
+        final List<String> ids = new ArrayList<>(tableIds);
+        try {
+            for (int start = 0; start < ids.size(); start += MAX_BULK_WRITE_OPERATIONS) {
+                final Set<String> unreferencedTableIds = new LinkedHashSet<>(ids.subList(
+                        start, Math.min(start + MAX_BULK_WRITE_OPERATIONS, ids.size())));
+                for (DocumentDbSchema schema : schemasCollection
+                        .find(in(TABLES_PROPERTY, unreferencedTableIds))) {
+                    unreferencedTableIds.removeAll(schema.getTableReferences());
+                }
+                deleteTableSchemas(null, tableSchemasCollection, unreferencedTableIds);
+            }
+        } catch (MongoException e) {
+            if (isAuthorizationFailure(e)) {
+                throw new DocumentDbSchemaSecurityException(e.getMessage(), e);
+            }
+            throw e;
+        }
     }
 
     /**
@@ -229,7 +391,8 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
             final int schemaVersion,
             final DocumentDbSchema schema,
             final Collection<DocumentDbSchemaTable> tableSchemas,
-            final Set<String> tableReferences) {
+            final Set<String> tableReferences,
+            final boolean partial) {
         final MongoCollection<DocumentDbSchema> schemaCollection = database
                 .getCollection(SCHEMA_COLLECTION, DocumentDbSchema.class);
         try {
@@ -240,7 +403,8 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
                     schemaVersion,
                     schema,
                     tableSchemas,
-                    tableReferences);
+                    tableReferences,
+                    partial);
         } catch (MongoException e) {
             if (isAuthorizationFailure(e)) {
                 throw new DocumentDbSchemaSecurityException(e.getMessage(), e);
@@ -258,8 +422,10 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
             final int schemaVersion) {
         final Bson schemaFilter = getSchemaFilter(schemaName, schemaVersion);
         for (DocumentDbSchema schema : schemasCollection.find(schemaFilter)) {
-            // Delete the table schemas associated with this database schema.
-            deleteTableSchemas(session, tableSchemasCollection, schema.getTableReferences());
+            // Delete the table schemas associated with this database schema, except those
+            // shared with another version of the schema.
+            deleteTableSchemas(session, tableSchemasCollection,
+                    getUnsharedTableReferences(session, schemasCollection, schema));
             // Delete the database schema.
             final long numDeleted = deleteDatabaseSchema(
                     session, schemasCollection, schemaName, schema.getSchemaVersion());
@@ -271,6 +437,28 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
         }
     }
 
+    private static Set<String> getUnsharedTableReferences(
+            final ClientSession session,
+            final MongoCollection<DocumentDbSchema> schemasCollection,
+            final DocumentDbSchema schema) {
+        final Set<String> tableReferences = new LinkedHashSet<>(schema.getTableReferences());
+        if (tableReferences.isEmpty()) {
+            return tableReferences;
+        }
+        final Bson otherSchemasFilter = and(
+                in(TABLES_PROPERTY, tableReferences),
+                or(
+                        ne(SCHEMA_NAME_PROPERTY, schema.getSchemaName()),
+                        ne(SCHEMA_VERSION_PROPERTY, schema.getSchemaVersion())));
+        final FindIterable<DocumentDbSchema> otherSchemas = session != null
+                ? schemasCollection.find(session, otherSchemasFilter)
+                : schemasCollection.find(otherSchemasFilter);
+        for (DocumentDbSchema otherSchema : otherSchemas) {
+            tableReferences.removeAll(otherSchema.getTableReferences());
+        }
+        return tableReferences;
+    }
+
     // Use @SneakyThrows to allow it to be used in a lambda expression.
     @SneakyThrows
     private void upsertSchemaHandleSecurityException(
@@ -295,10 +483,8 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
             final MongoCollection<Document> tableSchemasCollection,
             final DocumentDbSchema schema,
             final Collection<DocumentDbSchemaTable> tablesSchema) throws SQLException {
-        for (DocumentDbSchemaTable tableSchema : tablesSchema) {
-            upsertTableSchema(session, tableSchemasCollection, tableSchema,
-                    schema.getSchemaName());
-        }
+        upsertTableSchemas(session, tableSchemasCollection, tablesSchema,
+                schema.getSchemaName(), properties.getSchemaEncoding());
         upsertDatabaseSchema(session, schemasCollection, schema);
     }
 
@@ -310,9 +496,10 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
             final int schemaVersion,
             final DocumentDbSchema schema,
             final Collection<DocumentDbSchemaTable> tableSchemas,
-            final Set<String> tableReferences) throws SQLException {
+            final Set<String> tableReferences,
+            final boolean partial) throws SQLException {
         upsertNewSchema(session, schemaCollection, tableSchemasCollection, schemaName,
-                schemaVersion, schema, tableSchemas, tableReferences);
+                schemaVersion, schema, tableSchemas, tableReferences, partial);
     }
 
     private void ensureSchemaCollections(final MongoDatabase database)
@@ -329,11 +516,11 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
             final int schemaVersion,
             final DocumentDbSchema schema,
             final Collection<DocumentDbSchemaTable> tableSchemas,
-            final Set<String> tableReferences) throws SQLException {
+            final Set<String> tableReferences,
+            final boolean partial) throws SQLException {
         // Insert/Update the table schema.
-        for (DocumentDbSchemaTable tableSchema : tableSchemas) {
-            upsertTableSchema(session, tableSchemasCollection, tableSchema, schemaName);
-        }
+        upsertTableSchemas(session, tableSchemasCollection, tableSchemas, schemaName,
+                properties.getSchemaEncoding());
         // Insert/Update the database schema
         final DocumentDbSchema newSchema = new DocumentDbSchema(
                 schema.getSchemaName(),
@@ -341,6 +528,7 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
                 schema.getSqlName(),
                 new Date(Instant.now().toEpochMilli()),
                 tableReferences);
+        newSchema.setPartial(partial);
         upsertDatabaseSchema(session, schemaCollection, newSchema);
     }
 
@@ -357,12 +545,27 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
                 .withCodecRegistry(POJO_CODEC_REGISTRY);
     }
 
-    private static boolean supportsMultiDocTransactions(
+    @VisibleForTesting
+    static boolean supportsMultiDocTransactions(
+            final MongoClient client,
+            final MongoDatabase database) {
+        // The capability only depends on the cluster, so probe it once per client. A probe that
+        // fails is not cached, and its exception reaches the caller unwrapped.
+        final Boolean cachedSupport = TRANSACTION_SUPPORT.getIfPresent(client);
+        if (cachedSupport != null) {
+            return cachedSupport;
+        }
+        final boolean supportsMultiDocTransactions = probeMultiDocTransactions(client, database);
+        TRANSACTION_SUPPORT.put(client, supportsMultiDocTransactions);
+        return supportsMultiDocTransactions;
+    }
+
+    private static boolean probeMultiDocTransactions(
             final MongoClient client,
             final MongoDatabase database) {
         final boolean supportsMultiDocTransactions;
-        final ClusterSettings settings = client.getClusterDescription().getClusterSettings();
         final Document buildInfo = database.runCommand(Document.parse("{ \"buildInfo\": 1 }"));
+        final ClusterSettings settings = client.getClusterDescription().getClusterSettings();
         final List<Integer> version = buildInfo.getList("versionArray", Integer.class);
         supportsMultiDocTransactions =
                 settings.getRequiredReplicaSetName() != null
@@ -411,28 +614,96 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
         }
     }
 
-    private static void upsertTableSchema(
+    private static void upsertTableSchemas(
             final @Nullable ClientSession session,
             final @NonNull MongoCollection<Document> tableSchemasCollection,
-            final @NonNull DocumentDbSchemaTable tableSchema,
-            final @NonNull String schemaName) throws SQLException {
-        final Bson tableSchemaFilter = getTableSchemaFilter(tableSchema.getId());
-        final Bson tableSchemaUpdate = getTableSchemaUpdate(tableSchema);
+            final @NonNull Collection<DocumentDbSchemaTable> tableSchemas,
+            final @NonNull String schemaName,
+            final @NonNull DocumentDbSchemaEncoding schemaEncoding) throws SQLException {
+        upsertTableSchemas(session, tableSchemasCollection, tableSchemas, schemaName,
+                schemaEncoding, MAX_BULK_WRITE_OPERATIONS);
+    }
+
+    @VisibleForTesting
+    static void upsertTableSchemas(
+            final @Nullable ClientSession session,
+            final @NonNull MongoCollection<Document> tableSchemasCollection,
+            final @NonNull Collection<DocumentDbSchemaTable> tableSchemas,
+            final @NonNull String schemaName,
+            final @NonNull DocumentDbSchemaEncoding schemaEncoding,
+            final int maxBulkWriteOperations) throws SQLException {
+        // The driver splits each bulk write into batches that fit the server's message size,
+        // so only the number of operations held in memory is limited here.
         final UpdateOptions upsertOption = new UpdateOptions().upsert(true);
-        final UpdateResult result = session != null
-                ? tableSchemasCollection.updateOne(session,
-                        tableSchemaFilter, tableSchemaUpdate, upsertOption)
-                : tableSchemasCollection.updateOne(
-                        tableSchemaFilter, tableSchemaUpdate, upsertOption);
-        if (!result.wasAcknowledged()) {
-            throw SqlError.createSQLException(
-                    LOGGER,
-                    SqlState.DATA_EXCEPTION,
-                    SqlError.UPSERT_SCHEMA_FAILED,
-                    schemaName);
+        final BulkWriteOptions bulkWriteOption = new BulkWriteOptions().ordered(false);
+        final List<DocumentDbSchemaTable> tables = new ArrayList<>(tableSchemas);
+        for (int start = 0; start < tables.size(); start += maxBulkWriteOperations) {
+            final List<DocumentDbSchemaTable> chunk = tables.subList(
+                    start, Math.min(start + maxBulkWriteOperations, tables.size()));
+            // Table schemas identified by their definition are only written again to re-encode
+            // their columns, when they were written with another encoding.
+            final Set<String> existingTableIds = getExistingTableIds(
+                    session, tableSchemasCollection, chunk, schemaEncoding);
+            final List<WriteModel<Document>> batch = chunk.stream()
+                    .filter(tableSchema -> !existingTableIds.contains(tableSchema.getId())
+                            || !isContentAddressed(tableSchema))
+                    .map(tableSchema -> new UpdateOneModel<Document>(
+                            getTableSchemaFilter(tableSchema.getId()),
+                            getTableSchemaUpdate(tableSchema, schemaEncoding),
+                            upsertOption))
+                    .collect(Collectors.toList());
+            if (batch.isEmpty()) {
+                continue;
+            }
+            final BulkWriteResult result = session != null
+                    ? tableSchemasCollection.bulkWrite(session, batch, bulkWriteOption)
+                    : tableSchemasCollection.bulkWrite(batch, bulkWriteOption);
+            if (!result.wasAcknowledged()) {
+                throw SqlError.createSQLException(
+                        LOGGER,
+                        SqlState.DATA_EXCEPTION,
+                        SqlError.UPSERT_SCHEMA_FAILED,
+                        schemaName);
+            }
         }
     }
 
+    private static boolean isContentAddressed(final DocumentDbSchemaTable tableSchema) {
+        return tableSchema.getUuid().equals(DocumentDbSchemaTable.computeContentHash(tableSchema));
+    }
+
+    /**
+     * Gets the IDs of the given table schemas that are already stored with their columns in the
+     * given encoding.
+     */
+    private static Set<String> getExistingTableIds(
+            final @Nullable ClientSession session,
+            final @NonNull MongoCollection<Document> tableSchemasCollection,
+            final @NonNull List<DocumentDbSchemaTable> tableSchemas,
+            final @NonNull DocumentDbSchemaEncoding schemaEncoding) {
+        final boolean isDocumentEncoding = schemaEncoding == DocumentDbSchemaEncoding.DOCUMENT;
+        final Bson filter = and(
+                in(ID_PROPERTY, tableSchemas.stream()
+                        .map(DocumentDbSchemaTable::getId)
+                        .collect(Collectors.toList())),
+                exists(COLUMNS_ENCODED_PROPERTY, !isDocumentEncoding));
+        final FindIterable<Document> existing = session != null
+                ? tableSchemasCollection.find(session, filter)
+                : tableSchemasCollection.find(filter);
+        final Set<String> existingTableIds = new HashSet<>();
+        final boolean compressed = schemaEncoding == DocumentDbSchemaEncoding.COMPRESSED;
+        existing.projection(isDocumentEncoding
+                        ? include(ID_PROPERTY)
+                        : include(ID_PROPERTY, COLUMNS_ENCODED_PROPERTY))
+                .forEach(document -> {
+                    if (isDocumentEncoding || DocumentDbSchemaColumnEncoder.isCompressed(
+                            document.get(COLUMNS_ENCODED_PROPERTY, Binary.class).getData()) == compressed) {
+                        existingTableIds.add(document.getString(ID_PROPERTY));
+                    }
+                });
+        return existingTableIds;
+    }
+
     private static long deleteDatabaseSchema(
             final ClientSession session,
             final MongoCollection<DocumentDbSchema> schemasCollection,
@@ -473,22 +744,34 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
         }
     }
 
-    private static Bson getTableSchemaUpdate(final DocumentDbSchemaTable schemaTable) {
+    private static Bson getTableSchemaUpdate(
+            final DocumentDbSchemaTable schemaTable,
+            final DocumentDbSchemaEncoding schemaEncoding) {
+        final List<DocumentDbSchemaColumn> columns = schemaTable.getColumnMap().values().stream()
+                .map(c -> new DocumentDbSchemaColumn(
+                        c.getFieldPath(),
+                        c.getSqlName(),
+                        c.getSqlType(),
+                        c.getDbType(),
+                        c.isIndex(),
+                        c.isPrimaryKey(),
+                        c.getForeignKeyTableName(),
+                        c.getForeignKeyColumnName()))
+                .collect(Collectors.toList());
+        // Only one of the column representations is kept, so the encoding can be changed.
+        final Bson columnsUpdate = schemaEncoding == DocumentDbSchemaEncoding.DOCUMENT
+                ? combine(
+                        set(COLUMNS_PROPERTY, columns),
+                        unset(COLUMNS_ENCODED_PROPERTY))
+                : combine(
+                        set(COLUMNS_ENCODED_PROPERTY, new BsonBinary(DocumentDbSchemaColumnEncoder.encode(
+                                columns, schemaEncoding == DocumentDbSchemaEncoding.COMPRESSED))),
+                        unset(COLUMNS_PROPERTY));
         return combine(
                 set("sqlName", schemaTable.getSqlName()),
                 set("collectionName", schemaTable.getCollectionName()),
                 set("modifyDate", schemaTable.getModifyDate()),
-                set("columns", schemaTable.getColumnMap().values().stream()
-                        .map(c -> new DocumentDbSchemaColumn(
-                                c.getFieldPath(),
-                                c.getSqlName(),
-                                c.getSqlType(),
-                                c.getDbType(),
-                                c.isIndex(),
-                                c.isPrimaryKey(),
-                                c.getForeignKeyTableName(),
-                                c.getForeignKeyColumnName()))
-                        .collect(Collectors.toList())),
+                columnsUpdate,
                 setOnInsert("uuid", schemaTable.getUuid()));
     }
 
@@ -501,6 +784,7 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
                 set(SQL_NAME_PROPERTY, schema.getSqlName()),
                 set(MODIFY_DATE_PROPERTY, schema.getModifyDate()),
                 set(TABLES_PROPERTY, schema.getTableReferences()),
+                schema.isPartial() ? set(PARTIAL_PROPERTY, true) : unset(PARTIAL_PROPERTY),
                 setOnInsert(SCHEMA_NAME_PROPERTY, schema.getSchemaName()),
                 setOnInsert(SCHEMA_VERSION_PROPERTY, schema.getSchemaVersion()));
     }
@@ -537,7 +821,10 @@ public class DocumentDbSchemaWriter implements AutoCloseable {
 
     static boolean isAuthorizationFailure(final MongoException e) {
         return e.getCode() == MONGO_AUTHORIZATION_FAILURE
-                || "authorization failure".equalsIgnoreCase(e.getMessage());
+                || "authorization failure".equalsIgnoreCase(e.getMessage())
+                || (e instanceof MongoBulkWriteException
+                        && ((MongoBulkWriteException) e).getWriteErrors().stream()
+                                .anyMatch(error -> error.getCode() == MONGO_AUTHORIZATION_FAILURE));
     }
 
     @Override
@@ -41,6 +41,8 @@ public class DocumentDbMqlQueryContext {
     private final String collectionName;
     /** The path information for the output documents. Maps column names to field paths.*/
     private final List<String> paths;
+    /** Whether the operations embed the time the query was translated at, so cannot be reused. */
+    private final boolean currentTimeUsed;
 
     /**
      * Gets the aggregation operations (stages) for the query as a list of strings.
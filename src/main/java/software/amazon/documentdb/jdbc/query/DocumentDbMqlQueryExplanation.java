@@ -0,0 +1,35 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.query;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The explanation of an {@code EXPLAIN PLAN FOR} statement. It holds the Calcite physical plan
+ * with its cost estimates, and the query context of the explained query.
+ */
+@Getter
+@Builder
+public class DocumentDbMqlQueryExplanation {
+    /** The Calcite physical plan, with the row count and cumulative cost of each node. */
+    private final String plan;
+    /** The query context of the explained query. */
+    private final DocumentDbMqlQueryContext queryContext;
+    /** Indicates whether the server's explain of the aggregation pipeline was requested. */
+    private final boolean serverExplain;
+}
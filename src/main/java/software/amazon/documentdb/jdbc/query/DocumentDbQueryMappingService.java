@@ -16,6 +16,10 @@
 
 package software.amazon.documentdb.jdbc.query;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import lombok.SneakyThrows;
 import org.apache.calcite.DataContext;
@@ -51,6 +55,7 @@ import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.sql.parser.SqlParserPos;
 import org.apache.calcite.sql.type.SqlTypeName;
 import org.apache.calcite.sql.type.SqlTypeUtil;
+import org.apache.calcite.sql.validate.SqlValidatorException;
 import org.apache.calcite.sql2rel.SqlRexContext;
 import org.apache.calcite.sql2rel.SqlRexConvertlet;
 import org.apache.calcite.sql2rel.SqlRexConvertletTable;
@@ -62,6 +67,8 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.DocumentDbSpan;
+import software.amazon.documentdb.jdbc.DocumentDbTracing;
 import software.amazon.documentdb.jdbc.calcite.adapter.DocumentDbEnumerable;
 import software.amazon.documentdb.jdbc.calcite.adapter.DocumentDbSchemaFactory;
 import software.amazon.documentdb.jdbc.common.utilities.SqlError;
@@ -69,19 +76,44 @@ import software.amazon.documentdb.jdbc.common.utilities.SqlState;
 import software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata;
 import software.amazon.documentdb.jdbc.metadata.DocumentDbJdbcMetaDataConverter;
 
+import javax.annotation.Nullable;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class DocumentDbQueryMappingService {
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentDbQueryMappingService.class);
     private static final String CALCITE_DEFAULT_CHARSET = "calcite.default.charset";
     private static final String CHARSET_UTF_8 = "utf8";
-    private final DocumentDbPrepareContext prepareContext;
+    private static final int PLAN_CACHE_MAX_SIZE = 1000;
+    /**
+     * The translated queries, shared by all connections, keyed by the schema the query was
+     * translated with and the normalized SQL.
+     */
+    private static final Cache<String, DocumentDbMqlQueryContext> PLAN_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(PLAN_CACHE_MAX_SIZE)
+            .recordStats()
+            .build();
+    private static final Pattern EXPLAIN_PATTERN = Pattern.compile(
+            "^\\s*EXPLAIN\\s+PLAN\\s+(.*?\\s)?FOR\\s+(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ALL_ATTRIBUTES_PATTERN = Pattern.compile(
+            "\\bINCLUDING\\s+ALL\\s+ATTRIBUTES\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final String EXPLAIN_ALL_ATTRIBUTES = "EXPLAIN PLAN INCLUDING ALL ATTRIBUTES FOR ";
+    private static final Pattern UNRESOLVED_TABLE_PATTERN = Pattern.compile(
+            "^(Object|Table) '.*' not found.*$", Pattern.DOTALL);
+    private final DocumentDbConnectionProperties connectionProperties;
+    private final Function<String, DocumentDbDatabaseSchemaMetadata> databaseMetadataProvider;
     private final CalcitePrepare prepare;
-    private final BsonDocument maxRowsBSON;
+    private DocumentDbDatabaseSchemaMetadata databaseMetadata;
+    private DocumentDbPrepareContext prepareContext;
 
     /**
      * Holds the DocumentDbDatabaseSchemaMetadata, CalcitePrepare.Context and the CalcitePrepare
@@ -93,6 +125,23 @@ public class DocumentDbQueryMappingService {
      */
     public DocumentDbQueryMappingService(final DocumentDbConnectionProperties connectionProperties,
             final DocumentDbDatabaseSchemaMetadata databaseMetadata) {
+        this(connectionProperties, databaseMetadata, null);
+    }
+
+    /**
+     * Holds the DocumentDbDatabaseSchemaMetadata, CalcitePrepare.Context and the CalcitePrepare
+     * generated for a particular connection. The database metadata provider is called with a
+     * query that references a table not in the database metadata, and the schema is rebuilt if
+     * it returns updated database metadata.
+     *
+     * @param connectionProperties the connection properties.
+     * @param databaseMetadata the database schema metadata.
+     * @param databaseMetadataProvider the provider of the database schema metadata for a query,
+     *                                 or {@code null} if the database metadata does not change.
+     */
+    public DocumentDbQueryMappingService(final DocumentDbConnectionProperties connectionProperties,
+            final DocumentDbDatabaseSchemaMetadata databaseMetadata,
+            final Function<String, DocumentDbDatabaseSchemaMetadata> databaseMetadataProvider) {
         // Add MYSQL function support
         connectionProperties.putIfAbsent("FUN", "standard,mysql");
         // Leave unquoted identifiers in their original case. Identifiers are still case-sensitive
@@ -102,13 +151,15 @@ public class DocumentDbQueryMappingService {
         if (System.getProperty(CALCITE_DEFAULT_CHARSET) == null) {
             System.setProperty(CALCITE_DEFAULT_CHARSET, CHARSET_UTF_8);
         }
+        this.connectionProperties = connectionProperties;
+        this.databaseMetadataProvider = databaseMetadataProvider;
+        this.databaseMetadata = databaseMetadata;
         this.prepareContext =
                 new DocumentDbPrepareContext(
                         getRootSchemaFromDatabaseMetadata(connectionProperties, databaseMetadata),
                         connectionProperties.getDatabase(),
                         connectionProperties);
         this.prepare = new DocumentDbPrepareImplementation();
-        this.maxRowsBSON = new BsonDocument();
     }
 
     /**
@@ -118,6 +169,144 @@ public class DocumentDbQueryMappingService {
      * @return the query context that has the target collection, aggregation stages, and result set metadata.
      */
     public DocumentDbMqlQueryContext get(final String sql, final long maxRowCount) throws SQLException {
+        try (DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.QUERY_TRANSLATE_SPAN)) {
+            try {
+                return translate(sql, maxRowCount);
+            } catch (SQLException e) {
+                span.recordException(e);
+                throw e;
+            }
+        }
+    }
+
+    private DocumentDbMqlQueryContext translate(final String sql, final long maxRowCount) throws SQLException {
+        final String normalizedSql = normalizeSql(sql);
+        final DocumentDbMqlQueryContext cachedQueryContext =
+                PLAN_CACHE.getIfPresent(getPlanKey(normalizedSql, maxRowCount));
+        if (cachedQueryContext != null) {
+            return copyOf(cachedQueryContext);
+        }
+        final DocumentDbMqlQueryContext queryContext;
+        try {
+            queryContext = translateWithCurrentMetadata(sql, maxRowCount);
+        } catch (Exception e) {
+            // TODO: AD-273 Fix this error handling.
+            throw SqlError.createSQLException(
+                    LOGGER, SqlState.INVALID_QUERY_EXPRESSION, e, SqlError.SQL_PARSE_ERROR, sql,
+                    getExceptionMessages(e));
+        }
+        if (queryContext == null) {
+            // Query could be parsed but cannot be executed in pure MQL (likely involves nested queries).
+            throw SqlError.createSQLFeatureNotSupportedException(LOGGER, SqlError.UNSUPPORTED_SQL, sql);
+        }
+        // The current date and time are translated into literals, so a query using them is
+        // translated again on each run.
+        if (queryContext.isCurrentTimeUsed()) {
+            return queryContext;
+        }
+        // Key by the database metadata the query was translated with, which changes if the
+        // query referenced a table that was not in the database metadata.
+        PLAN_CACHE.put(getPlanKey(normalizedSql, maxRowCount), copyOf(queryContext));
+        return queryContext;
+    }
+
+    /**
+     * Gets the key of a translated query in the plan cache. The schema is identified by its
+     * version and last modified date, as the version of a schema that is removed and generated
+     * again is reused.
+     */
+    private String getPlanKey(final String normalizedSql, final long maxRowCount) {
+        return String.join("\n",
+                String.valueOf(connectionProperties.getHostname()),
+                String.valueOf(connectionProperties.getDatabase()),
+                String.valueOf(databaseMetadata.getSchemaName()),
+                String.valueOf(databaseMetadata.getSchemaVersion()),
+                String.valueOf(databaseMetadata.getSchemaModifyDate().getTime()),
+                String.valueOf(Math.max(maxRowCount, 0)),
+                normalizedSql);
+    }
+
+    /**
+     * Normalizes the query for the plan cache by trimming it and collapsing each run of
+     * whitespace into a single space. Quoted literals and identifiers, and comments, are kept
+     * as is.
+     */
+    @VisibleForTesting
+    static String normalizeSql(final String sql) {
+        final StringBuilder builder = new StringBuilder(sql.length());
+        final String trimmed = sql.trim();
+        int i = 0;
+        while (i < trimmed.length()) {
+            final char c = trimmed.charAt(i);
+            final int end;
+            if (c == '\'' || c == '"' || c == '`') {
+                final int close = trimmed.indexOf(c, i + 1);
+                end = close < 0 ? trimmed.length() : close + 1;
+            } else if (trimmed.startsWith("--", i)) {
+                final int close = trimmed.indexOf('\n', i);
+                end = close < 0 ? trimmed.length() : close + 1;
+            } else if (trimmed.startsWith("/*", i)) {
+                final int close = trimmed.indexOf("*/", i + 2);
+                end = close < 0 ? trimmed.length() : close + 2;
+            } else if (Character.isWhitespace(c)) {
+                int next = i + 1;
+                while (next < trimmed.length() && Character.isWhitespace(trimmed.charAt(next))) {
+                    next++;
+                }
+                builder.append(' ');
+                i = next;
+                continue;
+            } else {
+                end = i + 1;
+            }
+            builder.append(trimmed, i, end);
+            i = end;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Copies the query context, so the cached query context is not changed by its callers.
+     */
+    private static DocumentDbMqlQueryContext copyOf(final DocumentDbMqlQueryContext queryContext) {
+        return DocumentDbMqlQueryContext.builder()
+                .columnMetaData(new ArrayList<>(queryContext.getColumnMetaData()))
+                .aggregateOperations(new ArrayList<>(queryContext.getAggregateOperations()))
+                .collectionName(queryContext.getCollectionName())
+                .paths(new ArrayList<>(queryContext.getPaths()))
+                .currentTimeUsed(queryContext.isCurrentTimeUsed())
+                .build();
+    }
+
+    /**
+     * Gets the statistics of the plan cache.
+     *
+     * @return the {@link CacheStats} of the plan cache.
+     */
+    @VisibleForTesting
+    static CacheStats getPlanCacheStats() {
+        return PLAN_CACHE.stats();
+    }
+
+    /**
+     * Translates the query with the current database metadata. Only if the query references a
+     * table that is not in the database metadata is the metadata provider asked for updated
+     * database metadata, and the query translated again.
+     */
+    private DocumentDbMqlQueryContext translateWithCurrentMetadata(
+            final String sql, final long maxRowCount) throws Exception {
+        try {
+            return prepareQuery(sql, maxRowCount);
+        } catch (Exception e) {
+            if (!isUnresolvedTable(e) || !refreshDatabaseMetadata(sql)) {
+                throw e;
+            }
+        }
+        return prepareQuery(sql, maxRowCount);
+    }
+
+    @Nullable
+    private DocumentDbMqlQueryContext prepareQuery(final String sql, final long maxRowCount) {
         final Query<Object> query = Query.of(sql);
 
         // In prepareSql:
@@ -125,40 +314,50 @@ public class DocumentDbQueryMappingService {
         // -    The query planner optimizes the tree with the DocumentDb adapter rules.
         // -    We visit each node and go into its implement method where the nodes become a physical
         // plan. (AST->MQL)
-        try {
-            // The parameter maxRowCount from prepareSql needs to be -1, we are handling max rows
-            // outside calcite translation
-            final CalciteSignature<?> signature =
-                    prepare.prepareSql(prepareContext, query, Object[].class, -1);
-
-            // Enumerable contains the operations and fields we need to do the aggregation call.
-            // Signature also contains a column list that has information about the columns/types of the
-            // return row (ordinal, nullability, precision, etc).
-            final Enumerable<?> enumerable = signature.enumerable(prepareContext.getDataContext());
-            if (enumerable instanceof DocumentDbEnumerable) {
-                final DocumentDbEnumerable documentDbEnumerable = (DocumentDbEnumerable) enumerable;
-
-                // Add limit if using setMaxRows.
-                if (maxRowCount > 0) {
-                    maxRowsBSON.put("$limit",new BsonInt64(maxRowCount));
-                    documentDbEnumerable.getList().add(maxRowsBSON);
-                }
+        // The parameter maxRowCount from prepareSql needs to be -1, we are handling max rows
+        // outside calcite translation
+        final CalciteSignature<?> signature =
+                prepare.prepareSql(prepareContext, query, Object[].class, -1);
+
+        // Enumerable contains the operations and fields we need to do the aggregation call.
+        // Signature also contains a column list that has information about the columns/types of the
+        // return row (ordinal, nullability, precision, etc).
+        final Enumerable<?> enumerable = signature.enumerable(prepareContext.getDataContext());
+        if (enumerable instanceof DocumentDbEnumerable) {
+            final DocumentDbEnumerable documentDbEnumerable = (DocumentDbEnumerable) enumerable;
+
+            // Add limit if using setMaxRows. Each query gets its own stage, as translated queries
+            // are cached.
+            if (maxRowCount > 0) {
+                documentDbEnumerable.getList().add(new BsonDocument("$limit", new BsonInt64(maxRowCount)));
+            }
 
-                return DocumentDbMqlQueryContext.builder()
-                        .columnMetaData(DocumentDbJdbcMetaDataConverter.fromCalciteColumnMetaData(signature.columns))
-                        .aggregateOperations(documentDbEnumerable.getList())
-                        .collectionName(documentDbEnumerable.getCollectionName())
-                        .paths(documentDbEnumerable.getPaths())
-                        .build();
+            return DocumentDbMqlQueryContext.builder()
+                    .columnMetaData(DocumentDbJdbcMetaDataConverter.fromCalciteColumnMetaData(signature.columns))
+                    .aggregateOperations(documentDbEnumerable.getList())
+                    .collectionName(documentDbEnumerable.getCollectionName())
+                    .paths(documentDbEnumerable.getPaths())
+                    .currentTimeUsed(documentDbEnumerable.isCurrentTimeUsed())
+                    .build();
+        }
+        return null;
+    }
+
+    /**
+     * Gets whether the validation of the query failed because a table could not be resolved.
+     */
+    private static boolean isUnresolvedTable(final Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SqlValidatorException
+                    && cause.getMessage() != null
+                    && UNRESOLVED_TABLE_PATTERN.matcher(cause.getMessage()).matches()) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
             }
-        } catch (Exception e) {
-            // TODO: AD-273 Fix this error handling.
-            throw SqlError.createSQLException(
-                    LOGGER, SqlState.INVALID_QUERY_EXPRESSION, e, SqlError.SQL_PARSE_ERROR, sql,
-                    getExceptionMessages(e));
         }
-        // Query could be parsed but cannot be executed in pure MQL (likely involves nested queries).
-        throw SqlError.createSQLFeatureNotSupportedException(LOGGER, SqlError.UNSUPPORTED_SQL, sql);
+        return false;
     }
 
     /**
@@ -171,6 +370,76 @@ public class DocumentDbQueryMappingService {
         return get(sql, 0);
     }
 
+    /**
+     * Indicates whether the sql is an {@code EXPLAIN PLAN FOR <query>} statement.
+     *
+     * @param sql the query in sql.
+     * @return {@code true} if the sql is an explain statement, {@code false} otherwise.
+     */
+    public static boolean isExplain(final String sql) {
+        return sql != null && EXPLAIN_PATTERN.matcher(sql).matches();
+    }
+
+    /**
+     * Explains an {@code EXPLAIN PLAN FOR <query>} statement without executing the query. The
+     * Calcite physical plan always includes the row count and cumulative cost of each node. The
+     * server's explain is requested with {@code EXPLAIN PLAN INCLUDING ALL ATTRIBUTES FOR <query>}.
+     *
+     * @param sql the explain statement in sql.
+     * @param maxRowCount the max number of rows to return.
+     * @return the explanation that has the physical plan and the query context of the query.
+     * @throws SQLException if the sql is not an explain statement, or the query cannot be translated.
+     */
+    public DocumentDbMqlQueryExplanation explain(final String sql, final long maxRowCount) throws SQLException {
+        final Matcher matcher = EXPLAIN_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            throw SqlError.createSQLFeatureNotSupportedException(LOGGER, SqlError.UNSUPPORTED_SQL, sql);
+        }
+        final String options = matcher.group(1);
+        final String query = matcher.group(2);
+        final DocumentDbMqlQueryContext queryContext = get(query, maxRowCount);
+        return DocumentDbMqlQueryExplanation.builder()
+                .plan(getPhysicalPlan(query))
+                .queryContext(queryContext)
+                .serverExplain(options != null && ALL_ATTRIBUTES_PATTERN.matcher(options).find())
+                .build();
+    }
+
+    private String getPhysicalPlan(final String query) throws SQLException {
+        final String sql = EXPLAIN_ALL_ATTRIBUTES + query;
+        try {
+            final CalciteSignature<?> signature =
+                    prepare.prepareSql(prepareContext, Query.of(sql), Object[].class, -1);
+            final Object row = signature.enumerable(prepareContext.getDataContext()).first();
+            return String.valueOf(row instanceof Object[] ? ((Object[]) row)[0] : row);
+        } catch (Exception e) {
+            throw SqlError.createSQLException(
+                    LOGGER, SqlState.INVALID_QUERY_EXPRESSION, e, SqlError.SQL_PARSE_ERROR, sql,
+                    getExceptionMessages(e));
+        }
+    }
+
+    /**
+     * Gets updated database metadata for the query from the provider.
+     *
+     * @return {@code true} if the database metadata changed, {@code false} otherwise.
+     */
+    private boolean refreshDatabaseMetadata(final String sql) {
+        if (databaseMetadataProvider == null) {
+            return false;
+        }
+        final DocumentDbDatabaseSchemaMetadata currentMetadata = databaseMetadataProvider.apply(sql);
+        if (currentMetadata == databaseMetadata) {
+            return false;
+        }
+        databaseMetadata = currentMetadata;
+        prepareContext = new DocumentDbPrepareContext(
+                getRootSchemaFromDatabaseMetadata(connectionProperties, databaseMetadata),
+                connectionProperties.getDatabase(),
+                connectionProperties);
+        return true;
+    }
+
     private String getExceptionMessages(final Throwable e) {
         final StringBuilder builder = new StringBuilder(e.getMessage());
         if (e.getSuppressed() != null) {
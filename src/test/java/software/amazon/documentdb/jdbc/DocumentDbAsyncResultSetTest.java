@@ -0,0 +1,135 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DocumentDbAsyncResultSetTest {
+    private static final ImmutableList<JdbcColumnMetaData> COLUMNS = ImmutableList.of(
+            JdbcColumnMetaData.builder().columnLabel("_id").ordinal(0).columnType(Types.INTEGER).build(),
+            JdbcColumnMetaData.builder().columnLabel("name").ordinal(1).columnType(Types.VARCHAR).build());
+    private static final ImmutableList<String> PATHS = ImmutableList.of("_id", "name");
+
+    @Test
+    @DisplayName("Tests that nextBatch() requests and returns the documents in batches.")
+    void testNextBatch() throws SQLException {
+        final List<Document> documents = Arrays.asList(
+                Document.parse("{\"_id\": 1, \"name\": \"a\"}"),
+                Document.parse("{\"_id\": 2, \"name\": null}"),
+                Document.parse("{\"_id\": 3, \"name\": \"c\"}"));
+        final AtomicLong requested = new AtomicLong();
+        final DocumentDbAsyncResultSet resultSet = new DocumentDbAsyncResultSet(
+                createPublisher(documents, requested, new AtomicBoolean()), COLUMNS, PATHS, 2);
+        Assertions.assertEquals(0, requested.get());
+
+        final DocumentDbColumnBatch batch1 = resultSet.nextBatch().toCompletableFuture().join();
+        Assertions.assertEquals(2, requested.get());
+        Assertions.assertEquals(2, batch1.getRowCount());
+        Assertions.assertEquals(1, batch1.getColumn(1).getLong(0));
+        Assertions.assertEquals("a", batch1.getColumn(2).getObject(0));
+        Assertions.assertTrue(batch1.getColumn(2).isNull(1));
+
+        final DocumentDbColumnBatch batch2 = resultSet.nextBatch().toCompletableFuture().join();
+        Assertions.assertEquals(1, batch2.getRowCount());
+        Assertions.assertEquals(3, batch2.getColumn(1).getLong(0));
+        Assertions.assertNull(resultSet.nextBatch().toCompletableFuture().join());
+        resultSet.close();
+    }
+
+    @Test
+    @DisplayName("Tests that close() cancels the query and fails later batches.")
+    void testClose() throws SQLException {
+        final List<Document> documents = Arrays.asList(
+                Document.parse("{\"_id\": 1, \"name\": \"a\"}"),
+                Document.parse("{\"_id\": 2, \"name\": \"b\"}"));
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final DocumentDbAsyncResultSet resultSet = new DocumentDbAsyncResultSet(
+                createPublisher(documents, new AtomicLong(), cancelled), COLUMNS, PATHS, 1);
+        Assertions.assertEquals(1, resultSet.nextBatch().toCompletableFuture().join().getRowCount());
+        resultSet.close();
+        Assertions.assertTrue(cancelled.get());
+        final CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> resultSet.nextBatch().toCompletableFuture().join());
+        Assertions.assertTrue(exception.getCause() instanceof SQLException);
+    }
+
+    @Test
+    @DisplayName("Tests that an error from the driver fails the pending batch.")
+    void testError() throws SQLException {
+        final Publisher<Document> publisher = subscriber -> subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(final long n) {
+                subscriber.onError(new IllegalStateException("Server error"));
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        final DocumentDbAsyncResultSet resultSet = new DocumentDbAsyncResultSet(
+                publisher, COLUMNS, PATHS, 10);
+        final CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> resultSet.nextBatch().toCompletableFuture().join());
+        Assertions.assertTrue(exception.getCause() instanceof SQLException);
+        Assertions.assertTrue(exception.getCause().getCause() instanceof IllegalStateException);
+        resultSet.close();
+    }
+
+    /**
+     * Creates a publisher that emits the given documents as they are requested.
+     */
+    private static Publisher<Document> createPublisher(
+            final List<Document> documents,
+            final AtomicLong requested,
+            final AtomicBoolean cancelled) {
+        return subscriber -> subscriber.onSubscribe(new Subscription() {
+            private int index = 0;
+
+            @Override
+            public void request(final long n) {
+                requested.addAndGet(n);
+                for (long i = 0; i < n && index < documents.size() && !cancelled.get(); i++) {
+                    subscriber.onNext(documents.get(index++));
+                }
+                if (index >= documents.size() && !cancelled.get()) {
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+    }
+}
@@ -233,7 +233,16 @@ public class DocumentDbConnectionPropertiesTest {
                 "&" + DocumentDbConnectionProperty.SSH_KNOWN_HOSTS_FILE.getName() + "=" + "~/.ssh/known_hosts" +
                 "&" + DocumentDbConnectionProperty.DEFAULT_FETCH_SIZE.getName() + "=" + "1000" +
                 "&" + DocumentDbConnectionProperty.REFRESH_SCHEMA.getName() + "=" + "true" +
-                "&" + DocumentDbConnectionProperty.DEFAULT_AUTH_DB.getName() + "=" + "test";
+                "&" + DocumentDbConnectionProperty.DEFAULT_AUTH_DB.getName() + "=" + "test" +
+                "&" + DocumentDbConnectionProperty.SCHEMA_CACHE_DIR.getName() + "=" + "~/.documentdb/schema" +
+                "&" + DocumentDbConnectionProperty.BACKGROUND_SCHEMA_GENERATION.getName() + "=" + "true" +
+                "&" + DocumentDbConnectionProperty.LAZY_SCHEMA_GENERATION.getName() + "=" + "true" +
+                "&" + DocumentDbConnectionProperty.MAX_POOL_SIZE.getName() + "=" + "20" +
+                "&" + DocumentDbConnectionProperty.SSH_TUNNEL_POOL_SIZE.getName() + "=" + "2" +
+                "&" + DocumentDbConnectionProperty.WARM_UP.getName() + "=" + "true" +
+                "&" + DocumentDbConnectionProperty.SCHEMA_ENCODING.getName() + "=" + "compact" +
+                "&" + DocumentDbConnectionProperty.SLOW_QUERY_THRESHOLD.getName() + "=" + "1000" +
+                "&" + DocumentDbConnectionProperty.SLOW_QUERY_EXPLAIN.getName() + "=" + "true";
         properties = DocumentDbConnectionProperties
                 .getPropertiesFromConnectionString(info, connectionString, DOCUMENT_DB_SCHEME);
         Assertions.assertEquals(DocumentDbConnectionProperty.values().length, properties.size());
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbFlapDoodleExtension;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbFlapDoodleTest;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironment;
@@ -39,6 +40,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 @ExtendWith(DocumentDbFlapDoodleExtension.class)
@@ -326,6 +332,50 @@ public class DocumentDbConnectionTest extends DocumentDbFlapDoodleTest {
         }
     }
 
+    @Test
+    @DisplayName("Tests asynchronous queries on the shared reactive client, with their metrics recorded.")
+    void testExecuteQueryAsync() throws Exception {
+        final String sql = String.format("SELECT * FROM \"%s\"", COLLECTION_NAME);
+        final List<DocumentDbQueryMetrics> published = new CopyOnWriteArrayList<>();
+        final DocumentDbMetricsListener listener = published::add;
+        final int reactiveClientCount = DocumentDbMongoClientRegistry.getReactiveClientCount();
+        DocumentDbMetrics.addListener(listener);
+        try (DocumentDbConnection connection = (DocumentDbConnection) DriverManager.getConnection(
+                DocumentDbConnectionProperties.DOCUMENT_DB_SCHEME, VALID_CONNECTION_PROPERTIES)) {
+            try (DocumentDbAsyncResultSet resultSet = connection
+                    .executeQueryAsync(sql, 2, 10)
+                    .toCompletableFuture()
+                    .get(30, TimeUnit.SECONDS)) {
+                final List<Integer> batchSizes = new ArrayList<>();
+                DocumentDbColumnBatch batch;
+                while ((batch = resultSet.nextBatch().toCompletableFuture().get(30, TimeUnit.SECONDS)) != null) {
+                    batchSizes.add(batch.getRowCount());
+                }
+                Assertions.assertEquals(Arrays.asList(2, 2, 1), batchSizes);
+            }
+            // The second query reuses the shared reactive client of the connection.
+            try (DocumentDbAsyncResultSet resultSet = connection
+                    .executeQueryAsync(sql, 10)
+                    .toCompletableFuture()
+                    .get(30, TimeUnit.SECONDS)) {
+                Assertions.assertEquals(5, resultSet.nextBatch()
+                        .toCompletableFuture()
+                        .get(30, TimeUnit.SECONDS)
+                        .getRowCount());
+            }
+            Assertions.assertEquals(reactiveClientCount + 1,
+                    DocumentDbMongoClientRegistry.getReactiveClientCount());
+        } finally {
+            DocumentDbMetrics.removeListener(listener);
+        }
+        // The shared reactive client is released when the connection is closed.
+        Assertions.assertEquals(reactiveClientCount, DocumentDbMongoClientRegistry.getReactiveClientCount());
+        Assertions.assertEquals(2, published.stream()
+                .filter(metrics -> metrics.getFingerprint().equals(DocumentDbMetrics.getFingerprint(sql)))
+                .filter(metrics -> metrics.getOutcome() == Outcome.COMPLETED && metrics.getRowCount() == 5)
+                .count());
+    }
+
     /**
      * Tests metadata for table types.
      */
@@ -338,6 +338,42 @@ public class DocumentDbDatabaseMetaDataTest extends DocumentDbFlapDoodleTest {
         }
     }
 
+    /**
+     * Tests that precompiled name patterns match as the converted regular expressions.
+     */
+    @Test
+    @DisplayName("Tests that precompiled name patterns match as the converted regular expressions.")
+    void testNamePattern() {
+        // Test pattern, exact name (if any), match all
+        final Object[][] tests = new Object [][]{
+                {null, "", false},
+                {" ", "", false},
+                {"abc", "abc", false},
+                {"a\\_b\\%c", "a_b%c", false},
+                {"\\\\", "\\", false},
+                {"%", null, true},
+                {"%%", null, true},
+                {"a%", null, false},
+                {"_", null, false},
+                {"\\%", "%", false},
+        };
+        final String[] names = new String[] {"", "abc", "a_b%c", "\\", "a", "ab", "%", "b"};
+        for (Object[] test : tests) {
+            final String likePattern = (String) test[0];
+            final DocumentDbNamePattern pattern = DocumentDbNamePattern.compile(likePattern);
+            Assertions.assertEquals(test[1], pattern.getExactName(), likePattern);
+            Assertions.assertEquals(test[2], pattern.isMatchAll(), likePattern);
+            if (pattern.getExactName() == null) {
+                for (String name : names) {
+                    Assertions.assertEquals(
+                            name.matches(DocumentDbDatabaseMetaData.convertPatternToRegex(likePattern)),
+                            pattern.matches(name),
+                            likePattern + " " + name);
+                }
+            }
+        }
+    }
+
     /**
      * Tests columns of getColumnPrivileges.
      */
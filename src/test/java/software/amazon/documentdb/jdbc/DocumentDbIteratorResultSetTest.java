@@ -0,0 +1,112 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DocumentDbIteratorResultSetTest {
+    @Mock
+    private JdbcColumnMetaData mockMetadataColumnA;
+
+    @Mock
+    private Statement mockStatement;
+
+    private ImmutableList<JdbcColumnMetaData> mockMetadata;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+
+        // Prepare mock metadata with bare minimum.
+        Mockito.when(mockMetadataColumnA.getColumnLabel()).thenReturn("A");
+        Mockito.when(mockMetadataColumnA.getOrdinal()).thenReturn(0);
+        mockMetadata = ImmutableList.of(mockMetadataColumnA);
+    }
+
+    @Test
+    @DisplayName("Test that next() moves the cursor through the rows of the iterator.")
+    void testNext() throws SQLException {
+        final List<List<Object>> rows = Arrays.asList(
+                Collections.singletonList("a"),
+                Collections.singletonList("b"));
+        final DocumentDbIteratorResultSet resultSet =
+                new DocumentDbIteratorResultSet(mockStatement, mockMetadata, rows.iterator());
+
+        // Test cursor before first row.
+        Assertions.assertTrue(resultSet.isBeforeFirst());
+        Assertions.assertFalse(resultSet.isFirst());
+        Assertions.assertFalse(resultSet.isLast());
+        Assertions.assertFalse(resultSet.isAfterLast());
+        Assertions.assertEquals(0, resultSet.getRow());
+
+        // Test cursor at first row.
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertFalse(resultSet.isBeforeFirst());
+        Assertions.assertTrue(resultSet.isFirst());
+        Assertions.assertFalse(resultSet.isLast());
+        Assertions.assertFalse(resultSet.isAfterLast());
+        Assertions.assertEquals(1, resultSet.getRow());
+        Assertions.assertEquals("a", resultSet.getString(1));
+
+        // Test cursor at last row.
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertFalse(resultSet.isBeforeFirst());
+        Assertions.assertFalse(resultSet.isFirst());
+        Assertions.assertTrue(resultSet.isLast());
+        Assertions.assertFalse(resultSet.isAfterLast());
+        Assertions.assertEquals(2, resultSet.getRow());
+        Assertions.assertEquals("b", resultSet.getString(1));
+
+        // Test cursor after last row.
+        Assertions.assertFalse(resultSet.next());
+        Assertions.assertFalse(resultSet.isBeforeFirst());
+        Assertions.assertFalse(resultSet.isLast());
+        Assertions.assertTrue(resultSet.isAfterLast());
+        Assertions.assertEquals(0, resultSet.getRow());
+    }
+
+    @Test
+    @DisplayName("Test that an empty result is neither before the first row nor after the last row.")
+    void testNextWithoutRows() throws SQLException {
+        final DocumentDbIteratorResultSet resultSet = new DocumentDbIteratorResultSet(
+                mockStatement, mockMetadata, Collections.<List<Object>>emptyList().iterator());
+
+        Assertions.assertFalse(resultSet.isBeforeFirst());
+        Assertions.assertFalse(resultSet.isAfterLast());
+        Assertions.assertFalse(resultSet.next());
+        Assertions.assertFalse(resultSet.isBeforeFirst());
+        Assertions.assertFalse(resultSet.isFirst());
+        Assertions.assertFalse(resultSet.isLast());
+        Assertions.assertFalse(resultSet.isAfterLast());
+        Assertions.assertEquals(0, resultSet.getRow());
+        Assertions.assertThrows(SQLException.class, () -> resultSet.getString(1));
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironment;
+import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironmentFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Load benchmark of the driver against the embedded MongoDB server. For each scenario, the
+ * benchmark seeds collections with a data shape, then drives concurrent clients through
+ * {@link DocumentDbDriver}. It reports the connect, schema generation, translation and
+ * time-to-first-row latencies, the rows read per second and the allocation rate of the clients.
+ *
+ * <p>The benchmark is excluded from the test task. Run it with {@code gradle loadBenchmark},
+ * and configure it with the {@code loadBenchmark.*} system properties.
+ */
+@Tag("load-benchmark")
+public class DocumentDbLoadBenchmarkTest {
+    private static final String PROPERTY_PREFIX = "loadBenchmark.";
+    private static final List<String> SCENARIOS = Arrays.asList(
+            getProperty("scenarios", "wide,deepArrays,manyCollections").split(","));
+    private static final int DOCUMENT_COUNT = Integer.parseInt(getProperty("documents", "10000"));
+    private static final int CLIENT_COUNT = Integer.parseInt(getProperty("clients", "4"));
+    private static final int ITERATION_COUNT = Integer.parseInt(getProperty("iterations", "5"));
+    private static final int FIELD_COUNT = Integer.parseInt(getProperty("fields", "200"));
+    private static final int ARRAY_DEPTH = Integer.parseInt(getProperty("arrayDepth", "3"));
+    private static final int COLLECTION_COUNT = Integer.parseInt(getProperty("collections", "50"));
+    private static final String OUTPUT = getProperty("output", "build/reports/load-benchmark/results.csv");
+    private static final int ARRAY_WIDTH = 3;
+    private static final int BATCH_SIZE = 1000;
+    private static final long SEED = 42;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private static DocumentDbTestEnvironment testEnvironment;
+
+    @BeforeAll
+    static void beforeAll() throws Exception {
+        testEnvironment = DocumentDbTestEnvironmentFactory.getMongoDb40Environment();
+        testEnvironment.start();
+    }
+
+    @AfterAll
+    static void afterAll() throws Exception {
+        testEnvironment.stop();
+    }
+
+    /**
+     * Runs each configured scenario and writes the results.
+     */
+    @Test
+    void runLoadBenchmark() throws Exception {
+        final List<ScenarioResult> results = new ArrayList<>();
+        for (String scenario : SCENARIOS) {
+            results.add(runScenario(scenario.trim()));
+        }
+        writeResults(results);
+    }
+
+    private static ScenarioResult runScenario(final String scenario) throws Exception {
+        final List<String> tableNames = seed(scenario);
+        final ScenarioResult result = new ScenarioResult(scenario);
+        final Properties info = new Properties();
+        info.setProperty(DocumentDbConnectionProperty.SCHEMA_NAME.getName(), UUID.randomUUID().toString());
+
+        // The first connection generates the schema, the clients share it.
+        try (Connection connection = connect(info, result)) {
+            final long start = System.nanoTime();
+            connection.getMetaData();
+            result.schemaGenerationNanos = System.nanoTime() - start;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(CLIENT_COUNT);
+        try {
+            final List<Future<?>> clients = new ArrayList<>();
+            final long start = System.nanoTime();
+            for (int client = 0; client < CLIENT_COUNT; client++) {
+                final String sql = String.format("SELECT * FROM \"%s\".\"%s\"",
+                        testEnvironment.getDatabaseName(),
+                        tableNames.get(client % tableNames.size()));
+                clients.add(executor.submit(() -> runClient(info, sql, result)));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+            result.wallNanos = System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+        return result;
+    }
+
+    private static Void runClient(
+            final Properties info,
+            final String sql,
+            final ScenarioResult result) throws SQLException {
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long startAllocated = threadBean.getThreadAllocatedBytes(threadId);
+        try (DocumentDbConnection connection = (DocumentDbConnection) connect(info, result)) {
+            connection.getMetaData();
+            final long startTranslation = System.nanoTime();
+            connection.warmUp(Collections.singletonList(sql));
+            result.addTranslation(System.nanoTime() - startTranslation);
+
+            for (int iteration = 0; iteration < ITERATION_COUNT; iteration++) {
+                try (Statement statement = connection.createStatement()) {
+                    final long startQuery = System.nanoTime();
+                    final ResultSet resultSet = statement.executeQuery(sql);
+                    long rowCount = 0;
+                    final int columnCount = resultSet.getMetaData().getColumnCount();
+                    while (resultSet.next()) {
+                        if (rowCount == 0) {
+                            result.addFirstRow(System.nanoTime() - startQuery);
+                        }
+                        for (int column = 1; column <= columnCount; column++) {
+                            resultSet.getObject(column);
+                        }
+                        rowCount++;
+                    }
+                    result.addRows(rowCount);
+                }
+            }
+        }
+        result.addAllocatedBytes(threadBean.getThreadAllocatedBytes(threadId) - startAllocated);
+        return null;
+    }
+
+    private static Connection connect(final Properties info, final ScenarioResult result)
+            throws SQLException {
+        final long start = System.nanoTime();
+        final Connection connection = new DocumentDbDriver()
+                .connect(testEnvironment.getJdbcConnectionString(), info);
+        Assertions.assertNotNull(connection);
+        result.addConnect(System.nanoTime() - start);
+        return connection;
+    }
+
+    /**
+     * Seeds the collections for the scenario.
+     *
+     * @return the names of the tables queried by the clients.
+     */
+    private static List<String> seed(final String scenario) throws SQLException {
+        final Random random = new Random(SEED);
+        final List<String> tableNames = new ArrayList<>();
+        try (MongoClient client = testEnvironment.createMongoClient()) {
+            switch (scenario) {
+                case "wide": {
+                    final String collectionName = testEnvironment.newCollectionName(true);
+                    insert(client, collectionName, DOCUMENT_COUNT, i -> createWideDocument(i, random));
+                    tableNames.add(collectionName);
+                    break;
+                }
+                case "deepArrays": {
+                    final String collectionName = testEnvironment.newCollectionName(true);
+                    insert(client, collectionName, DOCUMENT_COUNT,
+                            i -> new BsonDocument("_id", new BsonInt32(i))
+                                    .append("a", createNestedArray(ARRAY_DEPTH, random)));
+                    final StringBuilder tableName = new StringBuilder(collectionName);
+                    for (int depth = 0; depth < ARRAY_DEPTH; depth++) {
+                        tableName.append("_a");
+                    }
+                    tableNames.add(tableName.toString());
+                    break;
+                }
+                case "manyCollections": {
+                    final int documentsPerCollection = Math.max(1, DOCUMENT_COUNT / COLLECTION_COUNT);
+                    for (int collection = 0; collection < COLLECTION_COUNT; collection++) {
+                        final String collectionName = testEnvironment.newCollectionName(true);
+                        insert(client, collectionName, documentsPerCollection,
+                                i -> new BsonDocument("_id", new BsonInt32(i))
+                                        .append("name", new BsonString("name" + random.nextInt(1000)))
+                                        .append("value", new BsonDouble(random.nextDouble())));
+                        tableNames.add(collectionName);
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown scenario '" + scenario + "'.");
+            }
+        }
+        return tableNames;
+    }
+
+    private static void insert(
+            final MongoClient client,
+            final String collectionName,
+            final int count,
+            final IntFunction<BsonDocument> documentFactory) {
+        final MongoCollection<BsonDocument> collection = client
+                .getDatabase(testEnvironment.getDatabaseName())
+                .getCollection(collectionName, BsonDocument.class);
+        final List<BsonDocument> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(documentFactory.apply(i));
+            if (batch.size() == BATCH_SIZE) {
+                collection.insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch);
+        }
+    }
+
+    private static BsonDocument createWideDocument(final int id, final Random random) {
+        final BsonDocument document = new BsonDocument("_id", new BsonInt32(id));
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            final BsonValue value;
+            switch (field % 5) {
+                case 0:
+                    value = new BsonInt32(random.nextInt());
+                    break;
+                case 1:
+                    value = new BsonDouble(random.nextDouble());
+                    break;
+                case 2:
+                    value = new BsonBoolean(random.nextBoolean());
+                    break;
+                case 3:
+                    value = new BsonDateTime(random.nextInt(Integer.MAX_VALUE) * 1000L);
+                    break;
+                default:
+                    value = new BsonString("value" + random.nextInt(1000));
+                    break;
+            }
+            document.append("field" + field, value);
+        }
+        return document;
+    }
+
+    private static BsonArray createNestedArray(final int depth, final Random random) {
+        final BsonArray array = new BsonArray();
+        for (int i = 0; i < ARRAY_WIDTH; i++) {
+            final BsonDocument element = new BsonDocument("value", new BsonInt32(random.nextInt()));
+            if (depth > 1) {
+                element.append("a", createNestedArray(depth - 1, random));
+            }
+            array.add(element);
+        }
+        return array;
+    }
+
+    private static void writeResults(final List<ScenarioResult> results) throws IOException {
+        final Path output = Paths.get(OUTPUT);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(
+                Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            final String header = "scenario,clients,connectMedianMs,connectP95Ms,schemaGenerationMs,"
+                    + "translationMedianMs,translationP95Ms,firstRowMedianMs,firstRowP95Ms,"
+                    + "rowsPerSecond,allocationMBPerSecond";
+            writer.println(header);
+            System.out.println(header);
+            for (ScenarioResult result : results) {
+                final String line = result.toString();
+                writer.println(line);
+                System.out.println(line);
+            }
+        }
+    }
+
+    private static String getProperty(final String name, final String defaultValue) {
+        return System.getProperty(PROPERTY_PREFIX + name, defaultValue);
+    }
+
+    /**
+     * The measurements of a scenario. Clients add their measurements concurrently.
+     */
+    private static final class ScenarioResult {
+        private final String scenario;
+        private final List<Long> connectNanos = new ArrayList<>();
+        private final List<Long> translationNanos = new ArrayList<>();
+        private final List<Long> firstRowNanos = new ArrayList<>();
+        private long schemaGenerationNanos;
+        private long wallNanos;
+        private long rowCount;
+        private long allocatedBytes;
+
+        ScenarioResult(final String scenario) {
+            this.scenario = scenario;
+        }
+
+        synchronized void addConnect(final long nanos) {
+            connectNanos.add(nanos);
+        }
+
+        synchronized void addTranslation(final long nanos) {
+            translationNanos.add(nanos);
+        }
+
+        synchronized void addFirstRow(final long nanos) {
+            firstRowNanos.add(nanos);
+        }
+
+        synchronized void addRows(final long rows) {
+            rowCount += rows;
+        }
+
+        synchronized void addAllocatedBytes(final long bytes) {
+            allocatedBytes += bytes;
+        }
+
+        @Override
+        public synchronized String toString() {
+            final double wallSeconds = wallNanos / NANOS_PER_SECOND;
+            return String.format("%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.1f,%.1f",
+                    scenario,
+                    CLIENT_COUNT,
+                    percentile(connectNanos, 50),
+                    percentile(connectNanos, 95),
+                    schemaGenerationNanos / NANOS_PER_MILLI,
+                    percentile(translationNanos, 50),
+                    percentile(translationNanos, 95),
+                    percentile(firstRowNanos, 50),
+                    percentile(firstRowNanos, 95),
+                    rowCount / wallSeconds,
+                    allocatedBytes / BYTES_PER_MEGABYTE / wallSeconds);
+        }
+
+        private static double percentile(final List<Long> samples, final int percentile) {
+            if (samples.isEmpty()) {
+                return 0;
+            }
+            final List<Long> sorted = new ArrayList<>(samples);
+            Collections.sort(sorted);
+            final int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(0, index)) / NANOS_PER_MILLI;
+        }
+    }
+}
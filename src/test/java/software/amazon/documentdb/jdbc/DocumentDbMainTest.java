@@ -39,7 +39,10 @@ import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaWriter;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -111,17 +114,22 @@ class DocumentDbMainTest {
         final StringBuilder output = new StringBuilder();
         DocumentDbMain.handleCommandLine(new String[] {}, output);
         Assertions.assertEquals(
-                "Missing required options: [-g Generates a new schema for the database. This will have the effect of replacing an existing schema of the same name, if it exists., -r Removes the schema from storage for schema given by -m <schema-name>, or for schema '_default', if not provided., -l Lists the schema names, version and table names available in the schema repository., -b Lists the SQL table names in a schema., -e Exports the schema to for SQL tables named [<table-name>[,<table-name>[…]]]. If no <table-name> are given, all table schema will be exported. By default, the schema is written to stdout. Use the --output option to write to a file. The output format is JSON., -i Imports the schema from <file-name> in your home directory. The schema will be imported using the <schema-name> and a new version will be added - replacing the existing schema. The expected input format is JSON.], s, d, u\n"
+                "Missing required options: [-g Generates a new schema for the database. This will have the effect of replacing an existing schema of the same name, if it exists., -r Removes the schema from storage for schema given by -m <schema-name>, or for schema '_default', if not provided., -l Lists the schema names, version and table names available in the schema repository., -b Lists the SQL table names in a schema., -e Exports the schema to for SQL tables named [<table-name>[,<table-name>[…]]]. If no <table-name> are given, all table schema will be exported. By default, the schema is written to stdout. Use the --output option to write to a file. The output format is JSON., -i Imports the schema from <file-name> in your home directory. The schema will be imported using the <schema-name> and a new version will be added - replacing the existing schema. The expected input format is JSON., -q Exports the result of the SQL query <sql-query>. The rows are streamed from the database directly to the output, in the format given by the --format option. Use the --output option to write to a file.], s, d, u\n"
                         + "usage: " + DocumentDbMain.getLibraryName() + " [-g | -r | -l | -b | -e <[table-name[,...]]> |\n"
-                        + "                                 -i <file-name>] -s <host-name> -d\n"
-                        + "                                 <database-name> -u <user-name> [-p <password>]\n"
-                        + "                                 [-n <schema-name>] [-m <method>] [-x\n"
-                        + "                                 <max-documents>] [-t] [-a] [-o <file-name>]\n"
-                        + "                                 [-h] [--version]\n"
+                        + "                                 -i <file-name> | -q <sql-query>] -s <host-name>\n"
+                        + "                                 -d <database-name> -u <user-name> [-p\n"
+                        + "                                 <password>] [-n <schema-name>] [-m <method>]\n"
+                        + "                                 [-x <max-documents>] [-t] [-a] [-o <file-name>]\n"
+                        + "                                 [-f <format>] [-c <count>] [-h] [--version]\n"
                         + " -a,--tls-allow-invalid-hostnames  The indicator of whether to allow invalid\n"
                         + "                                   hostnames when connecting to DocumentDB.\n"
                         + "                                   Default: false.\n"
                         + " -b,--list-tables                  Lists the SQL table names in a schema.\n"
+                        + " -c,--partitions <count>           The number of partitions of the collection to\n"
+                        + "                                   read in parallel. Only applies to queries\n"
+                        + "                                   that filter or project a single collection.\n"
+                        + "                                   Used in conjunction with the --export-query\n"
+                        + "                                   command. Default: 1.\n"
                         + " -d,--database <database-name>     The name of the database for the schema\n"
                         + "                                   operations. Required.\n"
                         + " -e,--export <[table-name[,...]]>  Exports the schema to for SQL tables named\n"
@@ -130,6 +138,9 @@ class DocumentDbMainTest {
                         + "                                   be exported. By default, the schema is\n"
                         + "                                   written to stdout. Use the --output option to\n"
                         + "                                   write to a file. The output format is JSON.\n"
+                        + " -f,--format <format>              The format of the exported query result. One\n"
+                        + "                                   of: csv or jsonl. Used in conjunction with\n"
+                        + "                                   the --export-query command. Default: csv.\n"
                         + " -g,--generate-new                 Generates a new schema for the database. This\n"
                         + "                                   will have the effect of replacing an existing\n"
                         + "                                   schema of the same name, if it exists.\n"
@@ -146,14 +157,19 @@ class DocumentDbMainTest {
                         + "                                   idReverse, or all. Used in conjunction with\n"
                         + "                                   the --generate-new command. Default: random.\n"
                         + " -n,--schema-name <schema-name>    The name of the schema. Default: _default.\n"
-                        + " -o,--output <file-name>           Write the exported schema to <file-name> in\n"
-                        + "                                   your home directory (instead of stdout). This\n"
-                        + "                                   will overwrite any existing file with the\n"
-                        + "                                   same name\n"
+                        + " -o,--output <file-name>           Write the exported schema or query result to\n"
+                        + "                                   <file-name> in your home directory (instead\n"
+                        + "                                   of stdout). This will overwrite any existing\n"
+                        + "                                   file with the same name\n"
                         + " -p,--password <password>          The password for the user performing the\n"
                         + "                                   schema operations. Optional. If this option\n"
                         + "                                   is not provided, the end-user will be\n"
                         + "                                   prompted to enter the password directly.\n"
+                        + " -q,--export-query <sql-query>     Exports the result of the SQL query\n"
+                        + "                                   <sql-query>. The rows are streamed from the\n"
+                        + "                                   database directly to the output, in the\n"
+                        + "                                   format given by the --format option. Use the\n"
+                        + "                                   --output option to write to a file.\n"
                         + " -r,--remove                       Removes the schema from storage for schema\n"
                         + "                                   given by -m <schema-name>, or for schema\n"
                         + "                                   '_default', if not provided.\n"
@@ -526,6 +542,86 @@ class DocumentDbMainTest {
         }
     }
 
+    @ParameterizedTest(name = "testExportQueryStdOut - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testExportQueryStdOut(final DocumentDbTestEnvironment testEnvironment)
+            throws SQLException, UnsupportedEncodingException {
+        setConnectionProperties(testEnvironment);
+        final String collectionName = createSimpleCollection(testEnvironment);
+
+        try {
+            final String[] args = buildArguments(String.format(
+                    "-q=SELECT \"fieldString\", \"fieldInt\" FROM \"%s\"", collectionName));
+            final StringBuilder output = new StringBuilder();
+            final ByteArrayOutputStream standardOutput = new ByteArrayOutputStream();
+            final PrintStream originalOut = System.out;
+            System.setOut(new PrintStream(standardOutput, true, StandardCharsets.UTF_8.name()));
+            try {
+                DocumentDbMain.handleCommandLine(args, output);
+            } finally {
+                System.setOut(originalOut);
+            }
+            // The rows are streamed to standard output rather than collected in the output.
+            Assertions.assertEquals("", output.toString());
+            final StringBuilder expected = new StringBuilder("fieldString,fieldInt\n");
+            for (int i = 0; i < 5; i++) {
+                expected.append("新年快乐,2147483647\n");
+            }
+            Assertions.assertEquals(expected.toString(),
+                    new String(standardOutput.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            dropCollection(testEnvironment, collectionName);
+        }
+    }
+
+    @ParameterizedTest(name = "testExportQueryOutputFile - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testExportQueryOutputFile(final DocumentDbTestEnvironment testEnvironment)
+            throws SQLException, IOException {
+        setConnectionProperties(testEnvironment);
+        final String collectionName = createSimpleCollection(testEnvironment);
+
+        try {
+            final String outputFileName = collectionName + "_query.jsonl";
+            final Path outputFilePath = USER_HOME_PATH.resolve(outputFileName);
+            final List<String> argsList = new ArrayList<>(Arrays.asList(buildArguments(
+                    String.format("-q=SELECT \"fieldString\", \"fieldInt\" FROM \"%s\"", collectionName),
+                    null,
+                    outputFileName)));
+            argsList.add("-f=jsonl");
+            argsList.add("-c=2");
+            final StringBuilder output = new StringBuilder();
+            try {
+                DocumentDbMain.handleCommandLine(argsList.toArray(new String[0]), output);
+                Assertions.assertEquals(
+                        String.format("Exported 5 row(s) to '%s'.", outputFileName),
+                        output.toString());
+                output.setLength(0);
+                readOutputFileContent(outputFilePath, output);
+                final String expectedLine = "{\"fieldString\": \"新年快乐\", \"fieldInt\": 2147483647}";
+                Assertions.assertEquals(
+                        String.join("\n", expectedLine, expectedLine, expectedLine, expectedLine, expectedLine),
+                        output.toString().replace("\r\n", "\n"));
+            } finally {
+                Assertions.assertTrue(outputFilePath.toFile().delete());
+            }
+        } finally {
+            dropCollection(testEnvironment, collectionName);
+        }
+    }
+
+    @ParameterizedTest(name = "testExportQueryInvalidFormat - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testExportQueryInvalidFormat(final DocumentDbTestEnvironment testEnvironment)
+            throws SQLException {
+        setConnectionProperties(testEnvironment);
+        final List<String> argsList = new ArrayList<>(Arrays.asList(buildArguments("-q=SELECT 1")));
+        argsList.add("-f=parquet");
+        final StringBuilder output = new StringBuilder();
+        DocumentDbMain.handleCommandLine(argsList.toArray(new String[0]), output);
+        Assertions.assertEquals("Invalid export format.", output.toString());
+    }
+
     @ParameterizedTest(name = "testImportFile - [{index}] - {arguments}")
     @MethodSource("getTestEnvironments")
     void testImportFile(final DocumentDbTestEnvironment testEnvironment)
@@ -729,15 +825,20 @@ class DocumentDbMainTest {
         DocumentDbMain.handleCommandLine(new String[] {"--help"}, output);
         Assertions.assertEquals(
                 "usage: " + DocumentDbMain.getLibraryName() + " [-g | -r | -l | -b | -e <[table-name[,...]]> |\n"
-                        + "                                 -i <file-name>] -s <host-name> -d\n"
-                        + "                                 <database-name> -u <user-name> [-p <password>]\n"
-                        + "                                 [-n <schema-name>] [-m <method>] [-x\n"
-                        + "                                 <max-documents>] [-t] [-a] [-o <file-name>]\n"
-                        + "                                 [-h] [--version]\n"
+                        + "                                 -i <file-name> | -q <sql-query>] -s <host-name>\n"
+                        + "                                 -d <database-name> -u <user-name> [-p\n"
+                        + "                                 <password>] [-n <schema-name>] [-m <method>]\n"
+                        + "                                 [-x <max-documents>] [-t] [-a] [-o <file-name>]\n"
+                        + "                                 [-f <format>] [-c <count>] [-h] [--version]\n"
                         + " -a,--tls-allow-invalid-hostnames  The indicator of whether to allow invalid\n"
                         + "                                   hostnames when connecting to DocumentDB.\n"
                         + "                                   Default: false.\n"
                         + " -b,--list-tables                  Lists the SQL table names in a schema.\n"
+                        + " -c,--partitions <count>           The number of partitions of the collection to\n"
+                        + "                                   read in parallel. Only applies to queries\n"
+                        + "                                   that filter or project a single collection.\n"
+                        + "                                   Used in conjunction with the --export-query\n"
+                        + "                                   command. Default: 1.\n"
                         + " -d,--database <database-name>     The name of the database for the schema\n"
                         + "                                   operations. Required.\n"
                         + " -e,--export <[table-name[,...]]>  Exports the schema to for SQL tables named\n"
@@ -746,6 +847,9 @@ class DocumentDbMainTest {
                         + "                                   be exported. By default, the schema is\n"
                         + "                                   written to stdout. Use the --output option to\n"
                         + "                                   write to a file. The output format is JSON.\n"
+                        + " -f,--format <format>              The format of the exported query result. One\n"
+                        + "                                   of: csv or jsonl. Used in conjunction with\n"
+                        + "                                   the --export-query command. Default: csv.\n"
                         + " -g,--generate-new                 Generates a new schema for the database. This\n"
                         + "                                   will have the effect of replacing an existing\n"
                         + "                                   schema of the same name, if it exists.\n"
@@ -762,14 +866,19 @@ class DocumentDbMainTest {
                         + "                                   idReverse, or all. Used in conjunction with\n"
                         + "                                   the --generate-new command. Default: random.\n"
                         + " -n,--schema-name <schema-name>    The name of the schema. Default: _default.\n"
-                        + " -o,--output <file-name>           Write the exported schema to <file-name> in\n"
-                        + "                                   your home directory (instead of stdout). This\n"
-                        + "                                   will overwrite any existing file with the\n"
-                        + "                                   same name\n"
+                        + " -o,--output <file-name>           Write the exported schema or query result to\n"
+                        + "                                   <file-name> in your home directory (instead\n"
+                        + "                                   of stdout). This will overwrite any existing\n"
+                        + "                                   file with the same name\n"
                         + " -p,--password <password>          The password for the user performing the\n"
                         + "                                   schema operations. Optional. If this option\n"
                         + "                                   is not provided, the end-user will be\n"
                         + "                                   prompted to enter the password directly.\n"
+                        + " -q,--export-query <sql-query>     Exports the result of the SQL query\n"
+                        + "                                   <sql-query>. The rows are streamed from the\n"
+                        + "                                   database directly to the output, in the\n"
+                        + "                                   format given by the --format option. Use the\n"
+                        + "                                   --output option to write to a file.\n"
                         + " -r,--remove                       Removes the schema from storage for schema\n"
                         + "                                   given by -m <schema-name>, or for schema\n"
                         + "                                   '_default', if not provided.\n"
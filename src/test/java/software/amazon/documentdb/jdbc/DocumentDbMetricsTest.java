@@ -0,0 +1,112 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+class DocumentDbMetricsTest {
+
+    @Test
+    @DisplayName("Tests that queries differing by literals and whitespace share a fingerprint.")
+    void testFingerprint() {
+        Assertions.assertEquals(
+                "SELECT \"a1\" FROM \"t2\" WHERE \"x\" = ? AND \"y\" > ? LIMIT ?",
+                DocumentDbMetrics.getFingerprint(
+                        "SELECT \"a1\"  FROM \"t2\"\n WHERE \"x\" = 'it''s' AND \"y\" > -1.5e3 LIMIT 10"));
+        Assertions.assertEquals(
+                DocumentDbMetrics.getFingerprint("SELECT * FROM \"t\" WHERE \"x\" = 'a'"),
+                DocumentDbMetrics.getFingerprint("SELECT *   FROM \"t\" WHERE \"x\" = 'b'"));
+        Assertions.assertEquals("", DocumentDbMetrics.getFingerprint(null));
+    }
+
+    @Test
+    @DisplayName("Tests the statistics estimated from the histogram buckets.")
+    void testHistogram() {
+        final DocumentDbLatencyHistogram histogram = new DocumentDbLatencyHistogram();
+        Assertions.assertEquals(0, histogram.getStatistics().getCount());
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+        final DocumentDbLatencyStatistics statistics = histogram.getStatistics();
+        Assertions.assertEquals(100, statistics.getCount());
+        Assertions.assertEquals(50.5, statistics.getMeanMillis(), 0.001);
+        Assertions.assertEquals(100, statistics.getMaxMillis(), 0.001);
+        // Percentiles are the upper bound of their power of two microseconds bucket.
+        Assertions.assertEquals(65.536, statistics.getP50Millis(), 0.001);
+        Assertions.assertEquals(100, statistics.getP99Millis(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Tests that a query is recorded and published to listeners only once.")
+    void testRecordQuery() {
+        final List<DocumentDbQueryMetrics> published = new ArrayList<>();
+        final DocumentDbMetricsListener listener = published::add;
+        DocumentDbMetrics.addListener(listener);
+        try {
+            final long queryCount = DocumentDbMetrics.getMXBean().getQueryCount();
+            final long canceledCount = DocumentDbMetrics.getMXBean().getCanceledQueryCount();
+            final DocumentDbQueryRecorder recorder = new DocumentDbQueryRecorder(
+                    "query", "SELECT * FROM \"t\" WHERE \"x\" = 1");
+            recorder.translated();
+            recorder.executed();
+            recorder.batchReceived(100);
+            recorder.rowRead();
+            recorder.rowRead();
+            recorder.complete(Outcome.CANCELED);
+            recorder.complete(Outcome.COMPLETED);
+
+            Assertions.assertEquals(1, published.size());
+            final DocumentDbQueryMetrics metrics = published.get(0);
+            Assertions.assertEquals("query", metrics.getQueryId());
+            Assertions.assertEquals("SELECT * FROM \"t\" WHERE \"x\" = ?", metrics.getFingerprint());
+            Assertions.assertEquals(Outcome.CANCELED, metrics.getOutcome());
+            Assertions.assertEquals(2, metrics.getRowCount());
+            Assertions.assertEquals(1, metrics.getBatchCount());
+            Assertions.assertEquals(100, metrics.getByteCount());
+            Assertions.assertTrue(metrics.getFirstRowNanos() >= 0);
+            Assertions.assertEquals(
+                    metrics.getTranslateNanos() + metrics.getExecuteNanos() + metrics.getFetchNanos(),
+                    metrics.getTotalNanos());
+            Assertions.assertEquals(queryCount + 1, DocumentDbMetrics.getMXBean().getQueryCount());
+            Assertions.assertEquals(canceledCount + 1,
+                    DocumentDbMetrics.getMXBean().getCanceledQueryCount());
+            Assertions.assertTrue(DocumentDbMetrics.getMXBean().getQueryStatistics()
+                    .containsKey(metrics.getFingerprint()));
+        } finally {
+            DocumentDbMetrics.removeListener(listener);
+        }
+    }
+
+    @Test
+    @DisplayName("Tests that the metrics are registered as an MBean with their gauges.")
+    void testMBean() throws Exception {
+        Assertions.assertNotNull(DocumentDbMetrics.getMXBean());
+        final ObjectName objectName = new ObjectName(DocumentDbMetrics.OBJECT_NAME);
+        Assertions.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        Assertions.assertNotNull(ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(objectName, "PhaseStatistics"));
+        Assertions.assertTrue(DocumentDbMetrics.getMXBean().getGauges().containsKey("openConnections"));
+    }
+}
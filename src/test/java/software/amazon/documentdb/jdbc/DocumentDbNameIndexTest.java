@@ -0,0 +1,70 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class DocumentDbNameIndexTest {
+    private static final List<String> NAMES = Arrays.asList(
+            "orders", "customer", "orders_items", "Orders", "customer_address", "order", "orders%");
+
+    @Test
+    @DisplayName("Tests that names are found by exact name, prefix and general patterns in their original order.")
+    void testFind() {
+        final Map<String, Integer> map = new LinkedHashMap<>();
+        NAMES.forEach(name -> map.put(name, map.size()));
+        final DocumentDbNameIndex index = DocumentDbNameIndex.get(map);
+        Assertions.assertSame(index, DocumentDbNameIndex.get(map));
+
+        Assertions.assertEquals(Arrays.asList("orders"), find(index, "orders"));
+        Assertions.assertEquals(Arrays.asList("Orders"), find(index, "Orders"));
+        Assertions.assertEquals(Arrays.asList(), find(index, "ORDERS"));
+        Assertions.assertEquals(Arrays.asList("orders%"), find(index, "orders\\%"));
+        Assertions.assertEquals(NAMES, find(index, "%"));
+        Assertions.assertEquals(
+                Arrays.asList("orders", "orders_items", "order", "orders%"), find(index, "order%"));
+        Assertions.assertEquals(Arrays.asList("orders_items"), find(index, "orders\\_%"));
+        Assertions.assertEquals(Arrays.asList("orders_items"), find(index, "orders_i%s"));
+        Assertions.assertEquals(
+                Arrays.asList("customer", "customer_address"), find(index, "%customer%"));
+        Assertions.assertEquals(Arrays.asList("orders", "Orders"), find(index, "_rders"));
+    }
+
+    @Test
+    @DisplayName("Tests that the index is rebuilt when the indexed map changes size.")
+    void testRebuild() {
+        final Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("a", 0);
+        Assertions.assertEquals(Arrays.asList(), find(DocumentDbNameIndex.get(map), "b"));
+        map.put("b", 1);
+        Assertions.assertEquals(Arrays.asList("b"), find(DocumentDbNameIndex.get(map), "b"));
+    }
+
+    private static List<String> find(final DocumentDbNameIndex index, final String pattern) {
+        return index.find(DocumentDbNamePattern.compile(pattern))
+                .mapToObj(index::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.documentdb.jdbc.common.test.DocumentDbFlapDoodleExtension;
+import software.amazon.documentdb.jdbc.common.test.DocumentDbFlapDoodleTest;
+
+import javax.sql.PooledConnection;
+import javax.sql.StatementEvent;
+import javax.sql.StatementEventListener;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the DocumentDbPoolingDataSource
+ */
+@ExtendWith(DocumentDbFlapDoodleExtension.class)
+public class DocumentDbPoolingDataSourceTest extends DocumentDbFlapDoodleTest {
+    private static final String HOSTNAME = "localhost";
+    private static final String USERNAME = "user";
+    private static final String PASSWORD = "password";
+    private static final String OTHER_USERNAME = "otherUser";
+    private static final String OTHER_PASSWORD = "otherPassword";
+    private static final String DATABASE = "testDb";
+    private static final String SQL = "SELECT * FROM \"testCollection\"";
+    private DocumentDbPoolingDataSource dataSource;
+
+    @BeforeAll
+    void setup() {
+        // Add 1 valid user so we can successfully authenticate.
+        createUser(DATABASE, USERNAME, PASSWORD);
+        createUser(DATABASE, OTHER_USERNAME, OTHER_PASSWORD);
+    }
+
+    /**
+     * Instantiates data source object for testing.
+     */
+    @BeforeEach
+    public void initialize() {
+        dataSource = new DocumentDbPoolingDataSource();
+        dataSource.setUser(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setDatabase(DATABASE);
+        dataSource.setHostname(HOSTNAME + ":" + getMongoPort());
+        dataSource.setTlsEnabled(false);
+    }
+
+    @AfterEach
+    void cleanup() {
+        dataSource.close();
+    }
+
+    @Test
+    void testConnectionReuse() throws SQLException {
+        final DocumentDbConnection physicalConnection;
+        try (Connection connection = dataSource.getConnection()) {
+            physicalConnection = connection.unwrap(DocumentDbConnection.class);
+        }
+        Assertions.assertFalse(physicalConnection.isClosed());
+        Assertions.assertEquals(1, dataSource.getIdleCount());
+
+        final Connection connection = dataSource.getConnection();
+        Assertions.assertSame(physicalConnection, connection.unwrap(DocumentDbConnection.class));
+        Assertions.assertEquals(0, dataSource.getIdleCount());
+        connection.close();
+        Assertions.assertTrue(connection.isClosed());
+        Assertions.assertThrows(SQLException.class, connection::getMetaData);
+        Assertions.assertEquals(1, dataSource.getIdleCount());
+
+        dataSource.close();
+        Assertions.assertTrue(physicalConnection.isClosed());
+        Assertions.assertEquals(0, dataSource.getIdleCount());
+    }
+
+    @Test
+    void testStatementReuse() throws SQLException {
+        final AtomicInteger closedCount = new AtomicInteger();
+        final PooledConnection pooledConnection = dataSource.getPooledConnection();
+        pooledConnection.addStatementEventListener(new StatementEventListener() {
+            @Override
+            public void statementClosed(final StatementEvent event) {
+                closedCount.incrementAndGet();
+            }
+
+            @Override
+            public void statementErrorOccurred(final StatementEvent event) {
+            }
+        });
+        try (Connection connection = pooledConnection.getConnection()) {
+            final DocumentDbPreparedStatement physicalStatement;
+            try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+                physicalStatement = statement.unwrap(DocumentDbPreparedStatement.class);
+                Assertions.assertSame(connection, statement.getConnection());
+            }
+            Assertions.assertEquals(1, closedCount.get());
+            Assertions.assertFalse(physicalStatement.isClosed());
+            try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+                Assertions.assertSame(physicalStatement, statement.unwrap(DocumentDbPreparedStatement.class));
+            }
+            Assertions.assertEquals(2, closedCount.get());
+        } finally {
+            pooledConnection.close();
+        }
+    }
+
+    @Test
+    void testStatementsReturnLogicalConnection() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(SQL)) {
+                Assertions.assertSame(connection, statement.getConnection());
+                Assertions.assertSame(statement, resultSet.getStatement());
+                Assertions.assertSame(connection, resultSet.getStatement().getConnection());
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ResultSet resultSet = statement.executeQuery()) {
+                Assertions.assertSame(connection, statement.getConnection());
+                Assertions.assertSame(connection, resultSet.getStatement().getConnection());
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SQL);
+                    ResultSet resultSet = statement.executeQuery()) {
+                Assertions.assertSame(connection, resultSet.getStatement().getConnection());
+            }
+            Assertions.assertSame(connection, connection.getMetaData().getConnection());
+        }
+        // Closing the connection of a statement returns the physical connection to the pool.
+        Assertions.assertEquals(1, dataSource.getIdleCount());
+    }
+
+    @Test
+    void testConnectionStateReset() throws SQLException {
+        final String applicationName;
+        try (Connection connection = dataSource.getConnection()) {
+            applicationName = connection.getClientInfo(DocumentDbConnectionProperty.APPLICATION_NAME.getName());
+            connection.setClientInfo(DocumentDbConnectionProperty.APPLICATION_NAME.getName(), "otherApplication");
+            connection.setTypeMap(Collections.singletonMap("type", String.class));
+            Assertions.assertEquals("otherApplication",
+                    connection.getClientInfo(DocumentDbConnectionProperty.APPLICATION_NAME.getName()));
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            Assertions.assertEquals(applicationName,
+                    connection.getClientInfo(DocumentDbConnectionProperty.APPLICATION_NAME.getName()));
+            Assertions.assertTrue(connection.getTypeMap().isEmpty());
+            Assertions.assertNull(connection.getWarnings());
+        }
+    }
+
+    @Test
+    void testWarmUp() throws SQLException {
+        dataSource.setMinIdle(2);
+        dataSource.setWarmUpQueries(Collections.singletonList(SQL));
+        dataSource.warmUp();
+        Assertions.assertEquals(2, dataSource.getIdleCount());
+    }
+
+    @Test
+    void testConnectionsWithDifferentCredentials() throws SQLException {
+        final DocumentDbConnection physicalConnection;
+        final DocumentDbConnection otherPhysicalConnection;
+        try (Connection connection = dataSource.getConnection(USERNAME, PASSWORD);
+                Connection otherConnection = dataSource.getConnection(OTHER_USERNAME, OTHER_PASSWORD)) {
+            physicalConnection = connection.unwrap(DocumentDbConnection.class);
+            otherPhysicalConnection = otherConnection.unwrap(DocumentDbConnection.class);
+            Assertions.assertNotSame(physicalConnection, otherPhysicalConnection);
+            Assertions.assertEquals(USERNAME, physicalConnection.getConnectionProperties().getUser());
+            Assertions.assertEquals(OTHER_USERNAME, otherPhysicalConnection.getConnectionProperties().getUser());
+        }
+        // Requesting other credentials does not change the credentials of the data source.
+        Assertions.assertEquals(USERNAME, dataSource.getUser());
+        Assertions.assertEquals(PASSWORD, dataSource.getPassword());
+        Assertions.assertEquals(2, dataSource.getIdleCount());
+
+        // Each idle connection is only reused for the credentials it was opened with.
+        try (Connection otherConnection = dataSource.getConnection(OTHER_USERNAME, OTHER_PASSWORD);
+                Connection connection = dataSource.getConnection()) {
+            Assertions.assertSame(otherPhysicalConnection, otherConnection.unwrap(DocumentDbConnection.class));
+            Assertions.assertSame(physicalConnection, connection.unwrap(DocumentDbConnection.class));
+            Assertions.assertEquals(0, dataSource.getIdleCount());
+        }
+        Assertions.assertEquals(2, dataSource.getIdleCount());
+    }
+}
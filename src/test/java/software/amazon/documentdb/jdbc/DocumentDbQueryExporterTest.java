@@ -0,0 +1,37 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+class DocumentDbQueryExporterTest {
+
+    @Test
+    @DisplayName("Tests that repeated column labels are made unique, so no column is dropped from a JSON Lines row.")
+    void testGetUniqueLabels() {
+        Assertions.assertEquals(
+                Arrays.asList("a", "b", "a_2", "a_3", "a_2_2"),
+                DocumentDbQueryExporter.getUniqueLabels(Arrays.asList("a", "b", "a", "a", "a_2")));
+        Assertions.assertEquals(
+                Arrays.asList("a", "b"),
+                DocumentDbQueryExporter.getUniqueLabels(Arrays.asList("a", "b")));
+    }
+}
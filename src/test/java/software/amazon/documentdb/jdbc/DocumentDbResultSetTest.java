@@ -63,6 +63,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.Calendar;
 import java.util.Properties;
 import java.util.TimeZone;
@@ -633,6 +634,46 @@ public class DocumentDbResultSetTest extends DocumentDbFlapDoodleTest {
         Assertions.assertArrayEquals(binary.getData(), ByteStreams.toByteArray(resultSetFlapdoodle.getBinaryStream(2)));
     }
 
+    @Test
+    @DisplayName("Tests that nextBatch() reads the rows by column in batches of the fetch size.")
+    void testNextBatch() throws SQLException {
+        final Document doc1 = Document.parse("{\"_id\": 1, \"price\": 1.5, \"name\": \"a\", \"created\": {\"$date\": 0}}");
+        final Document doc2 = Document.parse("{\"_id\": 2, \"price\": null, \"name\": \"b\"}");
+        final Document doc3 = Document.parse("{\"_id\": 3, \"price\": 3, \"name\": null, \"created\": {\"$date\": 1000}}");
+        Mockito.when(iterator.hasNext()).thenReturn(true, true, true, false);
+        Mockito.when(iterator.next()).thenReturn(doc1).thenReturn(doc2).thenReturn(doc3);
+        final ImmutableList<JdbcColumnMetaData> columns = ImmutableList.of(
+                JdbcColumnMetaData.builder().columnLabel("_id").ordinal(0).columnType(Types.INTEGER).build(),
+                JdbcColumnMetaData.builder().columnLabel("price").ordinal(1).columnType(Types.DOUBLE).build(),
+                JdbcColumnMetaData.builder().columnLabel("name").ordinal(2).columnType(Types.VARCHAR).build(),
+                JdbcColumnMetaData.builder().columnLabel("created").ordinal(3).columnType(Types.TIMESTAMP).build());
+        resultSet = new DocumentDbResultSet(mockStatement, iterator, columns,
+                ImmutableList.of("_id", "price", "name", "created"));
+        resultSet.setFetchSize(2);
+
+        final DocumentDbColumnBatch batch1 = resultSet.unwrap(DocumentDbResultSet.class).nextBatch();
+        Assertions.assertNotNull(batch1);
+        Assertions.assertEquals(2, batch1.getRowCount());
+        Assertions.assertEquals(4, batch1.getColumnCount());
+        Assertions.assertEquals(1, batch1.getColumn(1).getLong(0));
+        Assertions.assertEquals(2, batch1.getColumn(1).getLong(1));
+        Assertions.assertEquals(1.5, batch1.getColumn(2).getDouble(0));
+        Assertions.assertTrue(batch1.getColumn(2).isNull(1));
+        Assertions.assertEquals("b", batch1.getColumn(3).getObject(1));
+        Assertions.assertEquals(0, batch1.getColumn(4).getLong(0));
+        Assertions.assertTrue(batch1.getColumn(4).isNull(1));
+        Assertions.assertThrows(SQLException.class, () -> batch1.getColumn(3).getLong(0));
+        Assertions.assertEquals(2, resultSet.getRow());
+
+        final DocumentDbColumnBatch batch2 = resultSet.nextBatch();
+        Assertions.assertNotNull(batch2);
+        Assertions.assertEquals(1, batch2.getRowCount());
+        Assertions.assertEquals(3.0, batch2.getColumn(2).getDouble(0));
+        Assertions.assertTrue(batch2.getColumn(3).isNull(0));
+        Assertions.assertEquals(new Timestamp(1000), batch2.getColumn(4).getObject(0));
+        Assertions.assertNull(resultSet.nextBatch());
+    }
+
     private static String getJdbcConnectionString() {
         return String.format(
                 CONNECTION_STRING_TEMPLATE,
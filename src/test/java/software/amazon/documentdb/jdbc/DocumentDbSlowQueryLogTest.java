@@ -0,0 +1,94 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.documentdb.jdbc.DocumentDbQueryMetrics.Outcome;
+
+import java.util.Arrays;
+import java.util.List;
+
+class DocumentDbSlowQueryLogTest {
+
+    @Test
+    @DisplayName("Tests that the slow query log entry has the query, its pipeline and its phase timings.")
+    void testEntry() {
+        final List<Bson> pipeline = Arrays.asList(
+                Aggregates.match(Filters.eq("status", "open")),
+                Aggregates.limit(10));
+        final DocumentDbQueryMetrics metrics = new DocumentDbQueryMetrics(
+                "query", "SELECT * FROM \"orders\" WHERE \"status\" = ?", Outcome.COMPLETED,
+                1_000_000, 2_000_000, 2_500_000, 3_000_000, 10, 500, 1);
+        final BsonDocument entry = DocumentDbSlowQueryLog.toEntry(metrics,
+                "SELECT * FROM \"orders\" WHERE \"status\" = 'open'", "database", "orders", pipeline);
+
+        Assertions.assertEquals("query", entry.getString("queryId").getValue());
+        Assertions.assertEquals("COMPLETED", entry.getString("outcome").getValue());
+        Assertions.assertEquals("database", entry.getString("database").getValue());
+        Assertions.assertEquals("orders", entry.getString("collection").getValue());
+        Assertions.assertEquals(metrics.getFingerprint(), entry.getString("fingerprint").getValue());
+        Assertions.assertEquals(
+                BsonDocument.parse("{\"$match\": {\"status\": \"open\"}}"),
+                entry.getArray("pipeline").get(0));
+        Assertions.assertEquals(
+                BsonDocument.parse("{\"$limit\": 10}"),
+                entry.getArray("pipeline").get(1));
+        final BsonDocument timings = entry.getDocument("timings");
+        Assertions.assertEquals(1.0, timings.getDouble("translateMs").getValue(), 0.001);
+        Assertions.assertEquals(2.0, timings.getDouble("executeMs").getValue(), 0.001);
+        Assertions.assertEquals(2.5, timings.getDouble("firstRowMs").getValue(), 0.001);
+        Assertions.assertEquals(3.0, timings.getDouble("fetchMs").getValue(), 0.001);
+        Assertions.assertEquals(6.0, timings.getDouble("totalMs").getValue(), 0.001);
+        Assertions.assertEquals(10, entry.getInt64("rows").getValue());
+        Assertions.assertEquals(500, entry.getInt64("bytes").getValue());
+
+        // The entry is written as a single line.
+        Assertions.assertFalse(entry.toJson().contains("\n"));
+    }
+
+    @Test
+    @DisplayName("Tests that an entry is created for a query that failed before it was executed.")
+    void testEntryNotExecuted() {
+        final DocumentDbQueryMetrics metrics = new DocumentDbQueryMetrics(
+                "query", "SELECT", Outcome.FAILED, 1_000_000, 0, -1, 0, 0, 0, 0);
+        final BsonDocument entry = DocumentDbSlowQueryLog.toEntry(metrics, "SELECT", null, null, null);
+        Assertions.assertTrue(entry.isNull("database"));
+        Assertions.assertTrue(entry.getArray("pipeline").isEmpty());
+        Assertions.assertEquals(-1, entry.getDocument("timings").getDouble("firstRowMs").getValue(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Tests that the explain of a slow query only requests the query plan, with a time limit.")
+    void testExplainCommand() {
+        final BsonArray pipeline = new BsonArray();
+        pipeline.add(BsonDocument.parse("{\"$limit\": 10}"));
+        final BsonDocument command = DocumentDbSlowQueryLog.getExplainCommand("orders", pipeline);
+
+        Assertions.assertEquals("queryPlanner", command.getString("verbosity").getValue());
+        final BsonDocument aggregate = command.getDocument("explain");
+        Assertions.assertEquals("orders", aggregate.getString("aggregate").getValue());
+        Assertions.assertEquals(pipeline, aggregate.getArray("pipeline"));
+        Assertions.assertTrue(aggregate.getInt32("maxTimeMS").getValue() > 0);
+    }
+}
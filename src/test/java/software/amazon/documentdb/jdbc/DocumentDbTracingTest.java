@@ -0,0 +1,161 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcColumnMetaData;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+class DocumentDbTracingTest {
+
+    @AfterEach
+    void afterEach() {
+        DocumentDbTracing.setTracer(null);
+    }
+
+    @Test
+    @DisplayName("Tests that a shared span that does nothing is returned when tracing is disabled.")
+    void testDisabled() {
+        DocumentDbTracing.setTracer(null);
+        Assertions.assertFalse(DocumentDbTracing.isEnabled());
+        final DocumentDbSpan span = DocumentDbTracing.startSpan(DocumentDbTracing.CONNECT_SPAN);
+        Assertions.assertSame(span, DocumentDbTracing.startSpan(DocumentDbTracing.QUERY_TRANSLATE_SPAN));
+        span.setAttribute("key", "value");
+        span.close();
+    }
+
+    @Test
+    @DisplayName("Tests that each batch fetched by the result set is traced as a getMore span.")
+    void testGetMoreSpans() throws SQLException {
+        final RecordingTracer tracer = new RecordingTracer();
+        DocumentDbTracing.setTracer(tracer);
+        Assertions.assertTrue(DocumentDbTracing.isEnabled());
+
+        final JdbcColumnMetaData column =
+                JdbcColumnMetaData.builder().columnLabel("_id").ordinal(0).build();
+        final BatchCursor cursor = new BatchCursor(Arrays.asList(
+                Arrays.asList(new Document("_id", 1), new Document("_id", 2)),
+                Arrays.asList(new Document("_id", 3)),
+                Arrays.asList(new Document("_id", 4), new Document("_id", 5))));
+        try (DocumentDbResultSet resultSet = new DocumentDbResultSet(
+                null, cursor, ImmutableList.of(column), ImmutableList.of("_id"))) {
+            int rowCount = 0;
+            while (resultSet.next()) {
+                rowCount++;
+            }
+            Assertions.assertEquals(5, rowCount);
+        }
+        Assertions.assertEquals(
+                Arrays.asList(DocumentDbTracing.QUERY_GET_MORE_SPAN, DocumentDbTracing.QUERY_GET_MORE_SPAN),
+                tracer.startedSpans);
+        Assertions.assertEquals(2, tracer.closedSpanCount);
+    }
+
+    private static final class RecordingTracer implements DocumentDbTracer {
+        private final List<String> startedSpans = new ArrayList<>();
+        private int closedSpanCount;
+
+        @Override
+        public DocumentDbSpan startSpan(final String name) {
+            startedSpans.add(name);
+            return new DocumentDbSpan() {
+                @Override
+                public void setAttribute(final String key, final String value) {
+                }
+
+                @Override
+                public void setAttribute(final String key, final long value) {
+                }
+
+                @Override
+                public void recordException(final Throwable exception) {
+                }
+
+                @Override
+                public void close() {
+                    closedSpanCount++;
+                }
+            };
+        }
+    }
+
+    /**
+     * A cursor that returns documents in batches. The first batch is returned with the cursor,
+     * the following batches are fetched when the current batch is consumed.
+     */
+    private static final class BatchCursor implements MongoCursor<Document> {
+        private final Deque<List<Document>> batches;
+        private final Deque<Document> current = new ArrayDeque<>();
+
+        BatchCursor(final List<List<Document>> batches) {
+            this.batches = new ArrayDeque<>(batches);
+            current.addAll(this.batches.poll());
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current.isEmpty() && !batches.isEmpty()) {
+                current.addAll(batches.poll());
+            }
+            return !current.isEmpty();
+        }
+
+        @Override
+        public Document next() {
+            hasNext();
+            return current.poll();
+        }
+
+        @Override
+        public int available() {
+            return current.size();
+        }
+
+        @Override
+        public Document tryNext() {
+            return hasNext() ? next() : null;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return batches.isEmpty() ? null : new ServerCursor(1, new ServerAddress());
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return new ServerAddress();
+        }
+    }
+}
@@ -25,17 +25,24 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.DocumentDbMongoClientRegistry;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironment;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironmentFactory;
+import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaSnapshot;
 import software.amazon.documentdb.jdbc.persist.DocumentDbSchemaWriter;
 
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_LATEST_OR_NEW;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_NEW;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbDatabaseSchemaMetadata.VERSION_REFRESH;
 
 class DocumentDbMetadataTest {
 
@@ -232,6 +239,240 @@ class DocumentDbMetadataTest {
         Assertions.assertNull(databaseMetadata2);
     }
 
+    @DisplayName("Tests generating a new version of schema in the background.")
+    @Test
+    void testGenerateInBackground() throws Exception {
+        final DocumentDbTestEnvironment testEnvironment = DocumentDbTestEnvironmentFactory
+                .getMongoDb40Environment();
+        final MongoClient client = testEnvironment.createMongoClient();
+
+        final String schemaName = UUID.randomUUID().toString();
+        final DocumentDbConnectionProperties properties = DocumentDbConnectionProperties
+                .getPropertiesFromConnectionString(testEnvironment.getJdbcConnectionString());
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata0 = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client);
+        Assertions.assertEquals(1, databaseMetadata0.getSchemaVersion());
+        Assertions.assertEquals(0, databaseMetadata0.getTableSchemaMap().size());
+
+        // Prepare some data.
+        final String collectionName = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+
+        // The new version is only visible once the generation is finished.
+        final CompletableFuture<Void> generation = DocumentDbDatabaseSchemaMetadata
+                .generateInBackground(properties, schemaName, 2, DocumentDbMongoClientRegistry::acquireLease);
+        generation.get(60, TimeUnit.SECONDS);
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata1 = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client);
+        Assertions.assertEquals(2, databaseMetadata1.getSchemaVersion());
+        Assertions.assertEquals(1, databaseMetadata1.getTableSchemaMap().size());
+        Assertions.assertNotNull(databaseMetadata1.getTableSchemaMap().get(collectionName));
+
+        // The previous version is unchanged.
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata2 = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, 1, client);
+        Assertions.assertEquals(0, databaseMetadata2.getTableSchemaMap().size());
+
+        // A version generated by a refresh is not refreshed again.
+        DocumentDbDatabaseSchemaMetadata
+                .refreshInBackground(properties, databaseMetadata1, DocumentDbMongoClientRegistry::acquireLease)
+                .get(60, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, VERSION_REFRESH, client).getSchemaVersion());
+        Assertions.assertEquals(2, DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client).getSchemaVersion());
+        try (DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client)) {
+            schemaWriter.remove(schemaName);
+        }
+    }
+
+    @DisplayName("Tests generating table schema for collections on demand.")
+    @Test
+    void testGenerateMissingTables() throws Exception {
+        final DocumentDbTestEnvironment testEnvironment = DocumentDbTestEnvironmentFactory
+                .getMongoDb40Environment();
+        final MongoClient client = testEnvironment.createMongoClient();
+
+        final String schemaName = UUID.randomUUID().toString();
+        final DocumentDbConnectionProperties properties = DocumentDbConnectionProperties
+                .getPropertiesFromConnectionString(testEnvironment.getJdbcConnectionString());
+        properties.setLazySchemaGeneration("true");
+
+        // Prepare some data.
+        final String collectionName1 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName1,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+        final String collectionName2 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName2,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+
+        // No collections are sampled up front.
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata0 = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client);
+        Assertions.assertEquals(1, databaseMetadata0.getSchemaVersion());
+        Assertions.assertEquals(0, databaseMetadata0.getTableSchemaMap().size());
+
+        // Only the referenced collection is sampled.
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata1 = DocumentDbDatabaseSchemaMetadata
+                .generateMissingTables(properties, databaseMetadata0, collectionName1::equals, true, client);
+        Assertions.assertEquals(2, databaseMetadata1.getSchemaVersion());
+        Assertions.assertEquals(1, databaseMetadata1.getTableSchemaMap().size());
+        Assertions.assertNotNull(databaseMetadata1.getTableSchemaMap().get(collectionName1));
+
+        // Collections already in the schema are not sampled again.
+        Assertions.assertSame(databaseMetadata1, DocumentDbDatabaseSchemaMetadata
+                .generateMissingTables(properties, databaseMetadata1, collectionName1::equals, client));
+
+        // New tables are added to the existing tables.
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata2 = DocumentDbDatabaseSchemaMetadata
+                .generateMissingTables(properties, databaseMetadata1, tableName -> true, client);
+        Assertions.assertEquals(3, databaseMetadata2.getSchemaVersion());
+        Assertions.assertEquals(2, databaseMetadata2.getTableSchemaMap().size());
+        Assertions.assertNotNull(databaseMetadata2.getTableSchemaMap().get(collectionName1));
+        Assertions.assertNotNull(databaseMetadata2.getTableSchemaMap().get(collectionName2));
+
+        // The collection names are cached, so a new collection is only found when listed again.
+        final String collectionName3 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName3,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+        Assertions.assertSame(databaseMetadata2, DocumentDbDatabaseSchemaMetadata
+                .generateMissingTables(properties, databaseMetadata2, collectionName3::equals, client));
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata3 = DocumentDbDatabaseSchemaMetadata
+                .generateMissingTables(properties, databaseMetadata2, collectionName3::equals, true, client);
+        Assertions.assertEquals(4, databaseMetadata3.getSchemaVersion());
+        Assertions.assertNotNull(databaseMetadata3.getTableSchemaMap().get(collectionName3));
+        try (DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client)) {
+            schemaWriter.remove(schemaName);
+        }
+    }
+
+    @DisplayName("Tests that a schema generated lazily is generated again for a connection without lazy generation.")
+    @Test
+    void testLazyAndNonLazySchemaGeneration() throws Exception {
+        final DocumentDbTestEnvironment testEnvironment = DocumentDbTestEnvironmentFactory
+                .getMongoDb40Environment();
+        final MongoClient client = testEnvironment.createMongoClient();
+
+        final String schemaName = UUID.randomUUID().toString();
+        final DocumentDbConnectionProperties properties = DocumentDbConnectionProperties
+                .getPropertiesFromConnectionString(testEnvironment.getJdbcConnectionString());
+        final DocumentDbConnectionProperties lazyProperties = DocumentDbConnectionProperties
+                .getPropertiesFromConnectionString(testEnvironment.getJdbcConnectionString());
+        lazyProperties.setLazySchemaGeneration("true");
+
+        // Prepare some data.
+        final String collectionName1 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName1,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+        final String collectionName2 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName2,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+
+        // The lazy connection only generates the referenced collection.
+        final DocumentDbDatabaseSchemaMetadata lazyMetadata0 = DocumentDbDatabaseSchemaMetadata
+                .get(lazyProperties, schemaName, client);
+        Assertions.assertTrue(lazyMetadata0.isPartial());
+        final DocumentDbDatabaseSchemaMetadata lazyMetadata1 = DocumentDbDatabaseSchemaMetadata
+                .generateMissingTables(lazyProperties, lazyMetadata0, collectionName1::equals, true, client);
+        Assertions.assertEquals(2, lazyMetadata1.getSchemaVersion());
+        Assertions.assertTrue(lazyMetadata1.isPartial());
+        Assertions.assertEquals(1, lazyMetadata1.getTableSchemaMap().size());
+
+        // The connection without lazy generation generates all the tables as a new version.
+        final DocumentDbDatabaseSchemaMetadata metadata = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client);
+        Assertions.assertEquals(3, metadata.getSchemaVersion());
+        Assertions.assertFalse(metadata.isPartial());
+        Assertions.assertNotNull(metadata.getTableSchemaMap().get(collectionName1));
+        Assertions.assertNotNull(metadata.getTableSchemaMap().get(collectionName2));
+
+        // Both connections then use the complete version.
+        Assertions.assertEquals(3, DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client).getSchemaVersion());
+        final DocumentDbDatabaseSchemaMetadata lazyMetadata2 = DocumentDbDatabaseSchemaMetadata
+                .get(lazyProperties, schemaName, client);
+        Assertions.assertEquals(3, lazyMetadata2.getSchemaVersion());
+        Assertions.assertFalse(lazyMetadata2.isPartial());
+        Assertions.assertNotNull(lazyMetadata2.getTableSchemaMap().get(collectionName2));
+        try (DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client)) {
+            schemaWriter.remove(schemaName);
+        }
+    }
+
+    @DisplayName("Tests that the local schema snapshot only contains the table schema that are loaded.")
+    @Test
+    void testSnapshotLoadsTablesLazily(@TempDir final Path cacheDir) throws Exception {
+        final DocumentDbTestEnvironment testEnvironment = DocumentDbTestEnvironmentFactory
+                .getMongoDb40Environment();
+        final MongoClient client = testEnvironment.createMongoClient();
+
+        final String schemaName = UUID.randomUUID().toString();
+        final DocumentDbConnectionProperties properties = DocumentDbConnectionProperties
+                .getPropertiesFromConnectionString(testEnvironment.getJdbcConnectionString());
+        properties.setSchemaCacheDir(cacheDir.toString());
+
+        // Prepare some data.
+        final String collectionName1 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName1,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+        final String collectionName2 = testEnvironment.newCollectionName(true);
+        prepareTestData(
+                client,
+                testEnvironment.getDatabaseName(),
+                collectionName2,
+                collection -> testEnvironment.prepareSimpleConsistentData(collection, 10));
+
+        // The snapshot is written without loading any table schema.
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata1 = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, VERSION_NEW, client);
+        final int schemaVersion = databaseMetadata1.getSchemaVersion();
+        DocumentDbSchemaSnapshot snapshot = DocumentDbSchemaSnapshot.read(properties, schemaName, schemaVersion);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(0, snapshot.getTables().size());
+
+        // Each table schema is added to the snapshot when it is loaded.
+        Assertions.assertNotNull(databaseMetadata1.getTableSchemaMap().get(collectionName1));
+        snapshot = DocumentDbSchemaSnapshot.read(properties, schemaName, schemaVersion);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(1, snapshot.getTables().size());
+        Assertions.assertEquals(collectionName1, snapshot.getTables().get(0).getSqlName());
+
+        // The schema read from the snapshot loads the other tables from the server.
+        final DocumentDbDatabaseSchemaMetadata databaseMetadata2 = DocumentDbDatabaseSchemaMetadata
+                .get(properties, schemaName, client);
+        Assertions.assertEquals(schemaVersion, databaseMetadata2.getSchemaVersion());
+        Assertions.assertNotNull(databaseMetadata2.getTableSchemaMap().get(collectionName1));
+        Assertions.assertNotNull(databaseMetadata2.getTableSchemaMap().get(collectionName2));
+        snapshot = DocumentDbSchemaSnapshot.read(properties, schemaName, schemaVersion);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(2, snapshot.getTables().size());
+        try (DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, client)) {
+            schemaWriter.remove(schemaName);
+        }
+    }
+
     private static void prepareTestData(
             final MongoClient client,
             final String databaseName,
@@ -0,0 +1,135 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.metadata;
+
+import org.bson.BsonType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcType;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+class DocumentDbSchemaCacheTest {
+    private static final String SCHEMA_NAME = "cacheSchema";
+
+    @AfterEach
+    void afterEach() {
+        DocumentDbSchemaCache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Tests that a cached schema is returned as a copy with the table function unset.")
+    void testGetSchemaReturnsCopy() {
+        final DocumentDbConnectionProperties properties = getProperties("host1", "database");
+        final DocumentDbSchema schema = new DocumentDbSchema(
+                SCHEMA_NAME, 1, "database", new Date(Instant.now().toEpochMilli()),
+                new LinkedHashSet<>(Collections.singletonList("table::id")));
+        Assertions.assertNull(DocumentDbSchemaCache.getSchema(properties, SCHEMA_NAME, 1));
+
+        DocumentDbSchemaCache.putSchema(properties, schema);
+        final DocumentDbSchema cachedSchema1 = DocumentDbSchemaCache.getSchema(properties, SCHEMA_NAME, 1);
+        final DocumentDbSchema cachedSchema2 = DocumentDbSchemaCache.getSchema(properties, SCHEMA_NAME, 1);
+        Assertions.assertNotNull(cachedSchema1);
+        Assertions.assertNotNull(cachedSchema2);
+        Assertions.assertEquals(schema, cachedSchema1);
+        Assertions.assertNotSame(cachedSchema1, cachedSchema2);
+
+        // Each copy can have its own lazy load function set.
+        Assertions.assertDoesNotThrow(() -> cachedSchema1.setGetTableFunction(
+                tableId -> null, tableIds -> new LinkedHashMap<>()));
+        Assertions.assertDoesNotThrow(() -> cachedSchema2.setGetTableFunction(
+                tableId -> null, tableIds -> new LinkedHashMap<>()));
+
+        // Other versions, databases, users and clusters are not matched.
+        Assertions.assertNull(DocumentDbSchemaCache.getSchema(properties, SCHEMA_NAME, 2));
+        Assertions.assertNull(DocumentDbSchemaCache.getSchema(
+                getProperties("host1", "otherDatabase"), SCHEMA_NAME, 1));
+        Assertions.assertNull(DocumentDbSchemaCache.getSchema(
+                getProperties("host2", "database"), SCHEMA_NAME, 1));
+        final DocumentDbConnectionProperties otherUserProperties = getProperties("host1", "database");
+        otherUserProperties.setUser("otherUser");
+        Assertions.assertNull(DocumentDbSchemaCache.getSchema(otherUserProperties, SCHEMA_NAME, 1));
+    }
+
+    @Test
+    @DisplayName("Tests that table schema are cached by schema version and invalidated by schema name.")
+    void testGetTableAndInvalidate() {
+        final DocumentDbConnectionProperties properties = getProperties("host1", "database");
+        final DocumentDbSchemaTable table = new DocumentDbSchemaTable(
+                "table", "collection", new LinkedHashMap<>());
+        DocumentDbSchemaCache.putTable(properties, SCHEMA_NAME, 1, table);
+        DocumentDbSchemaCache.putTable(properties, "otherSchema", 1, table);
+        Assertions.assertEquals(table,
+                DocumentDbSchemaCache.getTable(properties, SCHEMA_NAME, 1, table.getId()));
+        Assertions.assertNull(
+                DocumentDbSchemaCache.getTable(properties, SCHEMA_NAME, 2, table.getId()));
+
+        DocumentDbSchemaCache.invalidate(properties, SCHEMA_NAME);
+        Assertions.assertNull(
+                DocumentDbSchemaCache.getTable(properties, SCHEMA_NAME, 1, table.getId()));
+        Assertions.assertEquals(table,
+                DocumentDbSchemaCache.getTable(properties, "otherSchema", 1, table.getId()));
+    }
+
+    @Test
+    @DisplayName("Tests that cached table schema are copied, and not shared between users.")
+    void testGetTableReturnsCopy() {
+        final DocumentDbConnectionProperties properties = getProperties("host1", "database");
+        properties.setUser("user1");
+        final LinkedHashMap<String, DocumentDbSchemaColumn> columnMap = new LinkedHashMap<>();
+        columnMap.put("field", new DocumentDbSchemaColumn(
+                "field", "field", JdbcType.VARCHAR, BsonType.STRING, false, false, null, null));
+        final DocumentDbSchemaTable table = new DocumentDbSchemaTable("table", "collection", columnMap);
+        table.setEstimatedRecordCount(10);
+        DocumentDbSchemaCache.putTable(properties, SCHEMA_NAME, 1, table);
+
+        // Changes to the original or to a copy do not change the cached table.
+        table.setEstimatedRecordCount(20);
+        final DocumentDbSchemaTable cachedTable1 = DocumentDbSchemaCache
+                .getTable(properties, SCHEMA_NAME, 1, table.getId());
+        Assertions.assertNotNull(cachedTable1);
+        Assertions.assertNotSame(table, cachedTable1);
+        Assertions.assertEquals(10, cachedTable1.getEstimatedRecordCount());
+        cachedTable1.setEstimatedRecordCount(30);
+        cachedTable1.getColumnMap().get("field").setSqlName("renamed");
+        final DocumentDbSchemaTable cachedTable2 = DocumentDbSchemaCache
+                .getTable(properties, SCHEMA_NAME, 1, table.getId());
+        Assertions.assertNotNull(cachedTable2);
+        Assertions.assertEquals(10, cachedTable2.getEstimatedRecordCount());
+        Assertions.assertEquals("field", cachedTable2.getColumnMap().get("field").getSqlName());
+
+        final DocumentDbConnectionProperties otherUserProperties = getProperties("host1", "database");
+        otherUserProperties.setUser("user2");
+        Assertions.assertNull(
+                DocumentDbSchemaCache.getTable(otherUserProperties, SCHEMA_NAME, 1, table.getId()));
+    }
+
+    private static DocumentDbConnectionProperties getProperties(
+            final String hostname, final String database) {
+        final DocumentDbConnectionProperties properties = new DocumentDbConnectionProperties();
+        properties.setHostname(hostname);
+        properties.setDatabase(database);
+        return properties;
+    }
+}
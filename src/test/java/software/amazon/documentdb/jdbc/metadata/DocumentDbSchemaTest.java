@@ -149,6 +149,42 @@ class DocumentDbSchemaTest {
         }
     }
 
+    @DisplayName("Tests that iterating all tables loads the remaining tables in a single batch.")
+    @Test
+    void testGetTableMapAllValuesInBatch() {
+        final DocumentDbSchemaTable table1 = new DocumentDbSchemaTable(
+                "table1", COLLECTION_NAME, new LinkedHashMap<>());
+        final DocumentDbSchemaTable table2 = new DocumentDbSchemaTable(
+                "table2", COLLECTION_NAME, new LinkedHashMap<>());
+        final Map<String, DocumentDbSchemaTable> tablesById = new LinkedHashMap<>();
+        tablesById.put(table1.getId(), table1);
+        tablesById.put(table2.getId(), table2);
+        final DocumentDbSchema schema = new DocumentDbSchema(
+                DEFAULT_SCHEMA_NAME, 1, "testDb", new Date(),
+                new LinkedHashSet<>(tablesById.keySet()));
+        final List<Set<String>> batches = new ArrayList<>();
+        schema.setGetTableFunction(
+                tablesById::get,
+                tableIds -> {
+                    batches.add(tableIds);
+                    return tableIds.stream().collect(Collectors.toMap(
+                            tableId -> tableId,
+                            tablesById::get,
+                            (a, b) -> b,
+                            LinkedHashMap::new));
+                });
+
+        // Load one table on its own, then the rest together.
+        Assertions.assertEquals(table1, schema.getTableMap().get("table1"));
+        Assertions.assertEquals(Arrays.asList(table1, table2),
+                new ArrayList<>(schema.getTableMap().values()));
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(new LinkedHashSet<>(Arrays.asList(table2.getId())), batches.get(0));
+        // The batch-loaded table is available by name without loading it again.
+        Assertions.assertEquals(table2, schema.getTableMap().get("table2"));
+        Assertions.assertEquals(1, batches.size());
+    }
+
     @DisplayName("Tests serialization of schema.")
     @Test
     void testSerialize() throws JsonProcessingException {
@@ -658,4 +658,37 @@ public class DocumentDbTableSchemaGeneratorColumnTest extends DocumentDbTableSch
                 "Type of ID columns (DocumentDbTableSchemaGeneratorTest._id and " +
                         "DocumentDbCollectionMetadataTest_array._id) should be DOUBLE (" + JdbcType.DOUBLE + ")");
     }
+
+    /**
+     * Tests that tables generated from the same definition have the same ID.
+     */
+    @DisplayName("Tests that tables generated from the same definition have the same ID.")
+    @Test
+    void testContentAddressedTableId() {
+        final BsonDocument document = new BsonDocument()
+                .append("_id", new BsonObjectId())
+                .append("fieldString", new BsonString("value"))
+                .append("fieldDocument", new BsonDocument("fieldInt", new BsonInt32(1)));
+        final BsonDocument otherDocument = new BsonDocument()
+                .append("_id", new BsonObjectId())
+                .append("fieldString", new BsonInt64(1L))
+                .append("fieldDocument", new BsonDocument("fieldInt", new BsonInt32(2)));
+
+        final Map<String, DocumentDbSchemaTable> tables = DocumentDbTableSchemaGenerator.generate(
+                COLLECTION_NAME, Collections.singletonList(document).iterator());
+        final Map<String, DocumentDbSchemaTable> sameTables = DocumentDbTableSchemaGenerator.generate(
+                COLLECTION_NAME, Collections.singletonList(document.clone()).iterator());
+        final Map<String, DocumentDbSchemaTable> otherTables = DocumentDbTableSchemaGenerator.generate(
+                COLLECTION_NAME, Collections.singletonList(otherDocument).iterator());
+
+        Assertions.assertEquals(2, tables.size());
+        for (String tableName : tables.keySet()) {
+            Assertions.assertEquals(tables.get(tableName).getId(), sameTables.get(tableName).getId());
+        }
+        final String baseTableName = toName(COLLECTION_NAME, new HashMap<>());
+        final String virtualTableName = toName(combinePath(COLLECTION_NAME, "fieldDocument"), new HashMap<>());
+        // The base table changed type of a column, the virtual table is unchanged.
+        Assertions.assertNotEquals(tables.get(baseTableName).getId(), otherTables.get(baseTableName).getId());
+        Assertions.assertEquals(tables.get(virtualTableName).getId(), otherTables.get(virtualTableName).getId());
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.persist;
+
+import org.bson.BsonBinary;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.documentdb.jdbc.common.utilities.JdbcType;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaColumn;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaColumnEncoder.COLUMNS_ENCODED_PROPERTY;
+
+class DocumentDbSchemaColumnEncoderTest {
+    private static final List<DocumentDbSchemaColumn> COLUMNS = Arrays.asList(
+            new DocumentDbSchemaColumn("_id", "collection__id", JdbcType.VARCHAR,
+                    BsonType.OBJECT_ID, false, true, null, null),
+            new DocumentDbSchemaColumn("field", "field", JdbcType.BIGINT,
+                    BsonType.INT64, false, false, null, null),
+            new DocumentDbSchemaColumn("array_index_lvl_0", "array_index_lvl_0", JdbcType.BIGINT,
+                    null, true, true, null, null),
+            new DocumentDbSchemaColumn("_id", "collection__id_fk", JdbcType.VARCHAR,
+                    BsonType.OBJECT_ID, false, true, "collection", "collection__id"),
+            new DocumentDbSchemaColumn("unknown", "unknown", null,
+                    null, false, false, null, null));
+
+    @Test
+    @DisplayName("Tests that columns can be encoded and decoded, with and without compression.")
+    void testEncodeDecode() {
+        for (boolean compress : new boolean[] {false, true}) {
+            final byte[] encoded = DocumentDbSchemaColumnEncoder.encode(COLUMNS, compress);
+            Assertions.assertEquals(COLUMNS, DocumentDbSchemaColumnEncoder.decode(encoded));
+        }
+        Assertions.assertEquals(new ArrayList<>(), DocumentDbSchemaColumnEncoder.decode(
+                DocumentDbSchemaColumnEncoder.encode(new ArrayList<>(), true)));
+    }
+
+    @Test
+    @DisplayName("Tests that table schema documents with encoded columns are decoded.")
+    void testDecodeTableSchema() {
+        final Date modifyDate = new Date();
+        final DocumentDbSchemaTable table = new DocumentDbSchemaTable(
+                "collection::uuid", "uuid", modifyDate, "collection", "collection", COLUMNS);
+        final BsonDocument document = new BsonDocument()
+                .append("_id", new BsonString(table.getId()))
+                .append("uuid", new BsonString(table.getUuid()))
+                .append("modifyDate", new BsonDateTime(modifyDate.getTime()))
+                .append("sqlName", new BsonString(table.getSqlName()))
+                .append("collectionName", new BsonString(table.getCollectionName()))
+                .append(COLUMNS_ENCODED_PROPERTY, new BsonBinary(
+                        DocumentDbSchemaColumnEncoder.encode(COLUMNS, true)));
+        Assertions.assertEquals(table, DocumentDbSchemaReader.decodeTableSchema(document));
+    }
+
+    @Test
+    @DisplayName("Tests that an unknown encoding is rejected.")
+    void testDecodeUnsupportedVersion() {
+        final byte[] encoded = DocumentDbSchemaColumnEncoder.encode(COLUMNS, false);
+        encoded[0] = Byte.MAX_VALUE;
+        Assertions.assertThrows(Exception.class, () -> DocumentDbSchemaColumnEncoder.decode(encoded));
+    }
+}
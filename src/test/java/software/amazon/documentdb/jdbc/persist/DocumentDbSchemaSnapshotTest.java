@@ -0,0 +1,123 @@
+/*
+ * Copyright <2021> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package software.amazon.documentdb.jdbc.persist;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchema;
+import software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.stream.Stream;
+
+class DocumentDbSchemaSnapshotTest {
+    private static final String SCHEMA_NAME = "snapshotSchema";
+
+    @Test
+    @DisplayName("Tests that a schema snapshot can be written and read back from the local schema cache.")
+    void testWriteAndRead(@TempDir final Path cacheDir) {
+        final DocumentDbConnectionProperties properties = getProperties(cacheDir, "database");
+        Assertions.assertTrue(DocumentDbSchemaSnapshot.isEnabled(properties));
+        Assertions.assertNull(DocumentDbSchemaSnapshot.read(properties, SCHEMA_NAME, 1));
+
+        final DocumentDbSchemaTable table = new DocumentDbSchemaTable(
+                "table", "collection", new LinkedHashMap<>());
+        final DocumentDbSchema schema = new DocumentDbSchema(
+                SCHEMA_NAME, 1, "database", new Date(Instant.now().toEpochMilli()),
+                new LinkedHashSet<>(Collections.singletonList(table.getId())));
+        DocumentDbSchemaSnapshot.write(properties, schema, Collections.singletonList(table));
+        Assertions.assertTrue(Files.exists(
+                DocumentDbSchemaSnapshot.getSnapshotPath(properties, SCHEMA_NAME, 1)));
+
+        final DocumentDbSchemaSnapshot snapshot = DocumentDbSchemaSnapshot
+                .read(properties, SCHEMA_NAME, 1);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(schema, snapshot.getSchema());
+        Assertions.assertEquals(schema.getModifyDate(), snapshot.getSchema().getModifyDate());
+        Assertions.assertEquals(1, snapshot.getTables().size());
+        Assertions.assertEquals(table, snapshot.getTables().get(0));
+
+        // Other versions and databases are not matched.
+        Assertions.assertNull(DocumentDbSchemaSnapshot.read(properties, SCHEMA_NAME, 2));
+        Assertions.assertNull(DocumentDbSchemaSnapshot.read(
+                getProperties(cacheDir, "otherDatabase"), SCHEMA_NAME, 1));
+    }
+
+    @Test
+    @DisplayName("Tests that table schema are added to a schema snapshot without rewriting it.")
+    void testWriteTables(@TempDir final Path cacheDir) throws Exception {
+        final DocumentDbConnectionProperties properties = getProperties(cacheDir, "database");
+        final DocumentDbSchemaTable table1 = new DocumentDbSchemaTable(
+                "table1", "collection1", new LinkedHashMap<>());
+        final DocumentDbSchemaTable table2 = new DocumentDbSchemaTable(
+                "table2", "collection2", new LinkedHashMap<>());
+        final DocumentDbSchema schema = new DocumentDbSchema(
+                SCHEMA_NAME, 1, "database", new Date(Instant.now().toEpochMilli()),
+                new LinkedHashSet<>(Arrays.asList(table1.getId(), table2.getId())));
+        DocumentDbSchemaSnapshot.write(properties, schema, Collections.emptyList());
+        final Path snapshotPath = DocumentDbSchemaSnapshot.getSnapshotPath(properties, SCHEMA_NAME, 1);
+        final byte[] snapshotContent = Files.readAllBytes(snapshotPath);
+
+        DocumentDbSchemaSnapshot.writeTables(properties, schema, Collections.singletonList(table1));
+        DocumentDbSchemaSnapshot.writeTables(properties, schema, Collections.singletonList(table2));
+        Assertions.assertArrayEquals(snapshotContent, Files.readAllBytes(snapshotPath));
+        DocumentDbSchemaSnapshot snapshot = DocumentDbSchemaSnapshot.read(properties, SCHEMA_NAME, 1);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(2, snapshot.getTables().size());
+        Assertions.assertTrue(snapshot.getTables().contains(table1));
+        Assertions.assertTrue(snapshot.getTables().contains(table2));
+
+        // A new snapshot of the same version with a different modification date drops the tables.
+        final DocumentDbSchema newSchema = new DocumentDbSchema(
+                SCHEMA_NAME, 1, "database", new Date(schema.getModifyDate().getTime() + 1000),
+                new LinkedHashSet<>(Arrays.asList(table1.getId(), table2.getId())));
+        DocumentDbSchemaSnapshot.write(properties, newSchema, Collections.emptyList());
+        snapshot = DocumentDbSchemaSnapshot.read(properties, SCHEMA_NAME, 1);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(0, snapshot.getTables().size());
+        try (Stream<Path> tablePaths = Files.list(
+                DocumentDbSchemaSnapshot.getTablesPath(properties, SCHEMA_NAME, 1))) {
+            Assertions.assertEquals(0, tablePaths.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Tests that the local schema cache is disabled when the folder is not set.")
+    void testIsEnabled() {
+        final DocumentDbConnectionProperties properties = new DocumentDbConnectionProperties();
+        Assertions.assertFalse(DocumentDbSchemaSnapshot.isEnabled(properties));
+    }
+
+    private static DocumentDbConnectionProperties getProperties(
+            final Path cacheDir, final String database) {
+        final DocumentDbConnectionProperties properties = new DocumentDbConnectionProperties();
+        properties.setHostname("localhost");
+        properties.setDatabase(database);
+        properties.setSchemaCacheDir(cacheDir.toString());
+        return properties;
+    }
+}
@@ -17,6 +17,11 @@
 package software.amazon.documentdb.jdbc.persist;
 
 import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
 import org.bson.BsonBinary;
 import org.bson.BsonBoolean;
 import org.bson.BsonDateTime;
@@ -30,15 +35,23 @@ import org.bson.BsonMinKey;
 import org.bson.BsonNull;
 import org.bson.BsonObjectId;
 import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
 import org.bson.types.Decimal128;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import software.amazon.documentdb.jdbc.DocumentDbConnectionProperties;
+import software.amazon.documentdb.jdbc.DocumentDbSchemaEncoding;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironment;
 import software.amazon.documentdb.jdbc.common.test.DocumentDbTestEnvironmentFactory;
 import software.amazon.documentdb.jdbc.metadata.DocumentDbSchema;
@@ -48,15 +61,22 @@ import software.amazon.documentdb.jdbc.metadata.DocumentDbTableSchemaGenerator;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.mongodb.client.model.Filters.in;
 import static software.amazon.documentdb.jdbc.DocumentDbConnectionProperties.getPropertiesFromConnectionString;
 import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchema.SCHEMA_TABLE_ID_SEPARATOR;
+import static software.amazon.documentdb.jdbc.metadata.DocumentDbSchemaTable.COLUMNS_PROPERTY;
+import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaColumnEncoder.COLUMNS_ENCODED_PROPERTY;
+import static software.amazon.documentdb.jdbc.persist.DocumentDbSchemaReader.TABLE_SCHEMA_COLLECTION;
 
 class DocumentDbSchemaWriterTest {
     private static final String DATABASE_NAME = "testDb";
@@ -76,6 +96,9 @@ class DocumentDbSchemaWriterTest {
 
     @AfterEach
     void afterEach() throws SQLException {
+        if (testEnvironment == null) {
+            return;
+        }
         final DocumentDbConnectionProperties properties = getPropertiesFromConnectionString(
                 testEnvironment.getJdbcConnectionString());
         final DocumentDbSchemaWriter schemaWriter = new DocumentDbSchemaWriter(properties, null);
@@ -144,6 +167,164 @@ class DocumentDbSchemaWriterTest {
         }
     }
 
+    @DisplayName("Tests writing table schema in batches and then referencing them from a new version.")
+    @ParameterizedTest(name = "testWriteTablesInBatches - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testWriteTablesInBatches(final DocumentDbTestEnvironment testEnvironment) throws Exception {
+        final DocumentDbConnectionProperties properties = getConnectionProperties(testEnvironment);
+        final Map<String, DocumentDbSchemaTable> firstBatch = getSchemaTableMap("testWriteTablesInBatches1");
+        final Map<String, DocumentDbSchemaTable> secondBatch = getSchemaTableMap("testWriteTablesInBatches2");
+        final DocumentDbSchema schema = new DocumentDbSchema(DATABASE_NAME, 1, firstBatch);
+        final Set<String> tableIds = new LinkedHashSet<>();
+
+        try (DocumentDbSchemaWriter writer = new DocumentDbSchemaWriter(properties, null)) {
+            writer.write(schema, firstBatch.values());
+            writer.writeTables(schema.getSchemaName(), firstBatch.values());
+            writer.writeTables(schema.getSchemaName(), secondBatch.values());
+            firstBatch.values().forEach(table -> tableIds.add(table.getId()));
+            secondBatch.values().forEach(table -> tableIds.add(table.getId()));
+
+            // The tables are not referenced until the new version is written.
+            try (DocumentDbSchemaReader reader = new DocumentDbSchemaReader(properties, null)) {
+                Assertions.assertNull(reader.read(schema.getSchemaName(), 2));
+            }
+            writer.updateTableReferences(schema, tableIds);
+        }
+
+        try (DocumentDbSchemaReader reader = new DocumentDbSchemaReader(properties, null)) {
+            final DocumentDbSchema schema2 = reader.read(schema.getSchemaName(), 2);
+            Assertions.assertNotNull(schema2);
+            Assertions.assertEquals(tableIds, schema2.getTableReferences());
+            Assertions.assertEquals(tableIds.size(),
+                    reader.readTables(schema.getSchemaName(), 2, tableIds).size());
+        }
+    }
+
+    @DisplayName("Tests removing written table schema that no version of the schema references.")
+    @ParameterizedTest(name = "testRemoveUnreferencedTables - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testRemoveUnreferencedTables(final DocumentDbTestEnvironment testEnvironment) throws Exception {
+        final DocumentDbConnectionProperties properties = getConnectionProperties(testEnvironment);
+        final Map<String, DocumentDbSchemaTable> referenced = getSchemaTableMap("testRemoveUnreferencedTables1");
+        final Map<String, DocumentDbSchemaTable> unreferenced = getSchemaTableMap("testRemoveUnreferencedTables2");
+        final DocumentDbSchema schema = new DocumentDbSchema(DATABASE_NAME, 1, referenced);
+        final Set<String> referencedIds = new LinkedHashSet<>(schema.getTableReferences());
+        final Set<String> unreferencedIds = new LinkedHashSet<>();
+        unreferenced.values().forEach(table -> unreferencedIds.add(table.getId()));
+        final Set<String> tableIds = new LinkedHashSet<>(referencedIds);
+        tableIds.addAll(unreferencedIds);
+
+        try (DocumentDbSchemaWriter writer = new DocumentDbSchemaWriter(properties, null)) {
+            writer.write(schema, referenced.values());
+            writer.writeTables(schema.getSchemaName(), unreferenced.values());
+            writer.removeUnreferencedTables(tableIds);
+        }
+
+        try (DocumentDbSchemaReader reader = new DocumentDbSchemaReader(properties, null)) {
+            Assertions.assertEquals(referencedIds.size(),
+                    reader.readTables(schema.getSchemaName(), 1, referencedIds).size());
+            Assertions.assertEquals(0,
+                    reader.readTables(schema.getSchemaName(), 1, unreferencedIds).size());
+        }
+    }
+
+    @DisplayName("Tests writing more table schemas than fit in a single bulk write.")
+    @ParameterizedTest(name = "testWriteTablesInBulkWrites - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testWriteTablesInBulkWrites(final DocumentDbTestEnvironment testEnvironment) throws Exception {
+        final DocumentDbConnectionProperties properties = getConnectionProperties(testEnvironment);
+        final List<DocumentDbSchemaTable> tables = new ArrayList<>();
+        for (int count = 0; count < 5; count++) {
+            tables.addAll(getSchemaTableMap("testWriteTablesInBulkWrites" + count).values());
+        }
+        final List<String> tableIds = tables.stream()
+                .map(DocumentDbSchemaTable::getId)
+                .collect(Collectors.toList());
+
+        try (MongoClient client = testEnvironment.createMongoClient()) {
+            final MongoCollection<Document> collection = DocumentDbSchemaWriter
+                    .getDatabase(client, properties.getDatabase())
+                    .getCollection(TABLE_SCHEMA_COLLECTION);
+            @SuppressWarnings("unchecked")
+            final MongoCollection<Document> tableSchemasCollection = Mockito.mock(
+                    MongoCollection.class, AdditionalAnswers.delegatesTo(collection));
+            try {
+                DocumentDbSchemaWriter.upsertTableSchemas(null, tableSchemasCollection, tables,
+                        DATABASE_NAME, DocumentDbSchemaEncoding.DOCUMENT, 2);
+
+                // Five tables are written in bulk writes of two, two and one table.
+                @SuppressWarnings("unchecked")
+                final ArgumentCaptor<List<WriteModel<Document>>> batches = ArgumentCaptor.forClass(List.class);
+                Mockito.verify(tableSchemasCollection, Mockito.times(3))
+                        .bulkWrite(batches.capture(), Mockito.any(BulkWriteOptions.class));
+                Assertions.assertEquals(Arrays.asList(2, 2, 1), batches.getAllValues().stream()
+                        .map(List::size)
+                        .collect(Collectors.toList()));
+                Assertions.assertEquals(tables.size(), collection.countDocuments(in("_id", tableIds)));
+            } finally {
+                collection.deleteMany(in("_id", tableIds));
+            }
+        }
+    }
+
+    @DisplayName("Tests that an existing table schema is re-encoded when the encoding changes.")
+    @ParameterizedTest(name = "testWriteTablesReEncodes - [{index}] - {arguments}")
+    @MethodSource("getTestEnvironments")
+    void testWriteTablesReEncodes(final DocumentDbTestEnvironment testEnvironment) throws Exception {
+        final DocumentDbConnectionProperties properties = getConnectionProperties(testEnvironment);
+        final List<DocumentDbSchemaTable> tables = new ArrayList<>(
+                getSchemaTableMap("testWriteTablesReEncodes").values());
+        final Bson tableFilter = in("_id", tables.stream()
+                .map(DocumentDbSchemaTable::getId)
+                .collect(Collectors.toList()));
+
+        try (MongoClient client = testEnvironment.createMongoClient()) {
+            final MongoCollection<Document> collection = DocumentDbSchemaWriter
+                    .getDatabase(client, properties.getDatabase())
+                    .getCollection(TABLE_SCHEMA_COLLECTION);
+            try {
+                DocumentDbSchemaWriter.upsertTableSchemas(null, collection, tables,
+                        DATABASE_NAME, DocumentDbSchemaEncoding.DOCUMENT, 2);
+                final Document documentEncoded = collection.find(tableFilter).first();
+                Assertions.assertNotNull(documentEncoded);
+                Assertions.assertTrue(documentEncoded.containsKey(COLUMNS_PROPERTY));
+                Assertions.assertFalse(documentEncoded.containsKey(COLUMNS_ENCODED_PROPERTY));
+
+                DocumentDbSchemaWriter.upsertTableSchemas(null, collection, tables,
+                        DATABASE_NAME, DocumentDbSchemaEncoding.COMPRESSED, 2);
+                final Document compressedEncoded = collection.find(tableFilter).first();
+                Assertions.assertNotNull(compressedEncoded);
+                Assertions.assertFalse(compressedEncoded.containsKey(COLUMNS_PROPERTY));
+                Assertions.assertTrue(DocumentDbSchemaColumnEncoder.isCompressed(
+                        compressedEncoded.get(COLUMNS_ENCODED_PROPERTY, Binary.class).getData()));
+
+                DocumentDbSchemaWriter.upsertTableSchemas(null, collection, tables,
+                        DATABASE_NAME, DocumentDbSchemaEncoding.COMPACT, 2);
+                final Document compactEncoded = collection.find(tableFilter).first();
+                Assertions.assertNotNull(compactEncoded);
+                Assertions.assertFalse(DocumentDbSchemaColumnEncoder.isCompressed(
+                        compactEncoded.get(COLUMNS_ENCODED_PROPERTY, Binary.class).getData()));
+            } finally {
+                collection.deleteMany(tableFilter);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Tests that a failure to probe for transaction support is not wrapped.")
+    void testSupportsMultiDocTransactionsFailure() {
+        final MongoClient client = Mockito.mock(MongoClient.class);
+        final MongoDatabase database = Mockito.mock(MongoDatabase.class);
+        Mockito.when(database.runCommand(Mockito.any(Bson.class)))
+                .thenThrow(new MongoException("buildInfo failed"));
+        Assertions.assertThrows(MongoException.class,
+                () -> DocumentDbSchemaWriter.supportsMultiDocTransactions(client, database));
+        // The failure is not cached.
+        Assertions.assertThrows(MongoException.class,
+                () -> DocumentDbSchemaWriter.supportsMultiDocTransactions(client, database));
+        Mockito.verify(database, Mockito.times(2)).runCommand(Mockito.any(Bson.class));
+    }
+
     @DisplayName("Tests failing to write schema for restricted user.")
     @ParameterizedTest(name = "testWriteSchemaRestrictedUser - [{index}] - {arguments}")
     @MethodSource("getTestEnvironments")
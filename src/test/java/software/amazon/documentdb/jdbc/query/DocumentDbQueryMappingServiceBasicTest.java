@@ -1826,4 +1826,67 @@ public class DocumentDbQueryMappingServiceBasicTest extends DocumentDbQueryMappi
                         "{\"$project\": {\"EXPR$0\": {\"$divide\": [{\"$cond\": [{\"$cond\": [{\"$and\": [{\"$gt\": [\"$_f1\", null]}, {\"$gt\": [{\"$literal\": 0}, null]}]}, {\"$eq\": [\"$_f1\", {\"$literal\": 0}]}, null]}, null, \"$_f0\"]}, \"$_f1\"]}, \"_id\": 0}}"),
                 result.getAggregateOperations().get(4));
     }
+
+    @Test
+    @DisplayName("Tests that EXPLAIN PLAN FOR returns the physical plan with costs and the pipeline.")
+    void testExplain() throws SQLException {
+        final String query = String.format(
+                "SELECT \"%s\" FROM \"%s\".\"%s\" WHERE \"field\" > 1",
+                "field", getDatabaseName(), COLLECTION_NAME + "_array");
+        final String explain = "EXPLAIN PLAN FOR " + query;
+        Assertions.assertTrue(DocumentDbQueryMappingService.isExplain(explain));
+        Assertions.assertTrue(DocumentDbQueryMappingService.isExplain("explain plan\nfor " + query));
+        Assertions.assertFalse(DocumentDbQueryMappingService.isExplain(query));
+
+        final DocumentDbMqlQueryExplanation explanation = queryMapper.explain(explain, 0);
+        Assertions.assertNotNull(explanation);
+        Assertions.assertFalse(explanation.isServerExplain());
+        Assertions.assertTrue(explanation.getPlan().contains("DocumentDbToEnumerableConverter"),
+                explanation.getPlan());
+        Assertions.assertTrue(explanation.getPlan().contains("cumulative cost"), explanation.getPlan());
+        Assertions.assertEquals(COLLECTION_NAME, explanation.getQueryContext().getCollectionName());
+        Assertions.assertEquals(
+                queryMapper.get(query).getAggregateOperations(),
+                explanation.getQueryContext().getAggregateOperations());
+
+        final DocumentDbMqlQueryExplanation allAttributes = queryMapper.explain(
+                "EXPLAIN PLAN INCLUDING ALL ATTRIBUTES FOR " + query, 0);
+        Assertions.assertTrue(allAttributes.isServerExplain());
+    }
+
+    @Test
+    @DisplayName("Tests that a repeated query is translated from the plan cache.")
+    void testPlanCache() throws SQLException {
+        final String query = String.format(
+                "SELECT * FROM \"%s\".\"%s\" WHERE \"%s\" = 'plan  cache'",
+                getDatabaseName(), OTHER_COLLECTION_NAME, OTHER_COLLECTION_NAME + "__id");
+        final DocumentDbMqlQueryContext result = queryMapper.get(query);
+        final long hitCount = DocumentDbQueryMappingService.getPlanCacheStats().hitCount();
+
+        // The same query with other whitespace outside the literal is a cache hit.
+        final DocumentDbMqlQueryContext cachedResult = queryMapper.get("  " + query.replace(" WHERE ", "\n  WHERE\t") + "\n");
+        Assertions.assertEquals(hitCount + 1, DocumentDbQueryMappingService.getPlanCacheStats().hitCount());
+        Assertions.assertNotSame(result, cachedResult);
+        Assertions.assertEquals(result.getCollectionName(), cachedResult.getCollectionName());
+        Assertions.assertEquals(result.getAggregateOperations(), cachedResult.getAggregateOperations());
+        Assertions.assertEquals(result.getPaths(), cachedResult.getPaths());
+
+        // Changing a cached query context does not change the cache.
+        cachedResult.getAggregateOperations().clear();
+        Assertions.assertEquals(result.getAggregateOperations(), queryMapper.get(query).getAggregateOperations());
+
+        // A different literal or row limit is a cache miss.
+        queryMapper.get(query.replace("'plan  cache'", "'plan cache'"));
+        queryMapper.get(query, 10);
+        Assertions.assertEquals(hitCount + 2, DocumentDbQueryMappingService.getPlanCacheStats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Tests that whitespace is only collapsed outside literals and comments.")
+    void testNormalizeSql() {
+        Assertions.assertEquals(
+                "SELECT \"a  b\" FROM t WHERE x = 'c  ''d' -- e  f\nAND y = 1 /* g  h */",
+                DocumentDbQueryMappingService.normalizeSql(
+                        "\n SELECT  \"a  b\"\tFROM t\nWHERE x = 'c  ''d' -- e  f\nAND   y = 1 /* g  h */ "));
+    }
 }
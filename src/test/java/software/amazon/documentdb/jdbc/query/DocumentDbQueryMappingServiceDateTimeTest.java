@@ -249,6 +249,46 @@ public class DocumentDbQueryMappingServiceDateTimeTest extends DocumentDbQueryMa
                 result3.getAggregateOperations().get(0));
     }
 
+    /**
+     * Tests that a query using the current time is translated again on each run.
+     * @throws SQLException occurs if query fails.
+     * @throws InterruptedException occurs if the wait between the queries is interrupted.
+     */
+    @Test
+    @DisplayName("Tests that a query using the current time is translated again on each run.")
+    void testCurrentTimestampNotCached() throws SQLException, InterruptedException {
+        final String currentTimestampQuery =
+                String.format(
+                        "SELECT CURRENT_TIMESTAMP AS \"cts\""
+                                + " FROM \"%s\".\"%s\""
+                                + " WHERE \"field\" < CURRENT_TIMESTAMP",
+                        getDatabaseName(), DATE_COLLECTION_NAME);
+        final DocumentDbMqlQueryContext result1 = queryMapper.get(currentTimestampQuery);
+        Assertions.assertTrue(result1.isCurrentTimeUsed());
+        Thread.sleep(10);
+        final DocumentDbMqlQueryContext result2 = queryMapper.get(currentTimestampQuery);
+        Assertions.assertTrue(result2.isCurrentTimeUsed());
+        Assertions.assertEquals(
+                result1.getAggregateOperations().size(), result2.getAggregateOperations().size());
+        final BsonDateTime cts1 = getLastProjection(result1).getDateTime("cts");
+        final BsonDateTime cts2 = getLastProjection(result2).getDateTime("cts");
+        Assertions.assertTrue(cts2.getValue() > cts1.getValue());
+
+        // A query that does not use the current time is still cached.
+        final String fieldQuery =
+                String.format(
+                        "SELECT \"field\" FROM \"%s\".\"%s\"",
+                        getDatabaseName(), DATE_COLLECTION_NAME);
+        Assertions.assertFalse(queryMapper.get(fieldQuery).isCurrentTimeUsed());
+    }
+
+    private static BsonDocument getLastProjection(final DocumentDbMqlQueryContext context) {
+        final List<Bson> operations = context.getAggregateOperations();
+        return operations.get(operations.size() - 1)
+                .toBsonDocument(BsonDocument.class, null)
+                .getDocument("$project");
+    }
+
     /**
      * Tests TIMESTAMPADD for MONTH, YEAR or QUARTER.
      */